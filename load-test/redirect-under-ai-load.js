@@ -0,0 +1,77 @@
+// 많은 AI 호출이 대기 중일 때 리다이렉트 지연이 유지되는지 확인하는 k6 부하 테스트
+//
+// 실행: k6 run -e BASE_URL=http://localhost:8080 load-test/redirect-under-ai-load.js
+// 비교: VIRTUAL_THREADS_ENABLED=false 로 띄운 서버와 결과를 비교 (플랫폼 스레드 200개 고정)
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const AI_VUS = parseInt(__ENV.AI_VUS || '400', 10);
+const REDIRECT_RATE = parseInt(__ENV.REDIRECT_RATE || '500', 10);
+const DURATION = __ENV.DURATION || '2m';
+
+export const options = {
+    scenarios: {
+        // 베이스라인: AI 부하 없이 리다이렉트만
+        redirect_baseline: {
+            executor: 'constant-arrival-rate',
+            exec: 'redirect',
+            rate: REDIRECT_RATE,
+            timeUnit: '1s',
+            duration: '30s',
+            preAllocatedVUs: 50,
+            maxVUs: 500,
+            tags: { phase: 'baseline' },
+        },
+        // Tomcat 스레드 수보다 많은 AI 요청을 동시에 붙잡아 둠
+        ai_calls: {
+            executor: 'constant-vus',
+            exec: 'ai',
+            vus: AI_VUS,
+            startTime: '30s',
+            duration: DURATION,
+        },
+        redirect_under_ai_load: {
+            executor: 'constant-arrival-rate',
+            exec: 'redirect',
+            rate: REDIRECT_RATE,
+            timeUnit: '1s',
+            startTime: '45s',
+            duration: DURATION,
+            preAllocatedVUs: 50,
+            maxVUs: 500,
+            tags: { phase: 'ai_load' },
+        },
+    },
+    thresholds: {
+        'http_req_duration{scenario:redirect_baseline}': ['p(95)<50'],
+        // AI 호출이 몰려도 리다이렉트 p95 가 베이스라인과 같은 수준이어야 함
+        'http_req_duration{scenario:redirect_under_ai_load}': ['p(95)<50'],
+        'http_req_failed{scenario:redirect_under_ai_load}': ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const login = http.post(`${BASE_URL}/auth/login`,
+        JSON.stringify({ username: __ENV.USERNAME || 'user', password: __ENV.PASSWORD || 'password' }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(login, { 'logged in': (r) => r.status === 200 });
+    const token = login.body;
+
+    const shortened = http.post(`${BASE_URL}/api/shorten`,
+        JSON.stringify({ longUrl: 'https://www.example.com/load-test' }),
+        { headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` } });
+    check(shortened, { 'shortened': (r) => r.status === 201 });
+    return { token, shortKey: shortened.json('shortKey') };
+}
+
+export function redirect(data) {
+    const res = http.get(`${BASE_URL}/${data.shortKey}`, { redirects: 0, tags: { name: 'redirect' } });
+    check(res, { 'redirected': (r) => r.status === 302 });
+}
+
+export function ai(data) {
+    // OpenAI 응답을 기다리는 동안 요청 스레드를 수 초간 점유
+    http.get(`${BASE_URL}/api/chat?message=${encodeURIComponent('Summarize the history of URL shorteners.')}`,
+        { headers: { Authorization: `Bearer ${data.token}` }, timeout: '120s', tags: { name: 'chat' } });
+}
@@ -0,0 +1,166 @@
+package com.example.springmcp.benchmark;
+
+import com.example.springmcp.repository.DocumentChunkRepository;
+import com.example.springmcp.service.ChunkManifest;
+import com.example.springmcp.service.ChunkingService;
+import com.example.springmcp.service.DocumentProcessingService;
+import com.example.springmcp.service.EmbeddingBatcher;
+import com.example.springmcp.service.KeywordSearchService;
+import com.example.springmcp.service.SemanticAnswerCache;
+import com.example.springmcp.service.VectorStoreStatistics;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전체 페이지를 한 번에 읽는 PDF 수집과 페이지 구간 단위 수집의 최대 힙 사용량 비교.
+ *
+ * 텍스트가 가득 찬 PDF 를 만들어 두고 두 방식으로 수집한다. 벡터 저장소와 키워드 색인은 호출을 기록하지 않는
+ * 목(stub-only)이라 저장된 청크가 힙에 남지 않으므로, peakHeapMb 는 수집 과정에서 잡고 있던 메모리만 나타낸다
+ * (힙 메모리 풀별 최대값의 합이라 실제 최대값보다 약간 크지만 두 방식 비교에는 충분하다).
+ * 실행: ./gradlew jmh (결과의 peakHeapMb 열을 비교)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class PdfIngestionMemoryBenchmark {
+
+    @Param({"300", "1000"})
+    public int pages;
+
+    private Path file;
+    private DocumentProcessingService materialized;
+    private DocumentProcessingService streaming;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("ingestion-benchmark", ".pdf");
+        writePdf(file, pages);
+
+        VectorStore vectorStore = Mockito.mock(VectorStore.class, Mockito.withSettings().stubOnly());
+        KeywordSearchService keywordSearchService = Mockito.mock(KeywordSearchService.class, Mockito.withSettings().stubOnly());
+        SemanticAnswerCache answerCache = Mockito.mock(SemanticAnswerCache.class, Mockito.withSettings().stubOnly());
+        RateLimiterRegistry rateLimiters = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(Integer.MAX_VALUE)
+                .limitRefreshPeriod(Duration.ofMinutes(1))
+                .build());
+        EmbeddingBatcher embeddingBatcher = new EmbeddingBatcher(
+                Mockito.mock(EmbeddingModel.class, Mockito.withSettings().stubOnly()), rateLimiters,
+                new SimpleMeterRegistry(), false, 50000, 256, 4, 1, Duration.ofSeconds(1), Duration.ofSeconds(1));
+        // 청크 목록이 비어 있으므로 매번 모든 청크를 새로 저장
+        ChunkManifest chunkManifest = new ChunkManifest(
+                Mockito.mock(DocumentChunkRepository.class, Mockito.withSettings().stubOnly()));
+        VectorStoreStatistics statistics = Mockito.mock(VectorStoreStatistics.class, Mockito.withSettings().stubOnly());
+        ChunkingService chunkingService = new ChunkingService(embeddingBatcher, "token", List.of(),
+                800, 350, 512, 1, 128, 800, 90);
+        materialized = new DocumentProcessingService(vectorStore, keywordSearchService, answerCache, embeddingBatcher,
+                chunkManifest, statistics, chunkingService, false, 16);
+        streaming = new DocumentProcessingService(vectorStore, keywordSearchService, answerCache, embeddingBatcher,
+                chunkManifest, statistics, chunkingService, true, 16);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void allPages(HeapPeak heap) {
+        materialized.processPdfDocument(new FileSystemResource(file), Map.of("category", "benchmark"));
+        heap.record();
+    }
+
+    @Benchmark
+    public void pageWindows(HeapPeak heap) {
+        streaming.processPdfDocument(new FileSystemResource(file), Map.of("category", "benchmark"));
+        heap.record();
+    }
+
+    /**
+     * 호출마다 힙 메모리 풀의 최대값을 초기화하고 수집이 끝난 뒤의 최대값을 보고
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapPeak {
+
+        private static final List<MemoryPoolMXBean> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+
+        public double peakHeapMb;
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            System.gc();
+            HEAP_POOLS.forEach(MemoryPoolMXBean::resetPeakUsage);
+        }
+
+        void record() {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : HEAP_POOLS) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+            peakHeapMb += peak / (1024.0 * 1024.0);
+        }
+    }
+
+    private static void writePdf(Path file, int pageCount) throws IOException {
+        String line = "Spring AI ingestion benchmark text that fills the page with words to split and embed. ";
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int number = 1; number <= pageCount; number++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 9);
+                    content.setLeading(11);
+                    content.newLineAtOffset(36, 760);
+                    for (int row = 0; row < 66; row++) {
+                        content.showText("Page " + number + " line " + row + ": " + line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+    }
+}
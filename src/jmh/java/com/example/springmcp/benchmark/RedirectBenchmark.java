@@ -0,0 +1,95 @@
+package com.example.springmcp.benchmark;
+
+import com.example.springmcp.controller.RedirectFastPathFilter;
+import com.example.springmcp.controller.UrlShortenerController;
+import com.example.springmcp.repository.ClickStatsRepository;
+import com.example.springmcp.repository.UrlEntryRepository;
+import com.example.springmcp.service.ClickEventPipeline;
+import com.example.springmcp.service.MetricsService;
+import com.example.springmcp.service.RedirectCache;
+import com.example.springmcp.service.ShortKeyExistenceFilter;
+import com.example.springmcp.service.VectorStoreStatistics;
+import com.example.springmcp.util.ShortKeyCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 기존 컨트롤러 리다이렉트와 필터 리다이렉트 비교.
+ *
+ * 두 경로 모두 같은 RedirectCache / 메트릭 / 클릭 파이프라인을 사용하고 Mock 요청으로 호출한다.
+ * 컨트롤러 경로는 DispatcherServlet, 인자 바인딩, @Pattern 검증, URI / ResponseEntity 생성을 포함하지만
+ * Spring Security 필터 체인은 빠져 있으므로 실제 서버에서의 차이는 이 결과보다 크다.
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RedirectBenchmark {
+
+    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private MockMvc mockMvc;
+    private RedirectFastPathFilter filter;
+    private final FilterChain unreachableChain = (request, response) -> {
+        throw new IllegalStateException("Redirect request fell through the fast path");
+    };
+    private String controllerPath;
+    private String filterPath;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UrlEntryRepository urlEntryRepository = Mockito.mock(UrlEntryRepository.class);
+        ShortKeyExistenceFilter existenceFilter = new ShortKeyExistenceFilter(urlEntryRepository, meterRegistry,
+                1000, 0.01, Duration.ofSeconds(30), 1000, Duration.ofSeconds(30));
+        RedirectCache redirectCache = new RedirectCache(urlEntryRepository, existenceFilter, meterRegistry,
+                64, Duration.ofMinutes(10), Duration.ofHours(24));
+        MetricsService metricsService = new MetricsService(meterRegistry, Mockito.mock(VectorStoreStatistics.class));
+        // 버퍼를 비우지 않으므로 곧 가득 차지만, 두 경로 모두 같은 record 호출 비용을 가짐
+        ClickEventPipeline clickEventPipeline = new ClickEventPipeline(Mockito.mock(RabbitTemplate.class),
+                Mockito.mock(ClickStatsRepository.class), new ObjectMapper(), meterRegistry, 65536, 5000);
+
+        ShortKeyCodec codec = new ShortKeyCodec(ALPHANUMERIC, 6, "benchmark");
+        String shortKey = codec.encode(42);
+        controllerPath = "/api/shorten/" + shortKey;
+        filterPath = "/" + shortKey;
+        redirectCache.put(shortKey, "https://www.example.com/campaign/landing?utm_source=benchmark");
+
+        UrlShortenerController controller = new UrlShortenerController(null, metricsService, redirectCache, null,
+                new ObjectMapper(), clickEventPipeline, null);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        filter = new RedirectFastPathFilter(codec, redirectCache, clickEventPipeline, metricsService, meterRegistry);
+    }
+
+    @Benchmark
+    public int controllerRedirect() throws Exception {
+        return mockMvc.perform(get(controllerPath)).andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int filterRedirect() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", filterPath);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, unreachableChain);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.springmcp.benchmark;
+
+import com.example.springmcp.util.TextStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 수집 시 페이지 메타데이터 보강과 검색 시 단어 수 계산 비교 (페이지 1000개 분량의 말뭉치).
+ *
+ * legacyEnrichment 는 이전 구현(indexOf 로 순번 찾기, 정규식 분할로 단어 세기, 메타데이터 두 번 복사)이고
+ * singlePassEnrichment 는 순번을 인덱스로 쓰고 TextStatistics 로 글자 / 단어 / 문장 수와 내용 해시를 한 번에 계산한다.
+ * 검색 쪽은 결과마다 정규식으로 단어를 세는 것과 수집 때 저장한 메타데이터를 읽는 것을 비교한다.
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TextStatisticsBenchmark {
+
+    @Param({"1000"})
+    public int pages;
+
+    private final Map<String, Object> uploadMetadata = Map.of(
+            "filename", "manual.pdf",
+            "content_type", "application/pdf",
+            "category", "benchmark");
+
+    private List<String> corpus;
+    private List<Document> documents;
+    private List<Document> searchResults;
+
+    @Setup
+    public void setUp() {
+        corpus = new ArrayList<>(pages);
+        String line = "Spring AI ingestion benchmark text that fills the page with words to split and embed. ";
+        for (int number = 1; number <= pages; number++) {
+            StringBuilder page = new StringBuilder();
+            for (int row = 0; row < 40; row++) {
+                page.append("Page ").append(number).append(" line ").append(row).append(": ").append(line).append('\n');
+            }
+            corpus.add(page.toString());
+        }
+        searchResults = new ArrayList<>(pages);
+        for (String content : corpus) {
+            Map<String, Object> metadata = new HashMap<>(uploadMetadata);
+            TextStatistics.of(content).putInto(metadata);
+            searchResults.add(new Document(content, metadata));
+        }
+    }
+
+    /**
+     * 보강은 메타데이터를 바꾸므로 호출마다 PDF 리더가 만든 것과 같은 페이지 문서를 새로 만듦
+     */
+    @Setup(Level.Invocation)
+    public void readPages() {
+        documents = new ArrayList<>(pages);
+        for (int i = 0; i < corpus.size(); i++) {
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("page_number", i + 1);
+            metadata.put("file_name", "manual.pdf");
+            documents.add(new Document(corpus.get(i), metadata));
+        }
+    }
+
+    @Benchmark
+    public List<Document> legacyEnrichment() {
+        for (Document doc : documents) {
+            Map<String, Object> docMetadata = new HashMap<>(doc.getMetadata());
+            docMetadata.putAll(uploadMetadata);
+            docMetadata.put("processed_at", System.currentTimeMillis());
+            docMetadata.put("chunk_index", documents.indexOf(doc));
+
+            String content = doc.getContent();
+            docMetadata.put("content_length", content.length());
+            docMetadata.put("word_count", content.split("\\s+").length);
+
+            doc.getMetadata().clear();
+            doc.getMetadata().putAll(docMetadata);
+        }
+        return documents;
+    }
+
+    @Benchmark
+    public List<Document> singlePassEnrichment() {
+        long processedAt = System.currentTimeMillis();
+        for (int i = 0; i < documents.size(); i++) {
+            Document doc = documents.get(i);
+            Map<String, Object> docMetadata = doc.getMetadata();
+            docMetadata.putAll(uploadMetadata);
+            docMetadata.put("processed_at", processedAt);
+            docMetadata.put("chunk_index", i);
+            TextStatistics.of(doc.getContent()).putInto(docMetadata);
+        }
+        return documents;
+    }
+
+    @Benchmark
+    public void regexWordCountAtQueryTime(Blackhole blackhole) {
+        for (Document result : searchResults) {
+            blackhole.consume(result.getContent().split("\\s+").length);
+        }
+    }
+
+    @Benchmark
+    public void storedWordCountAtQueryTime(Blackhole blackhole) {
+        for (Document result : searchResults) {
+            blackhole.consume(TextStatistics.fromMetadata(result.getMetadata(), result.getContent()).getWords());
+        }
+    }
+}
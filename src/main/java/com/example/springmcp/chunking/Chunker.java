@@ -0,0 +1,20 @@
+package com.example.springmcp.chunking;
+
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+
+/**
+ * 문서를 임베딩할 청크로 나누는 방식.
+ *
+ * 문서(PDF 페이지 등)마다 따로 나누며, 청크는 원본 문서의 메타데이터를 복사해 갖고 문서 순서와 문서 안의 순서를 유지한다.
+ */
+public interface Chunker {
+
+    /**
+     * 설정(app.chunking.*)과 업로드 파라미터에서 쓰는 이름
+     */
+    String getName();
+
+    List<Document> split(List<Document> documents);
+}
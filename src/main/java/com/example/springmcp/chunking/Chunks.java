@@ -0,0 +1,65 @@
+package com.example.springmcp.chunking;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.springframework.ai.document.Document;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 청크 분할에 공통으로 쓰는 문장 나누기, 토큰 세기, 청크 문서 만들기
+ */
+final class Chunks {
+
+    // 임베딩 모델(text-embedding-ada-002 / 3-*)과 같은 인코딩
+    private static final Encoding ENCODING = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+    private Chunks() {
+    }
+
+    /**
+     * 문장 단위로 나눔. 문장 뒤의 공백은 문장에 붙어 있어 이어 붙이면 원문이 되고, 공백뿐인 조각은 버린다
+     */
+    static List<String> sentences(String text) {
+        List<String> sentences = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return sentences;
+        }
+        BreakIterator iterator = BreakIterator.getSentenceInstance(Locale.ROOT);
+        iterator.setText(text);
+        int start = iterator.first();
+        for (int end = iterator.next(); end != BreakIterator.DONE; start = end, end = iterator.next()) {
+            String sentence = text.substring(start, end);
+            if (!sentence.isBlank()) {
+                sentences.add(sentence);
+            }
+        }
+        return sentences;
+    }
+
+    static int countTokens(String text) {
+        return ENCODING.countTokens(text);
+    }
+
+    static String join(List<String> sentences, int from, int to) {
+        StringBuilder text = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            text.append(sentences.get(i));
+        }
+        return text.toString().strip();
+    }
+
+    /**
+     * source 의 메타데이터와 내용 형식을 복사한 청크 (Spring AI TextSplitter 와 같은 방식)
+     */
+    static Document of(Document source, String text) {
+        Document chunk = new Document(text, new HashMap<>(source.getMetadata()));
+        chunk.setContentFormatter(source.getContentFormatter());
+        return chunk;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.springmcp.chunking;
+
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 이웃한 문장의 임베딩이 크게 달라지는 곳(주제가 바뀌는 곳)에서 나누는 방식.
+ *
+ * 문서의 문장을 모두 임베딩하고, 이웃한 문장 사이의 코사인 거리가 그 문서 거리 분포의 breakpointPercentile 백분위수를
+ * 넘는 곳을 경계로 삼는다. 청크는 minTokens 에 닿기 전에는 나누지 않고 maxTokens 를 넘기 전에는 반드시 나눈다.
+ * maxTokens 보다 긴 문장은 미리 maxTokens 토큰씩 토큰 방식으로 나눈다.
+ * 한 번의 분할에 들어온 모든 문서의 문장을 한 번에 임베딩 요청으로 넘긴다.
+ *
+ * attachEmbeddings 이면 청크에 속한 문장 임베딩의 토큰 수 가중 평균(정규화)을 청크 임베딩으로 달아 둔다. 이번 수집에서
+ * 벡터 저장소는 청크를 다시 임베딩하지 않고 이 벡터를 저장하므로 문서 토큰을 한 번만 임베딩한다. 이 벡터는 메타데이터를
+ * 포함하지 않은 문장들로 만든 근사값이라 임베딩 캐시에는 저장하지 않는다.
+ */
+public class SemanticChunker implements Chunker {
+
+    public static final String NAME = "semantic";
+
+    /**
+     * 텍스트를 입력 순서대로 임베딩 (수집에서는 토큰 예산 / 레이트 리밋을 지키는 EmbeddingBatcher)
+     */
+    @FunctionalInterface
+    public interface Embedder {
+        List<List<Double>> embed(List<String> texts);
+    }
+
+    private final Embedder embedder;
+    private final boolean attachEmbeddings;
+    private final int minTokens;
+    private final int maxTokens;
+    private final double breakpointPercentile;
+    private final TokenChunker longSentenceChunker;
+
+    public SemanticChunker(Embedder embedder, boolean attachEmbeddings, int minTokens, int maxTokens,
+                           double breakpointPercentile, int minChunkSizeChars) {
+        if (minTokens < 0 || maxTokens < 1 || minTokens > maxTokens || breakpointPercentile <= 0 || breakpointPercentile > 100) {
+            throw new IllegalArgumentException("Invalid semantic chunking parameters");
+        }
+        this.embedder = embedder;
+        this.attachEmbeddings = attachEmbeddings;
+        this.minTokens = minTokens;
+        this.maxTokens = maxTokens;
+        this.breakpointPercentile = breakpointPercentile;
+        this.longSentenceChunker = new TokenChunker(maxTokens, minChunkSizeChars);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<Document> split(List<Document> documents) {
+        // 문서마다 문장 목록을 만들고 (긴 문장은 미리 토큰 방식으로 나눔) 전체를 한 번에 임베딩
+        List<List<String>> sentencesByDocument = new ArrayList<>(documents.size());
+        List<String> allSentences = new ArrayList<>();
+        for (Document document : documents) {
+            List<String> sentences = new ArrayList<>();
+            for (String sentence : Chunks.sentences(document.getContent())) {
+                if (Chunks.countTokens(sentence) > maxTokens) {
+                    sentences.addAll(longSentenceChunker.splitText(sentence));
+                } else {
+                    sentences.add(sentence);
+                }
+            }
+            sentencesByDocument.add(sentences);
+            allSentences.addAll(sentences);
+        }
+        if (allSentences.isEmpty()) {
+            return List.of();
+        }
+        List<List<Double>> embeddings = embedder.embed(allSentences);
+        if (embeddings.size() != allSentences.size()) {
+            throw new IllegalStateException("Expected " + allSentences.size() + " sentence embeddings but got " + embeddings.size());
+        }
+
+        List<Document> chunks = new ArrayList<>();
+        int offset = 0;
+        for (int d = 0; d < documents.size(); d++) {
+            List<String> sentences = sentencesByDocument.get(d);
+            List<List<Double>> vectors = embeddings.subList(offset, offset + sentences.size());
+            offset += sentences.size();
+            for (int[] range : boundaries(sentences, vectors)) {
+                Document chunk = Chunks.of(documents.get(d), Chunks.join(sentences, range[0], range[1]));
+                if (attachEmbeddings) {
+                    chunk.setEmbedding(pool(sentences, vectors, range[0], range[1]));
+                }
+                chunks.add(chunk);
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * 청크마다 [시작, 끝) 문장 번호
+     */
+    List<int[]> boundaries(List<String> sentences, List<List<Double>> vectors) {
+        List<int[]> ranges = new ArrayList<>();
+        if (sentences.isEmpty()) {
+            return ranges;
+        }
+        double[] distances = new double[sentences.size() - 1];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = 1 - cosine(vectors.get(i), vectors.get(i + 1));
+        }
+        double threshold = percentile(distances, breakpointPercentile);
+
+        int start = 0;
+        int chunkTokens = Chunks.countTokens(sentences.get(0));
+        for (int i = 1; i < sentences.size(); i++) {
+            int tokens = Chunks.countTokens(sentences.get(i));
+            boolean topicChanged = chunkTokens >= minTokens && distances[i - 1] > threshold;
+            if (topicChanged || chunkTokens + tokens > maxTokens) {
+                ranges.add(new int[]{start, i});
+                start = i;
+                chunkTokens = 0;
+            }
+            chunkTokens += tokens;
+        }
+        ranges.add(new int[]{start, sentences.size()});
+        return ranges;
+    }
+
+    /**
+     * 문장 임베딩의 토큰 수 가중 평균을 단위 벡터로
+     */
+    private static List<Double> pool(List<String> sentences, List<List<Double>> vectors, int from, int to) {
+        double[] sum = new double[vectors.get(from).size()];
+        for (int i = from; i < to; i++) {
+            int weight = Math.max(1, Chunks.countTokens(sentences.get(i)));
+            List<Double> vector = vectors.get(i);
+            for (int j = 0; j < sum.length; j++) {
+                sum[j] += weight * vector.get(j);
+            }
+        }
+        double norm = 0;
+        for (double value : sum) {
+            norm += value * value;
+        }
+        norm = Math.sqrt(norm);
+        List<Double> pooled = new ArrayList<>(sum.length);
+        for (double value : sum) {
+            pooled.add(norm > 0 ? value / norm : 0);
+        }
+        return pooled;
+    }
+
+    private static double cosine(List<Double> a, List<Double> b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.size(); i++) {
+            dot += a.get(i) * b.get(i);
+            normA += a.get(i) * a.get(i);
+            normB += b.get(i) * b.get(i);
+        }
+        return normA > 0 && normB > 0 ? dot / Math.sqrt(normA * normB) : 0;
+    }
+
+    /**
+     * 선형 보간 백분위수 (값이 적어도 최댓값만 경계가 되지 않게). 값이 없으면 경계를 만들지 않도록 무한대
+     */
+    private static double percentile(double[] values, double percentile) {
+        if (values.length == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double rank = percentile / 100 * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * (rank - lower);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.springmcp.chunking;
+
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 문장을 maxTokens 토큰까지 이어 붙여 청크로 만들고, 다음 청크는 앞 청크의 마지막 overlapSentences 문장부터 시작.
+ *
+ * 문장 중간에서 끊지 않으므로 청크가 온전한 문장으로 끝나고, 겹치는 문장이 경계 양쪽의 맥락을 이어 준다.
+ * maxTokens 보다 긴 문장은 maxTokens 토큰씩 토큰 방식으로 나눈다.
+ */
+public class SentenceWindowChunker implements Chunker {
+
+    public static final String NAME = "sentence-window";
+
+    private final int maxTokens;
+    private final int overlapSentences;
+    private final TokenChunker longSentenceChunker;
+
+    public SentenceWindowChunker(int maxTokens, int overlapSentences, int minChunkSizeChars) {
+        if (maxTokens < 1 || overlapSentences < 0) {
+            throw new IllegalArgumentException("Invalid sentence window parameters");
+        }
+        this.maxTokens = maxTokens;
+        this.overlapSentences = overlapSentences;
+        this.longSentenceChunker = new TokenChunker(maxTokens, minChunkSizeChars);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<Document> split(List<Document> documents) {
+        List<Document> chunks = new ArrayList<>();
+        for (Document document : documents) {
+            for (String text : splitText(document.getContent())) {
+                chunks.add(Chunks.of(document, text));
+            }
+        }
+        return chunks;
+    }
+
+    List<String> splitText(String text) {
+        List<String> sentences = Chunks.sentences(text);
+        int[] tokens = new int[sentences.size()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = Chunks.countTokens(sentences.get(i));
+        }
+
+        List<String> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < sentences.size()) {
+            if (tokens[start] > maxTokens) {
+                chunks.addAll(longSentenceChunker.splitText(sentences.get(start)));
+                start++;
+                continue;
+            }
+            int end = start;
+            int windowTokens = 0;
+            while (end < sentences.size() && windowTokens + tokens[end] <= maxTokens) {
+                windowTokens += tokens[end];
+                end++;
+            }
+            chunks.add(Chunks.join(sentences, start, end));
+            if (end >= sentences.size() || tokens[end] > maxTokens) {
+                // 다음이 긴 문장이면 겹칠 문장 없이 넘어감 (겹친 문장만으로 된 청크가 생기지 않게)
+                start = end;
+            } else {
+                start = Math.max(start + 1, end - overlapSentences);
+            }
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.springmcp.chunking;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 토큰 수로 나누는 기본 방식 (Spring AI TokenTextSplitter).
+ *
+ * chunkSize 토큰씩 자른 뒤 minChunkSizeChars 글자를 넘긴 곳의 마지막 문장 부호에서 끊는다. 문서 구조와 관계없이
+ * 크기가 고르지만 문단이나 주제 중간에서 끊길 수 있다. 다른 방식이 한도보다 긴 문장을 나눌 때도 그 방식의 한도로
+ * 만들어 쓴다.
+ */
+public class TokenChunker implements Chunker {
+
+    public static final String NAME = "token";
+
+    private static final int MIN_CHUNK_LENGTH_TO_EMBED = 5;
+    private static final int MAX_NUM_CHUNKS = 10000;
+
+    private final int chunkSize;
+    private final TokenTextSplitter splitter;
+
+    public TokenChunker(int chunkSize, int minChunkSizeChars) {
+        this.chunkSize = chunkSize;
+        this.splitter = new TokenTextSplitter(chunkSize, minChunkSizeChars, MIN_CHUNK_LENGTH_TO_EMBED, MAX_NUM_CHUNKS, true);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<Document> split(List<Document> documents) {
+        return splitter.apply(documents);
+    }
+
+    /**
+     * 조각마다 chunkSize 토큰 이하로 나눔. 잘라 낸 텍스트를 다시 인코딩하면 토큰 수가 달라질 수 있어,
+     * 한도를 넘는 조각은 글자 기준으로 반씩 더 나눈다
+     */
+    List<String> splitText(String text) {
+        List<String> pieces = new ArrayList<>();
+        for (Document chunk : splitter.apply(List.of(new Document(text)))) {
+            addBounded(chunk.getContent(), pieces);
+        }
+        return pieces;
+    }
+
+    private void addBounded(String text, List<String> pieces) {
+        if (Chunks.countTokens(text) <= chunkSize || text.codePointCount(0, text.length()) <= 1) {
+            pieces.add(text);
+            return;
+        }
+        int middle = text.length() / 2;
+        if (Character.isLowSurrogate(text.charAt(middle))) {
+            middle++;
+        }
+        addBounded(text.substring(0, middle), pieces);
+        addBounded(text.substring(middle), pieces);
+    }
+}
@@ -5,6 +5,10 @@ import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -21,6 +25,21 @@ public class RabbitConfig {
     public static final String ROUTING_KEY = "test-routing-key";
     public static final String DLQ_ROUTING_KEY = "test-routing-key.dlq";
 
+    // 리다이렉트 클릭 통계 (노드별 분 단위 집계 → 통계 테이블)
+    public static final String CLICK_STATS_QUEUE_NAME = "click-stats";
+    public static final String CLICK_STATS_DLQ_QUEUE_NAME = "click-stats.dlq";
+    public static final String CLICK_STATS_EXCHANGE_NAME = "click-stats-exchange";
+    public static final String CLICK_STATS_ROUTING_KEY = "click-stats";
+    public static final String CLICK_STATS_DLQ_ROUTING_KEY = "click-stats.dlq";
+
+    // 업로드 문서 비동기 수집 (메시지 본문은 ingestion_job ID)
+    public static final String DOCUMENT_INGESTION_QUEUE_NAME = "document-ingestion";
+    public static final String DOCUMENT_INGESTION_DLQ_QUEUE_NAME = "document-ingestion.dlq";
+    public static final String DOCUMENT_INGESTION_EXCHANGE_NAME = "document-ingestion-exchange";
+    public static final String DOCUMENT_INGESTION_ROUTING_KEY = "document-ingestion";
+    public static final String DOCUMENT_INGESTION_DLQ_ROUTING_KEY = "document-ingestion.dlq";
+    public static final String DOCUMENT_INGESTION_LISTENER_FACTORY = "documentIngestionListenerFactory";
+
     @Bean
     Queue queue() {
         Map<String, Object> args = new HashMap<>();
@@ -53,4 +72,77 @@ public class RabbitConfig {
     Binding dlqBinding(Queue dlqQueue, DirectExchange dlqExchange) {
         return BindingBuilder.bind(dlqQueue).to(dlqExchange).with(DLQ_ROUTING_KEY);
     }
+
+    @Bean
+    Queue clickStatsQueue() {
+        Map<String, Object> args = new HashMap<>();
+        args.put("x-dead-letter-exchange", DLQ_EXCHANGE_NAME);
+        args.put("x-dead-letter-routing-key", CLICK_STATS_DLQ_ROUTING_KEY);
+        return new Queue(CLICK_STATS_QUEUE_NAME, true, false, false, args);
+    }
+
+    @Bean
+    DirectExchange clickStatsExchange() {
+        return new DirectExchange(CLICK_STATS_EXCHANGE_NAME);
+    }
+
+    @Bean
+    Binding clickStatsBinding(Queue clickStatsQueue, DirectExchange clickStatsExchange) {
+        return BindingBuilder.bind(clickStatsQueue).to(clickStatsExchange).with(CLICK_STATS_ROUTING_KEY);
+    }
+
+    @Bean
+    Queue clickStatsDlqQueue() {
+        return new Queue(CLICK_STATS_DLQ_QUEUE_NAME, true);
+    }
+
+    @Bean
+    Binding clickStatsDlqBinding(Queue clickStatsDlqQueue, DirectExchange dlqExchange) {
+        return BindingBuilder.bind(clickStatsDlqQueue).to(dlqExchange).with(CLICK_STATS_DLQ_ROUTING_KEY);
+    }
+
+    @Bean
+    Queue documentIngestionQueue() {
+        Map<String, Object> args = new HashMap<>();
+        args.put("x-dead-letter-exchange", DLQ_EXCHANGE_NAME);
+        args.put("x-dead-letter-routing-key", DOCUMENT_INGESTION_DLQ_ROUTING_KEY);
+        return new Queue(DOCUMENT_INGESTION_QUEUE_NAME, true, false, false, args);
+    }
+
+    @Bean
+    DirectExchange documentIngestionExchange() {
+        return new DirectExchange(DOCUMENT_INGESTION_EXCHANGE_NAME);
+    }
+
+    @Bean
+    Binding documentIngestionBinding(Queue documentIngestionQueue, DirectExchange documentIngestionExchange) {
+        return BindingBuilder.bind(documentIngestionQueue).to(documentIngestionExchange).with(DOCUMENT_INGESTION_ROUTING_KEY);
+    }
+
+    @Bean
+    Queue documentIngestionDlqQueue() {
+        return new Queue(DOCUMENT_INGESTION_DLQ_QUEUE_NAME, true);
+    }
+
+    @Bean
+    Binding documentIngestionDlqBinding(Queue documentIngestionDlqQueue, DirectExchange dlqExchange) {
+        return BindingBuilder.bind(documentIngestionDlqQueue).to(dlqExchange).with(DOCUMENT_INGESTION_DLQ_ROUTING_KEY);
+    }
+
+    /**
+     * 문서 수집 워커용 컨테이너. 작업 하나가 수 분씩 걸리므로 prefetch 를 1 로 두어 대기 중인 작업이
+     * 바쁜 워커에 묶이지 않고 여러 노드의 빈 워커로 나뉘게 한다 (재시도 등 나머지 설정은 spring.rabbitmq.listener.simple)
+     */
+    @Bean(DOCUMENT_INGESTION_LISTENER_FACTORY)
+    SimpleRabbitListenerContainerFactory documentIngestionListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${app.document-ingestion.workers:2}") int workers) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setPrefetchCount(1);
+        factory.setConcurrentConsumers(workers);
+        factory.setMaxConcurrentConsumers(workers);
+        return factory;
+    }
 }
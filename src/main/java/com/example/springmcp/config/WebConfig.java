@@ -1,5 +1,17 @@
 package com.example.springmcp.config;
 
+import com.example.springmcp.controller.BulkheadFilter;
+import com.example.springmcp.controller.RedirectFastPathFilter;
+import com.example.springmcp.service.ClickEventPipeline;
+import com.example.springmcp.service.MetricsService;
+import com.example.springmcp.service.RedirectCache;
+import com.example.springmcp.service.ShortKeyAllocator;
+import com.example.springmcp.service.SubsystemBulkheads;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.LocaleResolver;
@@ -31,4 +43,40 @@ public class WebConfig implements WebMvcConfigurer {
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(localeChangeInterceptor());
     }
-}
\ No newline at end of file
+
+    /**
+     * 공개 리다이렉트(GET /{shortKey})를 Spring Security 필터 체인보다 먼저 처리
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.redirect.fast-path.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RedirectFastPathFilter> redirectFastPathFilter(ShortKeyAllocator shortKeyAllocator,
+                                                                                RedirectCache redirectCache,
+                                                                                ClickEventPipeline clickEventPipeline,
+                                                                                MetricsService metricsService,
+                                                                                MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RedirectFastPathFilter> registration = new FilterRegistrationBean<>(
+                new RedirectFastPathFilter(shortKeyAllocator.getCodec(), redirectCache, clickEventPipeline,
+                        metricsService, meterRegistry));
+        registration.setName("redirectFastPathFilter");
+        registration.addUrlPatterns("/*");
+        registration.setDispatcherTypes(DispatcherType.REQUEST);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    /**
+     * 서브시스템별 동시 실행 한도. 리다이렉트 필터보다 먼저 실행되어 공개 리다이렉트도 한도 안에서 처리
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(SubsystemBulkheads bulkheads,
+                                                                 ShortKeyAllocator shortKeyAllocator) {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(
+                new BulkheadFilter(bulkheads, shortKeyAllocator.getCodec()));
+        registration.setName("bulkheadFilter");
+        registration.addUrlPatterns("/*");
+        registration.setDispatcherTypes(DispatcherType.REQUEST);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+}
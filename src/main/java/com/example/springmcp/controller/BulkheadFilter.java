@@ -0,0 +1,134 @@
+package com.example.springmcp.controller;
+
+import com.example.springmcp.service.SubsystemBulkheads;
+import com.example.springmcp.service.SubsystemBulkheads.Subsystem;
+import com.example.springmcp.util.ShortKeyCodec;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 요청 경로로 서브시스템을 정해 그 서브시스템의 동시 실행 한도 안에서만 처리하는 필터.
+ *
+ * 한도를 넘으면 바로 503 과 Retry-After 로 거절한다. 비동기 응답(스트리밍, SSE)은 응답이 끝날 때 자리를 반납하며,
+ * 걸린 시간과 5xx 여부가 한도 조정에 반영된다. 공개 리다이렉트도 함께 다루도록 리다이렉트 필터보다 먼저 등록된다.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final SubsystemBulkheads bulkheads;
+    private final ShortKeyCodec codec;
+
+    public BulkheadFilter(SubsystemBulkheads bulkheads, ShortKeyCodec codec) {
+        this.bulkheads = bulkheads;
+        this.codec = codec;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Subsystem subsystem = classify(request);
+        if (subsystem == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!bulkheads.tryAcquire(subsystem)) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(subsystem.getId() + " is overloaded, please retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean released = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(subsystem, start));
+                released = true;
+            }
+        } catch (IOException | ServletException | RuntimeException e) {
+            bulkheads.release(subsystem, System.nanoTime() - start, true);
+            released = true;
+            throw e;
+        } finally {
+            if (!released) {
+                bulkheads.release(subsystem, System.nanoTime() - start, response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private Subsystem classify(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        int pathStart = request.getContextPath().length();
+        if (uri.startsWith("/api/shorten", pathStart)) {
+            return Subsystem.SHORTENER;
+        }
+        if (uri.startsWith("/api/chat", pathStart)) {
+            return Subsystem.CHAT;
+        }
+        if (uri.startsWith("/api/rag/documents", pathStart) || uri.startsWith("/api/documents", pathStart)) {
+            return Subsystem.DOCUMENTS;
+        }
+        if (uri.startsWith("/api/rag", pathStart)) {
+            return Subsystem.RAG;
+        }
+        if (uri.startsWith("/api/semantic", pathStart)) {
+            return Subsystem.SEMANTIC_SEARCH;
+        }
+        // 공개 리다이렉트 (GET /{shortKey})
+        int keyStart = pathStart + 1;
+        if (uri.length() > keyStart && uri.charAt(pathStart) == '/' && codec.isWellFormed(uri, keyStart)) {
+            return Subsystem.SHORTENER;
+        }
+        return null;
+    }
+
+    /**
+     * 비동기 응답이 끝나면(정상, 시간 초과, 오류 모두 onComplete 로 끝남) 한 번만 자리를 반납
+     */
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        private final Subsystem subsystem;
+        private final long start;
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        private ReleaseOnComplete(Subsystem subsystem, long start) {
+            this.subsystem = subsystem;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            int status = ((HttpServletResponse) event.getSuppliedResponse()).getStatus();
+            bulkheads.release(subsystem, System.nanoTime() - start, failed.get() || status >= 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed.set(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed.set(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 다시 비동기로 전환되면 같은 리스너를 유지
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -13,22 +13,36 @@ import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.openai.OpenAiChatOptions;
 import com.example.springmcp.service.MetricsService;
+import com.example.springmcp.service.RequestCoalescer;
+import com.example.springmcp.service.SemanticAnswerCache;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @Tag(name = "AI Chat API", description = "Endpoints for interacting with the AI chatbot")
 public class ChatController {
 
+    private static final String STREAM_DONE = "[DONE]";
+
     private final ChatClient chatClient;
     private final MetricsService metricsService;
+    private final SemanticAnswerCache answerCache;
+    private final RequestCoalescer requestCoalescer;
 
     @Autowired
-    public ChatController(ChatClient.Builder chatClientBuilder, MetricsService metricsService) {
+    public ChatController(ChatClient.Builder chatClientBuilder, MetricsService metricsService,
+                          SemanticAnswerCache answerCache, RequestCoalescer requestCoalescer) {
         this.chatClient = chatClientBuilder
                 .defaultOptions(OpenAiChatOptions.builder()
                         .withModel("gpt-4")
@@ -37,6 +51,8 @@ public class ChatController {
                         .build())
                 .build();
         this.metricsService = metricsService;
+        this.answerCache = answerCache;
+        this.requestCoalescer = requestCoalescer;
     }
 
     @Operation(summary = "Get a response from the AI chatbot", 
@@ -44,15 +60,30 @@ public class ChatController {
                security = @SecurityRequirement(name = "bearerAuth"))
     @GetMapping("/api/chat")
     @CircuitBreaker(name = "externalService")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "chat")
     public ResponseEntity<Map<String, Object>> chat(
             @Parameter(description = "The message to send to the AI", example = "What is the capital of France?") 
             @RequestParam(value = "message", defaultValue = "Tell me a joke") String message) {
         
         Timer.Sample sample = metricsService.startAiChatTimer();
         metricsService.recordAiChatRequest();
-        
         try {
+            // 같은 메시지가 동시에 몰리면 모델을 한 번만 호출하고 응답을 함께 사용
+            return requestCoalescer.execute("chat", RequestCoalescer.key(message), () -> answer(message));
+        } finally {
+            metricsService.recordAiChatTime(sample);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> answer(String message) {
+        try {
+            // 거의 같은 질문에 대한 최근 답변이 있으면 모델을 호출하지 않음
+            float[] question = answerCache.embedQuestion(message);
+            Optional<Map<String, Object>> cached = answerCache.find("chat", question, List.of());
+            if (cached.isPresent()) {
+                return ResponseEntity.ok().header(SemanticAnswerCache.HEADER, "HIT").body(cached.get());
+            }
+
             ChatResponse response = chatClient.prompt()
                     .user(message)
                     .call()
@@ -64,19 +95,19 @@ public class ChatController {
                 metricsService.recordAiTokensUsed(totalTokens);
             }
             
-            return ResponseEntity.ok(Map.of(
+            Map<String, Object> body = Map.of(
                 "response", response.getResult().getOutput().getContent(),
                 "model", response.getMetadata().getModel(),
                 "usage", response.getMetadata().getUsage()
-            ));
+            );
+            answerCache.put("chat", question, List.of(), body);
+            return ResponseEntity.ok().header(SemanticAnswerCache.HEADER, "MISS").body(body);
         } catch (Exception e) {
             metricsService.recordAiError("chat_error");
             return ResponseEntity.status(500).body(Map.of(
                 "error", "AI 서비스 처리 중 오류가 발생했습니다.",
                 "details", e.getMessage()
             ));
-        } finally {
-            metricsService.recordAiChatTime(sample);
         }
     }
 
@@ -85,7 +116,7 @@ public class ChatController {
                security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping("/api/chat/template")
     @CircuitBreaker(name = "externalService")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "chat")
     public ResponseEntity<Map<String, Object>> chatWithTemplate(
             @RequestBody Map<String, Object> requestBody) {
         
@@ -114,27 +145,38 @@ public class ChatController {
     }
 
     @Operation(summary = "Stream AI chat response",
-               description = "Returns streaming response from AI for real-time interaction",
+               description = "Streams the AI response token by token as Server-Sent Events. Each 'token' event carries the next piece of text, followed by a single 'done' or 'error' event.",
                security = @SecurityRequirement(name = "bearerAuth"))
-    @GetMapping(value = "/api/chat/stream", produces = "text/plain")
+    @GetMapping(value = "/api/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @CircuitBreaker(name = "externalService")
-    @RateLimiter(name = "default")
-    public ResponseEntity<String> streamChat(
+    @RateLimiter(name = "chat")
+    public Flux<ServerSentEvent<String>> streamChat(
             @Parameter(description = "The message to send to the AI") 
             @RequestParam String message) {
-        
-        try {
-            String response = chatClient.prompt()
-                    .user(message)
-                    .stream()
-                    .content()
-                    .collectList()
-                    .block()
-                    .toString();
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("스트림 처리 중 오류: " + e.getMessage());
-        }
+
+        metricsService.recordAiChatRequest();
+        Timer.Sample sample = metricsService.startAiChatTimer();
+        long start = System.nanoTime();
+        AtomicBoolean firstToken = new AtomicBoolean(true);
+
+        // Spring MVC 가 토큰을 하나씩 요청해 쓰므로(backpressure) 느린 클라이언트 때문에 응답이 메모리에 쌓이지 않고,
+        // 클라이언트가 연결을 끊으면 구독이 취소되어 OpenAI 스트림도 함께 닫힌다
+        return chatClient.prompt()
+                .user(message)
+                .stream()
+                .content()
+                .doOnNext(token -> {
+                    if (firstToken.compareAndSet(true, false)) {
+                        metricsService.recordAiTimeToFirstToken(System.nanoTime() - start);
+                    }
+                })
+                .map(token -> ServerSentEvent.builder(token).event("token").build())
+                .concatWith(Mono.just(ServerSentEvent.builder(STREAM_DONE).event("done").build()))
+                .onErrorResume(e -> {
+                    metricsService.recordAiError("chat_stream_error");
+                    return Mono.just(ServerSentEvent.builder("스트림 처리 중 오류: " + e.getMessage()).event("error").build());
+                })
+                .doOnCancel(metricsService::recordAiChatStreamCancelled)
+                .doFinally(signal -> metricsService.recordAiChatTime(sample));
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,26 @@
 package com.example.springmcp.controller;
 
+import com.example.springmcp.model.IngestionJob;
+import com.example.springmcp.service.ChunkManifest;
+import com.example.springmcp.service.ChunkingService;
+import com.example.springmcp.service.DocumentIngestionService;
 import com.example.springmcp.service.DocumentProcessingService;
+import com.example.springmcp.service.VectorStoreStatistics;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -22,22 +29,37 @@ import java.util.Map;
 public class DocumentController {
 
     private final DocumentProcessingService documentProcessingService;
+    private final DocumentIngestionService documentIngestionService;
+    private final VectorStoreStatistics vectorStoreStatistics;
+    private final ChunkingService chunkingService;
 
     @Autowired
-    public DocumentController(DocumentProcessingService documentProcessingService) {
+    public DocumentController(DocumentProcessingService documentProcessingService,
+                              DocumentIngestionService documentIngestionService,
+                              VectorStoreStatistics vectorStoreStatistics,
+                              ChunkingService chunkingService) {
         this.documentProcessingService = documentProcessingService;
+        this.documentIngestionService = documentIngestionService;
+        this.vectorStoreStatistics = vectorStoreStatistics;
+        this.chunkingService = chunkingService;
     }
 
     @Operation(summary = "Upload and process a PDF document",
-               description = "Uploads a PDF file, processes it, and adds it to the vector store for RAG queries",
+               description = "Uploads a PDF file and queues it for processing into the vector store for RAG queries. "
+                       + "Returns 202 with a job ID; poll /api/documents/jobs/{id} for progress",
                security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping("/upload/pdf")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "documents")
     public ResponseEntity<Map<String, Object>> uploadPdf(
             @Parameter(description = "PDF file to upload") @RequestParam("file") MultipartFile file,
             @Parameter(description = "Document title") @RequestParam(value = "title", required = false) String title,
             @Parameter(description = "Document category") @RequestParam(value = "category", required = false) String category,
-            @Parameter(description = "Document tags") @RequestParam(value = "tags", required = false) String tags) {
+            @Parameter(description = "Document tags") @RequestParam(value = "tags", required = false) String tags,
+            @Parameter(description = "Document ID; uploading again with the same ID replaces that document and only embeds changed chunks. "
+                    + "Defaults to the job ID, so every upload without an ID is a separate document")
+            @RequestParam(value = "documentId", required = false) String documentId,
+            @Parameter(description = "Chunking strategy (token, sentence-window, semantic); defaults to the setting for the content type")
+            @RequestParam(value = "chunking", required = false) String chunking) {
         
         try {
             if (file.isEmpty()) {
@@ -46,12 +68,16 @@ public class DocumentController {
                 ));
             }
 
-            if (!file.getContentType().equals("application/pdf")) {
+            if (!"application/pdf".equals(file.getContentType())) {
                 return ResponseEntity.badRequest().body(Map.of(
                     "error", "PDF 파일만 업로드 가능합니다."
                 ));
             }
 
+            if (!isSupportedChunking(chunking)) {
+                return unsupportedChunking(chunking);
+            }
+
             // 메타데이터 설정
             Map<String, Object> metadata = new HashMap<>();
             metadata.put("filename", file.getOriginalFilename());
@@ -68,43 +94,42 @@ public class DocumentController {
             if (tags != null && !tags.trim().isEmpty()) {
                 metadata.put("tags", tags);
             }
+            if (documentId != null && !documentId.trim().isEmpty()) {
+                metadata.put(ChunkManifest.DOCUMENT_ID, documentId);
+            }
+            if (chunking != null && !chunking.trim().isEmpty()) {
+                metadata.put(ChunkingService.STRATEGY, chunking.trim());
+            }
 
-            // PDF 파일을 Resource로 변환
-            Resource resource = new ByteArrayResource(file.getBytes()) {
-                @Override
-                public String getFilename() {
-                    return file.getOriginalFilename();
-                }
-            };
-
-            // 문서 처리
-            documentProcessingService.processPdfDocument(resource, metadata);
+            // 스풀에 저장하고 수집 작업을 큐에 넣음 (처리는 워커에서)
+            IngestionJob job = documentIngestionService.submit(file, IngestionJob.Parser.PDF, metadata);
 
-            return ResponseEntity.ok(Map.of(
-                "message", "PDF 문서가 성공적으로 처리되어 벡터 스토어에 추가되었습니다.",
-                "filename", file.getOriginalFilename(),
-                "size", file.getSize(),
-                "metadata", metadata
-            ));
+            return accepted(job, "PDF 문서가 업로드되어 처리 대기열에 추가되었습니다.", metadata);
 
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
-                "error", "PDF 처리 중 오류가 발생했습니다.",
+                "error", "PDF 업로드 중 오류가 발생했습니다.",
                 "details", e.getMessage()
             ));
         }
     }
 
     @Operation(summary = "Upload and process any document",
-               description = "Uploads any document file, processes it with Tika, and adds it to the vector store",
+               description = "Uploads any document file and queues it for processing with Tika into the vector store. "
+                       + "Returns 202 with a job ID; poll /api/documents/jobs/{id} for progress",
                security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping("/upload/document")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "documents")
     public ResponseEntity<Map<String, Object>> uploadDocument(
             @Parameter(description = "Document file to upload") @RequestParam("file") MultipartFile file,
             @Parameter(description = "Document title") @RequestParam(value = "title", required = false) String title,
             @Parameter(description = "Document category") @RequestParam(value = "category", required = false) String category,
-            @Parameter(description = "Document tags") @RequestParam(value = "tags", required = false) String tags) {
+            @Parameter(description = "Document tags") @RequestParam(value = "tags", required = false) String tags,
+            @Parameter(description = "Document ID; uploading again with the same ID replaces that document and only embeds changed chunks. "
+                    + "Defaults to the job ID, so every upload without an ID is a separate document")
+            @RequestParam(value = "documentId", required = false) String documentId,
+            @Parameter(description = "Chunking strategy (token, sentence-window, semantic); defaults to the setting for the content type")
+            @RequestParam(value = "chunking", required = false) String chunking) {
         
         try {
             if (file.isEmpty()) {
@@ -113,6 +138,10 @@ public class DocumentController {
                 ));
             }
 
+            if (!isSupportedChunking(chunking)) {
+                return unsupportedChunking(chunking);
+            }
+
             // 메타데이터 설정
             Map<String, Object> metadata = new HashMap<>();
             metadata.put("filename", file.getOriginalFilename());
@@ -129,39 +158,109 @@ public class DocumentController {
             if (tags != null && !tags.trim().isEmpty()) {
                 metadata.put("tags", tags);
             }
+            if (documentId != null && !documentId.trim().isEmpty()) {
+                metadata.put(ChunkManifest.DOCUMENT_ID, documentId);
+            }
+            if (chunking != null && !chunking.trim().isEmpty()) {
+                metadata.put(ChunkingService.STRATEGY, chunking.trim());
+            }
 
-            // 파일을 Resource로 변환
-            Resource resource = new ByteArrayResource(file.getBytes()) {
-                @Override
-                public String getFilename() {
-                    return file.getOriginalFilename();
-                }
-            };
+            // 스풀에 저장하고 수집 작업을 큐에 넣음 (처리는 워커에서)
+            IngestionJob job = documentIngestionService.submit(file, IngestionJob.Parser.TIKA, metadata);
 
-            // 문서 처리
-            documentProcessingService.processDocument(resource, metadata);
+            return accepted(job, "문서가 업로드되어 처리 대기열에 추가되었습니다.", metadata);
 
-            return ResponseEntity.ok(Map.of(
-                "message", "문서가 성공적으로 처리되어 벡터 스토어에 추가되었습니다.",
-                "filename", file.getOriginalFilename(),
-                "size", file.getSize(),
-                "contentType", file.getContentType(),
-                "metadata", metadata
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of(
+                "error", "문서 업로드 중 오류가 발생했습니다.",
+                "details", e.getMessage()
             ));
+        }
+    }
+
+    @Operation(summary = "Upload and process many documents",
+               description = "Uploads several files, or zip / tar(.gz) archives of documents, and queues them as one batch. "
+                       + "Documents are parsed in parallel (PDF page by page, other formats with Tika). "
+                       + "Returns 202 with a batch job ID; poll /api/documents/jobs/{id} for per-document progress",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @PostMapping("/upload/batch")
+    @RateLimiter(name = "documents")
+    public ResponseEntity<Map<String, Object>> uploadBatch(
+            @Parameter(description = "Document files or zip / tar(.gz) archives") @RequestParam("files") List<MultipartFile> files,
+            @Parameter(description = "Document title") @RequestParam(value = "title", required = false) String title,
+            @Parameter(description = "Document category") @RequestParam(value = "category", required = false) String category,
+            @Parameter(description = "Document tags") @RequestParam(value = "tags", required = false) String tags,
+            @Parameter(description = "Chunking strategy (token, sentence-window, semantic); defaults to the setting for each file's content type")
+            @RequestParam(value = "chunking", required = false) String chunking) {
+
+        try {
+            if (!isSupportedChunking(chunking)) {
+                return unsupportedChunking(chunking);
+            }
+
+            // 파일 이름 등 파일별 메타데이터는 수집 서비스가 채움
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("upload_time", System.currentTimeMillis());
 
+            if (title != null && !title.trim().isEmpty()) {
+                metadata.put("title", title);
+            }
+            if (category != null && !category.trim().isEmpty()) {
+                metadata.put("category", category);
+            }
+            if (tags != null && !tags.trim().isEmpty()) {
+                metadata.put("tags", tags);
+            }
+            if (chunking != null && !chunking.trim().isEmpty()) {
+                metadata.put(ChunkingService.STRATEGY, chunking.trim());
+            }
+
+            // 파일마다 스풀에 저장하고 묶음 작업을 큐에 넣음 (처리는 워커에서)
+            IngestionJob job = documentIngestionService.submitBatch(files, metadata);
+
+            return accepted(job, "문서들이 업로드되어 처리 대기열에 추가되었습니다.", metadata);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", e.getMessage()
+            ));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
-                "error", "문서 처리 중 오류가 발생했습니다.",
+                "error", "문서 업로드 중 오류가 발생했습니다.",
                 "details", e.getMessage()
             ));
         }
     }
 
+    @Operation(summary = "Get document ingestion job status",
+               description = "Returns the status and progress (pages parsed, chunks embedded) of an uploaded document. "
+                       + "Batch jobs also list the status of each document",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> getJob(
+            @Parameter(description = "Job ID returned by the upload") @PathVariable String id) {
+
+        return documentIngestionService.findJob(id)
+                .map(job -> {
+                    Map<String, Object> body = jobStatus(job);
+                    if (job.getParser() == IngestionJob.Parser.BATCH) {
+                        body.put("documents", documentIngestionService.findBatchFiles(job.getId()).stream()
+                                .map(DocumentController::jobStatus)
+                                .toList());
+                    }
+                    return ResponseEntity.ok(body);
+                })
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "error", "작업을 찾을 수 없습니다.",
+                    "jobId", id
+                )));
+    }
+
     @Operation(summary = "Process text content",
                description = "Processes plain text content and adds it to the vector store",
                security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping("/process/text")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "documents")
     public ResponseEntity<Map<String, Object>> processText(
             @RequestBody Map<String, Object> requestBody) {
         
@@ -207,7 +306,7 @@ public class DocumentController {
                description = "Fetches content from a URL and processes it for the vector store",
                security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping("/process/url")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "documents")
     public ResponseEntity<Map<String, Object>> processUrl(
             @RequestBody Map<String, Object> requestBody) {
         
@@ -260,20 +359,22 @@ public class DocumentController {
     }
 
     @Operation(summary = "Delete documents by metadata",
-               description = "Deletes documents from vector store based on metadata criteria",
+               description = "Deletes documents from vector store based on metadata criteria "
+                       + "(document_id deletes every chunk of an ingested document)",
                security = @SecurityRequirement(name = "bearerAuth"))
     @DeleteMapping("/delete")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "documents")
     public ResponseEntity<Map<String, Object>> deleteDocuments(
             @Parameter(description = "Metadata key to filter by") @RequestParam String metadataKey,
             @Parameter(description = "Metadata value to match") @RequestParam String metadataValue) {
         
         try {
-            documentProcessingService.deleteDocumentsByMetadata(metadataKey, metadataValue);
+            int deletedChunks = documentProcessingService.deleteDocumentsByMetadata(metadataKey, metadataValue);
             
             return ResponseEntity.ok(Map.of(
                 "message", "문서가 성공적으로 삭제되었습니다.",
-                "criteria", Map.of(metadataKey, metadataValue)
+                "criteria", Map.of(metadataKey, metadataValue),
+                "deletedChunks", deletedChunks
             ));
 
         } catch (Exception e) {
@@ -285,19 +386,24 @@ public class DocumentController {
     }
 
     @Operation(summary = "Get document statistics",
-               description = "Returns statistics about documents in the vector store",
+               description = "Returns chunk counts (total and per category), vector bytes and index size of the vector store. "
+                       + "Counts are kept up to date on ingestion / deletion and reconciled with the store periodically",
                security = @SecurityRequirement(name = "bearerAuth"))
     @GetMapping("/stats")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "documents")
     public ResponseEntity<Map<String, Object>> getDocumentStats() {
         
         try {
-            long documentCount = documentProcessingService.getDocumentCount();
-            
-            return ResponseEntity.ok(Map.of(
-                "totalDocuments", documentCount,
-                "timestamp", System.currentTimeMillis()
-            ));
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("collection", vectorStoreStatistics.getCollection());
+            body.put("totalDocuments", vectorStoreStatistics.getDocumentCount());
+            body.put("categories", vectorStoreStatistics.getCategoryCounts());
+            body.put("dimensions", vectorStoreStatistics.getDimensions());
+            body.put("vectorBytes", vectorStoreStatistics.getVectorBytes());
+            body.put("indexBytes", vectorStoreStatistics.getIndexBytes());
+            body.put("reconciledAt", vectorStoreStatistics.getReconciledAt());
+            body.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.ok(body);
 
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
@@ -306,4 +412,45 @@ public class DocumentController {
             ));
         }
     }
-}
\ No newline at end of file
+
+    private boolean isSupportedChunking(String chunking) {
+        return chunking == null || chunking.trim().isEmpty() || chunkingService.isSupported(chunking);
+    }
+
+    private ResponseEntity<Map<String, Object>> unsupportedChunking(String chunking) {
+        return ResponseEntity.badRequest().body(Map.of(
+            "error", "지원하지 않는 청크 분할 방식입니다: " + chunking,
+            "supported", chunkingService.getStrategies()
+        ));
+    }
+
+    private static ResponseEntity<Map<String, Object>> accepted(IngestionJob job, String message, Map<String, Object> metadata) {
+        String statusUrl = "/api/documents/jobs/" + job.getId();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", message);
+        body.put("jobId", job.getId());
+        body.put("status", job.getStatus());
+        body.put("statusUrl", statusUrl);
+        body.put("filename", job.getFilename());
+        body.put("size", job.getFileSize());
+        body.put("contentType", job.getContentType());
+        body.put("metadata", metadata);
+        return ResponseEntity.accepted().location(URI.create(statusUrl)).body(body);
+    }
+
+    private static Map<String, Object> jobStatus(IngestionJob job) {
+        // 값이 null 일 수 있으므로 Map.of 대신 사용
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("jobId", job.getId());
+        body.put("status", job.getStatus());
+        body.put("filename", job.getFilename());
+        body.put("size", job.getFileSize());
+        body.put("pagesParsed", job.getPagesParsed());
+        body.put("chunksEmbedded", job.getChunksEmbedded());
+        body.put("attempts", job.getAttempts());
+        body.put("error", job.getError());
+        body.put("createdAt", job.getCreatedAt());
+        body.put("updatedAt", job.getUpdatedAt());
+        return body;
+    }
+}
@@ -20,7 +20,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import com.example.springmcp.repository.UrlEntryRepository;
+import com.example.springmcp.search.ReciprocalRankFusion;
+import com.example.springmcp.service.DocumentProcessingService;
+import com.example.springmcp.service.KeywordSearchService;
+import com.example.springmcp.service.RequestCoalescer;
+import com.example.springmcp.service.SemanticAnswerCache;
 
 @RestController
 @Tag(name = "RAG API", description = "Endpoints for Retrieval Augmented Generation")
@@ -28,11 +32,15 @@ public class RagController {
 
     private final ChatClient chatClient;
     private final VectorStore vectorStore;
-    private final UrlEntryRepository urlEntryRepository;
+    private final KeywordSearchService keywordSearchService;
+    private final SemanticAnswerCache answerCache;
+    private final RequestCoalescer requestCoalescer;
+    private final DocumentProcessingService documentProcessingService;
 
     @Autowired
     public RagController(ChatClient.Builder chatClientBuilder, VectorStore vectorStore, 
-                        UrlEntryRepository urlEntryRepository) {
+                        KeywordSearchService keywordSearchService, SemanticAnswerCache answerCache,
+                        RequestCoalescer requestCoalescer, DocumentProcessingService documentProcessingService) {
         this.chatClient = chatClientBuilder
                 .defaultOptions(OpenAiChatOptions.builder()
                         .withModel("gpt-4")
@@ -41,7 +49,10 @@ public class RagController {
                         .build())
                 .build();
         this.vectorStore = vectorStore;
-        this.urlEntryRepository = urlEntryRepository;
+        this.keywordSearchService = keywordSearchService;
+        this.answerCache = answerCache;
+        this.requestCoalescer = requestCoalescer;
+        this.documentProcessingService = documentProcessingService;
     }
 
     @Value("classpath:/prompts/rag-prompt.st")
@@ -90,48 +101,39 @@ public class RagController {
                security = @SecurityRequirement(name = "bearerAuth"))
     @GetMapping("/api/rag")
     @CircuitBreaker(name = "externalService")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "rag")
     public ResponseEntity<Map<String, Object>> rag(
             @Parameter(description = "The question to answer", example = "What is Spring AI?") 
             @RequestParam(value = "message", defaultValue = "What is Spring AI?") String message,
             @Parameter(description = "Maximum number of documents to retrieve", example = "5")
             @RequestParam(value = "maxDocs", defaultValue = "5") int maxDocs) {
-        
+
+        // 같은 질문이 동시에 몰리면 검색과 모델 호출을 한 번만 실행하고 응답을 함께 사용
+        return requestCoalescer.execute("rag", RequestCoalescer.key(message, maxDocs), () -> answer(message, maxDocs));
+    }
+
+    private ResponseEntity<Map<String, Object>> answer(String message, int maxDocs) {
         try {
             Set<String> expandedQueries = expandQuery(message);
-            List<Document> allDocuments = new ArrayList<>();
+            int topK = Math.min(maxDocs, 10);
+            List<List<Document>> rankings = new ArrayList<>();
 
-            // Vector similarity search with enhanced parameters
             for (String query : expandedQueries) {
+                // Vector similarity search with enhanced parameters
                 SearchRequest searchRequest = SearchRequest.query(query)
-                        .withTopK(Math.min(maxDocs, 10))
+                        .withTopK(topK)
                         .withSimilarityThreshold(0.7);
-                        
-                allDocuments.addAll(vectorStore.similaritySearch(searchRequest));
+                rankings.add(vectorStore.similaritySearch(searchRequest));
 
-                // Enhanced keyword search on URL entries
-                allDocuments.addAll(urlEntryRepository.findAll().stream()
-                        .filter(entry -> 
-                            entry.getLongUrl().toLowerCase().contains(query.toLowerCase()) || 
-                            entry.getShortUrl().toLowerCase().contains(query.toLowerCase()))
-                        .map(entry -> new Document(
-                            String.format("URL Mapping: %s -> %s (Created: %s)", 
-                                entry.getShortUrl(), entry.getLongUrl(), entry.getCreatedAt()),
-                            Map.of("type", "url_mapping", "shortUrl", entry.getShortUrl(), 
-                                   "longUrl", entry.getLongUrl())))
-                        .collect(Collectors.toList()));
+                // BM25 keyword search on document chunks and URL entries
+                rankings.add(keywordSearchService.searchDocuments(query, topK));
+                rankings.add(keywordSearchService.searchUrls(query, topK));
             }
 
-            // Remove duplicates and rank documents
-            List<Document> uniqueDocuments = allDocuments.stream()
-                    .collect(Collectors.toMap(
-                        doc -> doc.getContent(),
-                        doc -> doc,
-                        (existing, replacement) -> existing,
-                        LinkedHashMap::new))
-                    .values()
-                    .stream()
+            // 벡터 / 키워드 순위를 RRF 로 합치며 같은 내용은 하나로 모음
+            List<Document> uniqueDocuments = ReciprocalRankFusion.fuse(rankings, Document::getContent).stream()
                     .limit(maxDocs)
+                    .map(ReciprocalRankFusion.Fused::getItem)
                     .collect(Collectors.toList());
 
             String documents = uniqueDocuments.stream()
@@ -146,6 +148,13 @@ public class RagController {
                 ));
             }
 
+            // 비슷한 질문이 같은 문서 집합으로 답변된 적이 있으면 그 답변을 사용
+            float[] question = answerCache.embedQuestion(message);
+            Optional<Map<String, Object>> cached = answerCache.find("rag", question, uniqueDocuments);
+            if (cached.isPresent()) {
+                return ResponseEntity.ok().header(SemanticAnswerCache.HEADER, "HIT").body(cached.get());
+            }
+
             PromptTemplate promptTemplate = new PromptTemplate("""
                 당신은 전문적인 AI 어시스턴트입니다. 다음 문서들을 바탕으로 사용자의 질문에 정확하고 유용한 답변을 제공하세요.
                 
@@ -170,7 +179,7 @@ public class RagController {
                     .call()
                     .content();
 
-            return ResponseEntity.ok(Map.of(
+            Map<String, Object> body = Map.of(
                 "response", response,
                 "documentsFound", uniqueDocuments.size(),
                 "expandedQueries", expandedQueries,
@@ -180,7 +189,9 @@ public class RagController {
                         "metadata", doc.getMetadata()
                     ))
                     .collect(Collectors.toList())
-            ));
+            );
+            answerCache.put("rag", question, uniqueDocuments, body);
+            return ResponseEntity.ok().header(SemanticAnswerCache.HEADER, "MISS").body(body);
 
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
@@ -194,7 +205,7 @@ public class RagController {
                description = "Adds custom documents to the vector database for future RAG queries",
                security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping("/api/rag/documents")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "documents")
     public ResponseEntity<Map<String, Object>> addDocuments(
             @RequestBody Map<String, Object> requestBody) {
         
@@ -202,21 +213,18 @@ public class RagController {
             @SuppressWarnings("unchecked")
             List<Map<String, Object>> documentsData = (List<Map<String, Object>>) requestBody.get("documents");
             
-            List<Document> documents = documentsData.stream()
-                    .map(docData -> {
-                        String content = (String) docData.get("content");
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> metadata = (Map<String, Object>) docData.getOrDefault("metadata", new HashMap<>());
-                        metadata.put("timestamp", System.currentTimeMillis());
-                        return new Document(content, metadata);
-                    })
-                    .collect(Collectors.toList());
-
-            vectorStore.add(documents);
+            // 업로드와 같은 수집 경로 (청크 분할, 청크 목록, 저장소 통계, 키워드 색인, 답변 캐시 무효화)
+            for (Map<String, Object> docData : documentsData) {
+                String content = (String) docData.get("content");
+                @SuppressWarnings("unchecked")
+                Map<String, Object> metadata = new HashMap<>((Map<String, Object>) docData.getOrDefault("metadata", Map.of()));
+                metadata.put("timestamp", System.currentTimeMillis());
+                documentProcessingService.processTextDocument(content, metadata);
+            }
             
             return ResponseEntity.ok(Map.of(
                 "message", "문서가 성공적으로 추가되었습니다.",
-                "documentsAdded", documents.size()
+                "documentsAdded", documentsData.size()
             ));
 
         } catch (Exception e) {
@@ -231,7 +239,7 @@ public class RagController {
                description = "Search for similar documents in the vector store",
                security = @SecurityRequirement(name = "bearerAuth"))
     @GetMapping("/api/rag/search")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "rag")
     public ResponseEntity<Map<String, Object>> searchDocuments(
             @Parameter(description = "Search query") @RequestParam String query,
             @Parameter(description = "Maximum results") @RequestParam(defaultValue = "10") int maxResults,
@@ -0,0 +1,82 @@
+package com.example.springmcp.controller;
+
+import com.example.springmcp.service.ClickEventPipeline;
+import com.example.springmcp.service.MetricsService;
+import com.example.springmcp.service.RedirectCache;
+import com.example.springmcp.util.ShortKeyCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 공개 단축 URL(GET /{shortKey}) 리다이렉트 전용 필터.
+ *
+ * Spring Security 보다 앞에 등록되어 인증, DispatcherServlet, Bean Validation 을 거치지 않는다.
+ * 키 형식은 정규식 대신 코덱의 문자 검사로 확인하고, 리다이렉트 캐시에서 찾은 URL 을 URI / ResponseEntity
+ * 없이 Location 헤더에 바로 쓴다. 키 형식이 아닌 경로는 그대로 다음 필터로 넘긴다.
+ */
+public class RedirectFastPathFilter implements Filter {
+
+    private final ShortKeyCodec codec;
+    private final RedirectCache redirectCache;
+    private final ClickEventPipeline clickEventPipeline;
+    private final MetricsService metricsService;
+    private final Timer redirectTimer;
+
+    public RedirectFastPathFilter(ShortKeyCodec codec, RedirectCache redirectCache, ClickEventPipeline clickEventPipeline,
+                                  MetricsService metricsService, MeterRegistry meterRegistry) {
+        this.codec = codec;
+        this.redirectCache = redirectCache;
+        this.clickEventPipeline = clickEventPipeline;
+        this.metricsService = metricsService;
+        this.redirectTimer = Timer.builder("url_redirect_fast_path_duration")
+                .description("Time taken to answer public short URL redirects")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        int keyStart = request.getContextPath().length() + 1;
+        if (!isRedirectRequest(request, keyStart)) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+        long start = System.nanoTime();
+        String shortKey = request.getRequestURI().substring(keyStart);
+        String longUrl = redirectCache.getLongUrl(shortKey);
+        if (longUrl != null) {
+            response.setStatus(HttpServletResponse.SC_FOUND);
+            response.setHeader(HttpHeaders.LOCATION, longUrl);
+            metricsService.recordUrlAccessed(shortKey);
+            clickEventPipeline.record(shortKey, request.getHeader(HttpHeaders.REFERER), request.getHeader(HttpHeaders.USER_AGENT));
+        } else {
+            // 키 형식의 루트 경로는 이 필터가 전담하므로 다른 핸들러로 넘기지 않음
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            metricsService.recordUrlNotFound();
+        }
+        redirectTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private boolean isRedirectRequest(HttpServletRequest request, int keyStart) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return false;
+        }
+        String uri = request.getRequestURI();
+        return uri.length() > keyStart && uri.charAt(keyStart - 1) == '/' && codec.isWellFormed(uri, keyStart);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.springmcp.controller;
 
 import com.example.springmcp.service.SemanticSearchService;
+import com.example.springmcp.util.TextStatistics;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,7 +32,7 @@ public class SemanticSearchController {
                security = @SecurityRequirement(name = "bearerAuth"))
     @GetMapping("/search")
     @CircuitBreaker(name = "externalService")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "semanticSearch")
     public ResponseEntity<Map<String, Object>> semanticSearch(
             @Parameter(description = "Search query", example = "Spring AI RAG implementation") 
             @RequestParam String query,
@@ -95,7 +96,7 @@ public class SemanticSearchController {
                security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping("/search/advanced")
     @CircuitBreaker(name = "externalService")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "semanticSearch")
     public ResponseEntity<Map<String, Object>> advancedSemanticSearch(
             @RequestBody Map<String, Object> requestBody) {
         
@@ -147,7 +148,8 @@ public class SemanticSearchController {
                         "content", Map.of(
                             "preview", truncateContent(scoredDoc.getDocument().getContent(), 200),
                             "fullLength", scoredDoc.getDocument().getContent().length(),
-                            "wordCount", scoredDoc.getDocument().getContent().split("\\s+").length
+                            "wordCount", TextStatistics.fromMetadata(scoredDoc.getDocument().getMetadata(),
+                                    scoredDoc.getDocument().getContent()).getWords()
                         ),
                         "metadata", scoredDoc.getDocument().getMetadata(),
                         "scoring", Map.of(
@@ -177,7 +179,7 @@ public class SemanticSearchController {
                security = @SecurityRequirement(name = "bearerAuth"))
     @PostMapping("/search/compare")
     @CircuitBreaker(name = "externalService")
-    @RateLimiter(name = "default")
+    @RateLimiter(name = "semanticSearch")
     public ResponseEntity<Map<String, Object>> compareSearchStrategies(
             @RequestBody Map<String, Object> requestBody) {
         
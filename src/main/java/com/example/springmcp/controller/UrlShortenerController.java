@@ -1,26 +1,49 @@
 package com.example.springmcp.controller;
 
+import com.example.springmcp.dto.BatchItemResult;
 import com.example.springmcp.dto.UrlShortenerRequest;
 import com.example.springmcp.dto.UrlShortenerResponse;
+import com.example.springmcp.dto.UrlStatsResponse;
 import com.example.springmcp.model.UrlEntry;
+import com.example.springmcp.service.ClickEventPipeline;
+import com.example.springmcp.service.ClickStatsService;
+import com.example.springmcp.service.RedirectCache;
+import com.example.springmcp.service.UrlBatchShortenerService;
 import com.example.springmcp.service.UrlShortenerService;
 import com.example.springmcp.service.MetricsService;
+import com.example.springmcp.util.JsonArrayReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/shorten")
@@ -30,13 +53,29 @@ public class UrlShortenerController {
 
     private final UrlShortenerService urlShortenerService;
     private final MetricsService metricsService;
+    private final RedirectCache redirectCache;
+    private final UrlBatchShortenerService urlBatchShortenerService;
+    private final ObjectMapper objectMapper;
+    private final ClickEventPipeline clickEventPipeline;
+    private final ClickStatsService clickStatsService;
 
     @Value("${app.base-url}")
     private String baseUrl;
 
-    public UrlShortenerController(UrlShortenerService urlShortenerService, MetricsService metricsService) {
+    @Value("${app.shortener.batch.max-items:1000000}")
+    private int maxBatchItems;
+
+    public UrlShortenerController(UrlShortenerService urlShortenerService, MetricsService metricsService,
+                                  RedirectCache redirectCache, UrlBatchShortenerService urlBatchShortenerService,
+                                  ObjectMapper objectMapper, ClickEventPipeline clickEventPipeline,
+                                  ClickStatsService clickStatsService) {
         this.urlShortenerService = urlShortenerService;
         this.metricsService = metricsService;
+        this.redirectCache = redirectCache;
+        this.urlBatchShortenerService = urlBatchShortenerService;
+        this.objectMapper = objectMapper;
+        this.clickEventPipeline = clickEventPipeline;
+        this.clickStatsService = clickStatsService;
     }
 
     @Operation(summary = "Shorten a URL", description = "Creates a short URL for a given long URL. Optionally, a custom key can be provided.", security = @SecurityRequirement(name = "bearerAuth"))
@@ -44,6 +83,7 @@ public class UrlShortenerController {
     @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
     @ApiResponse(responseCode = "409", description = "Custom key already in use", content = @Content)
     @PostMapping
+    @RateLimiter(name = "shortener")
     public ResponseEntity<UrlShortenerResponse> shortenUrl(@Valid @RequestBody UrlShortenerRequest urlShortenerRequest) {
         Timer.Sample sample = metricsService.startUrlShortenTimer();
         
@@ -70,18 +110,77 @@ public class UrlShortenerController {
         }
     }
 
+    @Operation(summary = "Shorten URLs in bulk", description = "Creates short URLs for many long URLs in one request. The JSON array is read incrementally, items are validated individually and results are streamed back as NDJSON, one line per item in request order. If the array is malformed or longer than the configured maximum, the items read so far are processed and a final failed line reports why the rest were not.", security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Per-item results streamed as NDJSON")
+    @ApiResponse(responseCode = "400", description = "Body is not a JSON array or the array is empty", content = @Content)
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @RateLimiter(name = "shortener")
+    public ResponseEntity<StreamingResponseBody> shortenUrls(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "JSON array of shorten requests",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = UrlShortenerRequest.class))))
+            InputStream requestBody) throws IOException {
+        // 50 만 건 규모의 요청도 목록으로 만들지 않고 읽는 대로 청크 단위로 처리
+        JsonArrayReader<UrlShortenerRequest> requests = new JsonArrayReader<>(requestBody, objectMapper,
+                UrlShortenerRequest.class, maxBatchItems);
+        boolean empty;
+        try {
+            empty = !requests.hasNext();
+        } catch (JsonArrayReader.MalformedArrayException e) {
+            requests.close();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch must be a JSON array of URLs: " + e.getMessage());
+        }
+        if (empty) {
+            requests.close();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch must contain at least one URL");
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (requests) {
+                urlBatchShortenerService.shortenUrls(requests, results -> writeResults(outputStream, results));
+            } catch (JsonArrayReader.MalformedArrayException e) {
+                // 앞서 읽은 항목은 이미 처리되었으므로 나머지를 처리하지 못한 이유를 마지막 줄로 알림
+                writeResults(outputStream, List.of(BatchItemResult.failed(requests.getItemsRead(), null, e.getMessage())));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeResults(OutputStream outputStream, List<BatchItemResult> results) {
+        try {
+            for (BatchItemResult result : results) {
+                if (result.isSuccess()) {
+                    result.setShortUrl(baseUrl + "/api/shorten/" + result.getShortKey());
+                }
+                outputStream.write(objectMapper.writeValueAsBytes(result));
+                outputStream.write('\n');
+            }
+            // 청크 단위로 내보내 클라이언트가 진행 상황을 바로 받을 수 있게 함
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Operation(summary = "Redirect to the original long URL", description = "Redirects to the original long URL associated with the given short key.", security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponse(responseCode = "302", description = "Redirect to original URL")
     @ApiResponse(responseCode = "404", description = "URL not found", content = @Content)
     @GetMapping("/{shortKey}")
-    public ResponseEntity<Void> redirectToLongUrl(@PathVariable @Parameter(description = "The short key of the URL", example = "abc123") @Pattern(regexp = "^[a-zA-Z][a-zA-Z0-9]{5}$", message = "Short key must be 6 alphanumeric characters and start with a letter") String shortKey) {
+    public ResponseEntity<Void> redirectToLongUrl(@PathVariable @Parameter(description = "The short key of the URL", example = "abc123") @Pattern(regexp = "^[a-zA-Z][a-zA-Z0-9]{5}$", message = "Short key must be 6 alphanumeric characters and start with a letter") String shortKey,
+                                                  @RequestHeader(value = HttpHeaders.REFERER, required = false) String referrer,
+                                                  @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent) {
         Timer.Sample sample = metricsService.startUrlResolveTimer();
         
         try {
-            String longUrl = urlShortenerService.getLongUrl(shortKey);
+            // 서비스 프록시(@Cacheable)를 거치지 않고 리다이렉트 전용 캐시에서 바로 조회
+            String longUrl = redirectCache.getLongUrl(shortKey);
             if (longUrl != null) {
                 // 메트릭 기록
                 metricsService.recordUrlAccessed(shortKey);
+                // 클릭 통계는 링 버퍼에 넣기만 하고 집계/저장은 백그라운드에서 처리
+                clickEventPipeline.record(shortKey, referrer, userAgent);
                 return ResponseEntity.status(302).location(URI.create(longUrl)).build();
             } else {
                 // 메트릭 기록
@@ -92,4 +191,16 @@ public class UrlShortenerController {
             metricsService.recordUrlResolveTime(sample);
         }
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Get click statistics", description = "Returns click counts per minute, hour and day window together with the top referrers and user agents over the day window.", security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Click statistics")
+    @ApiResponse(responseCode = "404", description = "URL not found", content = @Content)
+    @GetMapping("/{shortKey}/stats")
+    public ResponseEntity<UrlStatsResponse> getStats(@PathVariable @Parameter(description = "The short key of the URL", example = "abc123") String shortKey,
+                                                     @RequestParam(defaultValue = "60") @Min(1) @Max(2880) int minutes,
+                                                     @RequestParam(defaultValue = "24") @Min(1) @Max(2160) int hours,
+                                                     @RequestParam(defaultValue = "30") @Min(1) @Max(365) int days,
+                                                     @RequestParam(defaultValue = "10") @Min(1) @Max(100) int top) {
+        return ResponseEntity.ok(clickStatsService.getStats(shortKey, minutes, hours, days, top));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.springmcp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * 일괄 단축 요청의 항목별 결과 (NDJSON 한 줄)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+    private int index;
+    private boolean success;
+    private String shortKey;
+    private String longUrl;
+    private String shortUrl;
+    private LocalDateTime createdAt;
+    private String error;
+
+    public BatchItemResult() {
+    }
+
+    public static BatchItemResult created(int index, String shortKey, String longUrl, LocalDateTime createdAt) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.success = true;
+        result.shortKey = shortKey;
+        result.longUrl = longUrl;
+        result.createdAt = createdAt;
+        return result;
+    }
+
+    public static BatchItemResult failed(int index, String longUrl, String error) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.success = false;
+        result.longUrl = longUrl;
+        result.error = error;
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getShortKey() {
+        return shortKey;
+    }
+
+    public void setShortKey(String shortKey) {
+        this.shortKey = shortKey;
+    }
+
+    public String getLongUrl() {
+        return longUrl;
+    }
+
+    public void setLongUrl(String longUrl) {
+        this.longUrl = longUrl;
+    }
+
+    public String getShortUrl() {
+        return shortUrl;
+    }
+
+    public void setShortUrl(String shortUrl) {
+        this.shortUrl = shortUrl;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.springmcp.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 노드에서 집계한 분 단위 클릭 증가분 (RabbitMQ 메시지 본문)
+ */
+public class ClickStatsDelta {
+    private String shortKey;
+    private LocalDateTime bucketStart;
+    private String dimension;
+    private String dimensionValue;
+    private long clicks;
+
+    public ClickStatsDelta() {
+    }
+
+    public ClickStatsDelta(String shortKey, LocalDateTime bucketStart, String dimension, String dimensionValue, long clicks) {
+        this.shortKey = shortKey;
+        this.bucketStart = bucketStart;
+        this.dimension = dimension;
+        this.dimensionValue = dimensionValue;
+        this.clicks = clicks;
+    }
+
+    public String getShortKey() {
+        return shortKey;
+    }
+
+    public void setShortKey(String shortKey) {
+        this.shortKey = shortKey;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public void setDimension(String dimension) {
+        this.dimension = dimension;
+    }
+
+    public String getDimensionValue() {
+        return dimensionValue;
+    }
+
+    public void setDimensionValue(String dimensionValue) {
+        this.dimensionValue = dimensionValue;
+    }
+
+    public long getClicks() {
+        return clicks;
+    }
+
+    public void setClicks(long clicks) {
+        this.clicks = clicks;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.springmcp.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 단축 URL 클릭 통계 (분 / 시간 / 일 구간별 클릭 수와 상위 유입 경로, 클라이언트)
+ */
+public class UrlStatsResponse {
+    private String shortKey;
+    private String longUrl;
+    private LocalDateTime createdAt;
+    private long totalClicks;
+    private List<Bucket> minutes;
+    private List<Bucket> hours;
+    private List<Bucket> days;
+    private List<DimensionCount> topReferrers;
+    private List<DimensionCount> topUserAgents;
+
+    public UrlStatsResponse(String shortKey, String longUrl, LocalDateTime createdAt, long totalClicks,
+                            List<Bucket> minutes, List<Bucket> hours, List<Bucket> days,
+                            List<DimensionCount> topReferrers, List<DimensionCount> topUserAgents) {
+        this.shortKey = shortKey;
+        this.longUrl = longUrl;
+        this.createdAt = createdAt;
+        this.totalClicks = totalClicks;
+        this.minutes = minutes;
+        this.hours = hours;
+        this.days = days;
+        this.topReferrers = topReferrers;
+        this.topUserAgents = topUserAgents;
+    }
+
+    public String getShortKey() {
+        return shortKey;
+    }
+
+    public String getLongUrl() {
+        return longUrl;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * days 구간 전체의 클릭 수
+     */
+    public long getTotalClicks() {
+        return totalClicks;
+    }
+
+    public List<Bucket> getMinutes() {
+        return minutes;
+    }
+
+    public List<Bucket> getHours() {
+        return hours;
+    }
+
+    public List<Bucket> getDays() {
+        return days;
+    }
+
+    public List<DimensionCount> getTopReferrers() {
+        return topReferrers;
+    }
+
+    public List<DimensionCount> getTopUserAgents() {
+        return topUserAgents;
+    }
+
+    public static class Bucket {
+        private final LocalDateTime start;
+        private final long clicks;
+
+        public Bucket(LocalDateTime start, long clicks) {
+            this.start = start;
+            this.clicks = clicks;
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        public long getClicks() {
+            return clicks;
+        }
+    }
+
+    public static class DimensionCount {
+        private final String value;
+        private final long clicks;
+
+        public DimensionCount(String value, long clicks) {
+            this.value = value;
+            this.clicks = clicks;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public long getClicks() {
+            return clicks;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.springmcp.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 클릭 통계 집계 단위와 해당 테이블
+ */
+public enum ClickStatsGranularity {
+    MINUTE("click_stats_minute", ChronoUnit.MINUTES),
+    HOUR("click_stats_hour", ChronoUnit.HOURS),
+    DAY("click_stats_day", ChronoUnit.DAYS);
+
+    private final String tableName;
+    private final ChronoUnit unit;
+
+    ClickStatsGranularity(String tableName, ChronoUnit unit) {
+        this.tableName = tableName;
+        this.unit = unit;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(unit);
+    }
+}
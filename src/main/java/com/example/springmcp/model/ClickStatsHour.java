@@ -0,0 +1,60 @@
+package com.example.springmcp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 단축 키별 시간 단위 클릭 수. ClickStatsRollupService 가 마감된 분 단위 행을 접어 넣는다.
+ */
+@Entity
+@Table(name = "click_stats_hour", indexes = @Index(name = "idx_click_stats_hour_bucket", columnList = "bucketStart"))
+@IdClass(ClickStatsKey.class)
+public class ClickStatsHour {
+
+    @Id
+    @Column(length = 64)
+    private String shortKey;
+
+    @Id
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(length = 16)
+    private String dimension;
+
+    @Id
+    @Column(length = 255)
+    private String dimensionValue;
+
+    @Column(nullable = false)
+    private long clicks;
+
+    public ClickStatsHour() {
+    }
+
+    public String getShortKey() {
+        return shortKey;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public String getDimensionValue() {
+        return dimensionValue;
+    }
+
+    public long getClicks() {
+        return clicks;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.springmcp.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * 클릭 통계 테이블 공통 복합 키 (단축 키, 구간 시작 시각, 차원, 차원 값)
+ */
+public class ClickStatsKey implements Serializable {
+
+    private String shortKey;
+    private LocalDateTime bucketStart;
+    private String dimension;
+    private String dimensionValue;
+
+    public ClickStatsKey() {
+    }
+
+    public ClickStatsKey(String shortKey, LocalDateTime bucketStart, String dimension, String dimensionValue) {
+        this.shortKey = shortKey;
+        this.bucketStart = bucketStart;
+        this.dimension = dimension;
+        this.dimensionValue = dimensionValue;
+    }
+
+    public String getShortKey() {
+        return shortKey;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public String getDimensionValue() {
+        return dimensionValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ClickStatsKey that)) {
+            return false;
+        }
+        return Objects.equals(shortKey, that.shortKey)
+                && Objects.equals(bucketStart, that.bucketStart)
+                && Objects.equals(dimension, that.dimension)
+                && Objects.equals(dimensionValue, that.dimensionValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(shortKey, bucketStart, dimension, dimensionValue);
+    }
+}
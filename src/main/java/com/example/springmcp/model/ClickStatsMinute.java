@@ -0,0 +1,63 @@
+package com.example.springmcp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 단축 키별 분 단위 클릭 수.
+ *
+ * dimension 이 total 인 행이 전체 클릭 수이고, referrer / agent 행은 유입 호스트와 클라이언트 종류별 분포이다.
+ * 행은 ClickStatsRepository 의 upsert 로만 증가한다.
+ */
+@Entity
+@Table(name = "click_stats_minute", indexes = @Index(name = "idx_click_stats_minute_bucket", columnList = "bucketStart"))
+@IdClass(ClickStatsKey.class)
+public class ClickStatsMinute {
+
+    @Id
+    @Column(length = 64)
+    private String shortKey;
+
+    @Id
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(length = 16)
+    private String dimension;
+
+    @Id
+    @Column(length = 255)
+    private String dimensionValue;
+
+    @Column(nullable = false)
+    private long clicks;
+
+    public ClickStatsMinute() {
+    }
+
+    public String getShortKey() {
+        return shortKey;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public String getDimension() {
+        return dimension;
+    }
+
+    public String getDimensionValue() {
+        return dimensionValue;
+    }
+
+    public long getClicks() {
+        return clicks;
+    }
+}
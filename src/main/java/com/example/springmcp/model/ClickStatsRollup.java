@@ -0,0 +1,34 @@
+package com.example.springmcp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 롤업 진행 위치. name 단위(minute, hour)의 구간 중 rolledUpTo 이전은 이미 상위 단위로 접혔다
+ */
+@Entity
+@Table(name = "click_stats_rollup")
+public class ClickStatsRollup {
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime rolledUpTo;
+
+    public ClickStatsRollup() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getRolledUpTo() {
+        return rolledUpTo;
+    }
+}
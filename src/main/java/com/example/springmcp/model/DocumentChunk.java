@@ -0,0 +1,71 @@
+package com.example.springmcp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 문서별 청크 목록의 한 행 (문서 ID, 청크 내용 해시).
+ *
+ * 테이블 스키마를 정의하기 위한 엔티티이고 (V10 / V12 마이그레이션과 같음), 행은 DocumentChunkRepository 의
+ * JDBC upsert / delete 로만 바뀐다.
+ */
+@Entity
+@Table(name = "document_chunk", indexes = {
+        @Index(name = "idx_document_chunk_chunk_id", columnList = "chunkId"),
+        @Index(name = "idx_document_chunk_category", columnList = "category")
+})
+@IdClass(DocumentChunkKey.class)
+public class DocumentChunk {
+
+    @Id
+    @Column(length = 255)
+    private String documentId;
+
+    @Id
+    @Column(columnDefinition = "CHAR(64)")
+    private String contentHash;
+
+    @Column(nullable = false, length = 36)
+    private String chunkId;
+
+    @Column(nullable = false, length = 36)
+    private String generation;
+
+    @Column(length = 255)
+    private String category;
+
+    private LocalDateTime updatedAt;
+
+    public DocumentChunk() {
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public String getChunkId() {
+        return chunkId;
+    }
+
+    public String getGeneration() {
+        return generation;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.springmcp.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 문서 청크 목록의 복합 키 (문서 ID, 청크 내용 해시)
+ */
+public class DocumentChunkKey implements Serializable {
+
+    private String documentId;
+    private String contentHash;
+
+    public DocumentChunkKey() {
+    }
+
+    public DocumentChunkKey(String documentId, String contentHash) {
+        this.documentId = documentId;
+        this.contentHash = contentHash;
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DocumentChunkKey that)) {
+            return false;
+        }
+        return Objects.equals(documentId, that.documentId) && Objects.equals(contentHash, that.contentHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(documentId, contentHash);
+    }
+}
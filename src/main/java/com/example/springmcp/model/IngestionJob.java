@@ -0,0 +1,226 @@
+package com.example.springmcp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 업로드된 문서 한 건의 비동기 수집 작업.
+ *
+ * 업로드 요청은 파일을 스풀 디렉터리에 저장하고 이 행을 QUEUED 로 만든 뒤 작업 ID 를 RabbitMQ 로 보낸다.
+ * 워커가 처리하면서 파싱한 페이지 수와 임베딩한 청크 수를 갱신하고, attempts 는 재전달(노드 중단 포함)을
+ * 넘어 누적되므로 계속 실패하는 문서를 DLQ 로 보내는 기준이 된다.
+ * 여러 파일(또는 압축 파일)을 한 번에 올리면 묶음 작업(BATCH) 하나만 큐에 들어가고, 파일마다 batchId 로
+ * 묶음에 연결된 작업 행이 따로 만들어져 파일별 진행 상황과 시도 횟수를 기록한다.
+ */
+@Entity
+@Table(name = "ingestion_job", indexes = {
+        @Index(name = "idx_ingestion_job_status_updated", columnList = "status, updatedAt"),
+        @Index(name = "idx_ingestion_job_batch", columnList = "batchId")
+})
+public class IngestionJob {
+
+    /**
+     * 파일을 읽는 방식 (PDF 는 페이지 단위, 그 외는 Tika). BATCH 는 파일 없이 묶음에 속한 작업들을 처리
+     */
+    public enum Parser {
+        PDF,
+        TIKA,
+        BATCH
+    }
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    private String filename;
+
+    private String contentType;
+
+    @Column(nullable = false)
+    private long fileSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Parser parser;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private IngestionJobStatus status;
+
+    @Column(length = 1024)
+    private String spoolPath;
+
+    /**
+     * 청크에 붙일 메타데이터 (JSON)
+     */
+    @Column(columnDefinition = "TEXT")
+    private String metadata;
+
+    @Column(nullable = false)
+    private int pagesParsed;
+
+    @Column(nullable = false)
+    private int chunksEmbedded;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 1000)
+    private String error;
+
+    /**
+     * 여러 파일을 한 번에 올린 경우 묶음 작업의 ID
+     */
+    @Column(length = 36)
+    private String batchId;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    public IngestionJob() {
+    }
+
+    public IngestionJob(String id, String filename, String contentType, long fileSize, Parser parser,
+                        String spoolPath, String metadata) {
+        this.id = id;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.fileSize = fileSize;
+        this.parser = parser;
+        this.spoolPath = spoolPath;
+        this.metadata = metadata;
+        this.status = IngestionJobStatus.QUEUED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public Parser getParser() {
+        return parser;
+    }
+
+    public void setParser(Parser parser) {
+        this.parser = parser;
+    }
+
+    public IngestionJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(IngestionJobStatus status) {
+        this.status = status;
+    }
+
+    public String getSpoolPath() {
+        return spoolPath;
+    }
+
+    public void setSpoolPath(String spoolPath) {
+        this.spoolPath = spoolPath;
+    }
+
+    public String getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(String metadata) {
+        this.metadata = metadata;
+    }
+
+    public int getPagesParsed() {
+        return pagesParsed;
+    }
+
+    public void setPagesParsed(int pagesParsed) {
+        this.pagesParsed = pagesParsed;
+    }
+
+    public int getChunksEmbedded() {
+        return chunksEmbedded;
+    }
+
+    public void setChunksEmbedded(int chunksEmbedded) {
+        this.chunksEmbedded = chunksEmbedded;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
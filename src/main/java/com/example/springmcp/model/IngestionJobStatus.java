@@ -0,0 +1,15 @@
+package com.example.springmcp.model;
+
+/**
+ * 문서 수집 작업 상태. COMPLETED / FAILED 는 더 바뀌지 않는다
+ */
+public enum IngestionJobStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -1,18 +1,26 @@
 package com.example.springmcp.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 import org.hibernate.annotations.CreationTimestamp;
 
 @Entity
+// created_at 색인은 ShortKeyExistenceFilter 가 노드마다 주기적으로 최근 키를 읽는 조회용
+@Table(name = "url_entry", indexes = @Index(name = "idx_url_entry_created_at", columnList = "createdAt"))
 public class UrlEntry {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+
+    // 키 충돌은 저장 시 이 UNIQUE 제약의 DataIntegrityViolationException 으로 감지 (운영 스키마는 이 엔티티로 만들어짐)
+    @Column(unique = true, nullable = false)
     private String shortUrl;
     private String longUrl;
 
@@ -0,0 +1,147 @@
+package com.example.springmcp.repository;
+
+import com.example.springmcp.dto.ClickStatsDelta;
+import com.example.springmcp.model.ClickStatsGranularity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 클릭 통계 upsert / 롤업 저장소.
+ *
+ * 증가분을 JDBC 배치의 INSERT ... ON DUPLICATE KEY UPDATE 로 더하므로 여러 노드가 같은 구간을 동시에 써도 합산된다.
+ * click_stats_rollup 의 진행 위치(watermark)보다 오래된 구간의 증가분은 이미 접힌 하위 테이블 대신
+ * 상위 테이블에 바로 더해, 늦게 도착한 이벤트도 롤업에서 빠지지 않게 한다.
+ */
+@Repository
+public class ClickStatsRepository {
+
+    public static final String MINUTE_WATERMARK = "minute";
+    public static final String HOUR_WATERMARK = "hour";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO %s (short_key, bucket_start, dimension, dimension_value, clicks) "
+                    + "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE clicks = clicks + VALUES(clicks)";
+
+    private static final String FOLD_SQL =
+            "INSERT INTO %s (short_key, bucket_start, dimension, dimension_value, clicks) "
+                    + "SELECT * FROM (SELECT short_key, %s AS bucket, dimension, dimension_value, SUM(clicks) AS total "
+                    + "FROM %s WHERE bucket_start >= ? AND bucket_start < ? "
+                    + "GROUP BY short_key, bucket, dimension, dimension_value) AS folded "
+                    + "ON DUPLICATE KEY UPDATE clicks = clicks + folded.total";
+
+    private static final Comparator<ClickStatsDelta> KEY_ORDER = Comparator
+            .comparing(ClickStatsDelta::getShortKey)
+            .thenComparing(ClickStatsDelta::getBucketStart)
+            .thenComparing(ClickStatsDelta::getDimension)
+            .thenComparing(ClickStatsDelta::getDimensionValue);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClickStatsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 분 단위 증가분을 반영. 이미 롤업된 구간의 증가분은 시간 / 일 테이블에 더한다
+     */
+    @Transactional
+    public void upsertMinuteStats(List<ClickStatsDelta> deltas) {
+        // 롤업이 watermark 를 옮기는 동안에는 기다리도록 공유 잠금으로 읽음
+        Map<String, LocalDateTime> watermarks = findWatermarks(" FOR SHARE");
+        LocalDateTime minuteWatermark = watermarks.get(MINUTE_WATERMARK);
+        LocalDateTime hourWatermark = watermarks.get(HOUR_WATERMARK);
+
+        Map<ClickStatsGranularity, List<ClickStatsDelta>> byTable = new EnumMap<>(ClickStatsGranularity.class);
+        for (ClickStatsDelta delta : deltas) {
+            ClickStatsGranularity target = ClickStatsGranularity.MINUTE;
+            if (minuteWatermark != null && delta.getBucketStart().isBefore(minuteWatermark)) {
+                target = hourWatermark != null && ClickStatsGranularity.HOUR.truncate(delta.getBucketStart()).isBefore(hourWatermark)
+                        ? ClickStatsGranularity.DAY
+                        : ClickStatsGranularity.HOUR;
+            }
+            byTable.computeIfAbsent(target, granularity -> new ArrayList<>()).add(
+                    new ClickStatsDelta(delta.getShortKey(), target.truncate(delta.getBucketStart()),
+                            delta.getDimension(), delta.getDimensionValue(), delta.getClicks()));
+        }
+        byTable.forEach(this::upsert);
+    }
+
+    private void upsert(ClickStatsGranularity granularity, List<ClickStatsDelta> deltas) {
+        // 여러 컨슈머가 같은 행을 서로 다른 순서로 잠그면 교착 상태가 생기므로 키 순서로 정렬
+        List<ClickStatsDelta> sorted = deltas.stream().sorted(KEY_ORDER).toList();
+        jdbcTemplate.batchUpdate(UPSERT_SQL.formatted(granularity.getTableName()), sorted, sorted.size(), (ps, delta) -> {
+            ps.setString(1, delta.getShortKey());
+            ps.setTimestamp(2, Timestamp.valueOf(delta.getBucketStart()));
+            ps.setString(3, delta.getDimension());
+            ps.setString(4, delta.getDimensionValue());
+            ps.setLong(5, delta.getClicks());
+        });
+    }
+
+    /**
+     * 롤업 진행 위치 조회. lockClause 로 " FOR UPDATE" / " FOR SHARE" 를 붙일 수 있다
+     */
+    public Map<String, LocalDateTime> findWatermarks(String lockClause) {
+        Map<String, LocalDateTime> watermarks = new HashMap<>();
+        jdbcTemplate.query("SELECT name, rolled_up_to FROM click_stats_rollup" + lockClause,
+                (rs, rowNum) -> watermarks.put(rs.getString("name"), rs.getTimestamp("rolled_up_to").toLocalDateTime()));
+        return watermarks;
+    }
+
+    /**
+     * 진행 위치 행이 없으면 source 테이블의 가장 오래된 구간(없으면 initial)으로 만든다
+     */
+    public void initializeWatermark(String name, ClickStatsGranularity source, LocalDateTime initial) {
+        jdbcTemplate.update("INSERT IGNORE INTO click_stats_rollup (name, rolled_up_to) "
+                        + "SELECT ?, COALESCE(MIN(bucket_start), ?) FROM " + source.getTableName(),
+                name, Timestamp.valueOf(initial));
+    }
+
+    public void updateWatermark(String name, LocalDateTime rolledUpTo) {
+        jdbcTemplate.update("UPDATE click_stats_rollup SET rolled_up_to = ? WHERE name = ?",
+                Timestamp.valueOf(rolledUpTo), name);
+    }
+
+    /**
+     * source 테이블의 [from, to) 구간을 target 단위로 묶어 target 테이블에 더함
+     */
+    public int fold(ClickStatsGranularity source, ClickStatsGranularity target, LocalDateTime from, LocalDateTime to) {
+        String bucketExpression = switch (target) {
+            case HOUR -> "DATE_FORMAT(bucket_start, '%Y-%m-%d %H:00:00')";
+            case DAY -> "DATE(bucket_start)";
+            default -> throw new IllegalArgumentException("Cannot fold into " + target);
+        };
+        return jdbcTemplate.update(FOLD_SQL.formatted(target.getTableName(), bucketExpression, source.getTableName()),
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * 보존 기간이 지난 행을 limit 개까지 삭제
+     */
+    public int deleteOlderThan(ClickStatsGranularity granularity, LocalDateTime before, int limit) {
+        return jdbcTemplate.update("DELETE FROM " + granularity.getTableName() + " WHERE bucket_start < ? LIMIT ?",
+                Timestamp.valueOf(before), limit);
+    }
+
+    /**
+     * 단축 키의 한 차원에 대해 from 이후 구간의 행 조회
+     */
+    public List<ClickStatsDelta> findRows(ClickStatsGranularity granularity, String shortKey, String dimension,
+                                          LocalDateTime from) {
+        return jdbcTemplate.query("SELECT bucket_start, dimension_value, clicks FROM " + granularity.getTableName()
+                        + " WHERE short_key = ? AND bucket_start >= ? AND dimension = ?",
+                (rs, rowNum) -> new ClickStatsDelta(shortKey, rs.getTimestamp("bucket_start").toLocalDateTime(),
+                        dimension, rs.getString("dimension_value"), rs.getLong("clicks")),
+                shortKey, Timestamp.valueOf(from), dimension);
+    }
+}
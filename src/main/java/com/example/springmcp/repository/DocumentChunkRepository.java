@@ -0,0 +1,123 @@
+package com.example.springmcp.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 문서별 청크 목록(document_chunk) 저장소.
+ *
+ * (문서 ID, 청크 내용 해시) 마다 벡터 저장소의 청크 ID 와 마지막으로 그 청크를 확인한 수집 세대를 기록한다.
+ * 한 번의 수집이 끝나면 그 세대로 확인되지 않은 행이 문서에서 사라진 청크다.
+ * 청크를 저장할 때의 category 메타데이터도 함께 두어 벡터 저장소의 카테고리별 청크 수를 이 테이블에서 센다.
+ * 테이블 스키마는 {@link com.example.springmcp.model.DocumentChunk} 엔티티가 정의한다.
+ */
+@Repository
+public class DocumentChunkRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO document_chunk (document_id, content_hash, chunk_id, generation, category, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE chunk_id = VALUES(chunk_id), generation = VALUES(generation), "
+                    + "category = COALESCE(VALUES(category), category), updated_at = VALUES(updated_at)";
+    private static final int IN_CLAUSE_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DocumentChunkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 내용 해시 -> 청크 ID
+     */
+    public Map<String, String> findChunkIds(String documentId) {
+        Map<String, String> chunkIds = new HashMap<>();
+        jdbcTemplate.query("SELECT content_hash, chunk_id FROM document_chunk WHERE document_id = ?",
+                (rs, rowNum) -> chunkIds.put(rs.getString("content_hash"), rs.getString("chunk_id")), documentId);
+        return chunkIds;
+    }
+
+    /**
+     * 청크를 기록하거나, 이미 있으면 이번 세대로 확인된 것으로 표시 (chunkIds: 내용 해시 -> 청크 ID).
+     * category 가 null 이면 기록된 카테고리를 그대로 둔다
+     */
+    public void upsert(String documentId, String generation, String category, Map<String, String> chunkIds) {
+        if (chunkIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<String, String>> entries = new ArrayList<>(chunkIds.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, documentId);
+            ps.setString(2, entry.getKey());
+            ps.setString(3, entry.getValue());
+            ps.setString(4, generation);
+            ps.setString(5, category);
+            ps.setTimestamp(6, now);
+        });
+    }
+
+    /**
+     * generation 이 아닌 세대에서 마지막으로 확인된 청크 ID
+     */
+    public List<String> findStaleChunkIds(String documentId, String generation) {
+        return jdbcTemplate.queryForList(
+                "SELECT chunk_id FROM document_chunk WHERE document_id = ? AND generation <> ?",
+                String.class, documentId, generation);
+    }
+
+    public int deleteStale(String documentId, String generation) {
+        return jdbcTemplate.update("DELETE FROM document_chunk WHERE document_id = ? AND generation <> ?",
+                documentId, generation);
+    }
+
+    public int deleteByDocumentId(String documentId) {
+        return jdbcTemplate.update("DELETE FROM document_chunk WHERE document_id = ?", documentId);
+    }
+
+    /**
+     * 카테고리 -> 청크 수 (카테고리 없이 저장된 청크는 null 키)
+     */
+    public Map<String, Long> countByCategory() {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT category, COUNT(*) AS chunks FROM document_chunk GROUP BY category",
+                (RowCallbackHandler) rs -> counts.put(rs.getString("category"), rs.getLong("chunks")));
+        return counts;
+    }
+
+    /**
+     * chunkIds 중 목록에 있는 청크의 카테고리 -> 청크 수
+     */
+    public Map<String, Long> countByCategory(Collection<String> chunkIds) {
+        Map<String, Long> counts = new HashMap<>();
+        List<String> ids = new ArrayList<>(chunkIds);
+        for (int start = 0; start < ids.size(); start += IN_CLAUSE_SIZE) {
+            List<String> page = ids.subList(start, Math.min(start + IN_CLAUSE_SIZE, ids.size()));
+            String placeholders = String.join(", ", Collections.nCopies(page.size(), "?"));
+            jdbcTemplate.query("SELECT category, COUNT(*) AS chunks FROM document_chunk WHERE chunk_id IN ("
+                            + placeholders + ") GROUP BY category",
+                    (RowCallbackHandler) rs -> counts.merge(rs.getString("category"), rs.getLong("chunks"), Long::sum),
+                    page.toArray());
+        }
+        return counts;
+    }
+
+    public void deleteByChunkIds(Collection<String> chunkIds) {
+        if (chunkIds.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(chunkIds);
+        jdbcTemplate.batchUpdate("DELETE FROM document_chunk WHERE chunk_id = ?", ids, ids.size(),
+                (ps, chunkId) -> ps.setString(1, chunkId));
+    }
+}
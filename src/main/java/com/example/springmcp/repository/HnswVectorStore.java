@@ -0,0 +1,283 @@
+package com.example.springmcp.repository;
+
+import com.example.springmcp.util.HnswIndex;
+import com.example.springmcp.util.MetadataFilterEvaluator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+
+/**
+ * 프로세스 안에서 동작하는 HNSW 기반 VectorStore (local-vector 프로파일).
+ *
+ * 단일 노드 배포나 테스트에서 Chroma 없이 같은 VectorStore 계약(필터 식, 유사도 임계값, 메타데이터의 distance)을
+ * 제공한다. 문서는 EMBED 형식의 내용으로 한 번에 임베딩해 색인에 넣고, 검색은 락 없이 추가와 동시에 진행된다.
+ * 색인과 문서는 주기적으로, 그리고 종료 시 스냅샷 파일로 저장해 재시작할 때 다시 임베딩하지 않고 복원한다.
+ */
+@Repository
+@Profile("local-vector")
+public class HnswVectorStore implements VectorStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(HnswVectorStore.class);
+
+    private static final String INDEX_FILE = "index.hnsw";
+    private static final String DOCUMENTS_FILE = "documents.json";
+    private static final int EMBEDDING_BATCH_SIZE = 100;
+
+    private final EmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+    private final int maxLinks;
+    private final int efConstruction;
+    private final int efSearch;
+    private final boolean snapshotEnabled;
+    private final Path snapshotDirectory;
+    private final Map<String, Integer> nodesById = new ConcurrentHashMap<>();
+    private final Map<Integer, Document> documentsByNode = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile HnswIndex index;
+    private volatile boolean dirty;
+
+    public HnswVectorStore(EmbeddingModel embeddingModel,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.vector-store.local.max-links:16}") int maxLinks,
+                           @Value("${app.vector-store.local.ef-construction:200}") int efConstruction,
+                           @Value("${app.vector-store.local.ef-search:64}") int efSearch,
+                           @Value("${app.vector-store.local.snapshot.enabled:true}") boolean snapshotEnabled,
+                           @Value("${app.vector-store.local.snapshot.directory:data/vector-store}") String snapshotDirectory) {
+        this.embeddingModel = embeddingModel;
+        this.objectMapper = objectMapper;
+        this.maxLinks = maxLinks;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.snapshotEnabled = snapshotEnabled;
+        this.snapshotDirectory = Path.of(snapshotDirectory);
+
+        Gauge.builder("vector_store_local_documents", documentsByNode, Map::size)
+                .description("Documents held by the in-process HNSW vector store")
+                .register(meterRegistry);
+
+        if (snapshotEnabled) {
+            restore();
+        }
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        // 임베딩은 락 밖에서 한 번에 요청
+        List<float[]> vectors = new ArrayList<>(documents.size());
+        for (int start = 0; start < documents.size(); start += EMBEDDING_BATCH_SIZE) {
+            List<String> contents = documents.subList(start, Math.min(start + EMBEDDING_BATCH_SIZE, documents.size()))
+                    .stream()
+                    .map(document -> document.getFormattedContent(MetadataMode.EMBED))
+                    .toList();
+            embeddingModel.embed(contents).forEach(embedding -> vectors.add(toFloats(embedding)));
+        }
+
+        writeLock.lock();
+        try {
+            for (int i = 0; i < documents.size(); i++) {
+                Document document = documents.get(i);
+                int node = index(vectors.get(i).length).add(vectors.get(i));
+                documentsByNode.put(node, document);
+                Integer replaced = nodesById.put(document.getId(), node);
+                if (replaced != null) {
+                    // 같은 ID 로 다시 넣으면 이전 노드를 지움
+                    index.markDeleted(replaced);
+                    documentsByNode.remove(replaced);
+                }
+            }
+            dirty = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Boolean> delete(List<String> idList) {
+        writeLock.lock();
+        try {
+            for (String id : idList) {
+                Integer node = nodesById.remove(id);
+                if (node != null) {
+                    index.markDeleted(node);
+                    documentsByNode.remove(node);
+                    dirty = true;
+                }
+            }
+            return Optional.of(true);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        HnswIndex current = index;
+        if (current == null) {
+            return List.of();
+        }
+        float[] query = toFloats(embeddingModel.embed(request.getQuery()));
+        Filter.Expression filter = request.getFilterExpression();
+        IntPredicate accept = node -> {
+            Document document = documentsByNode.get(node);
+            return document != null && MetadataFilterEvaluator.matches(filter, document.getMetadata());
+        };
+
+        List<Document> results = new ArrayList<>(request.getTopK());
+        for (HnswIndex.Result result : current.search(query, request.getTopK(), Math.max(efSearch, request.getTopK()), accept)) {
+            Document document = documentsByNode.get(result.getId());
+            if (document == null || result.getSimilarity() < request.getSimilarityThreshold()) {
+                continue;
+            }
+            // Chroma 와 같이 거리(1 - 코사인 유사도)를 메타데이터로 돌려줌
+            Map<String, Object> metadata = new HashMap<>(document.getMetadata());
+            metadata.put("distance", 1 - result.getSimilarity());
+            results.add(new Document(document.getId(), document.getContent(), metadata));
+        }
+        return results;
+    }
+
+    public int size() {
+        return documentsByNode.size();
+    }
+
+    /**
+     * 저장된 문서의 복사본 (키워드 색인 재구성 등 전체 목록이 필요한 곳에서 사용)
+     */
+    public List<Document> documents() {
+        return new ArrayList<>(documentsByNode.values());
+    }
+
+    /**
+     * 색인의 벡터 차원. 아직 문서가 없으면 0
+     */
+    public int getDimensions() {
+        HnswIndex current = index;
+        return current != null ? current.getDimensions() : 0;
+    }
+
+    /**
+     * 색인(벡터 + 그래프) 크기. 삭제 표시만 한 노드도 다음 재구성 전까지 공간을 차지한다
+     */
+    public long indexSizeInBytes() {
+        HnswIndex current = index;
+        return current != null ? current.sizeInBytes() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.vector-store.local.snapshot.interval-ms:300000}")
+    public void snapshotIfChanged() {
+        if (snapshotEnabled && dirty) {
+            snapshot();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshotIfChanged();
+    }
+
+    /**
+     * 색인과 문서를 함께 저장. 저장하는 동안 추가 / 삭제는 기다리고 검색은 계속된다
+     */
+    void snapshot() {
+        writeLock.lock();
+        try {
+            if (index == null) {
+                return;
+            }
+            Files.createDirectories(snapshotDirectory);
+            index.snapshot(snapshotDirectory.resolve(INDEX_FILE));
+
+            List<StoredDocument> stored = new ArrayList<>(documentsByNode.size());
+            documentsByNode.forEach((node, document) ->
+                    stored.add(new StoredDocument(node, document.getId(), document.getContent(), document.getMetadata())));
+            Path temp = snapshotDirectory.resolve(DOCUMENTS_FILE + ".tmp");
+            objectMapper.writeValue(temp.toFile(), stored);
+            Files.move(temp, snapshotDirectory.resolve(DOCUMENTS_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+            logger.info("Saved vector store snapshot with {} documents", stored.size());
+        } catch (IOException e) {
+            logger.warn("Could not save vector store snapshot: {}", e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void restore() {
+        Path indexFile = snapshotDirectory.resolve(INDEX_FILE);
+        Path documentsFile = snapshotDirectory.resolve(DOCUMENTS_FILE);
+        if (!Files.exists(indexFile) || !Files.exists(documentsFile)) {
+            return;
+        }
+        try {
+            HnswIndex restored = HnswIndex.restore(indexFile);
+            List<StoredDocument> stored = objectMapper.readValue(documentsFile.toFile(), new TypeReference<>() {});
+            for (StoredDocument document : stored) {
+                documentsByNode.put(document.node(), new Document(document.id(), document.content(), document.metadata()));
+                nodesById.put(document.id(), document.node());
+            }
+            index = restored;
+            logger.info("Restored vector store snapshot with {} documents", stored.size());
+        } catch (IOException | RuntimeException e) {
+            // 스냅샷은 다시 만들 수 있으므로 읽지 못하면 빈 저장소로 시작
+            documentsByNode.clear();
+            nodesById.clear();
+            logger.warn("Ignoring unreadable vector store snapshot in {}: {}", snapshotDirectory, e.getMessage());
+        }
+    }
+
+    /**
+     * 첫 문서가 들어올 때 임베딩 차원을 보고 색인을 만듦 (writeLock 을 잡은 상태에서 호출)
+     */
+    private HnswIndex index(int dimensions) {
+        if (index == null) {
+            index = new HnswIndex(dimensions, maxLinks, efConstruction);
+        } else if (index.getDimensions() != dimensions) {
+            throw new IllegalArgumentException(
+                    "Expected " + index.getDimensions() + " dimensions but got " + dimensions);
+        }
+        return index;
+    }
+
+    private static float[] toFloats(List<Double> embedding) {
+        float[] vector = new float[embedding.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = embedding.get(i).floatValue();
+        }
+        return vector;
+    }
+
+    record StoredDocument(int node, String id, String content, Map<String, Object> metadata) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.springmcp.repository;
+
+import com.example.springmcp.model.IngestionJob;
+import com.example.springmcp.model.IngestionJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface IngestionJobRepository extends JpaRepository<IngestionJob, String> {
+
+    /**
+     * 스풀 파일이 남아 있는 오래된 작업 (실패한 작업의 파일 정리용)
+     */
+    List<IngestionJob> findByStatusAndUpdatedAtBeforeAndSpoolPathIsNotNull(IngestionJobStatus status, LocalDateTime cutoff);
+
+    /**
+     * 묶음 작업에 속한 파일별 작업
+     */
+    List<IngestionJob> findByBatchIdOrderByCreatedAtAsc(String batchId);
+}
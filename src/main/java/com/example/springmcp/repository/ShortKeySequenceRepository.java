@@ -0,0 +1,17 @@
+package com.example.springmcp.repository;
+
+import com.example.springmcp.model.ShortKeySequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ShortKeySequenceRepository extends JpaRepository<ShortKeySequence, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ShortKeySequence s where s.name = :name")
+    Optional<ShortKeySequence> findForUpdate(@Param("name") String name);
+}
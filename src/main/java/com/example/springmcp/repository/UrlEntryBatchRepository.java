@@ -0,0 +1,43 @@
+package com.example.springmcp.repository;
+
+import com.example.springmcp.model.UrlEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * url_entry 대량 INSERT 전용 저장소.
+ *
+ * UrlEntry 의 id 는 IDENTITY 라 Hibernate 가 INSERT 를 배치로 묶지 못하므로 JDBC 로 직접 실행한다.
+ * 드라이버의 rewriteBatchedStatements 옵션이 켜져 있으면 한 배치가 multi-row INSERT 로 전송된다.
+ */
+@Repository
+public class UrlEntryBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO url_entry (short_url, long_url, created_at) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UrlEntryBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 전달된 항목을 하나의 JDBC 배치로 저장. 하나라도 실패하면 DataIntegrityViolationException
+     */
+    public void insertAll(List<UrlEntry> urlEntries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, urlEntries, urlEntries.size(), (ps, urlEntry) -> {
+            ps.setString(1, urlEntry.getShortUrl());
+            ps.setString(2, urlEntry.getLongUrl());
+            ps.setTimestamp(3, Timestamp.valueOf(urlEntry.getCreatedAt()));
+        });
+    }
+
+    public void insert(UrlEntry urlEntry) {
+        jdbcTemplate.update(INSERT_SQL, urlEntry.getShortUrl(), urlEntry.getLongUrl(),
+                Timestamp.valueOf(urlEntry.getCreatedAt()));
+    }
+}
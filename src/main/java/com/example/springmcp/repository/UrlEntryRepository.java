@@ -2,8 +2,43 @@
 package com.example.springmcp.repository;
 
 import com.example.springmcp.model.UrlEntry;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface UrlEntryRepository extends JpaRepository<UrlEntry, Long> {
     UrlEntry findByShortUrl(String shortUrl);
+
+    // MySQL 드라이버는 fetch size 가 Integer.MIN_VALUE 일 때만 결과를 스트리밍함
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select u.shortUrl from UrlEntry u")
+    Stream<String> streamAllShortUrls();
+
+    @Query("select u.shortUrl from UrlEntry u where u.createdAt >= :since")
+    List<String> findShortUrlsCreatedSince(@Param("since") LocalDateTime since);
+
+    @Query("select u.shortUrl from UrlEntry u where u.shortUrl in :shortUrls")
+    List<String> findExistingShortUrls(@Param("shortUrls") Collection<String> shortUrls);
+
+    // ngram FULLTEXT 색인(V8, 운영에서는 UrlEntrySearchIndex 가 생성)을 사용해 관련도 순으로 상위 limit 개만 읽음
+    @Query(value = "select * from url_entry where match(short_url, long_url) against (:query in natural language mode) "
+            + "order by match(short_url, long_url) against (:query in natural language mode) desc limit :limit",
+            nativeQuery = true)
+    List<UrlEntry> searchByKeywords(@Param("query") String query, @Param("limit") int limit);
+
+    // FULLTEXT 색인이 없을 때의 부분 문자열 검색. 전체를 훑지만 최신 순으로 limit 개만 읽음 (pattern 은 호출 측에서 이스케이프)
+    @Query(value = "select * from url_entry where short_url like :pattern or long_url like :pattern "
+            + "order by id desc limit :limit",
+            nativeQuery = true)
+    List<UrlEntry> searchBySubstring(@Param("pattern") String pattern, @Param("limit") int limit);
 }
@@ -0,0 +1,39 @@
+package com.example.springmcp.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * url_entry 의 ngram FULLTEXT 색인(idx_url_entry_fulltext) 관리.
+ *
+ * 운영 스키마는 Flyway 가 아니라 JPA 엔티티로 만들어지는데, JPA 로는 FULLTEXT 색인을 선언할 수 없어
+ * V8 마이그레이션과 같은 DDL 을 애플리케이션이 직접 실행한다.
+ */
+@Repository
+public class UrlEntrySearchIndex {
+
+    static final String INDEX_NAME = "idx_url_entry_fulltext";
+
+    private static final String EXISTS_SQL = "SELECT COUNT(*) FROM information_schema.statistics "
+            + "WHERE table_schema = DATABASE() AND table_name = 'url_entry' AND index_name = ?";
+    private static final String CREATE_SQL =
+            "CREATE FULLTEXT INDEX " + INDEX_NAME + " ON url_entry (short_url, long_url) WITH PARSER ngram";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UrlEntrySearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean exists() {
+        Integer count = jdbcTemplate.queryForObject(EXISTS_SQL, Integer.class, INDEX_NAME);
+        return count != null && count > 0;
+    }
+
+    /**
+     * 색인 생성. 테이블 크기에 비례해 오래 걸릴 수 있으므로 요청 처리 스레드에서 호출하지 않는다
+     */
+    public void create() {
+        jdbcTemplate.execute(CREATE_SQL);
+    }
+}
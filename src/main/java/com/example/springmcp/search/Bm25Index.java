@@ -0,0 +1,189 @@
+package com.example.springmcp.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BM25 로 점수를 매기는 메모리 역색인.
+ *
+ * 용어마다 (문서 번호 → 출현 횟수) 포스팅을 두고, 검색은 질의 용어의 포스팅만 훑으므로 비용이 전체 문서 수나
+ * 문서 길이가 아니라 포스팅 길이에 비례한다. 같은 ID 로 다시 넣으면 이전 내용을 대체한다.
+ * 추가 / 삭제는 쓰기 락, 검색은 읽기 락으로 보호한다.
+ *
+ * @param <T> 검색 결과로 돌려줄 문서 값
+ */
+public class Bm25Index<T> {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+    private final Map<String, Integer> numbersById = new HashMap<>();
+    private final Map<Integer, Entry<T>> entries = new HashMap<>();
+    private long totalLength;
+    private int nextNumber;
+
+    public void put(String id, String text, T value) {
+        List<String> tokens = TextTokenizer.tokenize(text);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            int number = nextNumber++;
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(number, frequency));
+            numbersById.put(id, number);
+            entries.put(number, new Entry<>(id, tokens.size(), frequencies.keySet().toArray(String[]::new), value));
+            totalLength += tokens.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String id) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(String id) {
+        lock.readLock().lock();
+        try {
+            return numbersById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 지금 들어 있는 문서 ID 의 복사본
+     */
+    public Set<String> ids() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(numbersById.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 질의와 관련된 문서를 BM25 점수 내림차순으로 최대 limit 개 반환
+     */
+    public List<Hit<T>> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TextTokenizer.tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = entries.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+            for (String term : terms) {
+                Map<Integer, Integer> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                int documentFrequency = termPostings.size();
+                double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                termPostings.forEach((number, frequency) -> {
+                    double lengthNorm = 1 - B + B * entries.get(number).length / averageLength;
+                    double score = idf * frequency * (K1 + 1) / (frequency + K1 * lengthNorm);
+                    scores.merge(number, score, Double::sum);
+                });
+            }
+
+            PriorityQueue<Map.Entry<Integer, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Integer, Double> score : scores.entrySet()) {
+                top.add(score);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Hit<T>> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Map.Entry<Integer, Double> score = top.poll();
+                Entry<T> entry = entries.get(score.getKey());
+                hits.add(new Hit<>(entry.id, entry.value, score.getValue()));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean removeLocked(String id) {
+        Integer number = numbersById.remove(id);
+        if (number == null) {
+            return false;
+        }
+        Entry<T> entry = entries.remove(number);
+        for (String term : entry.terms) {
+            Map<Integer, Integer> termPostings = postings.get(term);
+            termPostings.remove(number);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= entry.length;
+        return true;
+    }
+
+    public static final class Hit<T> {
+        private final String id;
+        private final T value;
+        private final double score;
+
+        Hit(String id, T value, double score) {
+            this.id = id;
+            this.value = value;
+            this.score = score;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    private record Entry<T>(String id, int length, String[] terms, T value) {
+    }
+}
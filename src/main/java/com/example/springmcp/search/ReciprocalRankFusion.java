@@ -0,0 +1,61 @@
+package com.example.springmcp.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 여러 검색 결과 순위를 Reciprocal Rank Fusion 으로 합치는 유틸리티.
+ *
+ * 각 순위 목록에서 r 번째(1부터)인 항목에 1 / (k + r) 점을 더한다. 점수 척도가 다른 벡터 유사도와 BM25 를
+ * 정규화 없이 합칠 수 있고, 여러 목록에서 고르게 상위에 있는 항목이 앞에 온다.
+ */
+public final class ReciprocalRankFusion {
+
+    /** 원 논문(Cormack et al.)에서 제안한 값 */
+    public static final int DEFAULT_K = 60;
+
+    private ReciprocalRankFusion() {
+    }
+
+    /**
+     * @param key 같은 항목을 알아보는 키. 여러 목록에 나온 항목은 처음 본 값을 결과로 사용
+     * @return 융합 점수 내림차순 결과
+     */
+    public static <T> List<Fused<T>> fuse(List<? extends List<? extends T>> rankings, Function<? super T, String> key, int k) {
+        Map<String, Fused<T>> fused = new LinkedHashMap<>();
+        for (List<? extends T> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                T item = ranking.get(rank);
+                double score = 1.0 / (k + rank + 1);
+                fused.computeIfAbsent(key.apply(item), id -> new Fused<>(item)).score += score;
+            }
+        }
+        List<Fused<T>> results = new ArrayList<>(fused.values());
+        results.sort((a, b) -> Double.compare(b.score, a.score));
+        return results;
+    }
+
+    public static <T> List<Fused<T>> fuse(List<? extends List<? extends T>> rankings, Function<? super T, String> key) {
+        return fuse(rankings, key, DEFAULT_K);
+    }
+
+    public static final class Fused<T> {
+        private final T item;
+        private double score;
+
+        private Fused(T item) {
+            this.item = item;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.springmcp.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 한국어 / 영어 혼합 텍스트용 키워드 토크나이저.
+ *
+ * NFKC 정규화와 소문자 변환 후 문자 / 숫자가 아닌 곳에서 나눈다. 라틴 문자와 숫자는 단어 단위로 쓰고 흔한 영어
+ * 불용어는 버린다. 한글(및 한자 / 가나)은 형태소 분석기 없이 조사가 붙은 어절도 찾을 수 있도록 글자 바이그램으로
+ * 나눈다 ("검색을" → "검색", "색을"). URL 은 구분 문자에서 나뉘어 도메인과 경로 조각이 각각 토큰이 된다.
+ */
+public final class TextTokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or",
+            "that", "the", "this", "to", "was", "with", "what", "how", "www", "http", "https");
+
+    private TextTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        int length = normalized.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = normalized.codePointAt(i);
+            if (!Character.isLetterOrDigit(codePoint)) {
+                i += Character.charCount(codePoint);
+                continue;
+            }
+            boolean cjk = isCjk(codePoint);
+            int start = i;
+            while (i < length) {
+                int next = normalized.codePointAt(i);
+                if (!Character.isLetterOrDigit(next) || isCjk(next) != cjk) {
+                    break;
+                }
+                i += Character.charCount(next);
+            }
+            if (cjk) {
+                addBigrams(normalized.substring(start, i), tokens);
+            } else {
+                String word = normalized.substring(start, i);
+                if (!STOP_WORDS.contains(word)) {
+                    tokens.add(word);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static void addBigrams(String run, List<String> tokens) {
+        int[] codePoints = run.codePoints().toArray();
+        if (codePoints.length == 1) {
+            tokens.add(run);
+            return;
+        }
+        for (int j = 0; j + 1 < codePoints.length; j++) {
+            tokens.add(new String(codePoints, j, 2));
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HANGUL
+                || script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA;
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.util.EmbeddingKey;
+import com.example.springmcp.util.MappedEmbeddingStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.openai.OpenAiEmbeddingModel;
+import org.springframework.ai.openai.OpenAiEmbeddingOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 내용 해시로 임베딩을 캐시하는 EmbeddingModel.
+ *
+ * (모델, 정규화한 텍스트)의 SHA-256 을 키로 힙의 float[] 캐시와 메모리 맵 디스크 캐시를 차례로 확인하고,
+ * 둘 다 없는 텍스트만 모아 OpenAI 에 한 번에 요청한다. @Primary 로 등록되어 벡터 저장소, 시맨틱 검색,
+ * 문서 처리 등 EmbeddingModel 을 주입받는 모든 곳이 캐시를 거친다.
+ *
+ * 시맨틱 분할의 청크 벡터처럼 모델이 아닌 곳에서 만든 근사 벡터는 캐시에 저장하지 않고, withPrecomputed 로
+ * 그 작업을 실행하는 스레드 안에서만 돌려준다. 캐시에는 모델이 만든 임베딩만 들어간다.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "app.embedding-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingEmbeddingModel.class);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // 항목당 고정 오버헤드 (노드, 키, 배열 헤더) 추정치
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final OpenAiEmbeddingModel delegate;
+    private final String defaultModel;
+    private final Cache<EmbeddingKey, float[]> memoryCache;
+    private final Path diskDirectory;
+    private final long maxDiskBytes;
+    private final Map<Integer, MappedEmbeddingStore> diskStores = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<EmbeddingKey, float[]>> precomputed = new ThreadLocal<>();
+    private volatile boolean diskEnabled;
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+
+    public CachingEmbeddingModel(OpenAiEmbeddingModel delegate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.ai.openai.embedding.options.model:text-embedding-ada-002}") String defaultModel,
+                                 @Value("${app.embedding-cache.max-memory-mb:256}") long maxMemoryMb,
+                                 @Value("${app.embedding-cache.disk.enabled:true}") boolean diskEnabled,
+                                 @Value("${app.embedding-cache.disk.directory:data/embedding-cache}") String diskDirectory,
+                                 @Value("${app.embedding-cache.disk.max-size-mb:2048}") long maxDiskMb) {
+        this.delegate = delegate;
+        this.defaultModel = defaultModel;
+        this.memoryCache = Caffeine.newBuilder()
+                .maximumWeight(maxMemoryMb * 1024 * 1024)
+                .weigher((EmbeddingKey key, float[] vector) -> ENTRY_OVERHEAD_BYTES + vector.length * Float.BYTES)
+                .recordStats()
+                .build();
+        this.diskEnabled = diskEnabled;
+        this.diskDirectory = Path.of(diskDirectory);
+        this.maxDiskBytes = maxDiskMb * 1024 * 1024;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, memoryCache, "embedding");
+        this.memoryHits = lookupCounter(meterRegistry, "memory");
+        this.diskHits = lookupCounter(meterRegistry, "disk");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        Gauge.builder("embedding_cache_disk_entries", diskStores,
+                        stores -> stores.values().stream().mapToInt(MappedEmbeddingStore::size).sum())
+                .description("Embeddings stored in the memory-mapped disk cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        String model = modelOf(request.getOptions());
+        List<String> inputs = request.getInstructions();
+        float[][] vectors = new float[inputs.size()][];
+
+        // 캐시에 없는 텍스트만 모으고, 같은 요청 안의 중복 텍스트는 한 번만 요청
+        Map<EmbeddingKey, List<Integer>> missingPositions = new LinkedHashMap<>();
+        Map<EmbeddingKey, String> missingTexts = new LinkedHashMap<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            String text = normalize(inputs.get(i));
+            EmbeddingKey key = EmbeddingKey.of(model, text);
+            vectors[i] = precomputed(key);
+            if (vectors[i] == null) {
+                vectors[i] = lookup(key);
+            }
+            if (vectors[i] == null) {
+                missingPositions.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                missingTexts.putIfAbsent(key, text);
+            }
+        }
+
+        EmbeddingResponse delegateResponse = null;
+        if (!missingTexts.isEmpty()) {
+            List<EmbeddingKey> keys = new ArrayList<>(missingTexts.keySet());
+            delegateResponse = delegate.call(new EmbeddingRequest(new ArrayList<>(missingTexts.values()), request.getOptions()));
+            List<Embedding> results = delegateResponse.getResults();
+            for (int j = 0; j < results.size(); j++) {
+                Embedding result = results.get(j);
+                int position = result.getIndex() != null ? result.getIndex() : j;
+                EmbeddingKey key = keys.get(position);
+                float[] vector = toFloats(result.getOutput());
+                store(key, vector);
+                for (int i : missingPositions.get(key)) {
+                    vectors[i] = vector;
+                }
+            }
+        }
+
+        List<Embedding> embeddings = new ArrayList<>(vectors.length);
+        for (int i = 0; i < vectors.length; i++) {
+            if (vectors[i] == null) {
+                throw new IllegalStateException("Embedding model returned no embedding for input " + i);
+            }
+            embeddings.add(new Embedding(toDoubles(vectors[i]), i));
+        }
+        return delegateResponse != null
+                ? new EmbeddingResponse(embeddings, delegateResponse.getMetadata())
+                : new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public List<Double> embed(Document document) {
+        // OpenAiEmbeddingModel 과 같은 방식으로 메타데이터를 포함한 내용을 키로 사용
+        EmbeddingKey key = EmbeddingKey.of(defaultModel, normalize(document.getFormattedContent(MetadataMode.EMBED)));
+        float[] vector = precomputed(key);
+        if (vector == null) {
+            vector = lookup(key);
+        }
+        if (vector == null) {
+            vector = toFloats(delegate.embed(document));
+            store(key, vector);
+        }
+        return toDoubles(vector);
+    }
+
+    /**
+     * action 을 실행하는 동안 이 스레드에서 embeddings 의 텍스트를 임베딩하면 모델 대신 주어진 벡터를 돌려줌.
+     * 시맨틱 분할의 청크 벡터(문장 임베딩의 가중 평균)처럼 모델 출력이 아닌 근사값을 이번 저장에만 쓰려는 것으로,
+     * 메모리 / 디스크 캐시에는 저장하지 않으므로 이후 같은 텍스트의 임베딩(다른 방식으로 다시 올린 문서, 색인 재구성 등)은
+     * 모델이 만든다
+     */
+    public void withPrecomputed(Map<String, List<Double>> embeddings, Runnable action) {
+        Map<EmbeddingKey, float[]> previous = precomputed.get();
+        Map<EmbeddingKey, float[]> vectors = previous != null ? new HashMap<>(previous) : new HashMap<>();
+        embeddings.forEach((text, embedding) -> vectors.put(EmbeddingKey.of(defaultModel, normalize(text)), toFloats(embedding)));
+        precomputed.set(vectors);
+        try {
+            action.run();
+        } finally {
+            if (previous != null) {
+                precomputed.set(previous);
+            } else {
+                precomputed.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        diskStores.values().forEach(store -> {
+            try {
+                store.close();
+            } catch (IOException e) {
+                logger.warn("Could not close embedding disk cache: {}", e.getMessage());
+            }
+        });
+    }
+
+    private float[] precomputed(EmbeddingKey key) {
+        Map<EmbeddingKey, float[]> vectors = precomputed.get();
+        return vectors != null ? vectors.get(key) : null;
+    }
+
+    private float[] lookup(EmbeddingKey key) {
+        float[] vector = memoryCache.getIfPresent(key);
+        if (vector != null) {
+            memoryHits.increment();
+            return vector;
+        }
+        if (diskEnabled) {
+            for (MappedEmbeddingStore store : diskStores.values()) {
+                vector = store.get(key);
+                if (vector != null) {
+                    diskHits.increment();
+                    memoryCache.put(key, vector);
+                    return vector;
+                }
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    private void store(EmbeddingKey key, float[] vector) {
+        memoryCache.put(key, vector);
+        if (!diskEnabled) {
+            return;
+        }
+        try {
+            // 벡터 차원마다 파일을 따로 둠 (모델을 바꿔도 기존 파일은 그대로 사용 가능)
+            MappedEmbeddingStore store = diskStores.computeIfAbsent(vector.length, this::openDiskStore);
+            store.put(key, vector);
+        } catch (IOException | RuntimeException e) {
+            // 디스크 캐시는 선택 사항이므로 문제가 생기면 메모리 캐시만 사용
+            diskEnabled = false;
+            logger.warn("Disabling embedding disk cache: {}", e.getMessage());
+        }
+    }
+
+    private MappedEmbeddingStore openDiskStore(int dimensions) {
+        try {
+            MappedEmbeddingStore store = new MappedEmbeddingStore(
+                    diskDirectory.resolve("embeddings-" + dimensions + "d.bin"), dimensions, maxDiskBytes);
+            logger.info("Opened embedding disk cache with {} entries ({} dimensions)", store.size(), dimensions);
+            return store;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open embedding disk cache in " + diskDirectory, e);
+        }
+    }
+
+    private String modelOf(EmbeddingOptions options) {
+        if (options instanceof OpenAiEmbeddingOptions openAiOptions && openAiOptions.getModel() != null) {
+            return openAiOptions.getModel();
+        }
+        return defaultModel;
+    }
+
+    /**
+     * 유니코드 정규화(NFC) 후 공백을 하나로 합치고 앞뒤 공백 제거
+     */
+    static String normalize(String text) {
+        return WHITESPACE.matcher(Normalizer.normalize(text, Normalizer.Form.NFC)).replaceAll(" ").trim();
+    }
+
+    private static float[] toFloats(List<Double> embedding) {
+        float[] vector = new float[embedding.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = embedding.get(i).floatValue();
+        }
+        return vector;
+    }
+
+    private static List<Double> toDoubles(float[] vector) {
+        List<Double> embedding = new ArrayList<>(vector.length);
+        for (float value : vector) {
+            embedding.add((double) value);
+        }
+        return embedding;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("embedding_cache_lookups_total")
+                .description("Embedding lookups by the tier that answered them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
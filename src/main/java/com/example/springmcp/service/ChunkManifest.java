@@ -0,0 +1,246 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.repository.DocumentChunkRepository;
+import com.example.springmcp.util.TextStatistics;
+import org.springframework.ai.document.ContentFormatter;
+import org.springframework.ai.document.DefaultContentFormatter;
+import org.springframework.ai.document.Document;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 문서별로 벡터 저장소에 들어 있는 청크 목록 (document_chunk 테이블).
+ *
+ * 청크 ID 는 (문서 ID, 청크 내용 SHA-256) 으로 정해지므로 같은 문서를 다시 수집하면 내용이 같은 청크는 같은 ID 가 된다.
+ * 수집할 때마다 세션을 열어 목록에 이미 있는 청크는 임베딩하지 않고 확인만 하고, 새로 생기거나 바뀐 청크만 저장한다.
+ * 수집이 끝나면 이번 세대에서 확인되지 않은 청크(바뀌기 전 내용이나 사라진 부분)를 실제 ID 로 지운다.
+ * 내용만 비교하므로 제목이나 카테고리처럼 문서 메타데이터만 바뀐 청크는 다시 임베딩하지 않는다.
+ * 청크마다 저장할 때의 카테고리를 함께 기록하므로 벡터 저장소의 카테고리별 청크 수도 이 목록에서 센다.
+ * 청크에 다는 문서 ID 와 텍스트 통계는 관리용이라 임베딩할 텍스트(MetadataMode.EMBED)에서는 뺀다.
+ */
+@Service
+public class ChunkManifest {
+
+    public static final String DOCUMENT_ID = "document_id";
+    public static final String CONTENT_HASH = TextStatistics.CONTENT_HASH;
+    public static final String CATEGORY = "category";
+    public static final String UNCATEGORIZED = "uncategorized";
+
+    // 임베딩하면 UUID 와 64자 해시 등이 청크마다 50 토큰 가까이 더해지고 검색에는 도움이 되지 않음
+    static final List<String> UNEMBEDDED_KEYS = List.of(DOCUMENT_ID, CONTENT_HASH,
+            TextStatistics.CONTENT_LENGTH, TextStatistics.WORD_COUNT, TextStatistics.SENTENCE_COUNT);
+
+    private static final int MAX_DOCUMENT_ID_LENGTH = 255;
+    private static final int MAX_CATEGORY_LENGTH = 255;
+
+    private final DocumentChunkRepository repository;
+
+    public ChunkManifest(DocumentChunkRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * 문서 한 번의 수집. generation 은 재시도해도 같은 값이어야 이전 시도에서 저장한 청크를 다시 임베딩하지 않는다
+     */
+    public Session open(String documentId, String generation) {
+        String id = normalize(documentId);
+        return new Session(id, generation, repository.findChunkIds(id));
+    }
+
+    public List<String> findChunkIds(String documentId) {
+        return new ArrayList<>(repository.findChunkIds(normalize(documentId)).values());
+    }
+
+    public void forgetDocument(String documentId) {
+        repository.deleteByDocumentId(normalize(documentId));
+    }
+
+    public void forgetChunks(Collection<String> chunkIds) {
+        repository.deleteByChunkIds(chunkIds);
+    }
+
+    /**
+     * 카테고리 -> 목록의 청크 수
+     */
+    public Map<String, Long> countByCategory() {
+        return withCategoryNames(repository.countByCategory());
+    }
+
+    /**
+     * chunkIds 중 목록에 있는 청크의 카테고리 -> 청크 수 (지우기 전에 호출)
+     */
+    public Map<String, Long> countByCategory(Collection<String> chunkIds) {
+        if (chunkIds.isEmpty()) {
+            return Map.of();
+        }
+        return withCategoryNames(repository.countByCategory(chunkIds));
+    }
+
+    /**
+     * 청크 메타데이터의 카테고리. 없으면 UNCATEGORIZED
+     */
+    public static String category(Map<String, Object> metadata) {
+        Object category = metadata.get(CATEGORY);
+        if (category == null || category.toString().isBlank()) {
+            return UNCATEGORIZED;
+        }
+        String name = category.toString();
+        return name.length() <= MAX_CATEGORY_LENGTH ? name : name.substring(0, MAX_CATEGORY_LENGTH);
+    }
+
+    /**
+     * 카테고리 컬럼을 추가하기 전에 기록된 청크(null) 는 UNCATEGORIZED 로 셈
+     */
+    private static Map<String, Long> withCategoryNames(Map<String, Long> counts) {
+        Map<String, Long> named = new HashMap<>();
+        counts.forEach((category, chunks) -> named.merge(category != null ? category : UNCATEGORIZED, chunks, Long::sum));
+        return named;
+    }
+
+    public static String contentHash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * formatter 에 UNEMBEDDED_KEYS 를 임베딩 제외 키로 더한 것. DefaultContentFormatter 가 아니면 그대로
+     */
+    static ContentFormatter excludingBookkeeping(ContentFormatter formatter) {
+        if (!(formatter instanceof DefaultContentFormatter current)
+                || current.getExcludedEmbedMetadataKeys().containsAll(UNEMBEDDED_KEYS)) {
+            return formatter;
+        }
+        List<String> excluded = new ArrayList<>(current.getExcludedEmbedMetadataKeys());
+        for (String key : UNEMBEDDED_KEYS) {
+            if (!excluded.contains(key)) {
+                excluded.add(key);
+            }
+        }
+        return DefaultContentFormatter.builder().from(current).withExcludedEmbedMetadataKeys(excluded).build();
+    }
+
+    static String chunkId(String documentId, String contentHash) {
+        return UUID.nameUUIDFromBytes((documentId + '\0' + contentHash).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * 컬럼 길이를 넘는 문서 ID (긴 URL 등) 는 해시로 대신함
+     */
+    static String normalize(String documentId) {
+        return documentId.length() <= MAX_DOCUMENT_ID_LENGTH ? documentId : contentHash(documentId);
+    }
+
+    public final class Session {
+
+        private final String documentId;
+        private final String generation;
+        private final Map<String, String> known;
+        private final Set<String> seen = new HashSet<>();
+        private int unchanged;
+
+        private Session(String documentId, String generation, Map<String, String> known) {
+            this.documentId = documentId;
+            this.generation = generation;
+            this.known = known;
+        }
+
+        /**
+         * 저장해야 할 새 청크만 문서 ID 와 텍스트 통계(내용 해시 포함)를 메타데이터로 달아 결정적 ID 로 반환
+         * (이 메타데이터는 임베딩할 텍스트에서 뺌).
+         * 이미 저장된 청크는 이번 세대로 확인된 것으로 기록하고, 문서 안에서 내용이 같은 청크는 하나만 남긴다
+         */
+        public List<Document> select(List<Document> chunks) {
+            return select(chunks, skipped -> { });
+        }
+
+        /**
+         * select 와 같고, 이미 저장되어 있어 건너뛴 청크도 같은 ID 와 메타데이터로 unchangedChunks 에 넘김
+         * (노드마다 메모리에 있는 키워드 색인 등 벡터 저장소 밖의 색인에 다시 넣을 때)
+         */
+        public List<Document> select(List<Document> chunks, Consumer<List<Document>> unchangedChunks) {
+            List<Document> changed = new ArrayList<>();
+            List<Document> skipped = new ArrayList<>();
+            Map<String, String> confirmed = new LinkedHashMap<>();
+            for (Document chunk : chunks) {
+                TextStatistics statistics = TextStatistics.of(chunk.getContent());
+                String hash = statistics.getContentHash();
+                if (!seen.add(hash)) {
+                    continue;
+                }
+                String id = chunkId(documentId, hash);
+                Map<String, Object> metadata = chunk.getMetadata();
+                metadata.put(DOCUMENT_ID, documentId);
+                statistics.putInto(metadata);
+                Document selected = new Document(id, chunk.getContent(), metadata);
+                selected.setContentFormatter(excludingBookkeeping(chunk.getContentFormatter()));
+                if (id.equals(known.get(hash))) {
+                    confirmed.put(hash, id);
+                    skipped.add(selected);
+                    continue;
+                }
+                // 분할 단계에서 구한 임베딩(시맨틱 분할)은 저장할 때 다시 쓰도록 유지
+                selected.setEmbedding(chunk.getEmbedding());
+                changed.add(selected);
+            }
+            repository.upsert(documentId, generation, null, confirmed);
+            unchanged += confirmed.size();
+            if (!skipped.isEmpty()) {
+                unchangedChunks.accept(skipped);
+            }
+            return changed;
+        }
+
+        /**
+         * 벡터 저장소에 저장을 마친 청크를 기록 (중간에 실패해도 다음 시도가 이 청크를 건너뜀)
+         */
+        public void recordStored(List<Document> chunks) {
+            // 한 문서의 청크는 보통 카테고리가 같으므로 대개 한 번의 배치로 기록된다
+            Map<String, Map<String, String>> storedByCategory = new LinkedHashMap<>();
+            for (Document chunk : chunks) {
+                storedByCategory.computeIfAbsent(category(chunk.getMetadata()), category -> new LinkedHashMap<>())
+                        .put((String) chunk.getMetadata().get(CONTENT_HASH), chunk.getId());
+            }
+            storedByCategory.forEach((category, stored) -> repository.upsert(documentId, generation, category, stored));
+        }
+
+        /**
+         * 이번 세대에서 확인되지 않은 청크 ID. 수집을 끝까지 마친 뒤에만 의미가 있다
+         */
+        public List<String> staleChunkIds() {
+            return repository.findStaleChunkIds(documentId, generation);
+        }
+
+        /**
+         * 벡터 저장소에서 지운 뒤 호출 (지우다 실패하면 목록에 남아 다음 수집에서 다시 지움)
+         */
+        public void forgetStale() {
+            repository.deleteStale(documentId, generation);
+        }
+
+        public String getDocumentId() {
+            return documentId;
+        }
+
+        public int getUnchanged() {
+            return unchanged;
+        }
+    }
+}
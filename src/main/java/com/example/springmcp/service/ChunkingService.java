@@ -0,0 +1,111 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.chunking.Chunker;
+import com.example.springmcp.chunking.SemanticChunker;
+import com.example.springmcp.chunking.SentenceWindowChunker;
+import com.example.springmcp.chunking.TokenChunker;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 문서 수집의 청크 분할 단계. 문서마다 분할 방식(token, sentence-window, semantic)을 골라 나눈다.
+ *
+ * 업로드에서 지정한 방식(chunking_strategy 메타데이터)이 먼저이고, 없으면 content_type 별 설정
+ * (app.chunking.content-types, "text/*" 같은 와일드카드 가능), 그것도 없으면 기본 방식을 쓴다.
+ * 시맨틱 분할의 문장 임베딩은 EmbeddingBatcher 의 토큰 예산 / 레이트 리밋을 거치고, 임베딩 캐시가 켜져 있으면
+ * 문장 임베딩으로 만든 청크 벡터를 저장할 때 그대로 써서 문서를 두 번 임베딩하지 않는다. 방식마다 자기 최대 토큰 수보다
+ * 긴 문장을 그 한도로 나눈다.
+ */
+@Service
+public class ChunkingService {
+
+    public static final String STRATEGY = "chunking_strategy";
+
+    private final Map<String, Chunker> chunkers = new LinkedHashMap<>();
+    private final Map<String, Chunker> chunkersByContentType = new HashMap<>();
+    private final Chunker defaultChunker;
+
+    public ChunkingService(EmbeddingBatcher embeddingBatcher,
+                           @Value("${app.chunking.default-strategy:token}") String defaultStrategy,
+                           @Value("${app.chunking.content-types:}") List<String> contentTypeStrategies,
+                           @Value("${app.chunking.token.chunk-size:800}") int tokenChunkSize,
+                           @Value("${app.chunking.token.min-chunk-size-chars:350}") int tokenMinChunkSizeChars,
+                           @Value("${app.chunking.sentence-window.max-tokens:512}") int windowMaxTokens,
+                           @Value("${app.chunking.sentence-window.overlap-sentences:1}") int windowOverlapSentences,
+                           @Value("${app.chunking.semantic.min-tokens:128}") int semanticMinTokens,
+                           @Value("${app.chunking.semantic.max-tokens:800}") int semanticMaxTokens,
+                           @Value("${app.chunking.semantic.breakpoint-percentile:90}") double breakpointPercentile) {
+        register(new TokenChunker(tokenChunkSize, tokenMinChunkSizeChars));
+        register(new SentenceWindowChunker(windowMaxTokens, windowOverlapSentences, tokenMinChunkSizeChars));
+        register(new SemanticChunker(embeddingBatcher::embed, embeddingBatcher.canReuseEmbeddings(),
+                semanticMinTokens, semanticMaxTokens, breakpointPercentile, tokenMinChunkSizeChars));
+
+        this.defaultChunker = chunker(defaultStrategy);
+        for (String entry : contentTypeStrategies) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("app.chunking.content-types entries must be <content type>=<strategy>: " + entry);
+            }
+            chunkersByContentType.put(entry.substring(0, separator).strip().toLowerCase(Locale.ROOT),
+                    chunker(entry.substring(separator + 1).strip()));
+        }
+    }
+
+    /**
+     * metadata 로 고른 방식으로 나눔. 지원하지 않는 방식을 지정했으면 IllegalArgumentException
+     */
+    public List<Document> split(List<Document> documents, Map<String, Object> metadata) {
+        return select(metadata).split(documents);
+    }
+
+    public Chunker select(Map<String, Object> metadata) {
+        Object strategy = metadata.get(STRATEGY);
+        if (strategy != null && !strategy.toString().isBlank()) {
+            return chunker(strategy.toString());
+        }
+        Object contentType = metadata.get("content_type");
+        if (contentType != null) {
+            // "text/html; charset=UTF-8" 등의 매개변수는 무시
+            String type = contentType.toString().split(";", 2)[0].strip().toLowerCase(Locale.ROOT);
+            Chunker chunker = chunkersByContentType.get(type);
+            if (chunker == null && type.contains("/")) {
+                chunker = chunkersByContentType.get(type.substring(0, type.indexOf('/')) + "/*");
+            }
+            if (chunker != null) {
+                return chunker;
+            }
+        }
+        return defaultChunker;
+    }
+
+    public boolean isSupported(String strategy) {
+        return chunkers.containsKey(strategy.strip().toLowerCase(Locale.ROOT));
+    }
+
+    public Set<String> getStrategies() {
+        return chunkers.keySet();
+    }
+
+    private void register(Chunker chunker) {
+        chunkers.put(chunker.getName(), chunker);
+    }
+
+    private Chunker chunker(String strategy) {
+        Chunker chunker = chunkers.get(strategy.strip().toLowerCase(Locale.ROOT));
+        if (chunker == null) {
+            throw new IllegalArgumentException("Unknown chunking strategy '" + strategy + "', expected one of " + chunkers.keySet());
+        }
+        return chunker;
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.config.RabbitConfig;
+import com.example.springmcp.dto.ClickStatsDelta;
+import com.example.springmcp.repository.ClickStatsRepository;
+import com.example.springmcp.util.MpscRingBuffer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 리다이렉트 클릭 이벤트 파이프라인.
+ *
+ * 요청 스레드는 이벤트를 락 없는 링 버퍼에 넣기만 하고(가득 차면 버림), 스케줄러 스레드가 주기적으로
+ * 버퍼를 비우며 단축 키 / 분 단위로 집계한다. 집계 결과는 RabbitMQ 로 보내져 어느 노드의
+ * {@link ClickStatsConsumer} 든 통계 테이블에 반영하며, 브로커를 쓸 수 없으면 직접 저장한다.
+ */
+@Component
+public class ClickEventPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickEventPipeline.class);
+
+    public static final String DIMENSION_TOTAL = "total";
+    public static final String DIMENSION_REFERRER = "referrer";
+    public static final String DIMENSION_AGENT = "agent";
+
+    private static final String DIRECT = "direct";
+    private static final int MAX_DIMENSION_VALUE_LENGTH = 255;
+
+    private final MpscRingBuffer<ClickEvent> buffer;
+    private final RabbitTemplate rabbitTemplate;
+    private final ClickStatsRepository clickStatsRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxMessageDeltas;
+    private final ZoneId zoneId = ZoneId.systemDefault();
+    private final Counter droppedCounter;
+    private final Counter lostCounter;
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    public ClickEventPipeline(RabbitTemplate rabbitTemplate,
+                              ClickStatsRepository clickStatsRepository,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.click-stats.buffer-size:65536}") int bufferSize,
+                              @Value("${app.click-stats.max-message-deltas:5000}") int maxMessageDeltas) {
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+        this.rabbitTemplate = rabbitTemplate;
+        this.clickStatsRepository = clickStatsRepository;
+        this.objectMapper = objectMapper;
+        this.maxMessageDeltas = maxMessageDeltas;
+        this.droppedCounter = Counter.builder("click_events_dropped_total")
+                .description("Click events dropped because the ring buffer was full")
+                .register(meterRegistry);
+        this.lostCounter = Counter.builder("click_stats_lost_total")
+                .description("Aggregated click deltas that could be neither published nor stored")
+                .register(meterRegistry);
+        Gauge.builder("click_events_buffered", buffer, MpscRingBuffer::size)
+                .description("Click events waiting in the ring buffer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 리다이렉트 요청 스레드에서 호출. 파싱이나 I/O 없이 버퍼에 넣기만 한다
+     */
+    public void record(String shortKey, String referrer, String userAgent) {
+        if (!buffer.offer(new ClickEvent(shortKey, referrer, userAgent, System.currentTimeMillis()))) {
+            droppedCounter.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.click-stats.flush-interval-ms:1000}")
+    public void flush() {
+        Map<DeltaKey, long[]> aggregated = new HashMap<>();
+        // 링 버퍼는 단일 소비자 전제이므로 종료 시 flush 와 스케줄 flush 가 겹치지 않게 함
+        drainLock.lock();
+        try {
+            buffer.drain(event -> aggregate(aggregated, event), buffer.capacity());
+        } finally {
+            drainLock.unlock();
+        }
+        if (aggregated.isEmpty()) {
+            return;
+        }
+
+        List<ClickStatsDelta> deltas = new ArrayList<>(aggregated.size());
+        aggregated.forEach((key, clicks) -> deltas.add(
+                new ClickStatsDelta(key.shortKey, key.bucketStart, key.dimension, key.dimensionValue, clicks[0])));
+        for (int from = 0; from < deltas.size(); from += maxMessageDeltas) {
+            publish(deltas.subList(from, Math.min(from + maxMessageDeltas, deltas.size())));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void aggregate(Map<DeltaKey, long[]> aggregated, ClickEvent event) {
+        LocalDateTime bucketStart = LocalDateTime.ofInstant(Instant.ofEpochMilli(event.timestamp), zoneId)
+                .truncatedTo(ChronoUnit.MINUTES);
+        increment(aggregated, new DeltaKey(event.shortKey, bucketStart, DIMENSION_TOTAL, ""));
+        increment(aggregated, new DeltaKey(event.shortKey, bucketStart, DIMENSION_REFERRER, referrerHost(event.referrer)));
+        increment(aggregated, new DeltaKey(event.shortKey, bucketStart, DIMENSION_AGENT, agentFamily(event.userAgent)));
+    }
+
+    private static void increment(Map<DeltaKey, long[]> aggregated, DeltaKey key) {
+        aggregated.computeIfAbsent(key, k -> new long[1])[0]++;
+    }
+
+    private void publish(List<ClickStatsDelta> deltas) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitConfig.CLICK_STATS_EXCHANGE_NAME, RabbitConfig.CLICK_STATS_ROUTING_KEY,
+                    objectMapper.writeValueAsString(deltas));
+            return;
+        } catch (AmqpException | JsonProcessingException e) {
+            logger.warn("Could not publish {} click stats deltas, writing directly: {}", deltas.size(), e.getMessage());
+        }
+        try {
+            clickStatsRepository.upsertMinuteStats(deltas);
+        } catch (Exception e) {
+            lostCounter.increment(deltas.size());
+            logger.error("Dropping {} click stats deltas: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Referer 헤더에서 호스트만 남김 (경로, 쿼리는 카디널리티가 커서 저장하지 않음)
+     */
+    static String referrerHost(String referrer) {
+        if (referrer == null || referrer.isBlank()) {
+            return DIRECT;
+        }
+        try {
+            String host = URI.create(referrer.trim()).getHost();
+            if (host == null) {
+                return DIRECT;
+            }
+            host = host.toLowerCase(Locale.ROOT);
+            if (host.startsWith("www.")) {
+                host = host.substring(4);
+            }
+            return host.length() > MAX_DIMENSION_VALUE_LENGTH ? host.substring(0, MAX_DIMENSION_VALUE_LENGTH) : host;
+        } catch (IllegalArgumentException e) {
+            return "invalid";
+        }
+    }
+
+    /**
+     * User-Agent 를 소수의 클라이언트 종류로 분류
+     */
+    static String agentFamily(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return "unknown";
+        }
+        String agent = userAgent.toLowerCase(Locale.ROOT);
+        if (agent.contains("bot") || agent.contains("crawler") || agent.contains("spider")) {
+            return "bot";
+        }
+        if (agent.startsWith("curl") || agent.startsWith("wget") || agent.contains("httpclient") || agent.contains("okhttp")) {
+            return "cli";
+        }
+        String platform = agent.contains("mobile") || agent.contains("android") || agent.contains("iphone") ? "mobile" : "desktop";
+        String browser;
+        if (agent.contains("edg/")) {
+            browser = "edge";
+        } else if (agent.contains("samsungbrowser")) {
+            browser = "samsung";
+        } else if (agent.contains("chrome/") || agent.contains("crios/")) {
+            browser = "chrome";
+        } else if (agent.contains("firefox/") || agent.contains("fxios/")) {
+            browser = "firefox";
+        } else if (agent.contains("safari/")) {
+            browser = "safari";
+        } else {
+            browser = "other";
+        }
+        return platform + "-" + browser;
+    }
+
+    private static final class ClickEvent {
+        private final String shortKey;
+        private final String referrer;
+        private final String userAgent;
+        private final long timestamp;
+
+        private ClickEvent(String shortKey, String referrer, String userAgent, long timestamp) {
+            this.shortKey = shortKey;
+            this.referrer = referrer;
+            this.userAgent = userAgent;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private static final class DeltaKey {
+        private final String shortKey;
+        private final LocalDateTime bucketStart;
+        private final String dimension;
+        private final String dimensionValue;
+
+        private DeltaKey(String shortKey, LocalDateTime bucketStart, String dimension, String dimensionValue) {
+            this.shortKey = shortKey;
+            this.bucketStart = bucketStart;
+            this.dimension = dimension;
+            this.dimensionValue = dimensionValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DeltaKey that)) {
+                return false;
+            }
+            return shortKey.equals(that.shortKey) && bucketStart.equals(that.bucketStart)
+                    && dimension.equals(that.dimension) && dimensionValue.equals(that.dimensionValue);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = shortKey.hashCode();
+            result = 31 * result + bucketStart.hashCode();
+            result = 31 * result + dimension.hashCode();
+            return 31 * result + dimensionValue.hashCode();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.config.RabbitConfig;
+import com.example.springmcp.dto.ClickStatsDelta;
+import com.example.springmcp.repository.ClickStatsRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 각 노드가 보낸 분 단위 클릭 집계를 통계 테이블에 반영
+ */
+@Component
+public class ClickStatsConsumer {
+
+    private static final TypeReference<List<ClickStatsDelta>> DELTA_LIST = new TypeReference<>() {
+    };
+
+    private final ClickStatsRepository clickStatsRepository;
+    private final ObjectMapper objectMapper;
+
+    public ClickStatsConsumer(ClickStatsRepository clickStatsRepository, ObjectMapper objectMapper) {
+        this.clickStatsRepository = clickStatsRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @RabbitListener(queues = RabbitConfig.CLICK_STATS_QUEUE_NAME)
+    public void receiveDeltas(String message) {
+        List<ClickStatsDelta> deltas;
+        try {
+            deltas = objectMapper.readValue(message, DELTA_LIST);
+        } catch (JsonProcessingException e) {
+            // 다시 시도해도 파싱되지 않으므로 바로 DLQ 로 보냄
+            throw new AmqpRejectAndDontRequeueException("Malformed click stats message", e);
+        }
+        if (!deltas.isEmpty()) {
+            clickStatsRepository.upsertMinuteStats(deltas);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.model.ClickStatsGranularity;
+import com.example.springmcp.repository.ClickStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 클릭 통계 롤업.
+ *
+ * 마감된 분 단위 구간을 시간 테이블로, 마감된 시간 단위 구간을 일 테이블로 접고
+ * click_stats_rollup 의 진행 위치를 옮긴다. 진행 위치 행을 FOR UPDATE 로 잠그므로 여러 노드에서 돌아도
+ * 한 구간은 한 번만 접힌다. 접힌 하위 행은 조회용으로 보존 기간 동안 남겨 둔다.
+ */
+@Service
+public class ClickStatsRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClickStatsRollupService.class);
+
+    private static final int DELETE_BATCH_SIZE = 10000;
+
+    private final ClickStatsRepository clickStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lateness;
+    private final Duration maxFoldSpan;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+
+    public ClickStatsRollupService(ClickStatsRepository clickStatsRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.click-stats.rollup.lateness:2m}") Duration lateness,
+                                   @Value("${app.click-stats.rollup.max-fold-span:6h}") Duration maxFoldSpan,
+                                   @Value("${app.click-stats.retention.minutes:48h}") Duration minuteRetention,
+                                   @Value("${app.click-stats.retention.hours:90d}") Duration hourRetention) {
+        this.clickStatsRepository = clickStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lateness = lateness;
+        this.maxFoldSpan = maxFoldSpan;
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+    }
+
+    @Scheduled(fixedDelayString = "${app.click-stats.rollup.interval-ms:60000}")
+    public void rollup() {
+        try {
+            Map<String, LocalDateTime> watermarks = transactionTemplate.execute(status -> compact());
+            if (watermarks != null) {
+                purge(watermarks);
+            }
+        } catch (Exception e) {
+            logger.warn("Click stats rollup failed: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, LocalDateTime> compact() {
+        LocalDateTime now = LocalDateTime.now();
+        clickStatsRepository.initializeWatermark(ClickStatsRepository.MINUTE_WATERMARK, ClickStatsGranularity.MINUTE,
+                ClickStatsGranularity.MINUTE.truncate(now));
+        // 시간 진행 위치는 분 진행 위치가 속한 시각보다 늦으면 안 됨 (그 사이 시간 행이 일 단위로 접히지 않음)
+        LocalDateTime initialMinute = clickStatsRepository.findWatermarks("").get(ClickStatsRepository.MINUTE_WATERMARK);
+        clickStatsRepository.initializeWatermark(ClickStatsRepository.HOUR_WATERMARK, ClickStatsGranularity.HOUR,
+                ClickStatsGranularity.HOUR.truncate(initialMinute));
+
+        Map<String, LocalDateTime> watermarks = clickStatsRepository.findWatermarks(" FOR UPDATE");
+        LocalDateTime minuteWatermark = watermarks.get(ClickStatsRepository.MINUTE_WATERMARK);
+        LocalDateTime hourWatermark = watermarks.get(ClickStatsRepository.HOUR_WATERMARK);
+
+        // 늦게 도착하는 증가분을 기다린 뒤에만 분 구간을 마감하고, 오래 멈춰 있던 경우에도 한 번에 접는 범위는 제한
+        LocalDateTime minuteTarget = ClickStatsGranularity.MINUTE.truncate(now.minus(lateness));
+        if (minuteTarget.isAfter(minuteWatermark.plus(maxFoldSpan))) {
+            minuteTarget = ClickStatsGranularity.MINUTE.truncate(minuteWatermark.plus(maxFoldSpan));
+        }
+        if (minuteTarget.isAfter(minuteWatermark)) {
+            int rows = clickStatsRepository.fold(ClickStatsGranularity.MINUTE, ClickStatsGranularity.HOUR,
+                    minuteWatermark, minuteTarget);
+            clickStatsRepository.updateWatermark(ClickStatsRepository.MINUTE_WATERMARK, minuteTarget);
+            watermarks.put(ClickStatsRepository.MINUTE_WATERMARK, minuteTarget);
+            logger.debug("Folded minutes [{}, {}) into hours ({} rows)", minuteWatermark, minuteTarget, rows);
+        }
+
+        // 시간 구간은 그 안의 모든 분이 접힌 뒤에만 마감
+        LocalDateTime hourTarget = ClickStatsGranularity.HOUR.truncate(watermarks.get(ClickStatsRepository.MINUTE_WATERMARK));
+        if (hourTarget.isAfter(hourWatermark)) {
+            int rows = clickStatsRepository.fold(ClickStatsGranularity.HOUR, ClickStatsGranularity.DAY,
+                    hourWatermark, hourTarget);
+            clickStatsRepository.updateWatermark(ClickStatsRepository.HOUR_WATERMARK, hourTarget);
+            watermarks.put(ClickStatsRepository.HOUR_WATERMARK, hourTarget);
+            logger.debug("Folded hours [{}, {}) into days ({} rows)", hourWatermark, hourTarget, rows);
+        }
+        return watermarks;
+    }
+
+    /**
+     * 보존 기간이 지난 분 / 시간 행 삭제. 아직 접히지 않은 행은 지우지 않는다
+     */
+    private void purge(Map<String, LocalDateTime> watermarks) {
+        purge(ClickStatsGranularity.MINUTE, earliest(LocalDateTime.now().minus(minuteRetention),
+                watermarks.get(ClickStatsRepository.MINUTE_WATERMARK)));
+        purge(ClickStatsGranularity.HOUR, earliest(LocalDateTime.now().minus(hourRetention),
+                watermarks.get(ClickStatsRepository.HOUR_WATERMARK)));
+    }
+
+    private void purge(ClickStatsGranularity granularity, LocalDateTime before) {
+        int deleted;
+        do {
+            deleted = clickStatsRepository.deleteOlderThan(granularity, before, DELETE_BATCH_SIZE);
+        } while (deleted == DELETE_BATCH_SIZE);
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.dto.ClickStatsDelta;
+import com.example.springmcp.dto.UrlStatsResponse;
+import com.example.springmcp.exception.UrlNotFoundException;
+import com.example.springmcp.model.ClickStatsGranularity;
+import com.example.springmcp.model.UrlEntry;
+import com.example.springmcp.repository.ClickStatsRepository;
+import com.example.springmcp.repository.UrlEntryRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 단축 URL 클릭 통계 조회.
+ *
+ * 각 단위의 롤업 테이블에 아직 접히지 않은 하위 단위 행(진행 위치 이후)만 더해 구간을 만들므로
+ * 조회 비용은 링크의 트래픽과 무관하게 요청한 구간 수에 비례한다.
+ */
+@Service
+public class ClickStatsService {
+
+    // 롤업이 한 번도 돌지 않았으면 모든 행이 아직 하위 테이블에 있음
+    private static final LocalDateTime NOT_ROLLED_UP = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ClickStatsRepository clickStatsRepository;
+    private final UrlEntryRepository urlEntryRepository;
+
+    public ClickStatsService(ClickStatsRepository clickStatsRepository, UrlEntryRepository urlEntryRepository) {
+        this.clickStatsRepository = clickStatsRepository;
+        this.urlEntryRepository = urlEntryRepository;
+    }
+
+    public UrlStatsResponse getStats(String shortKey, int minutes, int hours, int days, int top) {
+        UrlEntry urlEntry = urlEntryRepository.findByShortUrl(shortKey);
+        if (urlEntry == null) {
+            throw new UrlNotFoundException("URL not found for key: " + shortKey);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, LocalDateTime> watermarks = clickStatsRepository.findWatermarks("");
+        LocalDateTime minuteWatermark = watermarks.getOrDefault(ClickStatsRepository.MINUTE_WATERMARK, NOT_ROLLED_UP);
+        LocalDateTime hourWatermark = watermarks.getOrDefault(ClickStatsRepository.HOUR_WATERMARK, NOT_ROLLED_UP);
+
+        List<UrlStatsResponse.Bucket> minuteBuckets = series(ClickStatsGranularity.MINUTE, shortKey, now, minutes,
+                minuteWatermark, hourWatermark);
+        List<UrlStatsResponse.Bucket> hourBuckets = series(ClickStatsGranularity.HOUR, shortKey, now, hours,
+                minuteWatermark, hourWatermark);
+        List<UrlStatsResponse.Bucket> dayBuckets = series(ClickStatsGranularity.DAY, shortKey, now, days,
+                minuteWatermark, hourWatermark);
+        long totalClicks = dayBuckets.stream().mapToLong(UrlStatsResponse.Bucket::getClicks).sum();
+
+        LocalDateTime daysSince = windowStart(ClickStatsGranularity.DAY, now, days);
+        List<UrlStatsResponse.DimensionCount> topReferrers = topValues(collect(ClickStatsGranularity.DAY, shortKey,
+                ClickEventPipeline.DIMENSION_REFERRER, daysSince, minuteWatermark, hourWatermark), top);
+        List<UrlStatsResponse.DimensionCount> topUserAgents = topValues(collect(ClickStatsGranularity.DAY, shortKey,
+                ClickEventPipeline.DIMENSION_AGENT, daysSince, minuteWatermark, hourWatermark), top);
+
+        return new UrlStatsResponse(urlEntry.getShortUrl(), urlEntry.getLongUrl(), urlEntry.getCreatedAt(), totalClicks,
+                minuteBuckets, hourBuckets, dayBuckets, topReferrers, topUserAgents);
+    }
+
+    /**
+     * 현재 구간을 포함해 최근 count 개 구간의 클릭 수 (클릭이 없는 구간은 0)
+     */
+    private List<UrlStatsResponse.Bucket> series(ClickStatsGranularity granularity, String shortKey, LocalDateTime now,
+                                                 int count, LocalDateTime minuteWatermark, LocalDateTime hourWatermark) {
+        LocalDateTime since = windowStart(granularity, now, count);
+        Map<LocalDateTime, Long> clicksByBucket = new HashMap<>();
+        for (ClickStatsDelta row : collect(granularity, shortKey, ClickEventPipeline.DIMENSION_TOTAL, since,
+                minuteWatermark, hourWatermark)) {
+            clicksByBucket.merge(row.getBucketStart(), row.getClicks(), Long::sum);
+        }
+
+        List<UrlStatsResponse.Bucket> buckets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = since.plus(i, granularity.getUnit());
+            buckets.add(new UrlStatsResponse.Bucket(start, clicksByBucket.getOrDefault(start, 0L)));
+        }
+        return buckets;
+    }
+
+    /**
+     * granularity 테이블의 행과, 아직 그 단위로 접히지 않은 하위 단위 행을 granularity 구간으로 맞춰 반환
+     */
+    private List<ClickStatsDelta> collect(ClickStatsGranularity granularity, String shortKey, String dimension,
+                                          LocalDateTime since, LocalDateTime minuteWatermark, LocalDateTime hourWatermark) {
+        List<ClickStatsDelta> rows = new ArrayList<>(clickStatsRepository.findRows(granularity, shortKey, dimension, since));
+        if (granularity == ClickStatsGranularity.DAY) {
+            rows.addAll(clickStatsRepository.findRows(ClickStatsGranularity.HOUR, shortKey, dimension, latest(since, hourWatermark)));
+        }
+        if (granularity != ClickStatsGranularity.MINUTE) {
+            rows.addAll(clickStatsRepository.findRows(ClickStatsGranularity.MINUTE, shortKey, dimension, latest(since, minuteWatermark)));
+        }
+        rows.forEach(row -> row.setBucketStart(granularity.truncate(row.getBucketStart())));
+        return rows;
+    }
+
+    private static List<UrlStatsResponse.DimensionCount> topValues(List<ClickStatsDelta> rows, int top) {
+        Map<String, Long> clicksByValue = new HashMap<>();
+        for (ClickStatsDelta row : rows) {
+            clicksByValue.merge(row.getDimensionValue(), row.getClicks(), Long::sum);
+        }
+        return clicksByValue.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(top)
+                .map(entry -> new UrlStatsResponse.DimensionCount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private static LocalDateTime windowStart(ClickStatsGranularity granularity, LocalDateTime now, int count) {
+        return granularity.truncate(now).minus(count - 1L, granularity.getUnit());
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.config.RabbitConfig;
+import com.example.springmcp.model.IngestionJob;
+import com.example.springmcp.model.IngestionJobStatus;
+import com.example.springmcp.repository.IngestionJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 업로드 문서를 스풀 디렉터리에 저장하고 수집 작업을 RabbitMQ 로 넘김.
+ *
+ * 업로드 요청은 파일을 디스크로 흘려 쓰고(힙에 전부 올리지 않음) 작업 행을 만든 뒤 바로 돌아가며,
+ * 파싱 / 분할 / 임베딩은 {@link DocumentIngestionWorker} 가 처리한다. 진행 상황은 작업 ID 로 조회한다.
+ * 여러 파일이나 zip / tar 압축 파일은 파일(항목)마다 스풀 파일과 작업 행을 만들고 묶음 작업 하나만 큐에 넣는다.
+ * 압축 파일은 항목을 하나씩 스풀로 흘려 쓰며, 항목 수와 푼 크기의 합은 app.document-ingestion.batch.* 로 제한한다.
+ */
+@Service
+public class DocumentIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentIngestionService.class);
+
+    private final IngestionJobRepository jobRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path spoolDirectory;
+    private final Duration failedRetention;
+    private final int maxBatchFiles;
+    private final long maxBatchBytes;
+
+    public DocumentIngestionService(IngestionJobRepository jobRepository,
+                                    RabbitTemplate rabbitTemplate,
+                                    ObjectMapper objectMapper,
+                                    @Value("${app.document-ingestion.spool-directory:data/ingestion-spool}") String spoolDirectory,
+                                    @Value("${app.document-ingestion.failed-retention:7d}") Duration failedRetention,
+                                    @Value("${app.document-ingestion.batch.max-files:10000}") int maxBatchFiles,
+                                    @Value("${app.document-ingestion.batch.max-extracted-size:2GB}") DataSize maxBatchSize) {
+        this.jobRepository = jobRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.spoolDirectory = Path.of(spoolDirectory).toAbsolutePath();
+        this.failedRetention = failedRetention;
+        this.maxBatchFiles = maxBatchFiles;
+        this.maxBatchBytes = maxBatchSize.toBytes();
+    }
+
+    /**
+     * 파일을 스풀에 저장하고 작업을 큐에 넣음. 큐에 넣지 못하면 작업을 실패로 표시하고 예외를 던진다.
+     * metadata 에 document_id 가 없으면 작업 ID 를 문서 ID 로 넣는다. 이름이 같은 다른 파일이 서로의 청크를
+     * 덮어쓰지 않도록, 기존 문서를 대체하려면 호출 측이 같은 document_id 를 명시해야 한다
+     */
+    public IngestionJob submit(MultipartFile file, IngestionJob.Parser parser, Map<String, Object> metadata) throws IOException {
+        String id = UUID.randomUUID().toString();
+        metadata.putIfAbsent(ChunkManifest.DOCUMENT_ID, id);
+        Files.createDirectories(spoolDirectory);
+        Path spool = spoolDirectory.resolve(id + ".upload");
+        file.transferTo(spool);
+
+        IngestionJob job;
+        try {
+            job = jobRepository.save(new IngestionJob(id, file.getOriginalFilename(), file.getContentType(),
+                    file.getSize(), parser, spool.toString(), objectMapper.writeValueAsString(metadata)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        enqueue(job, List.of(job));
+        logger.info("Queued ingestion job {} for {} ({} bytes)", id, file.getOriginalFilename(), file.getSize());
+        return job;
+    }
+
+    /**
+     * 여러 파일(압축 파일은 안의 문서들)을 파일마다 스풀에 저장하고 묶음 작업을 큐에 넣음.
+     * 파일별 메타데이터에는 공통 metadata 에 파일 이름 등을 더하고, 문서 ID 는 "묶음 작업 ID/파일 이름"
+     * (압축 파일은 "묶음 작업 ID/압축 파일/항목 경로") 이다. 다른 업로드와 문서 ID 가 겹치지 않으며, 한 묶음 안에
+     * 같은 경로가 두 번 있으면 두 작업이 같은 청크 목록을 다투게 되므로 거부한다.
+     * 수집할 문서가 없거나 제한을 넘으면 IllegalArgumentException
+     */
+    public IngestionJob submitBatch(List<MultipartFile> files, Map<String, Object> metadata) throws IOException {
+        String batchId = UUID.randomUUID().toString();
+        Files.createDirectories(spoolDirectory);
+        List<IngestionJob> fileJobs = new ArrayList<>();
+        Set<String> paths = new HashSet<>();
+        // 지금까지 스풀에 쓴 크기 합 (항목마다 목록을 다시 더하지 않도록 누적)
+        long[] spooledBytes = {0};
+        IngestionJob batch;
+        try {
+            for (MultipartFile file : files) {
+                if (file.isEmpty()) {
+                    continue;
+                }
+                String filename = file.getOriginalFilename();
+                if (UploadArchive.isArchive(filename)) {
+                    try (InputStream input = file.getInputStream()) {
+                        UploadArchive.forEachEntry(filename, input, (name, content) -> {
+                            checkFileCount(fileJobs);
+                            String path = uniquePath(paths, filename + "/" + name);
+                            String id = UUID.randomUUID().toString();
+                            Path spool = spoolDirectory.resolve(id + ".upload");
+                            long size = copy(content, spool, maxBatchBytes - spooledBytes[0]);
+                            spooledBytes[0] += size;
+                            String contentType = MediaTypeFactory.getMediaType(name).map(MediaType::toString).orElse(null);
+                            fileJobs.add(fileJob(id, batchId, path, contentType, size, spool, metadata));
+                        });
+                    }
+                } else {
+                    checkFileCount(fileJobs);
+                    if (spooledBytes[0] + file.getSize() > maxBatchBytes) {
+                        throw new IllegalArgumentException("업로드한 파일의 크기 합이 " + maxBatchBytes + " 바이트를 넘습니다.");
+                    }
+                    String id = UUID.randomUUID().toString();
+                    String name = uniquePath(paths, filename != null && !filename.isBlank() ? filename : id);
+                    Path spool = spoolDirectory.resolve(id + ".upload");
+                    file.transferTo(spool);
+                    spooledBytes[0] += file.getSize();
+                    fileJobs.add(fileJob(id, batchId, name, file.getContentType(), file.getSize(), spool, metadata));
+                }
+            }
+            if (fileJobs.isEmpty()) {
+                throw new IllegalArgumentException("수집할 문서가 없습니다.");
+            }
+
+            String label = files.size() == 1 ? files.get(0).getOriginalFilename() : files.size() + " files";
+            batch = jobRepository.save(new IngestionJob(batchId, label, null, spooledBytes[0],
+                    IngestionJob.Parser.BATCH, null, objectMapper.writeValueAsString(metadata)));
+            jobRepository.saveAll(fileJobs);
+        } catch (IOException | RuntimeException e) {
+            for (IngestionJob fileJob : fileJobs) {
+                Files.deleteIfExists(Path.of(fileJob.getSpoolPath()));
+            }
+            throw e;
+        }
+
+        List<IngestionJob> jobs = new ArrayList<>(fileJobs);
+        jobs.add(batch);
+        enqueue(batch, jobs);
+        logger.info("Queued ingestion batch {} with {} documents ({} bytes)", batchId, fileJobs.size(), batch.getFileSize());
+        return batch;
+    }
+
+    /**
+     * 묶음 작업에 속한 파일별 작업
+     */
+    public List<IngestionJob> findBatchFiles(String batchId) {
+        return jobRepository.findByBatchIdOrderByCreatedAtAsc(batchId);
+    }
+
+    /**
+     * 작업 ID 를 큐에 넣음. 실패하면 jobs 를 모두 실패로 표시하고 스풀 파일을 지운다
+     */
+    private void enqueue(IngestionJob job, List<IngestionJob> jobs) throws IOException {
+        try {
+            rabbitTemplate.convertAndSend(RabbitConfig.DOCUMENT_INGESTION_EXCHANGE_NAME,
+                    RabbitConfig.DOCUMENT_INGESTION_ROUTING_KEY, job.getId());
+        } catch (AmqpException e) {
+            for (IngestionJob failed : jobs) {
+                String spool = failed.getSpoolPath();
+                failed.setStatus(IngestionJobStatus.FAILED);
+                failed.setError("Could not enqueue job: " + e.getMessage());
+                failed.setSpoolPath(null);
+                jobRepository.save(failed);
+                if (spool != null) {
+                    Files.deleteIfExists(Path.of(spool));
+                }
+            }
+            throw e;
+        }
+    }
+
+    private IngestionJob fileJob(String id, String batchId, String filename, String contentType, long size, Path spool,
+                                 Map<String, Object> metadata) throws JsonProcessingException {
+        Map<String, Object> fileMetadata = new HashMap<>(metadata);
+        fileMetadata.put("filename", filename);
+        fileMetadata.put("file_size", size);
+        fileMetadata.put(ChunkManifest.DOCUMENT_ID, batchId + "/" + filename);
+        if (contentType != null) {
+            fileMetadata.put("content_type", contentType);
+        }
+        boolean pdf = "application/pdf".equals(contentType) || filename.toLowerCase(Locale.ROOT).endsWith(".pdf");
+        IngestionJob job = new IngestionJob(id, filename, contentType, size,
+                pdf ? IngestionJob.Parser.PDF : IngestionJob.Parser.TIKA, spool.toString(),
+                objectMapper.writeValueAsString(fileMetadata));
+        job.setBatchId(batchId);
+        return job;
+    }
+
+    private void checkFileCount(List<IngestionJob> fileJobs) {
+        if (fileJobs.size() >= maxBatchFiles) {
+            throw new IllegalArgumentException("한 번에 수집할 수 있는 문서는 " + maxBatchFiles + "개까지입니다.");
+        }
+    }
+
+    private static String uniquePath(Set<String> paths, String path) {
+        if (!paths.add(path)) {
+            throw new IllegalArgumentException("같은 경로의 문서가 두 번 있습니다: " + path);
+        }
+        return path;
+    }
+
+    /**
+     * limit 바이트까지만 스풀로 복사 (압축 폭탄 방지). 넘으면 쓰던 파일을 지우고 IllegalArgumentException
+     */
+    private static long copy(InputStream content, Path spool, long limit) throws IOException {
+        long copied = 0;
+        byte[] buffer = new byte[8192];
+        try (OutputStream output = Files.newOutputStream(spool)) {
+            for (int read = content.read(buffer); read != -1; read = content.read(buffer)) {
+                copied += read;
+                if (copied > limit) {
+                    throw new IllegalArgumentException("압축을 푼 파일의 크기 합이 제한을 넘습니다.");
+                }
+                output.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+        return copied;
+    }
+
+    public Optional<IngestionJob> findJob(String id) {
+        return jobRepository.findById(id);
+    }
+
+    /**
+     * 실패한 작업의 스풀 파일은 원인 확인을 위해 남겨 두었다가 보존 기간이 지나면 지움
+     */
+    @Scheduled(fixedDelayString = "${app.document-ingestion.cleanup-interval-ms:3600000}")
+    public void deleteExpiredSpoolFiles() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(failedRetention);
+        for (IngestionJob job : jobRepository.findByStatusAndUpdatedAtBeforeAndSpoolPathIsNotNull(IngestionJobStatus.FAILED, cutoff)) {
+            try {
+                Files.deleteIfExists(Path.of(job.getSpoolPath()));
+                job.setSpoolPath(null);
+                jobRepository.save(job);
+            } catch (IOException e) {
+                logger.warn("Could not delete spool file of ingestion job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.config.RabbitConfig;
+import com.example.springmcp.model.IngestionJob;
+import com.example.springmcp.model.IngestionJobStatus;
+import com.example.springmcp.repository.IngestionJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 문서 수집 큐의 작업을 처리하는 워커 (노드마다 app.document-ingestion.workers 개).
+ *
+ * 시도 횟수는 작업 행에 누적되므로 리스너 재시도뿐 아니라 처리 중 노드가 죽어 메시지가 다시 전달된 경우도 센다.
+ * app.document-ingestion.max-attempts 번 실패한 문서(또는 스풀 파일이나 메타데이터가 깨진 작업)는
+ * FAILED 로 표시하고 재큐잉 없이 거절해 DLQ 로 보낸다. 이미 끝난 작업이 다시 전달되면 무시한다.
+ * 묶음 작업은 속한 문서들을 코어 수 크기의 work-stealing 풀(app.document-ingestion.parse-parallelism)에서 병렬로
+ * 파싱하고, 임베딩 / 저장은 모든 문서가 노드 공용 {@link EmbeddingBatcher} 를 거친다.
+ */
+@Component
+public class DocumentIngestionWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentIngestionWorker.class);
+
+    private static final TypeReference<Map<String, Object>> METADATA = new TypeReference<>() {
+    };
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final IngestionJobRepository jobRepository;
+    private final DocumentProcessingService documentProcessingService;
+    private final ObjectMapper objectMapper;
+    private final int maxAttempts;
+    private final ForkJoinPool parsePool;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+
+    public DocumentIngestionWorker(IngestionJobRepository jobRepository,
+                                   DocumentProcessingService documentProcessingService,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.document-ingestion.max-attempts:3}") int maxAttempts,
+                                   @Value("${app.document-ingestion.parse-parallelism:0}") int parseParallelism) {
+        this.jobRepository = jobRepository;
+        this.documentProcessingService = documentProcessingService;
+        this.objectMapper = objectMapper;
+        this.maxAttempts = maxAttempts;
+        this.parsePool = new ForkJoinPool(parseParallelism > 0 ? parseParallelism : Runtime.getRuntime().availableProcessors());
+        this.completedCounter = jobCounter(meterRegistry, "completed");
+        this.failedCounter = jobCounter(meterRegistry, "failed");
+    }
+
+    @RabbitListener(queues = RabbitConfig.DOCUMENT_INGESTION_QUEUE_NAME,
+                    containerFactory = RabbitConfig.DOCUMENT_INGESTION_LISTENER_FACTORY)
+    public void process(String jobId) {
+        IngestionJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new AmqpRejectAndDontRequeueException("Unknown ingestion job " + jobId));
+        if (job.getStatus().isFinished()) {
+            logger.info("Ignoring redelivered ingestion job {} ({})", jobId, job.getStatus());
+            return;
+        }
+        if (job.getParser() == IngestionJob.Parser.BATCH) {
+            processBatch(job);
+            return;
+        }
+        RuntimeException failure = attempt(job);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsePool.shutdownNow();
+    }
+
+    /**
+     * 묶음에 속한 파일 중 끝나지 않은 것들을 파싱 풀에서 나눠 처리. 다시 시도할 파일이 남으면 예외를 던져
+     * 묶음 메시지를 재전달받고, 모두 끝나면(일부 파일이 FAILED 여도) 묶음을 끝낸다
+     */
+    private void processBatch(IngestionJob batch) {
+        List<IngestionJob> files = jobRepository.findByBatchIdOrderByCreatedAtAsc(batch.getId());
+        if (batch.getAttempts() >= maxAttempts) {
+            files.stream().filter(file -> !file.getStatus().isFinished())
+                    .forEach(file -> reject(file, "Gave up after " + batch.getAttempts() + " batch attempts", null));
+            finishBatch(batch, files);
+            return;
+        }
+        batch.setStatus(IngestionJobStatus.PROCESSING);
+        batch.setAttempts(batch.getAttempts() + 1);
+        batch.setError(null);
+        IngestionJob running = jobRepository.save(batch);
+
+        List<Callable<RuntimeException>> pending = files.stream()
+                .filter(file -> !file.getStatus().isFinished())
+                .<Callable<RuntimeException>>map(file -> () -> {
+                    try {
+                        return attempt(file);
+                    } catch (RuntimeException e) {
+                        // 상태를 저장하지 못한 파일은 끝나지 않은 채로 남아 다음 시도에서 다시 처리
+                        logger.warn("Ingestion job {} of batch {} failed: {}", file.getId(), batch.getId(), e.getMessage());
+                        return e;
+                    }
+                })
+                .toList();
+        logger.info("Processing ingestion batch {}: {} of {} documents left", batch.getId(), pending.size(), files.size());
+        // 노드의 모든 묶음이 같은 풀을 나눠 써서 동시에 파싱하는 파일 수는 코어 수로 제한됨
+        parsePool.invokeAll(pending);
+
+        long retrying = files.stream().filter(file -> !file.getStatus().isFinished()).count();
+        if (retrying > 0) {
+            running.setStatus(IngestionJobStatus.QUEUED);
+            running.setError(retrying + " documents failed, retrying");
+            summarize(running, files);
+            jobRepository.save(running);
+            throw new IllegalStateException("Ingestion batch " + batch.getId() + ": " + retrying + " documents failed");
+        }
+        finishBatch(running, files);
+    }
+
+    private void finishBatch(IngestionJob batch, List<IngestionJob> files) {
+        long failed = files.stream().filter(file -> file.getStatus() == IngestionJobStatus.FAILED).count();
+        summarize(batch, files);
+        // 파일별 실패는 파일 작업에 남아 있으므로 묶음 메시지는 DLQ 로 보내지 않음
+        batch.setStatus(failed == 0 ? IngestionJobStatus.COMPLETED : IngestionJobStatus.FAILED);
+        batch.setError(failed == 0 ? null : failed + " of " + files.size() + " documents failed");
+        jobRepository.save(batch);
+        logger.info("Ingestion batch {} finished: {} documents, {} failed", batch.getId(), files.size(), failed);
+    }
+
+    private static void summarize(IngestionJob batch, List<IngestionJob> files) {
+        batch.setPagesParsed(files.stream().mapToInt(IngestionJob::getPagesParsed).sum());
+        batch.setChunksEmbedded(files.stream().mapToInt(IngestionJob::getChunksEmbedded).sum());
+    }
+
+    /**
+     * 문서 작업 한 번 시도. 성공하면 null, 실패하면 작업을 QUEUED(다시 시도) 또는 FAILED 로 표시하고
+     * 리스너가 던질 예외(FAILED 면 재큐잉 없이 거절하는 예외)를 반환
+     */
+    private RuntimeException attempt(IngestionJob job) {
+        String jobId = job.getId();
+        if (job.getAttempts() >= maxAttempts) {
+            // 처리 도중 노드가 계속 죽는 문서 (예: 메모리 부족)
+            return reject(job, "Gave up after " + job.getAttempts() + " attempts", null);
+        }
+
+        Path spool = job.getSpoolPath() != null ? Path.of(job.getSpoolPath()) : null;
+        if (spool == null || !Files.isReadable(spool)) {
+            return reject(job, "Spool file is missing", null);
+        }
+        Map<String, Object> metadata;
+        try {
+            metadata = job.getMetadata() != null ? objectMapper.readValue(job.getMetadata(), METADATA) : Map.of();
+        } catch (JsonProcessingException e) {
+            return reject(job, "Malformed job metadata", e);
+        }
+
+        // 이전 시도의 진행률은 그대로 두고 이어서 처리할 수 있는 경로가 사용 (저장된 청크는 작업 ID 세대로 기록되어 있음)
+        int completedPages = job.getPagesParsed();
+        int completedChunks = job.getChunksEmbedded();
+        job.setStatus(IngestionJobStatus.PROCESSING);
+        job.setAttempts(job.getAttempts() + 1);
+        job.setError(null);
+        jobRepository.save(job);
+
+        try {
+            process(job, spool, metadata, completedPages, completedChunks);
+        } catch (RuntimeException e) {
+            if (job.getAttempts() >= maxAttempts) {
+                return reject(job, e.getMessage(), e);
+            }
+            // 리스너 재시도(또는 재전달)로 다시 처리
+            job.setStatus(IngestionJobStatus.QUEUED);
+            job.setError(truncate(e.getMessage()));
+            jobRepository.save(job);
+            logger.warn("Ingestion job {} failed on attempt {}: {}", jobId, job.getAttempts(), e.getMessage());
+            return e;
+        }
+
+        job.setStatus(IngestionJobStatus.COMPLETED);
+        job.setSpoolPath(null);
+        jobRepository.save(job);
+        completedCounter.increment();
+        deleteSpool(spool);
+        logger.info("Ingestion job {} completed: {} pages, {} chunks", jobId, job.getPagesParsed(), job.getChunksEmbedded());
+        return null;
+    }
+
+    private void process(IngestionJob job, Path spool, Map<String, Object> metadata,
+                         int completedPages, int completedChunks) {
+        String filename = job.getFilename();
+        Resource resource = new FileSystemResource(spool) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+        DocumentProcessingService.Progress progress = new DocumentProcessingService.Progress() {
+            @Override
+            public void pagesParsed(int pages) {
+                job.setPagesParsed(pages);
+                jobRepository.save(job);
+            }
+
+            @Override
+            public void chunksEmbedded(int chunks) {
+                job.setChunksEmbedded(chunks);
+                jobRepository.save(job);
+            }
+
+            @Override
+            public int completedPages() {
+                return completedPages;
+            }
+
+            @Override
+            public int completedChunks() {
+                return completedChunks;
+            }
+
+            @Override
+            public String generation() {
+                return job.getId();
+            }
+        };
+        if (job.getParser() == IngestionJob.Parser.PDF) {
+            documentProcessingService.processPdfDocument(resource, metadata, progress);
+        } else {
+            documentProcessingService.processDocument(resource, metadata, progress);
+        }
+    }
+
+    private AmqpRejectAndDontRequeueException reject(IngestionJob job, String reason, Throwable cause) {
+        job.setStatus(IngestionJobStatus.FAILED);
+        job.setError(truncate(reason));
+        jobRepository.save(job);
+        failedCounter.increment();
+        logger.error("Ingestion job {} failed, sending it to the DLQ: {}", job.getId(), reason);
+        return new AmqpRejectAndDontRequeueException("Ingestion job " + job.getId() + " failed: " + reason, cause);
+    }
+
+    private static void deleteSpool(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            logger.warn("Could not delete spool file {}: {}", spool, e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static Counter jobCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("document_ingestion_jobs_total")
+                .description("Finished document ingestion jobs")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
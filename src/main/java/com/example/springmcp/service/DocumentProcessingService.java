@@ -5,55 +5,140 @@ import org.springframework.ai.document.DocumentReader;
 import org.springframework.ai.reader.ExtractedTextFormatter;
 import org.springframework.ai.reader.pdf.PagePdfDocumentReader;
 import org.springframework.ai.reader.tika.TikaDocumentReader;
-import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntConsumer;
 
 @Service
 public class DocumentProcessingService {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentProcessingService.class);
+
+    private static final int DELETE_PAGE_SIZE = 1000;
     
     private final VectorStore vectorStore;
-    private final TokenTextSplitter textSplitter;
+    private final KeywordSearchService keywordSearchService;
+    private final SemanticAnswerCache answerCache;
+    private final EmbeddingBatcher embeddingBatcher;
+    private final ChunkManifest chunkManifest;
+    private final VectorStoreStatistics statistics;
+    private final ChunkingService chunkingService;
+    private final ExtractedTextFormatter pdfTextFormatter;
+    private final boolean pdfStreaming;
+    private final int pdfPagesPerWindow;
+
+    /**
+     * 수집 진행 상황을 받는 콜백 (비동기 수집 작업의 진행률 갱신용). 값은 지금까지의 누적 수
+     */
+    public interface Progress {
+        Progress NONE = new Progress() {
+            @Override
+            public void pagesParsed(int pages) {
+            }
+
+            @Override
+            public void chunksEmbedded(int chunks) {
+            }
+        };
+
+        void pagesParsed(int pages);
+
+        void chunksEmbedded(int chunks);
+
+        /**
+         * 이전 시도에서 저장까지 마친 페이지 수. 페이지 구간 단위로 처리하는 PDF 는 그 다음 페이지부터 이어서 처리한다
+         */
+        default int completedPages() {
+            return 0;
+        }
 
-    public DocumentProcessingService(VectorStore vectorStore) {
+        /**
+         * completedPages 까지 저장된 청크 수
+         */
+        default int completedChunks() {
+            return 0;
+        }
+
+        /**
+         * 청크 목록의 수집 세대. 재시도해도 같은 값(작업 ID)을 주면 이전 시도에서 저장한 청크를 다시 임베딩하지 않는다.
+         * null 이면 호출마다 새 세대
+         */
+        default String generation() {
+            return null;
+        }
+    }
+
+    public DocumentProcessingService(VectorStore vectorStore, KeywordSearchService keywordSearchService,
+                                     SemanticAnswerCache answerCache, EmbeddingBatcher embeddingBatcher,
+                                     ChunkManifest chunkManifest, VectorStoreStatistics statistics,
+                                     ChunkingService chunkingService,
+                                     @Value("${app.document-ingestion.pdf.streaming:true}") boolean pdfStreaming,
+                                     @Value("${app.document-ingestion.pdf.pages-per-window:16}") int pdfPagesPerWindow) {
         this.vectorStore = vectorStore;
-        this.textSplitter = new TokenTextSplitter();
+        this.keywordSearchService = keywordSearchService;
+        this.answerCache = answerCache;
+        this.embeddingBatcher = embeddingBatcher;
+        this.chunkManifest = chunkManifest;
+        this.statistics = statistics;
+        this.chunkingService = chunkingService;
+        this.pdfTextFormatter = ExtractedTextFormatter.builder()
+                .withNumberOfTopTextLinesToDelete(0)
+                .withNumberOfBottomTextLinesToDelete(0)
+                .build();
+        this.pdfStreaming = pdfStreaming;
+        this.pdfPagesPerWindow = Math.max(1, pdfPagesPerWindow);
     }
 
     /**
      * PDF 문서를 처리하여 벡터 스토어에 저장
      */
     public void processPdfDocument(Resource pdfResource, Map<String, Object> metadata) {
+        processPdfDocument(pdfResource, metadata, Progress.NONE);
+    }
+
+    public void processPdfDocument(Resource pdfResource, Map<String, Object> metadata, Progress progress) {
         try {
             logger.info("Processing PDF document: {}", pdfResource.getFilename());
-            
+            ChunkManifest.Session manifest = openManifest(documentId(metadata, null), progress);
+
+            if (pdfStreaming) {
+                processPdfPageWindows(pdfResource, metadata, manifest, progress);
+                return;
+            }
+
             DocumentReader pdfReader = new PagePdfDocumentReader(pdfResource,
                     PagePdfDocumentReader.builder()
-                            .withPageExtractedTextFormatter(ExtractedTextFormatter.builder()
-                                    .withNumberOfTopTextLinesToDelete(0)
-                                    .withNumberOfBottomTextLinesToDelete(0)
-                                    .build())
+                            .withPageExtractedTextFormatter(pdfTextFormatter)
                             .build());
 
             List<Document> documents = pdfReader.get();
+            progress.pagesParsed(documents.size());
             enhanceDocumentsWithMetadata(documents, metadata);
             
-            // 문서를 청크로 분할
-            List<Document> chunks = textSplitter.apply(documents);
+            // 문서를 청크로 분할 (업로드 / content_type 별로 고른 방식)
+            List<Document> chunks = chunkingService.split(documents, metadata);
             logger.info("Split PDF into {} chunks", chunks.size());
             
-            // 벡터 스토어에 저장
-            vectorStore.add(chunks);
-            logger.info("Successfully processed PDF document with {} chunks", chunks.size());
+            // 새로 생기거나 바뀐 청크만 벡터 스토어에 저장
+            int stored = store(chunks, manifest, progress::chunksEmbedded);
+            removeStaleChunks(manifest);
+            logger.info("Successfully processed PDF document with {} chunks ({} new, {} unchanged)",
+                    chunks.size(), stored, manifest.getUnchanged());
             
         } catch (Exception e) {
             logger.error("Error processing PDF document: {}", e.getMessage(), e);
@@ -61,24 +146,66 @@ public class DocumentProcessingService {
         }
     }
 
+    /**
+     * PDF 를 pages-per-window 페이지씩 읽어 분할 / 저장까지 마친 뒤 다음 구간으로 넘어감.
+     * 힙에는 한 구간의 페이지 텍스트와 청크만 남으므로 문서 크기와 관계없이 메모리 사용량이 일정하다
+     */
+    private void processPdfPageWindows(Resource pdfResource, Map<String, Object> metadata,
+                                       ChunkManifest.Session manifest, Progress progress) throws IOException {
+        try (PdfPageWindowReader reader = PdfPageWindowReader.open(pdfResource, pdfTextFormatter)) {
+            int pageCount = reader.getPageCount();
+            int firstPage = Math.min(progress.completedPages(), pageCount) + 1;
+            if (firstPage > 1) {
+                logger.info("Resuming PDF document after page {} of {}", firstPage - 1, pageCount);
+            }
+            // 이어서 처리할 때 chunk_index 는 이전 페이지 수를 기준으로 이어 붙임 (빈 페이지가 있었다면 번호가 비어 있음)
+            int documentCount = firstPage - 1;
+            int chunkCount = firstPage > 1 ? progress.completedChunks() : 0;
+            for (int from = firstPage; from <= pageCount; from += pdfPagesPerWindow) {
+                int to = Math.min(from + pdfPagesPerWindow - 1, pageCount);
+                List<Document> documents = reader.read(from, to);
+                enhanceDocumentsWithMetadata(documents, metadata, documentCount);
+                documentCount += documents.size();
+
+                // 구간 중간에 실패하면 다음 시도는 이 구간부터 시작하고, 이미 저장된 청크는 목록에서 확인만 함
+                List<Document> chunks = chunkingService.split(documents, metadata);
+                int windowStart = chunkCount;
+                chunkCount += store(chunks, manifest, stored -> progress.chunksEmbedded(windowStart + stored));
+                progress.pagesParsed(to);
+            }
+            // 재시도로 이어서 처리했더라도 앞 구간의 청크는 같은 세대로 확인되어 있음
+            removeStaleChunks(manifest);
+            logger.info("Successfully processed PDF document with {} pages ({} new chunks, {} unchanged)",
+                    pageCount, chunkCount, manifest.getUnchanged());
+        }
+    }
+
     /**
      * 다양한 형식의 문서를 Tika를 사용하여 처리
      */
     public void processDocument(Resource resource, Map<String, Object> metadata) {
+        processDocument(resource, metadata, Progress.NONE);
+    }
+
+    public void processDocument(Resource resource, Map<String, Object> metadata, Progress progress) {
         try {
             logger.info("Processing document with Tika: {}", resource.getFilename());
+            ChunkManifest.Session manifest = openManifest(documentId(metadata, null), progress);
             
             TikaDocumentReader tikaReader = new TikaDocumentReader(resource);
             List<Document> documents = tikaReader.get();
+            progress.pagesParsed(documents.size());
             enhanceDocumentsWithMetadata(documents, metadata);
             
-            // 문서를 청크로 분할
-            List<Document> chunks = textSplitter.apply(documents);
+            // 문서를 청크로 분할 (업로드 / content_type 별로 고른 방식)
+            List<Document> chunks = chunkingService.split(documents, metadata);
             logger.info("Split document into {} chunks", chunks.size());
             
-            // 벡터 스토어에 저장
-            vectorStore.add(chunks);
-            logger.info("Successfully processed document with {} chunks", chunks.size());
+            // 새로 생기거나 바뀐 청크만 벡터 스토어에 저장
+            int stored = store(chunks, manifest, progress::chunksEmbedded);
+            removeStaleChunks(manifest);
+            logger.info("Successfully processed document with {} chunks ({} new, {} unchanged)",
+                    chunks.size(), stored, manifest.getUnchanged());
             
         } catch (Exception e) {
             logger.error("Error processing document: {}", e.getMessage(), e);
@@ -92,14 +219,19 @@ public class DocumentProcessingService {
     public void processTextDocument(String content, Map<String, Object> metadata) {
         try {
             logger.info("Processing text document");
+            // 문서 ID 가 없으면 내용이 같은 텍스트를 같은 문서로 봄 (내용이 다르면 항상 다른 문서)
+            ChunkManifest.Session manifest = openManifest(
+                    documentId(metadata, "text:" + ChunkManifest.contentHash(content)), Progress.NONE);
             
             Document document = new Document(content, metadata);
-            List<Document> chunks = textSplitter.apply(List.of(document));
+            List<Document> chunks = chunkingService.split(List.of(document), metadata);
             logger.info("Split text into {} chunks", chunks.size());
             
-            // 벡터 스토어에 저장
-            vectorStore.add(chunks);
-            logger.info("Successfully processed text document with {} chunks", chunks.size());
+            // 새로 생기거나 바뀐 청크만 벡터 스토어에 저장
+            int stored = store(chunks, manifest, count -> { });
+            removeStaleChunks(manifest);
+            logger.info("Successfully processed text document with {} chunks ({} new, {} unchanged)",
+                    chunks.size(), stored, manifest.getUnchanged());
             
         } catch (Exception e) {
             logger.error("Error processing text document: {}", e.getMessage(), e);
@@ -113,6 +245,8 @@ public class DocumentProcessingService {
     public void processUrlContent(String url, String content, Map<String, Object> metadata) {
         try {
             logger.info("Processing URL content: {}", url);
+            // 문서 ID 가 없으면 같은 URL 을 같은 문서로 보고 다시 처리하면 이전 내용을 대체함
+            ChunkManifest.Session manifest = openManifest(documentId(metadata, url), Progress.NONE);
             
             Map<String, Object> enrichedMetadata = new HashMap<>(metadata);
             enrichedMetadata.put("source_url", url);
@@ -120,12 +254,14 @@ public class DocumentProcessingService {
             enrichedMetadata.put("processed_at", System.currentTimeMillis());
             
             Document document = new Document(content, enrichedMetadata);
-            List<Document> chunks = textSplitter.apply(List.of(document));
+            List<Document> chunks = chunkingService.split(List.of(document), enrichedMetadata);
             logger.info("Split URL content into {} chunks", chunks.size());
             
-            // 벡터 스토어에 저장
-            vectorStore.add(chunks);
-            logger.info("Successfully processed URL content with {} chunks", chunks.size());
+            // 새로 생기거나 바뀐 청크만 벡터 스토어에 저장
+            int stored = store(chunks, manifest, count -> { });
+            removeStaleChunks(manifest);
+            logger.info("Successfully processed URL content with {} chunks ({} new, {} unchanged)",
+                    chunks.size(), stored, manifest.getUnchanged());
             
         } catch (Exception e) {
             logger.error("Error processing URL content: {}", e.getMessage(), e);
@@ -134,17 +270,95 @@ public class DocumentProcessingService {
     }
 
     /**
-     * 벡터 스토어에서 특정 메타데이터 기준으로 문서 삭제
+     * 문서 ID: metadata 의 document_id, 없으면 fallback (URL, 텍스트 내용 해시). 같은 ID 로 다시 수집하면 이전 내용을
+     * 대체한다. 파일 이름은 서로 다른 업로드가 같을 수 있어 쓰지 않으며, 파일은 업로드 작업이 정한 ID 가 필요하다
+     */
+    private static String documentId(Map<String, Object> metadata, String fallback) {
+        Object documentId = metadata.get(ChunkManifest.DOCUMENT_ID);
+        if (documentId != null && !documentId.toString().isBlank()) {
+            return documentId.toString();
+        }
+        if (fallback == null || fallback.isBlank()) {
+            throw new IllegalArgumentException("문서 ID 를 정할 수 없습니다 (document_id 메타데이터가 필요합니다).");
+        }
+        return fallback;
+    }
+
+    private ChunkManifest.Session openManifest(String documentId, Progress progress) {
+        String generation = progress.generation() != null ? progress.generation() : UUID.randomUUID().toString();
+        return chunkManifest.open(documentId, generation);
+    }
+
+    /**
+     * 목록에 없는 청크만 배치로 임베딩해 벡터 스토어와 키워드 색인에 저장하고 저장한 청크 수를 반환.
+     * 배치가 저장될 때마다 목록에 기록하므로 일부만 저장된 채 실패해도 되돌리지 않는다. 청크 ID 가 내용으로 정해져
+     * 다시 시도하면 저장된 청크는 건너뛰고 나머지만 같은 ID 로 저장된다. 건너뛴 청크도 이 노드의 키워드 색인에는 넣는다
+     */
+    private int store(List<Document> chunks, ChunkManifest.Session manifest, IntConsumer onStored) {
+        List<Document> changed = manifest.select(chunks, keywordSearchService::indexDocuments);
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        embeddingBatcher.embedAndStore(changed, batch -> {
+            write(batch);
+            manifest.recordStored(batch);
+        }, onStored);
+        return changed.size();
+    }
+
+    private void write(List<Document> batch) {
+        vectorStore.add(batch);
+        statistics.recordAdded(batch);
+        keywordSearchService.indexDocuments(batch);
+        // 청크 ID 는 내용에 따라 바뀌므로 이전 청크로 만든 답변은 원본 문서 ID 로 찾아 버림
+        answerCache.invalidateSources(SemanticAnswerCache.sourceIds(batch));
+    }
+
+    /**
+     * 이번 수집에서 확인되지 않은 (바뀌기 전 내용이나 문서에서 사라진) 청크를 지움
+     */
+    private void removeStaleChunks(ChunkManifest.Session manifest) {
+        List<String> staleIds = manifest.staleChunkIds();
+        if (!staleIds.isEmpty()) {
+            logger.info("Removing {} stale chunks of document {}", staleIds.size(), manifest.getDocumentId());
+            delete(staleIds, Set.of(manifest.getDocumentId()));
+        }
+        manifest.forgetStale();
+    }
+
+    /**
+     * 카테고리별 통계를 위해 청크 목록에서 지우기 전에 호출. sourceIds 는 지우는 청크의 원본 문서 ID
+     */
+    private void delete(List<String> ids, Set<String> sourceIds) {
+        Map<String, Long> removedByCategory = chunkManifest.countByCategory(ids);
+        vectorStore.delete(ids);
+        statistics.recordRemoved(ids.size(), removedByCategory);
+        keywordSearchService.removeDocuments(ids);
+        answerCache.invalidateSources(sourceIds);
+    }
+
+    /**
+     * 벡터 스토어에서 특정 메타데이터 기준으로 문서 삭제하고 지운 청크 수를 반환.
+     * document_id 는 청크 목록에서 실제 청크 ID 를 찾고, 다른 키는 메타데이터 필터 검색으로 찾는다
      */
-    public void deleteDocumentsByMetadata(String metadataKey, String metadataValue) {
+    public int deleteDocumentsByMetadata(String metadataKey, String metadataValue) {
         try {
             logger.info("Deleting documents with {}={}", metadataKey, metadataValue);
-            
-            // Note: VectorStore 인터페이스에 따라 삭제 방법이 다를 수 있음
-            // 여기서는 기본적인 구현을 제공
-            vectorStore.delete(List.of(metadataValue));
-            
-            logger.info("Successfully deleted documents");
+
+            int deleted;
+            if (ChunkManifest.DOCUMENT_ID.equals(metadataKey)) {
+                List<String> ids = chunkManifest.findChunkIds(metadataValue);
+                if (!ids.isEmpty()) {
+                    delete(ids, Set.of(ChunkManifest.normalize(metadataValue)));
+                }
+                chunkManifest.forgetDocument(metadataValue);
+                deleted = ids.size();
+            } else {
+                deleted = deleteByFilter(new FilterExpressionBuilder().eq(metadataKey, metadataValue).build(), metadataValue);
+            }
+
+            logger.info("Successfully deleted {} chunks", deleted);
+            return deleted;
             
         } catch (Exception e) {
             logger.error("Error deleting documents: {}", e.getMessage(), e);
@@ -152,37 +366,49 @@ public class DocumentProcessingService {
         }
     }
 
+    /**
+     * 필터에 맞는 청크를 DELETE_PAGE_SIZE 개씩 찾아 지움 (검색 질의는 필터 결과에 영향이 없어 아무 텍스트나 사용)
+     */
+    private int deleteByFilter(Filter.Expression filter, String query) {
+        Set<String> deleted = new HashSet<>();
+        while (true) {
+            List<Document> found = vectorStore.similaritySearch(SearchRequest.query(query)
+                    .withTopK(DELETE_PAGE_SIZE)
+                    .withSimilarityThresholdAll()
+                    .withFilterExpression(filter));
+            List<Document> remaining = found.stream().filter(document -> !deleted.contains(document.getId())).toList();
+            List<String> ids = remaining.stream().map(Document::getId).toList();
+            if (ids.isEmpty()) {
+                return deleted.size();
+            }
+            delete(ids, SemanticAnswerCache.sourceIds(remaining));
+            chunkManifest.forgetChunks(ids);
+            deleted.addAll(ids);
+            if (found.size() < DELETE_PAGE_SIZE) {
+                return deleted.size();
+            }
+        }
+    }
+
     /**
      * 문서에 메타데이터를 추가
      */
     private void enhanceDocumentsWithMetadata(List<Document> documents, Map<String, Object> metadata) {
-        for (Document doc : documents) {
-            Map<String, Object> docMetadata = new HashMap<>(doc.getMetadata());
-            docMetadata.putAll(metadata);
-            docMetadata.put("processed_at", System.currentTimeMillis());
-            docMetadata.put("chunk_index", documents.indexOf(doc));
-            
-            // 문서 내용 요약 정보 추가
-            String content = doc.getContent();
-            docMetadata.put("content_length", content.length());
-            docMetadata.put("word_count", content.split("\\s+").length);
-            
-            doc.getMetadata().clear();
-            doc.getMetadata().putAll(docMetadata);
-        }
+        enhanceDocumentsWithMetadata(documents, metadata, 0);
     }
 
     /**
-     * 벡터 스토어의 문서 수 조회
+     * firstIndex: 여러 구간으로 나눠 읽을 때 이 목록 앞에 이미 처리한 문서 수.
+     * 글자 / 단어 수 등 텍스트 통계는 분할한 뒤 청크마다 계산한다 ({@link ChunkManifest.Session#select})
      */
-    public long getDocumentCount() {
-        try {
-            // VectorStore 구현에 따라 다를 수 있음
-            // 임시로 검색을 통해 추정
-            return vectorStore.similaritySearch("").size();
-        } catch (Exception e) {
-            logger.warn("Could not get document count: {}", e.getMessage());
-            return -1;
+    private void enhanceDocumentsWithMetadata(List<Document> documents, Map<String, Object> metadata, int firstIndex) {
+        long processedAt = System.currentTimeMillis();
+        for (int i = 0; i < documents.size(); i++) {
+            Map<String, Object> docMetadata = documents.get(i).getMetadata();
+            docMetadata.putAll(metadata);
+            docMetadata.put("processed_at", processedAt);
+            docMetadata.put("chunk_index", firstIndex + i);
         }
     }
+
 }
\ No newline at end of file
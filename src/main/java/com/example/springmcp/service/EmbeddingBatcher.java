@@ -0,0 +1,330 @@
+package com.example.springmcp.service;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 문서 수집 시 청크를 토큰 예산 단위 배치로 나눠 임베딩하고 저장.
+ *
+ * 배치는 노드 전체에서 app.embedding-batcher.max-concurrent-batches 개까지 동시에 처리되고, 요청 전에
+ * 분당 토큰 한도(resilience4j 의 embeddingTokens 레이트 리미터)에서 배치 토큰 수만큼 허가를 받는다.
+ * 배치마다 지터를 준 지수 백오프로 재시도하므로 한 번의 429 가 문서 전체를 실패시키지 않고,
+ * 끝난 배치는 바로 저장되어 진행 상황에 반영된다. 임베딩 캐시가 켜져 있으면 배치 텍스트를 한 번의 요청으로
+ * 임베딩해 두어, 벡터 저장소가 저장하면서 다시 임베딩할 때는 캐시에서 읽는다. 시맨틱 분할처럼 청크에 임베딩이
+ * 이미 달려 있으면 요청하지 않고, 그 배치를 저장하는 동안에만 그 벡터를 쓰게 한다 (근사 벡터라 캐시에는 넣지 않음).
+ */
+@Component
+public class EmbeddingBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingBatcher.class);
+
+    static final String RATE_LIMITER = "embeddingTokens";
+
+    private final EmbeddingModel embeddingModel;
+    private final CachingEmbeddingModel embeddingCache;
+    private final RateLimiter tokenLimiter;
+    private final boolean preEmbed;
+    private final int maxBatchTokens;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final SimpleAsyncTaskExecutor batchExecutor;
+    private final Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+    private final Counter retriedBatches;
+    private final Counter failedBatches;
+    private final Counter embeddedTokens;
+
+    public EmbeddingBatcher(EmbeddingModel embeddingModel,
+                            RateLimiterRegistry rateLimiterRegistry,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.embedding-cache.enabled:true}") boolean embeddingCacheEnabled,
+                            @Value("${app.embedding-batcher.max-batch-tokens:50000}") int maxBatchTokens,
+                            @Value("${app.embedding-batcher.max-batch-size:256}") int maxBatchSize,
+                            @Value("${app.embedding-batcher.max-concurrent-batches:4}") int maxConcurrentBatches,
+                            @Value("${app.embedding-batcher.max-attempts:5}") int maxAttempts,
+                            @Value("${app.embedding-batcher.initial-backoff:1s}") Duration initialBackoff,
+                            @Value("${app.embedding-batcher.max-backoff:30s}") Duration maxBackoff) {
+        this.embeddingModel = embeddingModel;
+        this.tokenLimiter = rateLimiterRegistry.rateLimiter(RATE_LIMITER);
+        // 캐시가 없으면 미리 임베딩한 결과를 저장소가 다시 쓰지 못하므로 비용만 두 배가 됨
+        this.preEmbed = embeddingCacheEnabled;
+        this.embeddingCache = embeddingCacheEnabled && embeddingModel instanceof CachingEmbeddingModel cache ? cache : null;
+        this.maxBatchTokens = maxBatchTokens;
+        this.maxBatchSize = maxBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.batchExecutor = new SimpleAsyncTaskExecutor("embedding-batch-");
+        this.batchExecutor.setVirtualThreads(true);
+        this.batchExecutor.setConcurrencyLimit(maxConcurrentBatches);
+
+        this.retriedBatches = batchCounter(meterRegistry, "retried");
+        this.failedBatches = batchCounter(meterRegistry, "failed");
+        this.embeddedTokens = Counter.builder("ai_embedding_batch_tokens_total")
+                .description("Tokens sent in ingestion embedding batches (including retries)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 청크를 배치로 나눠 임베딩하고 writer 로 저장. onStored 는 저장된 청크 누적 수를 증가하는 순서로 받는다.
+     * 어느 배치든 재시도를 다 쓰면 남은 배치를 시작하지 않고, 이미 저장된 청크 ID 를 담아 예외를 던진다
+     */
+    public void embedAndStore(List<Document> chunks, Consumer<List<Document>> writer, IntConsumer onStored) {
+        List<Batch> batches = partition(chunks);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Queue<String> storedIds = new ConcurrentLinkedQueue<>();
+        ReentrantLock progressLock = new ReentrantLock();
+        int[] storedCount = {0};
+
+        List<CompletableFuture<Void>> running = new ArrayList<>(batches.size());
+        for (Batch batch : batches) {
+            if (failure.get() != null) {
+                break;
+            }
+            // 동시 실행 한도에 닿으면 여기서 기다림
+            running.add(CompletableFuture.runAsync(() -> {
+                if (failure.get() != null) {
+                    return;
+                }
+                try {
+                    process(batch, writer);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    return;
+                }
+                batch.documents.forEach(document -> storedIds.add(document.getId()));
+                progressLock.lock();
+                try {
+                    storedCount[0] += batch.documents.size();
+                    onStored.accept(storedCount[0]);
+                } finally {
+                    progressLock.unlock();
+                }
+            }, batchExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            failure.compareAndSet(null, e.getCause() instanceof RuntimeException cause ? cause : e);
+        }
+        if (failure.get() != null) {
+            throw new BatchFailedException(failure.get(), List.copyOf(storedIds));
+        }
+    }
+
+    /**
+     * 텍스트를 같은 토큰 예산, 분당 토큰 한도, 재시도로 임베딩해 입력 순서대로 반환 (시맨틱 분할의 문장 임베딩 등)
+     */
+    public List<List<Double>> embed(List<String> texts) {
+        List<List<Double>> embeddings = new ArrayList<>(texts.size());
+        int start = 0;
+        while (start < texts.size()) {
+            int end = start;
+            int tokens = 0;
+            while (end < texts.size() && end - start < maxBatchSize) {
+                int textTokens = encoding.countTokens(texts.get(end));
+                if (end > start && tokens + textTokens > maxBatchTokens) {
+                    break;
+                }
+                tokens += textTokens;
+                end++;
+            }
+            List<String> batch = texts.subList(start, end);
+            embeddings.addAll(withRetries(batch.size(), tokens, () -> embeddingModel.embed(batch)));
+            start = end;
+        }
+        return embeddings;
+    }
+
+    /**
+     * 청크에 미리 달아 둔 임베딩을 저장에 쓸 수 있는지 (임베딩 캐시가 있어야 벡터 저장소가 다시 임베딩하지 않음)
+     */
+    public boolean canReuseEmbeddings() {
+        return embeddingCache != null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.close();
+    }
+
+    /**
+     * 저장에 그대로 쓸 임베딩이 이미 달린 청크 (요청하지 않으므로 토큰을 쓰지 않음)
+     */
+    private boolean reusesEmbedding(Document chunk) {
+        return embeddingCache != null && chunk.getEmbedding() != null && !chunk.getEmbedding().isEmpty();
+    }
+
+    /**
+     * 순서를 유지하며 토큰 수와 개수 한도 안에서 청크를 묶음 (한도보다 큰 청크는 혼자 하나의 배치)
+     */
+    List<Batch> partition(List<Document> chunks) {
+        List<Batch> batches = new ArrayList<>();
+        List<Document> current = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        int tokens = 0;
+        for (Document chunk : chunks) {
+            String text = chunk.getFormattedContent(MetadataMode.EMBED);
+            int chunkTokens = reusesEmbedding(chunk) ? 0 : encoding.countTokens(text);
+            if (!current.isEmpty() && (tokens + chunkTokens > maxBatchTokens || current.size() >= maxBatchSize)) {
+                batches.add(new Batch(current, texts, tokens));
+                current = new ArrayList<>();
+                texts = new ArrayList<>();
+                tokens = 0;
+            }
+            current.add(chunk);
+            texts.add(text);
+            tokens += chunkTokens;
+        }
+        if (!current.isEmpty()) {
+            batches.add(new Batch(current, texts, tokens));
+        }
+        return batches;
+    }
+
+    private void process(Batch batch, Consumer<List<Document>> writer) {
+        withRetries(batch.documents.size(), batch.tokens, () -> {
+            Map<String, List<Double>> attached = preEmbed ? preEmbed(batch) : Map.of();
+            if (attached.isEmpty()) {
+                writer.accept(batch.documents);
+            } else {
+                // 벡터 저장소는 writer 스레드에서 임베딩하므로 그동안만 달려 있던 벡터를 돌려줌
+                embeddingCache.withPrecomputed(attached, () -> writer.accept(batch.documents));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 달린 임베딩이 없는 청크를 임베딩해 캐시에 두고, 달린 임베딩은 텍스트별로 모아 반환
+     */
+    private Map<String, List<Double>> preEmbed(Batch batch) {
+        List<String> texts = new ArrayList<>(batch.texts.size());
+        Map<String, List<Double>> attached = new HashMap<>();
+        for (int i = 0; i < batch.documents.size(); i++) {
+            Document chunk = batch.documents.get(i);
+            if (reusesEmbedding(chunk)) {
+                attached.put(batch.texts.get(i), chunk.getEmbedding());
+            } else {
+                texts.add(batch.texts.get(i));
+            }
+        }
+        if (!texts.isEmpty()) {
+            embeddingModel.embed(texts);
+        }
+        return attached;
+    }
+
+    private <T> T withRetries(int size, int tokens, Supplier<T> call) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // 재시도도 토큰을 다시 쓰므로 시도마다 허가를 받음 (한 주기 한도보다 큰 배치는 한도만큼)
+                if (tokens > 0 && !tokenLimiter.acquirePermission(Math.min(tokens, tokenLimiter.getRateLimiterConfig().getLimitForPeriod()))) {
+                    throw RequestNotPermitted.createRequestNotPermitted(tokenLimiter);
+                }
+                embeddedTokens.increment(tokens);
+                return call.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    failedBatches.increment();
+                    throw e;
+                }
+                retriedBatches.increment();
+                long backoff = backoffMillis(attempt);
+                logger.warn("Embedding batch of {} inputs failed (attempt {}), retrying in {} ms: {}",
+                        size, attempt, backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * 지수 백오프의 절반은 고정, 절반은 무작위 (동시에 실패한 배치들이 같은 순간에 다시 몰리지 않게)
+     */
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    private static Counter batchCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai_embedding_batches_total")
+                .description("Ingestion embedding batches that were retried or failed")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    static final class Batch {
+        private final List<Document> documents;
+        private final List<String> texts;
+        private final int tokens;
+
+        private Batch(List<Document> documents, List<String> texts, int tokens) {
+            this.documents = documents;
+            this.texts = texts;
+            this.tokens = tokens;
+        }
+
+        List<Document> getDocuments() {
+            return documents;
+        }
+
+        int getTokens() {
+            return tokens;
+        }
+    }
+
+    /**
+     * 재시도를 다 쓴 배치가 있어 저장을 끝내지 못함. 그 전에 저장된 청크 ID 를 담고 있다
+     */
+    public static class BatchFailedException extends RuntimeException {
+
+        private final List<String> storedIds;
+
+        BatchFailedException(RuntimeException cause, List<String> storedIds) {
+            super("Embedding batch failed after retries: " + cause.getMessage(), cause);
+            this.storedIds = storedIds;
+        }
+
+        public List<String> getStoredIds() {
+            return storedIds;
+        }
+    }
+}
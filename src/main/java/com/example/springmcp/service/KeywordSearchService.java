@@ -0,0 +1,216 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.model.UrlEntry;
+import com.example.springmcp.repository.UrlEntryRepository;
+import com.example.springmcp.repository.UrlEntrySearchIndex;
+import com.example.springmcp.search.Bm25Index;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 문서 청크와 단축 URL 에 대한 키워드 검색.
+ *
+ * 청크는 벡터 저장소에 넣을 때 같은 ID 로 메모리 BM25 색인에 함께 넣는다. 색인은 노드마다 메모리에만 있으므로
+ * 시작할 때와 app.keyword-search.chunk-refresh-interval-ms 마다 벡터 저장소 내용으로 다시 맞춘다
+ * (다른 노드가 수집하거나 지운 청크, 재시작 전에 저장된 청크).
+ * URL 은 메모리에 올리지 않고 url_entry 의 ngram FULLTEXT 색인으로 DB 에서 상위 몇 건만 읽는다.
+ * 색인은 시작 후 없으면 만들고, 만들어지기 전이나 만들 수 없는 스키마에서는 최신 순 부분 문자열 검색으로 대신한다.
+ * 벡터 검색 결과와는 {@link com.example.springmcp.search.ReciprocalRankFusion} 으로 합친다.
+ */
+@Service
+public class KeywordSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeywordSearchService.class);
+
+    private final UrlEntryRepository urlEntryRepository;
+    private final UrlEntrySearchIndex urlEntrySearchIndex;
+    private final StoredChunkReader storedChunkReader;
+    private final int maxUrlResults;
+    private final boolean createFulltextIndex;
+    private final Bm25Index<Document> chunkIndex = new Bm25Index<>();
+    private final AtomicBoolean fulltextAvailable = new AtomicBoolean();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public KeywordSearchService(UrlEntryRepository urlEntryRepository,
+                                UrlEntrySearchIndex urlEntrySearchIndex,
+                                StoredChunkReader storedChunkReader,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.keyword-search.max-url-results:20}") int maxUrlResults,
+                                @Value("${app.keyword-search.create-fulltext-index:true}") boolean createFulltextIndex) {
+        this.urlEntryRepository = urlEntryRepository;
+        this.urlEntrySearchIndex = urlEntrySearchIndex;
+        this.storedChunkReader = storedChunkReader;
+        this.maxUrlResults = maxUrlResults;
+        this.createFulltextIndex = createFulltextIndex;
+
+        Gauge.builder("keyword_index_documents", chunkIndex, Bm25Index::size)
+                .description("Document chunks in the in-memory BM25 keyword index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 벡터 저장소에 추가한 청크를 키워드 색인에도 추가 (같은 ID 면 대체)
+     */
+    public void indexDocuments(List<Document> documents) {
+        for (Document document : documents) {
+            chunkIndex.put(document.getId(), document.getContent(), document);
+        }
+    }
+
+    public void removeDocuments(List<String> ids) {
+        ids.forEach(chunkIndex::remove);
+    }
+
+    /**
+     * 시작 후 별도 스레드에서 벡터 저장소의 청크로 색인을 채움 (그동안 키워드 검색은 채워진 만큼만 찾음)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadChunkIndex() {
+        Thread.ofVirtual().name("keyword-index-load").start(this::refreshChunkIndex);
+    }
+
+    /**
+     * 벡터 저장소의 청크로 색인을 맞춤. 색인에 없는 청크는 넣고, 맞추기 전부터 색인에 있었지만 저장소에 없는 청크는 뺀다
+     * (맞추는 동안 이 노드가 추가한 청크는 그대로 둠). 청크 ID 는 내용으로 정해지므로 이미 있는 청크는 다시 색인하지 않는다
+     */
+    @Scheduled(initialDelayString = "${app.keyword-search.chunk-refresh-interval-ms:300000}",
+            fixedDelayString = "${app.keyword-search.chunk-refresh-interval-ms:300000}")
+    public void refreshChunkIndex() {
+        // 시작 시 채우기와 주기 실행이 겹치면 하나만 실행
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            Set<String> before = chunkIndex.ids();
+            Set<String> stored = new HashSet<>();
+            int[] added = {0};
+            boolean listed = storedChunkReader.forEachPage(page -> {
+                for (Document document : page) {
+                    stored.add(document.getId());
+                    if (!chunkIndex.contains(document.getId())) {
+                        chunkIndex.put(document.getId(), document.getContent(), document);
+                        added[0]++;
+                    }
+                }
+            });
+            if (!listed) {
+                return;
+            }
+            before.removeAll(stored);
+            before.forEach(chunkIndex::remove);
+            if (added[0] > 0 || !before.isEmpty()) {
+                logger.info("Refreshed keyword index from the vector store: {} added, {} removed, {} chunks",
+                        added[0], before.size(), chunkIndex.size());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not refresh keyword index from the vector store: {}", e.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * BM25 점수 순 청크
+     */
+    public List<Document> searchDocuments(String query, int limit) {
+        return chunkIndex.search(query, limit).stream().map(Bm25Index.Hit::getValue).toList();
+    }
+
+    /**
+     * 애플리케이션 시작 후 URL 검색용 FULLTEXT 색인 확인. 없으면 별도 스레드에서 생성하며 그동안은 부분 문자열 검색을 사용
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareUrlSearchIndex() {
+        try {
+            if (urlEntrySearchIndex.exists()) {
+                fulltextAvailable.set(true);
+                return;
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not check the URL search index, using substring search: {}", e.getMessage());
+            return;
+        }
+        if (!createFulltextIndex) {
+            logger.warn("URL search index is missing and app.keyword-search.create-fulltext-index is off, using substring search");
+            return;
+        }
+        Thread.ofVirtual().name("url-search-index").start(this::createUrlSearchIndex);
+    }
+
+    void createUrlSearchIndex() {
+        try {
+            logger.info("Creating URL search index");
+            urlEntrySearchIndex.create();
+            fulltextAvailable.set(true);
+            logger.info("URL search index created");
+        } catch (DataAccessException e) {
+            logger.warn("Could not create the URL search index, using substring search: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 관련도 순 URL 매핑 (단축 키, 원본 URL 의 도메인 / 경로 조각으로 검색). 최대 app.keyword-search.max-url-results 개
+     */
+    public List<Document> searchUrls(String query, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        int maxResults = Math.min(limit, maxUrlResults);
+        if (fulltextAvailable.get()) {
+            try {
+                return toDocuments(urlEntryRepository.searchByKeywords(query, maxResults));
+            } catch (DataAccessException e) {
+                // 색인이 삭제되는 등 스키마가 바뀜. 이후로는 부분 문자열 검색
+                if (fulltextAvailable.compareAndSet(true, false)) {
+                    logger.warn("URL fulltext search failed, falling back to substring search: {}", e.getMessage());
+                }
+            }
+        }
+        return toDocuments(urlEntryRepository.searchBySubstring(likePattern(query.trim()), maxResults));
+    }
+
+    boolean isFulltextAvailable() {
+        return fulltextAvailable.get();
+    }
+
+    /**
+     * LIKE 의 와일드카드 문자를 이스케이프한 '%query%' (MySQL 기본 이스케이프 문자는 '\')
+     */
+    static String likePattern(String query) {
+        StringBuilder pattern = new StringBuilder(query.length() + 2).append('%');
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    private static List<Document> toDocuments(List<UrlEntry> entries) {
+        return entries.stream().map(KeywordSearchService::toDocument).toList();
+    }
+
+    private static Document toDocument(UrlEntry entry) {
+        return new Document("url:" + entry.getShortUrl(),
+                String.format("URL Mapping: %s -> %s (Created: %s)", entry.getShortUrl(), entry.getLongUrl(), entry.getCreatedAt()),
+                Map.of("type", "url_mapping", "shortUrl", entry.getShortUrl(), "longUrl", entry.getLongUrl()));
+    }
+}
@@ -10,6 +10,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicDouble;
 
@@ -19,6 +20,7 @@ public class MetricsService {
     private static final Logger logger = LoggerFactory.getLogger(MetricsService.class);
     
     private final MeterRegistry meterRegistry;
+    private final VectorStoreStatistics vectorStoreStatistics;
     
     // URL Shortener 메트릭
     private final Counter urlShortenedCounter;
@@ -35,6 +37,8 @@ public class MetricsService {
     private final Counter aiErrorCounter;
     private final Timer aiChatResponseTimer;
     private final Timer aiRagResponseTimer;
+    private final Timer aiChatTimeToFirstTokenTimer;
+    private final Counter aiChatStreamCancelledCounter;
     private final AtomicDouble averageAiResponseTime = new AtomicDouble(0.0);
     private final AtomicLong aiTokensUsed = new AtomicLong(0);
     
@@ -42,7 +46,6 @@ public class MetricsService {
     private final Counter documentsProcessedCounter;
     private final Counter documentsUploadedCounter;
     private final Timer documentProcessingTimer;
-    private final AtomicLong totalDocumentsInVectorStore = new AtomicLong(0);
     private final AtomicLong totalDocumentSize = new AtomicLong(0);
     
     // 검색 메트릭
@@ -56,8 +59,9 @@ public class MetricsService {
     private final AtomicLong dailyActiveUsers = new AtomicLong(0);
     private final AtomicLong peakConcurrentUsers = new AtomicLong(0);
 
-    public MetricsService(MeterRegistry meterRegistry) {
+    public MetricsService(MeterRegistry meterRegistry, VectorStoreStatistics vectorStoreStatistics) {
         this.meterRegistry = meterRegistry;
+        this.vectorStoreStatistics = vectorStoreStatistics;
         
         // URL Shortener 메트릭 초기화
         this.urlShortenedCounter = Counter.builder("url_shortened_total")
@@ -100,6 +104,15 @@ public class MetricsService {
         this.aiRagResponseTimer = Timer.builder("ai_rag_response_duration")
                 .description("Time taken for AI RAG responses")
                 .register(meterRegistry);
+
+        this.aiChatTimeToFirstTokenTimer = Timer.builder("ai_chat_time_to_first_token")
+                .description("Time from a streaming chat request until its first token is sent")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        this.aiChatStreamCancelledCounter = Counter.builder("ai_chat_stream_cancelled_total")
+                .description("Streaming chat responses cancelled because the client disconnected")
+                .register(meterRegistry);
         
         // 문서 처리 메트릭 초기화
         this.documentsProcessedCounter = Counter.builder("documents_processed_total")
@@ -140,9 +153,10 @@ public class MetricsService {
                 .description("Total AI tokens used")
                 .register(meterRegistry, aiTokensUsed, AtomicLong::get);
                 
+        // 재시작해도 유지되는 벡터 스토어 통계를 그대로 노출 (카테고리별 수 등은 vector_store_* 게이지)
         Gauge.builder("documents_in_vector_store_total")
                 .description("Total documents in vector store")
-                .register(meterRegistry, totalDocumentsInVectorStore, AtomicLong::get);
+                .register(meterRegistry, vectorStoreStatistics, VectorStoreStatistics::getDocumentCount);
                 
         Gauge.builder("documents_total_size_bytes")
                 .description("Total size of all documents")
@@ -181,6 +195,16 @@ public class MetricsService {
         logger.debug("URL shortened, total active URLs: {}", activeUrls.get());
     }
 
+    public void recordUrlsShortened(int count) {
+        if (count <= 0) {
+            return;
+        }
+        urlShortenedCounter.increment(count);
+        totalUrlsCreated.addAndGet(count);
+        activeUrls.addAndGet(count);
+        logger.debug("{} URLs shortened in batch, total active URLs: {}", count, activeUrls.get());
+    }
+
     public void recordUrlAccessed(String shortUrl) {
         urlAccessedCounter.increment();
         logger.debug("URL accessed: {}", shortUrl);
@@ -237,6 +261,15 @@ public class MetricsService {
         updateAverageAiResponseTime();
     }
 
+    public void recordAiTimeToFirstToken(long nanos) {
+        aiChatTimeToFirstTokenTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAiChatStreamCancelled() {
+        aiChatStreamCancelledCounter.increment();
+        logger.debug("AI chat stream cancelled by client");
+    }
+
     public Timer.Sample startAiRagTimer() {
         return Timer.start(meterRegistry);
     }
@@ -260,7 +293,6 @@ public class MetricsService {
     // 문서 처리 메트릭 메서드들
     public void recordDocumentProcessed(String type, long sizeBytes) {
         documentsProcessedCounter.increment("type", type);
-        totalDocumentsInVectorStore.incrementAndGet();
         totalDocumentSize.addAndGet(sizeBytes);
         logger.debug("Document processed: type={}, size={} bytes", type, sizeBytes);
     }
@@ -331,7 +363,7 @@ public class MetricsService {
             "documents", Map.of(
                 "processed", documentsProcessedCounter.count(),
                 "uploaded", documentsUploadedCounter.count(),
-                "inVectorStore", totalDocumentsInVectorStore.get(),
+                "inVectorStore", vectorStoreStatistics.getDocumentCount(),
                 "totalSize", totalDocumentSize.get()
             ),
             "search", Map.of(
@@ -0,0 +1,115 @@
+package com.example.springmcp.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.reader.ExtractedTextFormatter;
+import org.springframework.core.io.Resource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PDF 를 페이지 구간 단위로 읽는 리더.
+ *
+ * PagePdfDocumentReader 는 모든 페이지를 한 번에 Document 로 만들지만, 이 리더는 요청한 구간의 페이지만
+ * 텍스트로 뽑으므로 힙에는 한 구간의 텍스트만 올라간다. 파일 리소스는 PDFBox 가 파일에서 필요한 부분만 읽고,
+ * 그 외 리소스는 원본 바이트를 한 번 버퍼에 담는다. 페이지 Document 의 메타데이터 키는 PagePdfDocumentReader 와 같다.
+ */
+final class PdfPageWindowReader implements Closeable {
+
+    static final String METADATA_PAGE_NUMBER = "page_number";
+    static final String METADATA_FILE_NAME = "file_name";
+
+    private final PDDocument document;
+    private final String filename;
+    private final ExtractedTextFormatter formatter;
+    private final PageTextStripper stripper = new PageTextStripper();
+
+    private PdfPageWindowReader(PDDocument document, String filename, ExtractedTextFormatter formatter) {
+        this.document = document;
+        this.filename = filename;
+        this.formatter = formatter;
+    }
+
+    static PdfPageWindowReader open(Resource resource, ExtractedTextFormatter formatter) throws IOException {
+        PDDocument document = resource.isFile()
+                ? Loader.loadPDF(resource.getFile())
+                : Loader.loadPDF(new RandomAccessReadBuffer(resource.getInputStream()));
+        return new PdfPageWindowReader(document, resource.getFilename(), formatter);
+    }
+
+    int getPageCount() {
+        return document.getNumberOfPages();
+    }
+
+    /**
+     * fromPage ~ toPage (1부터, 양끝 포함) 중 텍스트가 있는 페이지를 페이지마다 하나의 Document 로 반환
+     */
+    List<Document> read(int fromPage, int toPage) throws IOException {
+        List<Document> pages = new ArrayList<>(toPage - fromPage + 1);
+        stripper.extract(document, fromPage, toPage, (pageNumber, text) -> {
+            String formatted = formatter.format(text);
+            if (formatted.isBlank()) {
+                return;
+            }
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put(METADATA_PAGE_NUMBER, pageNumber);
+            if (filename != null) {
+                metadata.put(METADATA_FILE_NAME, filename);
+            }
+            pages.add(new Document(formatted, metadata));
+        });
+        return pages;
+    }
+
+    @Override
+    public void close() throws IOException {
+        document.close();
+    }
+
+    private interface PageConsumer {
+        void accept(int pageNumber, String text);
+    }
+
+    /**
+     * 구간을 한 번에 처리하면서 페이지가 끝날 때마다 그 페이지의 텍스트를 넘기는 스트리퍼
+     */
+    private static final class PageTextStripper extends PDFTextStripper {
+
+        private final StringWriter buffer = new StringWriter();
+        private PageConsumer consumer;
+
+        private PageTextStripper() {
+            setSortByPosition(true);
+        }
+
+        void extract(PDDocument document, int fromPage, int toPage, PageConsumer consumer) throws IOException {
+            this.consumer = consumer;
+            buffer.getBuffer().setLength(0);
+            setStartPage(fromPage);
+            setEndPage(toPage);
+            try {
+                writeText(document, buffer);
+            } finally {
+                this.consumer = null;
+            }
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            super.endPage(page);
+            output.flush();
+            consumer.accept(getCurrentPageNo(), buffer.toString());
+            buffer.getBuffer().setLength(0);
+        }
+    }
+}
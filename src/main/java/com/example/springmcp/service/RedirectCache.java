@@ -0,0 +1,95 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.model.UrlEntry;
+import com.example.springmcp.repository.UrlEntryRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 리다이렉트 전용 캐시 (shortKey → longUrl).
+ *
+ * JPA 엔티티 대신 URL 문자열만 보관하고, 용량은 항목 수가 아닌 MB 단위 가중치로 제한한다.
+ * Caffeine 의 W-TinyLFU 정책이 자주 조회되는 키를 남기고, refreshAfterWrite 로
+ * 만료 전에 다시 조회된 핫 키만 백그라운드에서 갱신한다.
+ * Spring 캐시 AOP 프록시를 거치지 않고 컨트롤러가 직접 호출한다.
+ * DB 로딩은 가상 스레드에서 비동기로 수행해, 동기 로더처럼 ConcurrentHashMap 의 bin 락(synchronized)을
+ * 잡은 채 I/O 를 기다리며 요청 가상 스레드가 캐리어 스레드에 고정(pinning)되지 않게 한다.
+ */
+@Component
+public class RedirectCache {
+
+    // 항목당 고정 오버헤드 (노드, String 헤더 등) 추정치
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final AsyncLoadingCache<String, String> cache;
+    private final ExecutorService loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ShortKeyExistenceFilter existenceFilter;
+
+    public RedirectCache(UrlEntryRepository urlEntryRepository,
+                         ShortKeyExistenceFilter existenceFilter,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.redirect-cache.max-size-mb:64}") long maxSizeMb,
+                         @Value("${app.redirect-cache.refresh-after-write:10m}") Duration refreshAfterWrite,
+                         @Value("${app.redirect-cache.expire-after-write:24h}") Duration expireAfterWrite) {
+        this.existenceFilter = existenceFilter;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                // ASCII URL 은 compact string 으로 문자당 1바이트
+                .weigher((String shortKey, String longUrl) -> ENTRY_OVERHEAD_BYTES + shortKey.length() + longUrl.length())
+                .refreshAfterWrite(refreshAfterWrite)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .executor(loadExecutor)
+                .buildAsync(shortKey -> {
+                    UrlEntry urlEntry = urlEntryRepository.findByShortUrl(shortKey);
+                    return urlEntry != null ? urlEntry.getLongUrl() : null;
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "redirect");
+    }
+
+    /**
+     * 단축 키에 해당하는 원본 URL 조회. 없으면 null (예외를 만들지 않음)
+     */
+    public String getLongUrl(String shortKey) {
+        String longUrl = cache.synchronous().getIfPresent(shortKey);
+        if (longUrl != null) {
+            return longUrl;
+        }
+        // 존재하지 않는 키는 DB 조회 없이 바로 반환
+        if (!existenceFilter.mightExist(shortKey)) {
+            return null;
+        }
+        // 같은 키의 동시 조회는 하나의 로딩 결과를 함께 기다림 (join 은 가상 스레드를 고정하지 않음)
+        longUrl = cache.get(shortKey).join();
+        if (longUrl == null) {
+            existenceFilter.recordMiss(shortKey);
+        }
+        return longUrl;
+    }
+
+    /**
+     * 새로 생성된 매핑을 캐시에 미리 적재 (write-through)
+     */
+    public void put(String shortKey, String longUrl) {
+        existenceFilter.register(shortKey);
+        cache.synchronous().put(shortKey, longUrl);
+    }
+
+    public void invalidate(String shortKey) {
+        cache.synchronous().invalidate(shortKey);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loadExecutor.shutdown();
+    }
+}
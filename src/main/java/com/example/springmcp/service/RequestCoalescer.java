@@ -0,0 +1,79 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.util.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 동일한 AI 요청(같은 정규화 입력과 설정)이 동시에 몰릴 때 한 번만 실행하고 결과를 나눠 주는 컴포넌트.
+ *
+ * 작업(operation)마다 single-flight 를 두고, ai_request_coalescing_total{operation,role} 로 실제 실행(leader)과
+ * 결과를 공유받은 요청(follower) 수를 센다. 합쳐진 비율은 follower / (leader + follower) 이다.
+ * follower 는 app.request-coalescing.follower-timeout 까지만 기다리고 {@link SingleFlight.FollowerTimeoutException} 으로 실패한다.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final MeterRegistry meterRegistry;
+    private final Duration followerTimeout;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${app.request-coalescing.follower-timeout:2m}") Duration followerTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.followerTimeout = followerTimeout;
+    }
+
+    public <V> V execute(String operation, String key, Supplier<V> call) {
+        Operation state = operations.computeIfAbsent(operation, Operation::new);
+        SingleFlight.Result<Object> result = state.flight.execute(key, call::get);
+        (result.isShared() ? state.followers : state.leaders).increment();
+        @SuppressWarnings("unchecked")
+        V value = (V) result.getValue();
+        return value;
+    }
+
+    /**
+     * 요청 키. 텍스트는 공백과 유니코드 표현을 정규화해 사소한 차이로 합쳐지지 않는 일을 줄임
+     */
+    public static String key(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            key.append(part instanceof String text ? CachingEmbeddingModel.normalize(text) : String.valueOf(part))
+                    .append('\u0000');
+        }
+        return key.toString();
+    }
+
+    private final class Operation {
+        private final SingleFlight<String, Object> flight;
+        private final Counter leaders;
+        private final Counter followers;
+
+        private Operation(String name) {
+            this.flight = new SingleFlight<>(followerTimeout);
+            this.leaders = counter(name, "leader");
+            this.followers = counter(name, "follower");
+            Gauge.builder("ai_request_coalescing_in_flight", flight, SingleFlight::inFlight)
+                    .description("Distinct AI requests currently executing")
+                    .tag("operation", name)
+                    .register(meterRegistry);
+        }
+
+        private Counter counter(String name, String role) {
+            return Counter.builder("ai_request_coalescing_total")
+                    .description("AI requests by whether they executed (leader) or shared an in-flight result (follower)")
+                    .tag("operation", name)
+                    .tag("role", role)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.util.HnswIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 비슷한 질문에 대한 AI 답변을 재사용하는 시맨틱 캐시.
+ *
+ * 질문 임베딩이 최근 질문과 임계값 이상으로 비슷하고, RAG 의 경우 검색된 청크 ID 집합(해시)까지 같으면
+ * 저장된 답변을 돌려준다. 항목은 TTL 과 최대 개수로 밀려나고, 답변이 근거로 삼은 원본 문서(청크의 document_id,
+ * 없으면 청크 ID)가 다시 수집되거나 삭제되면 함께 무효화된다. 청크 ID 는 내용이 바뀌면 달라지므로 무효화는
+ * 청크가 아닌 원본 문서 단위로 한다. 캐시 응답에는 {@link #HEADER} 헤더가 붙는다.
+ */
+@Service
+public class SemanticAnswerCache {
+
+    public static final String HEADER = "X-Answer-Cache";
+
+    private static final Logger logger = LoggerFactory.getLogger(SemanticAnswerCache.class);
+
+    private final EmbeddingModel embeddingModel;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final Cache<Long, CachedAnswer> answers;
+    private final AtomicLong nextId = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+
+    public SemanticAnswerCache(EmbeddingModel embeddingModel,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.answer-cache.enabled:true}") boolean enabled,
+                               @Value("${app.answer-cache.similarity-threshold:0.95}") double similarityThreshold,
+                               @Value("${app.answer-cache.ttl:10m}") Duration ttl,
+                               @Value("${app.answer-cache.max-entries:1000}") long maxEntries) {
+        this.embeddingModel = embeddingModel;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.answers = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, answers, "ai_answer");
+    }
+
+    /**
+     * 질문을 임베딩 (정규화). 캐시를 쓰지 않거나 임베딩에 실패하면 null
+     */
+    public float[] embedQuestion(String question) {
+        if (!enabled || question == null || question.isBlank()) {
+            return null;
+        }
+        try {
+            List<Double> embedding = embeddingModel.embed(question);
+            float[] vector = new float[embedding.size()];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = embedding.get(i).floatValue();
+            }
+            return HnswIndex.normalize(vector);
+        } catch (Exception e) {
+            logger.warn("Could not embed question for the answer cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 같은 종류(scope)의 비슷한 질문 중 같은 청크 집합을 근거로 한 답변 중 가장 비슷한 것
+     */
+    public Optional<Map<String, Object>> find(String scope, float[] question, Collection<Document> documents) {
+        if (question == null) {
+            return Optional.empty();
+        }
+        String fingerprint = fingerprint(documents.stream().map(Document::getId).toList());
+        CachedAnswer best = null;
+        double bestSimilarity = similarityThreshold;
+        for (CachedAnswer candidate : answers.asMap().values()) {
+            if (!candidate.scope.equals(scope) || !candidate.documentFingerprint.equals(fingerprint)
+                    || candidate.question.length != question.length) {
+                continue;
+            }
+            double similarity = dot(candidate.question, question);
+            if (similarity >= bestSimilarity) {
+                best = candidate;
+                bestSimilarity = similarity;
+            }
+        }
+        lookupCounter(scope, best != null ? "hit" : "miss").increment();
+        if (best == null) {
+            return Optional.empty();
+        }
+        // LRU 에 가깝게 유지되도록 접근을 기록
+        answers.getIfPresent(best.id);
+        return Optional.of(best.answer);
+    }
+
+    public void put(String scope, float[] question, Collection<Document> documents, Map<String, Object> answer) {
+        if (question == null) {
+            return;
+        }
+        long id = nextId.incrementAndGet();
+        String fingerprint = fingerprint(documents.stream().map(Document::getId).toList());
+        answers.put(id, new CachedAnswer(id, scope, question, fingerprint, sourceIds(documents), answer));
+    }
+
+    /**
+     * 해당 원본 문서를 근거로 한 답변을 모두 버림 (문서를 다시 수집하거나 삭제할 때)
+     */
+    public void invalidateSources(Collection<String> sourceIds) {
+        if (sourceIds.isEmpty()) {
+            return;
+        }
+        Set<String> changed = Set.copyOf(sourceIds);
+        answers.asMap().values().removeIf(answer -> answer.sourceIds.stream().anyMatch(changed::contains));
+    }
+
+    /**
+     * 청크들의 원본 문서 ID (document_id 메타데이터, 없으면 청크 ID)
+     */
+    public static Set<String> sourceIds(Collection<Document> documents) {
+        Set<String> sourceIds = new HashSet<>();
+        for (Document document : documents) {
+            Object documentId = document.getMetadata().get(ChunkManifest.DOCUMENT_ID);
+            sourceIds.add(documentId != null ? documentId.toString() : document.getId());
+        }
+        return sourceIds;
+    }
+
+    private Counter lookupCounter(String scope, String result) {
+        return Counter.builder("ai_answer_cache_lookups_total")
+                .description("Semantic answer cache lookups")
+                .tag("scope", scope)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 문서 ID 집합의 순서와 무관한 SHA-256 지문
+     */
+    static String fingerprint(Collection<String> documentIds) {
+        if (documentIds.isEmpty()) {
+            return "";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String id : new TreeSet<>(documentIds)) {
+                digest.update(id.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+
+    private static final class CachedAnswer {
+        private final long id;
+        private final String scope;
+        private final float[] question;
+        private final String documentFingerprint;
+        private final Set<String> sourceIds;
+        private final Map<String, Object> answer;
+
+        private CachedAnswer(long id, String scope, float[] question, String documentFingerprint,
+                             Set<String> sourceIds, Map<String, Object> answer) {
+            this.id = id;
+            this.scope = scope;
+            this.question = question;
+            this.documentFingerprint = documentFingerprint;
+            this.sourceIds = sourceIds;
+            this.answer = answer;
+        }
+    }
+}
@@ -6,12 +6,30 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
 import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.example.springmcp.search.ReciprocalRankFusion;
+import com.example.springmcp.util.MetadataFilterEvaluator;
+import com.example.springmcp.util.TextStatistics;
 
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,13 +39,28 @@ public class SemanticSearchService {
     
     private final VectorStore vectorStore;
     private final EmbeddingModel embeddingModel;
+    private final KeywordSearchService keywordSearchService;
+    private final RequestCoalescer requestCoalescer;
     private final ChatClient chatClient;
+    private final ExecutorService searchExecutor;
+    private final Semaphore searchPermits;
+    private final Duration searchDeadline;
 
     public SemanticSearchService(VectorStore vectorStore, 
                                EmbeddingModel embeddingModel,
-                               ChatClient.Builder chatClientBuilder) {
+                               KeywordSearchService keywordSearchService,
+                               RequestCoalescer requestCoalescer,
+                               ChatClient.Builder chatClientBuilder,
+                               @Value("${app.semantic-search.deadline:3s}") Duration searchDeadline,
+                               @Value("${app.semantic-search.max-concurrent-searches:32}") int maxConcurrentSearches) {
         this.vectorStore = vectorStore;
         this.embeddingModel = embeddingModel;
+        this.keywordSearchService = keywordSearchService;
+        this.requestCoalescer = requestCoalescer;
+        this.searchDeadline = searchDeadline;
+        // 확장 쿼리 검색용 가상 스레드. 벡터 저장소로 동시에 나가는 요청 수는 서비스 전체가 공유하는 허가 수로 제한
+        this.searchExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("semantic-search-", 0).factory());
+        this.searchPermits = new Semaphore(maxConcurrentSearches);
         this.chatClient = chatClientBuilder
                 .defaultOptions(OpenAiChatOptions.builder()
                         .withModel("gpt-4")
@@ -38,34 +71,31 @@ public class SemanticSearchService {
     }
 
     /**
-     * 의미론적 검색 수행
+     * 의미론적 검색 수행. 같은 쿼리와 설정으로 동시에 들어온 검색은 하나의 실행 결과를 함께 받음
      */
     public SemanticSearchResult performSemanticSearch(String query, SearchConfiguration config) {
+        String key = RequestCoalescer.key(query, config.getMaxDocuments(), config.getSimilarityThreshold(),
+                config.isUseQueryExpansion(), config.getFilterExpression());
+        return requestCoalescer.execute("semantic-search", key, () -> search(query, config));
+    }
+
+    private SemanticSearchResult search(String query, SearchConfiguration config) {
         try {
             logger.info("Performing semantic search for query: {}", query);
             
             // 쿼리 확장
             Set<String> expandedQueries = expandQueryWithAI(query, config.isUseQueryExpansion());
             
-            List<Document> allDocuments = new ArrayList<>();
-            Map<String, Double> queryScores = new HashMap<>();
-            
-            // 각 확장된 쿼리에 대해 검색 수행
-            for (String expandedQuery : expandedQueries) {
-                SearchRequest searchRequest = SearchRequest.query(expandedQuery)
-                        .withTopK(config.getMaxDocuments())
-                        .withSimilarityThreshold(config.getSimilarityThreshold())
-                        .withFilterExpression(config.getFilterExpression());
-                
-                List<Document> docs = vectorStore.similaritySearch(searchRequest);
-                allDocuments.addAll(docs);
-                
-                // 각 쿼리의 점수 저장
-                queryScores.put(expandedQuery, calculateQueryRelevance(query, expandedQuery));
-            }
+            // 각 확장된 쿼리에 대해 동시에 검색하고, 끝나는 대로 순위 목록을 모음
+            Queue<List<Document>> rankings = new ConcurrentLinkedQueue<>();
+            Map<String, Double> queryScores = new ConcurrentHashMap<>();
+            searchConcurrently(query, expandedQueries, config, rankings, queryScores);
+
+            // 원본 쿼리의 BM25 키워드 검색 결과도 하나의 순위 목록으로 더함
+            rankings.add(keywordSearch(query, config));
             
             // 문서 중복 제거 및 재랭킹
-            List<ScoredDocument> rankedDocuments = rerankDocuments(allDocuments, query, config);
+            List<ScoredDocument> rankedDocuments = rerankDocuments(new ArrayList<>(rankings), config);
             
             // 결과 생성
             return new SemanticSearchResult(
@@ -82,6 +112,99 @@ public class SemanticSearchService {
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        searchExecutor.shutdownNow();
+    }
+
+    /**
+     * 확장된 쿼리들을 병렬로 검색. 지연 시간은 쿼리 수의 합이 아니라 가장 느린 검색 하나에 가깝고,
+     * 기한(app.semantic-search.deadline)이 지나면 그때까지 도착한 결과만 사용한다.
+     * 허가를 기다리는 시간도 기한에 포함되며, 기한이 지나면 아직 실행 중인 검색은 인터럽트로 중단시킨다
+     */
+    void searchConcurrently(String originalQuery, Set<String> expandedQueries, SearchConfiguration config,
+                            Queue<List<Document>> rankings, Map<String, Double> queryScores) {
+        long deadline = System.nanoTime() + searchDeadline.toNanos();
+        prefetchEmbeddings(expandedQueries);
+
+        CompletionService<QueryResult> completion = new ExecutorCompletionService<>(searchExecutor);
+        List<Future<QueryResult>> searches = new ArrayList<>(expandedQueries.size());
+        for (String expandedQuery : expandedQueries) {
+            SearchRequest searchRequest = SearchRequest.query(expandedQuery)
+                    .withTopK(config.getMaxDocuments())
+                    .withSimilarityThreshold(config.getSimilarityThreshold())
+                    .withFilterExpression(config.getFilterExpression());
+            // 허가는 가상 스레드 안에서 기다리므로 요청 스레드는 제출에서 막히지 않음
+            searches.add(completion.submit(() -> searchWithPermit(expandedQuery, searchRequest, deadline)));
+        }
+
+        int pending = searches.size();
+        try {
+            while (pending > 0) {
+                Future<QueryResult> done = completion.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    logger.warn("Semantic search deadline of {} exceeded, using {} of {} query results",
+                            searchDeadline, queryScores.size(), expandedQueries.size());
+                    break;
+                }
+                pending--;
+                try {
+                    QueryResult result = done.get();
+                    if (result != null) {
+                        rankings.add(result.documents());
+                        // 각 쿼리의 점수 저장
+                        queryScores.put(result.query(), calculateQueryRelevance(originalQuery, result.query()));
+                    }
+                } catch (ExecutionException e) {
+                    logger.warn("Expanded query search failed: {}", e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // 기한 뒤에도 임베딩·벡터 검색 호출을 계속하지 않도록 남은 검색을 인터럽트
+            searches.forEach(search -> search.cancel(true));
+        }
+
+        if (queryScores.isEmpty() && !searches.isEmpty()) {
+            throw new IllegalStateException("No expanded query search completed");
+        }
+    }
+
+    /**
+     * 기한 안에 허가를 얻은 경우에만 검색. 얻지 못하면 null
+     */
+    private QueryResult searchWithPermit(String expandedQuery, SearchRequest searchRequest, long deadline)
+            throws InterruptedException {
+        if (!searchPermits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            logger.debug("No search permit before the deadline, skipping expanded query '{}'", expandedQuery);
+            return null;
+        }
+        try {
+            return new QueryResult(expandedQuery, vectorStore.similaritySearch(searchRequest));
+        } finally {
+            searchPermits.release();
+        }
+    }
+
+    private record QueryResult(String query, List<Document> documents) {
+    }
+
+    /**
+     * 확장된 쿼리들을 한 번의 요청으로 임베딩해 캐시에 올려 둠. 이어지는 각 검색은 OpenAI 를 다시 거치지 않는다
+     */
+    private void prefetchEmbeddings(Set<String> expandedQueries) {
+        if (expandedQueries.size() < 2 || !(embeddingModel instanceof CachingEmbeddingModel)) {
+            return;
+        }
+        try {
+            embeddingModel.embed(new ArrayList<>(expandedQueries));
+        } catch (Exception e) {
+            // 실패하면 각 검색이 개별로 임베딩
+            logger.warn("Batch embedding of expanded queries failed: {}", e.getMessage());
+        }
+    }
+
     /**
      * AI를 사용한 쿼리 확장
      */
@@ -134,22 +257,32 @@ public class SemanticSearchService {
     }
 
     /**
-     * 문서 재랭킹
+     * 원본 쿼리의 BM25 검색. 벡터 검색과 같은 필터 식을 메타데이터에 적용
      */
-    private List<ScoredDocument> rerankDocuments(List<Document> documents, String originalQuery, SearchConfiguration config) {
-        // 중복 제거
-        Map<String, Document> uniqueDocuments = documents.stream()
-                .collect(Collectors.toMap(
-                    doc -> doc.getContent().substring(0, Math.min(100, doc.getContent().length())),
-                    doc -> doc,
-                    (existing, replacement) -> existing,
-                    LinkedHashMap::new
-                ));
+    private List<Document> keywordSearch(String query, SearchConfiguration config) {
+        List<Document> documents = keywordSearchService.searchDocuments(query, config.getMaxDocuments());
+        if (config.getFilterExpression() == null || config.getFilterExpression().isBlank()) {
+            return documents;
+        }
+        Filter.Expression filter = new FilterExpressionTextParser().parse(config.getFilterExpression());
+        return documents.stream()
+                .filter(document -> MetadataFilterEvaluator.matches(filter, document.getMetadata()))
+                .toList();
+    }
+
+    /**
+     * 문서 재랭킹. 확장 쿼리별 벡터 검색 순위와 BM25 순위를 RRF 로 합친 점수를 관련성 점수로 사용
+     */
+    private List<ScoredDocument> rerankDocuments(List<List<Document>> rankings, SearchConfiguration config) {
+        // 같은 청크는 ID 로 합쳐짐
+        List<ReciprocalRankFusion.Fused<Document>> fused = ReciprocalRankFusion.fuse(rankings, Document::getId);
+        double bestFusedScore = fused.isEmpty() ? 1.0 : fused.get(0).getScore();
 
         List<ScoredDocument> scoredDocuments = new ArrayList<>();
         
-        for (Document doc : uniqueDocuments.values()) {
-            double relevanceScore = calculateRelevanceScore(doc, originalQuery);
+        for (ReciprocalRankFusion.Fused<Document> candidate : fused) {
+            Document doc = candidate.getItem();
+            double relevanceScore = candidate.getScore() / bestFusedScore;
             double qualityScore = calculateQualityScore(doc);
             double recencyScore = calculateRecencyScore(doc);
             
@@ -167,35 +300,16 @@ public class SemanticSearchService {
                 .collect(Collectors.toList());
     }
 
-    /**
-     * 문서 관련성 점수 계산
-     */
-    private double calculateRelevanceScore(Document document, String query) {
-        String content = document.getContent().toLowerCase();
-        String lowerQuery = query.toLowerCase();
-        
-        // 단순한 키워드 매칭 기반 점수
-        String[] queryTerms = lowerQuery.split("\\s+");
-        int matches = 0;
-        
-        for (String term : queryTerms) {
-            if (content.contains(term)) {
-                matches++;
-            }
-        }
-        
-        return (double) matches / queryTerms.length;
-    }
-
     /**
      * 문서 품질 점수 계산
      */
     private double calculateQualityScore(Document document) {
-        String content = document.getContent();
+        // 수집 시 저장한 텍스트 통계 사용
+        TextStatistics statistics = TextStatistics.fromMetadata(document.getMetadata(), document.getContent());
         
         // 기본적인 품질 지표들
-        double lengthScore = Math.min(1.0, content.length() / 1000.0); // 긴 문서일수록 높은 점수
-        double structureScore = content.matches(".*[.!?].*") ? 1.0 : 0.5; // 문장 구조가 있는지
+        double lengthScore = Math.min(1.0, statistics.getChars() / 1000.0); // 긴 문서일수록 높은 점수
+        double structureScore = statistics.getSentences() > 1 ? 1.0 : 0.5; // 문장 구조가 있는지 (문장이 둘 이상)
         
         return (lengthScore + structureScore) / 2.0;
     }
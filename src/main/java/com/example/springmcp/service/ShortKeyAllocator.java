@@ -0,0 +1,163 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.model.ShortKeySequence;
+import com.example.springmcp.repository.ShortKeySequenceRepository;
+import com.example.springmcp.util.ShortKeyCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * hi/lo 방식의 단축 키 발급기.
+ *
+ * DB 의 short_key_sequence 행에서 블록 단위로 번호 구간을 예약하고, 노드 로컬 블록 안에서는
+ * 원자적 증가만으로 번호를 꺼내 {@link ShortKeyCodec} 으로 키를 만든다.
+ * 현재 블록이 일정 비율 이상 소진되면 다음 블록을 백그라운드에서 미리 받아 두므로
+ * 쓰기 버스트 중에도 키 발급이 DB 왕복을 기다리지 않는다.
+ */
+@Component
+public class ShortKeyAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShortKeyAllocator.class);
+
+    static final String SEQUENCE_NAME = "url_entry";
+
+    private final ShortKeySequenceRepository sequenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShortKeyCodec codec;
+    private final int blockSize;
+    private final int prefetchRemaining;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "short-key-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Block current = new Block(0, 0);
+    private CompletableFuture<Block> pending;
+
+    public ShortKeyAllocator(ShortKeySequenceRepository sequenceRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.shortener.alphanumeric-characters}") String alphanumeric,
+                             @Value("${app.shortener.key-length}") int keyLength,
+                             @Value("${app.shortener.key-scramble-secret:spring-mcp}") String scrambleSecret,
+                             @Value("${app.shortener.key-block-size:1000}") int blockSize) {
+        this.sequenceRepository = sequenceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.codec = new ShortKeyCodec(alphanumeric, keyLength, scrambleSecret);
+        this.blockSize = blockSize;
+        this.prefetchRemaining = Math.max(1, blockSize / 5);
+    }
+
+    /**
+     * 새 단축 키 발급 (DB 존재 여부 확인 불필요)
+     */
+    public String nextKey() {
+        return codec.encode(nextSequence());
+    }
+
+    /**
+     * 키 형식 검사에 사용하는 코덱
+     */
+    public ShortKeyCodec getCodec() {
+        return codec;
+    }
+
+    long nextSequence() {
+        while (true) {
+            Block block = current;
+            long value = block.cursor.getAndIncrement();
+            if (value < block.end) {
+                if (block.end - value == prefetchRemaining) {
+                    prefetch();
+                }
+                return value;
+            }
+            advance(block);
+        }
+    }
+
+    private void advance(Block exhausted) {
+        lock.lock();
+        try {
+            if (current != exhausted) {
+                return;
+            }
+            Block next = null;
+            if (pending != null) {
+                try {
+                    next = pending.join();
+                } catch (CompletionException e) {
+                    logger.warn("Short key block prefetch failed, reserving synchronously: {}", e.getMessage());
+                }
+                pending = null;
+            }
+            current = next != null ? next : reserveBlock();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void prefetch() {
+        lock.lock();
+        try {
+            if (pending == null) {
+                pending = CompletableFuture.supplyAsync(this::reserveBlock, prefetchExecutor);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 별도 트랜잭션에서 시퀀스 행을 잠그고 blockSize 만큼 구간을 예약.
+     * 행이 아직 없을 때 다른 노드와 동시에 처음 행을 넣으려 했다면 진 쪽은 키 중복으로 롤백되므로,
+     * 이미 생긴 행을 잠그는 경로로 한 번 더 시도한다
+     */
+    private Block reserveBlock() {
+        Block block;
+        try {
+            block = transactionTemplate.execute(status -> reserve());
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Short key sequence row was created concurrently, retrying reservation: {}", e.getMessage());
+            block = transactionTemplate.execute(status -> reserve());
+        }
+        logger.debug("Reserved short key block [{}, {})", block.start, block.end);
+        return block;
+    }
+
+    private Block reserve() {
+        ShortKeySequence sequence = sequenceRepository.findForUpdate(SEQUENCE_NAME)
+                .orElseGet(() -> sequenceRepository.saveAndFlush(new ShortKeySequence(SEQUENCE_NAME, 0)));
+        long start = sequence.getNextValue();
+        sequence.setNextValue(start + blockSize);
+        return new Block(start, start + blockSize);
+    }
+
+    private static final class Block {
+        private final long start;
+        private final long end;
+        private final AtomicLong cursor;
+
+        private Block(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.cursor = new AtomicLong(start);
+        }
+    }
+}
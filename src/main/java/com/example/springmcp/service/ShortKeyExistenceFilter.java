@@ -0,0 +1,145 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.repository.UrlEntryRepository;
+import com.example.springmcp.util.ScalableBloomFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 존재하지 않는 단축 키를 DB 조회 없이 걸러내는 필터.
+ *
+ * 시작 시 url_entry 의 모든 키로 Bloom filter 를 만들고, 이 노드의 생성은 즉시,
+ * 다른 노드의 생성은 created_at 기준 주기 동기화로 반영한다.
+ * Bloom filter 가 놓치는 오탐(false positive)은 짧은 TTL 의 miss 캐시가 흡수한다.
+ */
+@Component
+public class ShortKeyExistenceFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShortKeyExistenceFilter.class);
+
+    private final UrlEntryRepository urlEntryRepository;
+    private final ScalableBloomFilter bloomFilter;
+    private final Cache<String, Boolean> recentMisses;
+    private final Cache<String, Boolean> recentlyRegistered;
+    private final Duration syncOverlap;
+    private final Counter filteredCounter;
+
+    private volatile boolean ready = false;
+    private volatile LocalDateTime syncedUpTo;
+
+    public ShortKeyExistenceFilter(UrlEntryRepository urlEntryRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.short-key-filter.expected-keys:1000000}") long expectedKeys,
+                                   @Value("${app.short-key-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                   @Value("${app.short-key-filter.miss-ttl:30s}") Duration missTtl,
+                                   @Value("${app.short-key-filter.miss-cache-size:100000}") long missCacheSize,
+                                   @Value("${app.short-key-filter.sync-overlap:30s}") Duration syncOverlap) {
+        this.urlEntryRepository = urlEntryRepository;
+        this.bloomFilter = new ScalableBloomFilter(expectedKeys, falsePositiveRate);
+        this.recentMisses = Caffeine.newBuilder()
+                .expireAfterWrite(missTtl)
+                .maximumSize(missCacheSize)
+                .build();
+        // 겹치는 구간 때문에 여러 번 동기화되는 키를 필터에 다시 넣지 않도록 (필터는 넣을 때마다 원소 수를 셈)
+        this.recentlyRegistered = Caffeine.newBuilder()
+                .expireAfterWrite(syncOverlap.multipliedBy(2))
+                .maximumSize(missCacheSize)
+                .build();
+        this.syncOverlap = syncOverlap;
+        this.filteredCounter = Counter.builder("url_lookup_filtered_total")
+                .description("Short key lookups rejected without a database query")
+                .register(meterRegistry);
+
+        Gauge.builder("url_key_filter_size_bytes", bloomFilter, ScalableBloomFilter::sizeInBytes)
+                .description("Memory used by the short key bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("url_key_filter_elements", bloomFilter, ScalableBloomFilter::approximateElementCount)
+                .description("Short keys added to the bloom filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * false 이면 확실히 없는 키. 필터가 아직 준비되지 않았으면 항상 true
+     */
+    public boolean mightExist(String shortKey) {
+        if (!ready) {
+            return true;
+        }
+        if (recentMisses.getIfPresent(shortKey) != null || !bloomFilter.mightContain(shortKey)) {
+            filteredCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * DB 에서도 찾지 못한 키를 miss 캐시에 기록
+     */
+    public void recordMiss(String shortKey) {
+        recentMisses.put(shortKey, Boolean.TRUE);
+    }
+
+    /**
+     * 새로 생성된 키를 필터에 등록
+     */
+    public void register(String shortKey) {
+        if (recentlyRegistered.asMap().putIfAbsent(shortKey, Boolean.TRUE) == null) {
+            bloomFilter.put(shortKey);
+        }
+        recentMisses.invalidate(shortKey);
+    }
+
+    /**
+     * 애플리케이션 시작 후 url_entry 전체 키를 스트리밍으로 적재
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        try (Stream<String> shortKeys = urlEntryRepository.streamAllShortUrls()) {
+            shortKeys.forEach(bloomFilter::put);
+        } catch (Exception e) {
+            logger.warn("Could not build short key filter, lookups will go to the database: {}", e.getMessage());
+            return;
+        }
+        syncedUpTo = startedAt;
+        ready = true;
+        logger.info("Short key filter loaded with {} keys ({} bytes)",
+                bloomFilter.approximateElementCount(), bloomFilter.sizeInBytes());
+    }
+
+    /**
+     * 다른 노드에서 생성된 키를 주기적으로 반영
+     */
+    @Scheduled(fixedDelayString = "${app.short-key-filter.sync-interval-ms:5000}")
+    public void syncRecentKeys() {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            // 노드 간 시계 차이와 커밋 지연을 감안해 이전 동기화 시점보다 조금 앞에서부터 조회
+            List<String> shortKeys = urlEntryRepository.findShortUrlsCreatedSince(syncedUpTo.minus(syncOverlap));
+            shortKeys.forEach(this::register);
+            syncedUpTo = now;
+        } catch (Exception e) {
+            logger.warn("Short key filter sync failed: {}", e.getMessage());
+        }
+    }
+}
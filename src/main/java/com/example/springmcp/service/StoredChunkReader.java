@@ -0,0 +1,88 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.repository.HnswVectorStore;
+import org.springframework.ai.chroma.ChromaApi;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 벡터 저장소에 저장된 청크(ID, 내용, 메타데이터)를 페이지 단위로 읽음.
+ *
+ * VectorStore 계약에는 전체 목록을 읽는 방법이 없으므로 local-vector 프로파일은 HNSW 저장소의 문서를,
+ * Chroma 는 컬렉션의 get API 를 offset / limit 로 읽는다 (임베딩은 읽지 않음). 노드마다 메모리에만 있는
+ * 키워드 색인을 저장소 내용으로 다시 채울 때 쓴다.
+ */
+@Component
+public class StoredChunkReader {
+
+    private final VectorStore vectorStore;
+    private final ObjectProvider<ChromaApi> chromaApi;
+    private final String collection;
+    private final int pageSize;
+
+    public StoredChunkReader(VectorStore vectorStore,
+                             ObjectProvider<ChromaApi> chromaApi,
+                             @Value("${spring.ai.vectorstore.chroma.collection-name:SpringAiCollection}") String chromaCollection,
+                             @Value("${app.keyword-search.refresh-page-size:500}") int pageSize) {
+        this.vectorStore = vectorStore;
+        this.chromaApi = chromaApi;
+        this.collection = chromaCollection;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * 저장된 청크를 pageSize 개씩 넘김. 목록을 읽을 수 없는 저장소면 아무것도 넘기지 않고 false
+     */
+    public boolean forEachPage(Consumer<List<Document>> page) {
+        if (vectorStore instanceof HnswVectorStore local) {
+            List<Document> documents = local.documents();
+            for (int start = 0; start < documents.size(); start += pageSize) {
+                page.accept(documents.subList(start, Math.min(start + pageSize, documents.size())));
+            }
+            return true;
+        }
+        ChromaApi api = chromaApi.getIfAvailable();
+        if (api == null) {
+            return false;
+        }
+        ChromaApi.Collection chromaCollection = api.getCollection(collection);
+        if (chromaCollection == null) {
+            return true;
+        }
+        for (int offset = 0; ; offset += pageSize) {
+            ChromaApi.GetEmbeddingResponse response = api.getEmbeddings(chromaCollection.id(),
+                    new ChromaApi.GetEmbeddingsRequest(null, null, pageSize, offset,
+                            List.of(ChromaApi.QueryRequest.Include.DOCUMENTS, ChromaApi.QueryRequest.Include.METADATAS)));
+            List<Document> documents = toDocuments(response);
+            if (!documents.isEmpty()) {
+                page.accept(documents);
+            }
+            if (documents.size() < pageSize) {
+                return true;
+            }
+        }
+    }
+
+    private static List<Document> toDocuments(ChromaApi.GetEmbeddingResponse response) {
+        if (response == null || response.ids() == null) {
+            return List.of();
+        }
+        List<Document> documents = new ArrayList<>(response.ids().size());
+        for (int i = 0; i < response.ids().size(); i++) {
+            String content = response.documents() != null ? response.documents().get(i) : null;
+            Map<String, Object> metadata = response.metadata() != null && response.metadata().get(i) != null
+                    ? new HashMap<>(response.metadata().get(i)) : new HashMap<>();
+            documents.add(new Document(response.ids().get(i), content != null ? content : "", metadata));
+        }
+        return documents;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.util.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서브시스템별 동시 실행 격벽(bulkhead).
+ *
+ * URL 단축 / 리다이렉트, 채팅, RAG, 시맨틱 검색, 문서 업로드가 각자의 적응형 동시 실행 한도를 가지므로
+ * OpenAI 가 느려져 AI 요청이 쌓여도 그 서브시스템의 한도만 줄어들고 리다이렉트는 영향을 받지 않는다.
+ * 설정은 app.bulkhead.{subsystem}.* 에서 읽고, 없으면 서브시스템별 기본값을 쓴다.
+ */
+@Component
+public class SubsystemBulkheads {
+
+    public enum Subsystem {
+        SHORTENER("shortener", 200, 20, 2000, Duration.ofMillis(100)),
+        CHAT("chat", 20, 2, 200, Duration.ofSeconds(20)),
+        RAG("rag", 20, 2, 200, Duration.ofSeconds(30)),
+        SEMANTIC_SEARCH("semantic-search", 40, 4, 400, Duration.ofSeconds(5)),
+        DOCUMENTS("documents", 4, 1, 20, Duration.ofSeconds(60));
+
+        private final String id;
+        private final int initialLimit;
+        private final int minLimit;
+        private final int maxLimit;
+        private final Duration targetLatency;
+
+        Subsystem(String id, int initialLimit, int minLimit, int maxLimit, Duration targetLatency) {
+            this.id = id;
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.targetLatency = targetLatency;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+
+    private final Map<Subsystem, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(Subsystem.class);
+    private final Map<Subsystem, Counter> rejectedCounters = new EnumMap<>(Subsystem.class);
+
+    public SubsystemBulkheads(Environment environment, MeterRegistry meterRegistry) {
+        double backoffRatio = environment.getProperty("app.bulkhead.backoff-ratio", Double.class, 0.9);
+        for (Subsystem subsystem : Subsystem.values()) {
+            String prefix = "app.bulkhead." + subsystem.id + ".";
+            Duration targetLatency = environment.getProperty(prefix + "target-latency", Duration.class, subsystem.targetLatency);
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    environment.getProperty(prefix + "initial-limit", Integer.class, subsystem.initialLimit),
+                    environment.getProperty(prefix + "min-limit", Integer.class, subsystem.minLimit),
+                    environment.getProperty(prefix + "max-limit", Integer.class, subsystem.maxLimit),
+                    targetLatency.toNanos(), TimeUnit.NANOSECONDS, backoffRatio);
+            limiters.put(subsystem, limiter);
+
+            Gauge.builder("bulkhead_concurrency_limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit of the subsystem")
+                    .tag("subsystem", subsystem.id)
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead_inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                    .description("Requests currently running in the subsystem")
+                    .tag("subsystem", subsystem.id)
+                    .register(meterRegistry);
+            rejectedCounters.put(subsystem, Counter.builder("bulkhead_rejected_total")
+                    .description("Requests rejected because the subsystem was at its concurrency limit")
+                    .tag("subsystem", subsystem.id)
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean tryAcquire(Subsystem subsystem) {
+        if (limiters.get(subsystem).tryAcquire()) {
+            return true;
+        }
+        rejectedCounters.get(subsystem).increment();
+        return false;
+    }
+
+    public void release(Subsystem subsystem, long latencyNanos, boolean failed) {
+        limiters.get(subsystem).release(latencyNanos, failed);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.springmcp.service;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 업로드된 zip / tar(.gz) 파일의 항목을 앞에서부터 하나씩 읽음.
+ *
+ * 압축 파일 전체를 풀어 두거나 힙에 올리지 않고 항목 스트림을 바로 넘기므로, 받는 쪽이 스풀 파일로 흘려 쓰면 된다.
+ * 디렉터리, 숨김 파일(macOS 의 __MACOSX 등), 안에 든 압축 파일은 건너뛴다. 항목 이름은 경로로 쓰지 않는다.
+ */
+final class UploadArchive {
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        /**
+         * content 는 이 항목의 끝에서 끝나며 닫지 않아야 한다
+         */
+        void accept(String name, InputStream content) throws IOException;
+    }
+
+    private UploadArchive() {
+    }
+
+    static boolean isArchive(String filename) {
+        return isZip(filename) || isTar(filename) || isGzippedTar(filename);
+    }
+
+    static void forEachEntry(String filename, InputStream input, EntryConsumer consumer) throws IOException {
+        if (isZip(filename)) {
+            ZipInputStream zip = new ZipInputStream(input);
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                if (!entry.isDirectory() && isDocument(entry.getName())) {
+                    consumer.accept(entry.getName(), zip);
+                }
+            }
+            return;
+        }
+        InputStream tarInput = isGzippedTar(filename) ? new GZIPInputStream(input) : input;
+        TarArchiveInputStream tar = new TarArchiveInputStream(tarInput);
+        for (TarArchiveEntry entry = tar.getNextEntry(); entry != null; entry = tar.getNextEntry()) {
+            if (entry.isFile() && isDocument(entry.getName())) {
+                consumer.accept(entry.getName(), tar);
+            }
+        }
+    }
+
+    private static boolean isDocument(String entryName) {
+        String name = entryName.replace('\\', '/');
+        for (String part : name.split("/")) {
+            if (part.startsWith(".") || part.startsWith("__MACOSX")) {
+                return false;
+            }
+        }
+        return !isArchive(name);
+    }
+
+    private static boolean isZip(String filename) {
+        return lower(filename).endsWith(".zip");
+    }
+
+    private static boolean isTar(String filename) {
+        return lower(filename).endsWith(".tar");
+    }
+
+    private static boolean isGzippedTar(String filename) {
+        String name = lower(filename);
+        return name.endsWith(".tar.gz") || name.endsWith(".tgz");
+    }
+
+    private static String lower(String filename) {
+        return filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.dto.BatchItemResult;
+import com.example.springmcp.dto.UrlShortenerRequest;
+import com.example.springmcp.model.UrlEntry;
+import com.example.springmcp.repository.UrlEntryBatchRepository;
+import com.example.springmcp.repository.UrlEntryRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 대량 URL 단축.
+ *
+ * 요청을 청크로 나눠 청크마다 커스텀 키 중복을 IN 쿼리 한 번으로 확인하고, 생성 키를 발급한 뒤
+ * 하나의 트랜잭션에서 JDBC 배치 INSERT 로 저장한다. 동시 생성 등으로 배치가 실패하면
+ * 그 청크만 항목별 INSERT 로 다시 시도해 실패 항목을 가려낸다.
+ */
+@Service
+public class UrlBatchShortenerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UrlBatchShortenerService.class);
+
+    private static final int MAX_GENERATED_KEY_ATTEMPTS = 5;
+
+    private final UrlEntryRepository urlEntryRepository;
+    private final UrlEntryBatchRepository urlEntryBatchRepository;
+    private final ShortKeyAllocator shortKeyAllocator;
+    private final ShortKeyExistenceFilter shortKeyExistenceFilter;
+    private final MetricsService metricsService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public UrlBatchShortenerService(UrlEntryRepository urlEntryRepository,
+                                    UrlEntryBatchRepository urlEntryBatchRepository,
+                                    ShortKeyAllocator shortKeyAllocator,
+                                    ShortKeyExistenceFilter shortKeyExistenceFilter,
+                                    MetricsService metricsService,
+                                    Validator validator,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.shortener.batch.chunk-size:1000}") int chunkSize) {
+        this.urlEntryRepository = urlEntryRepository;
+        this.urlEntryBatchRepository = urlEntryBatchRepository;
+        this.shortKeyAllocator = shortKeyAllocator;
+        this.shortKeyExistenceFilter = shortKeyExistenceFilter;
+        this.metricsService = metricsService;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 요청을 읽는 대로 청크 단위로 처리하고, 청크가 끝날 때마다 항목별 결과를 index 순으로 넘긴다.
+     * 한 번에 한 청크의 요청만 메모리에 둔다. requests 를 읽다가 예외가 나면 그때까지 읽은 항목을 처리한 뒤 다시 던진다
+     */
+    public void shortenUrls(Iterator<UrlShortenerRequest> requests, Consumer<List<BatchItemResult>> chunkConsumer) {
+        Set<String> customKeysInRequest = new HashSet<>();
+        List<UrlShortenerRequest> chunk = new ArrayList<>(chunkSize);
+        int from = 0;
+        RuntimeException readFailure = null;
+        while (true) {
+            try {
+                if (!requests.hasNext()) {
+                    break;
+                }
+                chunk.add(requests.next());
+            } catch (RuntimeException e) {
+                readFailure = e;
+                break;
+            }
+            if (chunk.size() == chunkSize) {
+                chunkConsumer.accept(processChunk(chunk, from, customKeysInRequest));
+                from += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(processChunk(chunk, from, customKeysInRequest));
+        }
+        if (readFailure != null) {
+            throw readFailure;
+        }
+    }
+
+    private List<BatchItemResult> processChunk(List<UrlShortenerRequest> requests, int from,
+                                               Set<String> customKeysInRequest) {
+        int to = from + requests.size();
+        BatchItemResult[] results = new BatchItemResult[to - from];
+        List<PendingItem> pendingItems = new ArrayList<>(to - from);
+        // MySQL DATETIME 정밀도에 맞춰 응답과 저장값이 같도록 초 단위로 자름
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        for (int index = from; index < to; index++) {
+            UrlShortenerRequest request = requests.get(index - from);
+            String error = validate(request, customKeysInRequest);
+            if (error != null) {
+                results[index - from] = BatchItemResult.failed(index, request != null ? request.getLongUrl() : null, error);
+            } else {
+                String customKey = request.getCustomKey();
+                boolean custom = customKey != null && !customKey.isEmpty();
+                pendingItems.add(new PendingItem(index, custom, new UrlEntry(custom ? customKey : null, request.getLongUrl())));
+            }
+        }
+
+        rejectExistingCustomKeys(pendingItems, results, from);
+
+        List<UrlEntry> urlEntries = new ArrayList<>(pendingItems.size());
+        for (PendingItem item : pendingItems) {
+            if (!item.custom) {
+                item.urlEntry.setShortUrl(shortKeyAllocator.nextKey());
+            }
+            item.urlEntry.setCreatedAt(createdAt);
+            urlEntries.add(item.urlEntry);
+        }
+
+        if (!urlEntries.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> urlEntryBatchRepository.insertAll(urlEntries));
+                for (PendingItem item : pendingItems) {
+                    results[item.index - from] = created(item);
+                }
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("Batch insert for items [{}, {}) failed, retrying one by one: {}", from, to, e.getMessage());
+                for (PendingItem item : pendingItems) {
+                    results[item.index - from] = insertOne(item);
+                }
+            }
+        }
+
+        int createdCount = (int) Arrays.stream(results).filter(BatchItemResult::isSuccess).count();
+        metricsService.recordUrlsShortened(createdCount);
+        return Arrays.asList(results);
+    }
+
+    private String validate(UrlShortenerRequest request, Set<String> customKeysInRequest) {
+        if (request == null) {
+            return "Request item cannot be null";
+        }
+        Set<ConstraintViolation<UrlShortenerRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        String customKey = request.getCustomKey();
+        if (customKey != null && !customKey.isEmpty() && !customKeysInRequest.add(customKey)) {
+            return "Custom key '" + customKey + "' is duplicated in this batch.";
+        }
+        return null;
+    }
+
+    private void rejectExistingCustomKeys(List<PendingItem> pendingItems, BatchItemResult[] results, int from) {
+        List<String> customKeys = pendingItems.stream()
+                .filter(item -> item.custom)
+                .map(item -> item.urlEntry.getShortUrl())
+                .toList();
+        if (customKeys.isEmpty()) {
+            return;
+        }
+        Set<String> existing = new HashSet<>(urlEntryRepository.findExistingShortUrls(customKeys));
+        if (existing.isEmpty()) {
+            return;
+        }
+        pendingItems.removeIf(item -> {
+            if (item.custom && existing.contains(item.urlEntry.getShortUrl())) {
+                results[item.index - from] = BatchItemResult.failed(item.index, item.urlEntry.getLongUrl(),
+                        "Custom key '" + item.urlEntry.getShortUrl() + "' already in use.");
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private BatchItemResult insertOne(PendingItem item) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                urlEntryBatchRepository.insert(item.urlEntry);
+                return created(item);
+            } catch (DataIntegrityViolationException e) {
+                if (item.custom) {
+                    return BatchItemResult.failed(item.index, item.urlEntry.getLongUrl(),
+                            "Custom key '" + item.urlEntry.getShortUrl() + "' already in use.");
+                }
+                if (attempt >= MAX_GENERATED_KEY_ATTEMPTS) {
+                    return BatchItemResult.failed(item.index, item.urlEntry.getLongUrl(), "Could not allocate a short key.");
+                }
+                item.urlEntry.setShortUrl(shortKeyAllocator.nextKey());
+            }
+        }
+    }
+
+    private BatchItemResult created(PendingItem item) {
+        UrlEntry urlEntry = item.urlEntry;
+        // 대량 등록 키로 리다이렉트 캐시를 채우면 핫 키가 밀려나므로 존재 필터에만 등록
+        shortKeyExistenceFilter.register(urlEntry.getShortUrl());
+        return BatchItemResult.created(item.index, urlEntry.getShortUrl(), urlEntry.getLongUrl(), urlEntry.getCreatedAt());
+    }
+
+    private static final class PendingItem {
+        private final int index;
+        private final boolean custom;
+        private final UrlEntry urlEntry;
+
+        private PendingItem(int index, boolean custom, UrlEntry urlEntry) {
+            this.index = index;
+            this.custom = custom;
+            this.urlEntry = urlEntry;
+        }
+    }
+}
@@ -4,54 +4,61 @@ import com.example.springmcp.exception.DuplicateKeyException;
 import com.example.springmcp.exception.UrlNotFoundException;
 import com.example.springmcp.model.UrlEntry;
 import com.example.springmcp.repository.UrlEntryRepository;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.security.SecureRandom;
 
 @Service
 public class UrlShortenerService {
 
+    // 생성 키는 충돌하지 않지만, 사용자가 먼저 등록한 커스텀 키와 겹칠 수는 있으므로 제한된 횟수만 재시도
+    private static final int MAX_GENERATED_KEY_ATTEMPTS = 5;
+
     private final UrlEntryRepository urlEntryRepository;
+    private final ShortKeyAllocator shortKeyAllocator;
+    private final RedirectCache redirectCache;
 
-    public UrlShortenerService(UrlEntryRepository urlEntryRepository) {
+    public UrlShortenerService(UrlEntryRepository urlEntryRepository, ShortKeyAllocator shortKeyAllocator,
+                               RedirectCache redirectCache) {
         this.urlEntryRepository = urlEntryRepository;
+        this.shortKeyAllocator = shortKeyAllocator;
+        this.redirectCache = redirectCache;
     }
 
-    @Value("${app.shortener.key-length}")
-    private int keyLength;
-
-    @Value("${app.shortener.alphanumeric-characters}")
-    private String alphanumeric;
-
-    private static SecureRandom random = new SecureRandom();
-
-    @Transactional
-    @CachePut(value = "urls", key = "#result.shortUrl")
     public UrlEntry shortenUrl(String longUrl) {
         return shortenUrl(longUrl, null);
     }
 
-    @Transactional
-    @CachePut(value = "urls", key = "#result.shortUrl")
+    /**
+     * 단축 URL 생성. 각 생성은 단일 INSERT 이며 short_url 의 UNIQUE 제약이 최종 중복 판정을 담당
+     */
     public UrlEntry shortenUrl(String longUrl, String customKey) {
-        String shortKey;
         if (customKey != null && !customKey.isEmpty()) {
             if (urlEntryRepository.findByShortUrl(customKey) != null) {
                 throw new DuplicateKeyException("Custom key '" + customKey + "' already in use.");
             }
-            shortKey = customKey;
-        } else {
-            shortKey = generateUniqueShortKey();
+            UrlEntry urlEntry = new UrlEntry(customKey, longUrl);
+            try {
+                urlEntryRepository.save(urlEntry);
+                redirectCache.put(urlEntry.getShortUrl(), longUrl);
+                return urlEntry;
+            } catch (DataIntegrityViolationException e) {
+                throw new DuplicateKeyException("Custom key '" + customKey + "' already in use.");
+            }
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            UrlEntry urlEntry = new UrlEntry(shortKeyAllocator.nextKey(), longUrl);
+            try {
+                urlEntryRepository.save(urlEntry);
+                redirectCache.put(urlEntry.getShortUrl(), longUrl);
+                return urlEntry;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_GENERATED_KEY_ATTEMPTS) {
+                    throw e;
+                }
+            }
         }
-        UrlEntry urlEntry = new UrlEntry(shortKey, longUrl);
-        urlEntryRepository.save(urlEntry);
-        return urlEntry;
     }
 
     @Cacheable(value = "urls", key = "#shortKey")
@@ -66,17 +73,4 @@ public class UrlShortenerService {
     public String getLongUrl(String shortKey) {
         return getUrlEntry(shortKey).getLongUrl();
     }
-
-    private String generateUniqueShortKey() {
-        String shortKey;
-        do {
-            StringBuilder sb = new StringBuilder(keyLength);
-            for (int i = 0; i < keyLength; i++) {
-                sb.append(alphanumeric.charAt(random.nextInt(alphanumeric.length())));
-            }
-            shortKey = sb.toString();
-        } while (!Character.isLetter(shortKey.charAt(0)) || urlEntryRepository.findByShortUrl(shortKey) != null);
-        
-        return shortKey;
-    }
-}
\ No newline at end of file
+}
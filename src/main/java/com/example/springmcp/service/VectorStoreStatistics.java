@@ -0,0 +1,239 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.repository.HnswVectorStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chroma.ChromaApi;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 벡터 저장소의 청크 수(컬렉션 전체, 카테고리별), 벡터 바이트 수와 색인 크기.
+ *
+ * 이 노드의 저장 / 삭제는 바로 반영하고, 다른 노드의 변경이나 실패로 어긋난 값은 주기적으로 실제 값에 맞춘다.
+ * 전체 청크 수는 저장소에서 직접 세고(Chroma 는 count API, local-vector 프로파일은 HNSW 색인), 카테고리별 수는
+ * 청크 목록(document_chunk)에서 센다. 목록 없이 저장된 청크(청크 목록 도입 전 데이터)는 UNTRACKED 로 센다.
+ * 게이지는 보관한 값만 읽으므로 스크레이프할 때 저장소를 조회하지 않는다.
+ */
+@Service
+public class VectorStoreStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(VectorStoreStatistics.class);
+
+    public static final String UNTRACKED = "untracked";
+
+    private static final String LOCAL_COLLECTION = "local";
+    private static final int CHROMA_MAX_LINKS = 16; // Chroma 기본 hnsw:M
+
+    private final VectorStore vectorStore;
+    private final ObjectProvider<ChromaApi> chromaApi;
+    private final ChunkManifest chunkManifest;
+    private final MeterRegistry meterRegistry;
+    private final String collection;
+    private final int maxCategoryGauges;
+    private final AtomicLong documents = new AtomicLong();
+    private final Map<String, AtomicLong> categories = new ConcurrentHashMap<>();
+    private volatile int dimensions;
+    private volatile long indexBytes;
+    private volatile Instant reconciledAt;
+
+    public VectorStoreStatistics(VectorStore vectorStore,
+                                ObjectProvider<ChromaApi> chromaApi,
+                                ChunkManifest chunkManifest,
+                                MeterRegistry meterRegistry,
+                                @Value("${spring.ai.vectorstore.chroma.collection-name:SpringAiCollection}") String chromaCollection,
+                                @Value("${app.vector-store.statistics.dimensions:1536}") int dimensions,
+                                @Value("${app.vector-store.statistics.max-category-gauges:100}") int maxCategoryGauges) {
+        this.vectorStore = vectorStore;
+        this.chromaApi = chromaApi;
+        this.chunkManifest = chunkManifest;
+        this.meterRegistry = meterRegistry;
+        this.collection = vectorStore instanceof HnswVectorStore ? LOCAL_COLLECTION : chromaCollection;
+        this.dimensions = dimensions;
+        this.maxCategoryGauges = maxCategoryGauges;
+
+        Gauge.builder("vector_store_documents", documents, AtomicLong::get)
+                .description("Chunks stored in the vector store collection")
+                .tag("collection", collection)
+                .register(meterRegistry);
+        Gauge.builder("vector_store_vector_bytes", this, VectorStoreStatistics::getVectorBytes)
+                .description("Raw embedding bytes held by the vector store collection")
+                .tag("collection", collection)
+                .register(meterRegistry);
+        Gauge.builder("vector_store_index_bytes", this, VectorStoreStatistics::getIndexBytes)
+                .description("Vector index size (vectors and graph) as of the last reconciliation")
+                .tag("collection", collection)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 벡터 저장소에 저장한 청크를 반영
+     */
+    public void recordAdded(List<Document> chunks) {
+        documents.addAndGet(chunks.size());
+        for (Document chunk : chunks) {
+            category(ChunkManifest.category(chunk.getMetadata())).incrementAndGet();
+        }
+    }
+
+    /**
+     * 벡터 저장소에서 지운 청크를 반영. byCategory 는 지우기 전에 청크 목록에서 센 카테고리별 수이고,
+     * 목록에 없던 나머지는 UNTRACKED 에서 뺀다
+     */
+    public void recordRemoved(int chunks, Map<String, Long> byCategory) {
+        subtract(documents, chunks);
+        long tracked = 0;
+        for (Map.Entry<String, Long> entry : byCategory.entrySet()) {
+            subtract(category(entry.getKey()), entry.getValue());
+            tracked += entry.getValue();
+        }
+        if (chunks > tracked) {
+            AtomicLong untracked = categories.get(UNTRACKED);
+            if (untracked != null) {
+                subtract(untracked, chunks - tracked);
+            }
+        }
+    }
+
+    /**
+     * 저장소와 청크 목록에서 다시 센 값으로 맞춤. 세는 동안 반영된 저장 / 삭제는 다음 주기에 맞춰진다
+     */
+    @Scheduled(fixedDelayString = "${app.vector-store.statistics.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            Map<String, Long> byCategory = new HashMap<>(chunkManifest.countByCategory());
+            long tracked = byCategory.values().stream().mapToLong(Long::longValue).sum();
+            long stored = countStoredChunks(tracked);
+            if (stored > tracked) {
+                byCategory.merge(UNTRACKED, stored - tracked, Long::sum);
+            }
+
+            long drift = stored - documents.getAndSet(stored);
+            categories.forEach((category, count) -> {
+                if (!byCategory.containsKey(category)) {
+                    count.set(0);
+                }
+            });
+            byCategory.forEach((category, count) -> category(category).set(count));
+            indexBytes = measureIndexBytes(stored);
+            reconciledAt = Instant.now();
+
+            if (drift != 0) {
+                logger.info("Vector store statistics for {} were off by {} chunks, reconciled to {}",
+                        collection, drift, stored);
+            }
+        } catch (Exception e) {
+            logger.warn("Vector store statistics reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public long getDocumentCount() {
+        return documents.get();
+    }
+
+    /**
+     * 청크가 있는 카테고리 -> 청크 수 (이름순)
+     */
+    public Map<String, Long> getCategoryCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        categories.forEach((category, count) -> {
+            if (count.get() > 0) {
+                counts.put(category, count.get());
+            }
+        });
+        return counts;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public long getVectorBytes() {
+        return documents.get() * dimensions * Float.BYTES;
+    }
+
+    public long getIndexBytes() {
+        return indexBytes;
+    }
+
+    /**
+     * 마지막으로 실제 값에 맞춘 시각. 아직 맞추지 않았으면 null
+     */
+    public Instant getReconciledAt() {
+        return reconciledAt;
+    }
+
+    /**
+     * Chroma 가 아니거나 ChromaApi 가 없는 VectorStore 는 청크 목록의 수를 그대로 씀
+     */
+    private long countStoredChunks(long tracked) {
+        if (vectorStore instanceof HnswVectorStore local) {
+            if (local.getDimensions() > 0) {
+                dimensions = local.getDimensions();
+            }
+            return local.size();
+        }
+        ChromaApi api = chromaApi.getIfAvailable();
+        if (api == null) {
+            return tracked;
+        }
+        ChromaApi.Collection chromaCollection = api.getCollection(collection);
+        if (chromaCollection == null) {
+            return 0;
+        }
+        Long count = api.countEmbeddings(chromaCollection.id());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Chroma 는 색인 크기를 알려주지 않으므로 hnswlib 의 원소당 크기로 추정
+     * (벡터, 0 계층 이웃 2M 개와 개수, 라벨, 상위 계층 이웃 M 개의 기댓값)
+     */
+    private long measureIndexBytes(long stored) {
+        if (vectorStore instanceof HnswVectorStore local) {
+            return local.indexSizeInBytes();
+        }
+        long level0 = (long) dimensions * Float.BYTES + (2L * CHROMA_MAX_LINKS + 1) * Integer.BYTES + Long.BYTES;
+        long upperLevels = (CHROMA_MAX_LINKS + 1L) * Integer.BYTES / (CHROMA_MAX_LINKS - 1);
+        return stored * (level0 + upperLevels);
+    }
+
+    /**
+     * 카테고리 수가 max-category-gauges 를 넘으면 이후 카테고리는 게이지 없이 통계로만 유지
+     */
+    private AtomicLong category(String category) {
+        return categories.computeIfAbsent(category, name -> {
+            AtomicLong count = new AtomicLong();
+            if (categories.size() < maxCategoryGauges) {
+                Gauge.builder("vector_store_category_documents", count, AtomicLong::get)
+                        .description("Chunks stored in the vector store per category metadata")
+                        .tag("collection", collection)
+                        .tag("category", name)
+                        .register(meterRegistry);
+            }
+            return count;
+        });
+    }
+
+    private static void subtract(AtomicLong count, long amount) {
+        count.updateAndGet(value -> Math.max(0, value - amount));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.springmcp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 가상 스레드 고정(pinning) 감지.
+ *
+ * synchronized 블록이나 네이티브 프레임 안에서 블로킹되면 가상 스레드가 캐리어 스레드를 놓지 못해
+ * 다른 요청까지 멈춘다. JFR 의 jdk.VirtualThreadPinned 이벤트를 애플리케이션 안에서 스트리밍으로 받아
+ * 횟수 / 시간을 메트릭으로 남기고, 처음 보는 위치는 스택 트레이스와 함께 한 번만 로그로 남긴다.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_FRAMES = 20;
+    // 위치가 계속 늘어나도 메모리가 커지지 않도록 로그로 남길 위치 수 제한
+    private static final int MAX_REPORTED_SITES = 1000;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("jvm_virtual_thread_pinned_total")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("jvm_virtual_thread_pinned_duration")
+                .description("Time virtual threads spent blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            recordingStream = new RecordingStream();
+            recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+            recordingStream.startAsync();
+            logger.info("Watching for virtual thread pinning longer than {}", threshold);
+        } catch (Exception e) {
+            // JFR 을 쓸 수 없는 런타임에서도 애플리케이션은 그대로 동작
+            logger.warn("Virtual thread pinning detection is unavailable: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        String site = describe(pinningSite(stackTrace));
+        if (reportedSites.size() < MAX_REPORTED_SITES && reportedSites.add(site)) {
+            StringBuilder frames = new StringBuilder();
+            stackTrace.getFrames().stream()
+                    .limit(MAX_LOGGED_FRAMES)
+                    .forEach(frame -> frames.append("\n\tat ").append(describe(frame)));
+            logger.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), site, frames);
+        }
+    }
+
+    /**
+     * 맨 위 프레임은 보통 JDK 의 park 지점이므로 JDK 밖에서 처음 나오는 프레임을 위치로 사용
+     */
+    private static RecordedFrame pinningSite(RecordedStackTrace stackTrace) {
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return frame;
+            }
+        }
+        return stackTrace.getFrames().get(0);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
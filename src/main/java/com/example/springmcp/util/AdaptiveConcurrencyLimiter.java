@@ -0,0 +1,78 @@
+package com.example.springmcp.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 지연 시간에 따라 동시 실행 한도를 조정하는 AIMD(가산 증가 / 승산 감소) 리미터.
+ *
+ * 목표 지연 이내에 끝난 요청이 한도 가까이 몰려 있으면 한도를 1 씩 늘리고, 목표를 넘기거나 실패한
+ * 요청이 있으면 backoffRatio 를 곱해 줄인다. 한도를 넘는 요청은 기다리지 않고 바로 거절된다.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatency, TimeUnit unit,
+                                      double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = unit.toNanos(targetLatency);
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * 한도 안이면 자리를 차지하고 true. 성공했으면 반드시 {@link #release} 를 호출해야 한다
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 자리를 반납하고 요청 결과로 한도를 조정
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int inflightBefore = inflight.getAndDecrement();
+        lock.lock();
+        try {
+            if (failed || latencyNanos > targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inflightBefore * 2 >= (int) limit) {
+                // 한도의 절반도 쓰지 않는 동안에는 늘리지 않음 (부하가 없을 때 한도가 무한정 커지는 것 방지)
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.springmcp.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 임베딩 캐시 키. (모델, 텍스트) SHA-256 다이제스트의 앞 128비트를 두 long 으로 보관한다.
+ */
+public final class EmbeddingKey {
+
+    private final long high;
+    private final long low;
+
+    public EmbeddingKey(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    public static EmbeddingKey of(String model, String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            // 모델 이름과 텍스트의 경계가 섞이지 않도록 구분자 추가
+            digest.update((byte) 0);
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+            return new EmbeddingKey(hash.getLong(), hash.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EmbeddingKey that)) {
+            return false;
+        }
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high) * 31 + Long.hashCode(low);
+    }
+}
@@ -0,0 +1,501 @@
+package com.example.springmcp.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+
+/**
+ * 코사인 유사도용 HNSW(Hierarchical Navigable Small World) 근사 최근접 이웃 색인.
+ *
+ * 벡터는 정규화해 힙 밖(direct buffer)에 청크 단위로 저장하고 내적으로 비교한다.
+ * 추가는 쓰기 락으로 하나씩 처리하지만 검색은 락을 잡지 않는다. 노드의 이웃 목록은 바꿀 때마다 새 배열로
+ * 교체하고, 벡터와 노드를 먼저 기록한 뒤 이웃 목록에 연결하므로 검색 중인 스레드는 항상 완성된 노드만 본다.
+ * 삭제는 표시만 하며(검색 결과에서 제외, 그래프 탐색에는 계속 사용), 스냅샷 파일로 저장 / 복원할 수 있다.
+ */
+public class HnswIndex {
+
+    private static final int MAGIC = 0x484E5357; // "HNSW"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int VECTORS_PER_CHUNK = 1024;
+    private static final int[] NO_LINKS = new int[0];
+
+    private final int dimensions;
+    private final int maxLinks;
+    private final int maxLinksLevel0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile FloatBuffer[] vectorChunks = new FloatBuffer[0];
+    private volatile Node[] nodes = new Node[64];
+    private volatile EntryPoint entryPoint;
+    private volatile int size;
+
+    /**
+     * @param maxLinks       상위 계층에서 노드당 최대 이웃 수 (M, 0 계층은 2M)
+     * @param efConstruction 추가할 때 살펴보는 후보 수
+     */
+    public HnswIndex(int dimensions, int maxLinks, int efConstruction) {
+        if (dimensions <= 0 || maxLinks < 2 || efConstruction < 1) {
+            throw new IllegalArgumentException("Invalid HNSW parameters");
+        }
+        this.dimensions = dimensions;
+        this.maxLinks = maxLinks;
+        this.maxLinksLevel0 = maxLinks * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(maxLinks);
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 벡터를 추가하고 노드 번호를 반환
+     */
+    public int add(float[] vector) {
+        float[] normalized = normalize(vector);
+        writeLock.lock();
+        try {
+            int id = size;
+            storeVector(id, normalized);
+            Node node = new Node(randomLevel());
+            publish(id, node);
+            link(id, node, normalized);
+            size = id + 1;
+            return id;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 노드를 삭제된 것으로 표시. 이후 검색 결과에 나오지 않는다
+     */
+    public void markDeleted(int id) {
+        node(id).deleted = true;
+    }
+
+    public boolean isDeleted(int id) {
+        return node(id).deleted;
+    }
+
+    /**
+     * 스냅샷 파일과 같은 크기의 색인 바이트 수 (삭제 표시한 노드 포함). 노드 수에 비례하는 시간이 걸린다
+     */
+    public long sizeInBytes() {
+        int count = size;
+        return HEADER_BYTES + (long) count * dimensions * Float.BYTES + graphBytes(count);
+    }
+
+    /**
+     * query 와 가장 비슷한 노드를 유사도 내림차순으로 최대 k 개 반환.
+     * accept 를 통과한 노드만 결과에 담고, 나머지 노드는 탐색 경로로만 쓴다
+     *
+     * @param ef 0 계층에서 유지하는 후보 수 (클수록 정확하고 느림, 최소 k)
+     */
+    public List<Result> search(float[] query, int k, int ef, IntPredicate accept) {
+        EntryPoint entry = entryPoint;
+        if (entry == null || k <= 0) {
+            return List.of();
+        }
+        float[] normalized = normalize(query);
+        int current = entry.node;
+        for (int level = entry.level; level > 0; level--) {
+            current = greedyClosest(normalized, current, level);
+        }
+        List<Result> results = searchLayer(normalized, current, Math.max(ef, k), 0,
+                id -> !node(id).deleted && accept.test(id));
+        return results.size() > k ? results.subList(0, k) : results;
+    }
+
+    /**
+     * 정규화된 두 벡터의 코사인 유사도. 저장된 노드끼리 비교할 때도 사용
+     */
+    public float similarity(float[] normalizedQuery, int id) {
+        FloatBuffer chunk = vectorChunks[id / VECTORS_PER_CHUNK];
+        int offset = (id % VECTORS_PER_CHUNK) * dimensions;
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += normalizedQuery[i] * chunk.get(offset + i);
+        }
+        return dot;
+    }
+
+    public float[] vector(int id) {
+        FloatBuffer chunk = vectorChunks[id / VECTORS_PER_CHUNK];
+        float[] vector = new float[dimensions];
+        chunk.get((id % VECTORS_PER_CHUNK) * dimensions, vector);
+        return vector;
+    }
+
+    public static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        norm = Math.sqrt(norm);
+        float[] normalized = new float[vector.length];
+        if (norm == 0) {
+            return normalized;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = (float) (vector[i] / norm);
+        }
+        return normalized;
+    }
+
+    /**
+     * 색인을 파일로 저장. 임시 파일에 메모리 맵으로 쓴 뒤 원자적으로 교체하며, 그동안 추가는 기다리고 검색은 계속된다
+     */
+    public void snapshot(Path file) throws IOException {
+        writeLock.lock();
+        try {
+            int count = size;
+            EntryPoint entry = entryPoint;
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            long vectorBytes = (long) count * dimensions * Float.BYTES;
+            long graphBytes = graphBytes(count);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).putInt(dimensions).putInt(maxLinks).putInt(efConstruction)
+                        .putInt(count).putInt(entry != null ? entry.node : -1).putInt(entry != null ? entry.level : -1);
+                header.force();
+
+                for (int chunk = 0; chunk * VECTORS_PER_CHUNK < count; chunk++) {
+                    int vectors = Math.min(VECTORS_PER_CHUNK, count - chunk * VECTORS_PER_CHUNK);
+                    MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE,
+                            HEADER_BYTES + (long) chunk * VECTORS_PER_CHUNK * dimensions * Float.BYTES,
+                            (long) vectors * dimensions * Float.BYTES);
+                    region.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer()
+                            .put(vectorChunks[chunk].duplicate().clear().limit(vectors * dimensions));
+                    region.force();
+                }
+
+                MappedByteBuffer graph = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + vectorBytes, graphBytes);
+                for (int id = 0; id < count; id++) {
+                    Node node = node(id);
+                    graph.putInt(node.level()).putInt(node.deleted ? 1 : 0);
+                    for (int level = 0; level <= node.level(); level++) {
+                        int[] links = node.links.get(level);
+                        graph.putInt(links.length);
+                        for (int link : links) {
+                            graph.putInt(link);
+                        }
+                    }
+                }
+                graph.force();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * {@link #snapshot} 로 저장한 파일에서 색인을 복원. 벡터는 힙 밖 버퍼로 복사되므로 이후 파일은 필요 없다
+     */
+    public static HnswIndex restore(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not an HNSW snapshot: " + file);
+            }
+            HnswIndex index = new HnswIndex(header.getInt(), header.getInt(), header.getInt());
+            int count = header.getInt();
+            int entryNode = header.getInt();
+            int entryLevel = header.getInt();
+            int dimensions = index.dimensions;
+
+            for (int chunk = 0; chunk * VECTORS_PER_CHUNK < count; chunk++) {
+                int vectors = Math.min(VECTORS_PER_CHUNK, count - chunk * VECTORS_PER_CHUNK);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_BYTES + (long) chunk * VECTORS_PER_CHUNK * dimensions * Float.BYTES,
+                        (long) vectors * dimensions * Float.BYTES);
+                index.chunk(chunk).duplicate().put(region.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer());
+            }
+
+            long graphOffset = HEADER_BYTES + (long) count * dimensions * Float.BYTES;
+            MappedByteBuffer graph = channel.map(FileChannel.MapMode.READ_ONLY, graphOffset, channel.size() - graphOffset);
+            for (int id = 0; id < count; id++) {
+                Node node = new Node(graph.getInt());
+                node.deleted = graph.getInt() == 1;
+                for (int level = 0; level <= node.level(); level++) {
+                    int[] links = new int[graph.getInt()];
+                    for (int i = 0; i < links.length; i++) {
+                        links[i] = graph.getInt();
+                    }
+                    node.links.set(level, links);
+                }
+                index.publish(id, node);
+            }
+            index.size = count;
+            index.entryPoint = entryNode >= 0 ? new EntryPoint(entryNode, entryLevel) : null;
+            return index;
+        }
+    }
+
+    private void link(int id, Node node, float[] vector) {
+        EntryPoint entry = entryPoint;
+        if (entry == null) {
+            entryPoint = new EntryPoint(id, node.level());
+            return;
+        }
+        int current = entry.node;
+        for (int level = entry.level; level > node.level(); level--) {
+            current = greedyClosest(vector, current, level);
+        }
+        for (int level = Math.min(node.level(), entry.level); level >= 0; level--) {
+            List<Result> candidates = searchLayer(vector, current, efConstruction, level, candidate -> true);
+            int[] neighbours = selectNeighbours(candidates, level == 0 ? maxLinksLevel0 : maxLinks);
+            node.links.set(level, neighbours);
+            for (int neighbour : neighbours) {
+                addLink(neighbour, id, level);
+            }
+            current = candidates.get(0).id;
+        }
+        if (node.level() > entry.level) {
+            entryPoint = new EntryPoint(id, node.level());
+        }
+    }
+
+    /**
+     * 이웃 목록에 새 노드를 더하고, 한도를 넘으면 다시 골라 새 배열로 교체
+     */
+    private void addLink(int from, int to, int level) {
+        Node node = node(from);
+        int[] links = node.links.get(level);
+        int limit = level == 0 ? maxLinksLevel0 : maxLinks;
+        if (links.length < limit) {
+            int[] extended = Arrays.copyOf(links, links.length + 1);
+            extended[links.length] = to;
+            node.links.set(level, extended);
+            return;
+        }
+        float[] base = vector(from);
+        List<Result> candidates = new ArrayList<>(links.length + 1);
+        for (int link : links) {
+            candidates.add(new Result(link, similarity(base, link)));
+        }
+        candidates.add(new Result(to, similarity(base, to)));
+        candidates.sort(Result.BY_SIMILARITY_DESC);
+        node.links.set(level, selectNeighbours(candidates, limit));
+    }
+
+    /**
+     * 논문의 휴리스틱: 이미 고른 이웃보다 기준 노드에 더 가까운 후보만 골라 여러 방향의 이웃을 남기고,
+     * 모자라면 나머지 후보로 채운다. candidates 는 기준 노드와의 유사도 내림차순이어야 한다
+     */
+    private int[] selectNeighbours(List<Result> candidates, int limit) {
+        List<Result> selected = new ArrayList<>(limit);
+        List<Result> skipped = new ArrayList<>();
+        for (Result candidate : candidates) {
+            if (selected.size() >= limit) {
+                break;
+            }
+            float[] candidateVector = vector(candidate.id);
+            boolean diverse = true;
+            for (Result chosen : selected) {
+                if (similarity(candidateVector, chosen.id) > candidate.similarity) {
+                    diverse = false;
+                    break;
+                }
+            }
+            (diverse ? selected : skipped).add(candidate);
+        }
+        for (int i = 0; i < skipped.size() && selected.size() < limit; i++) {
+            selected.add(skipped.get(i));
+        }
+        int[] neighbours = new int[selected.size()];
+        for (int i = 0; i < neighbours.length; i++) {
+            neighbours[i] = selected.get(i).id;
+        }
+        return neighbours;
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float currentSimilarity = similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbour : node(current).links.get(level)) {
+                float similarity = similarity(query, neighbour);
+                if (similarity > currentSimilarity) {
+                    current = neighbour;
+                    currentSimilarity = similarity;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 한 계층에서의 최선 우선 탐색. accept 를 통과한 노드 중 가장 비슷한 ef 개를 유사도 내림차순으로 반환
+     */
+    private List<Result> searchLayer(float[] query, int entry, int ef, int level, IntPredicate accept) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Result> candidates = new PriorityQueue<>(Result.BY_SIMILARITY_DESC);
+        PriorityQueue<Result> results = new PriorityQueue<>(Result.BY_SIMILARITY_DESC.reversed());
+
+        Result start = new Result(entry, similarity(query, entry));
+        visited.set(entry);
+        candidates.add(start);
+        if (accept.test(entry)) {
+            results.add(start);
+        }
+        while (!candidates.isEmpty()) {
+            Result closest = candidates.poll();
+            if (results.size() >= ef && closest.similarity < results.peek().similarity) {
+                break;
+            }
+            for (int neighbour : node(closest.id).links.get(level)) {
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float similarity = similarity(query, neighbour);
+                if (results.size() < ef || similarity > results.peek().similarity) {
+                    Result result = new Result(neighbour, similarity);
+                    candidates.add(result);
+                    if (accept.test(neighbour)) {
+                        results.add(result);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+        List<Result> sorted = new ArrayList<>(results);
+        sorted.sort(Result.BY_SIMILARITY_DESC);
+        return sorted;
+    }
+
+    private int randomLevel() {
+        return (int) Math.floor(-Math.log(1 - random.nextDouble()) * levelMultiplier);
+    }
+
+    private void storeVector(int id, float[] vector) {
+        chunk(id / VECTORS_PER_CHUNK).put((id % VECTORS_PER_CHUNK) * dimensions, vector);
+    }
+
+    private FloatBuffer chunk(int number) {
+        FloatBuffer[] chunks = vectorChunks;
+        if (number < chunks.length) {
+            return chunks[number];
+        }
+        FloatBuffer[] extended = Arrays.copyOf(chunks, number + 1);
+        for (int i = chunks.length; i <= number; i++) {
+            extended[i] = ByteBuffer.allocateDirect(VECTORS_PER_CHUNK * dimensions * Float.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+        }
+        vectorChunks = extended;
+        return extended[number];
+    }
+
+    private void publish(int id, Node node) {
+        Node[] current = nodes;
+        if (id < current.length) {
+            current[id] = node;
+            // 같은 배열이라도 volatile 쓰기로 다시 게시해 검색 스레드가 새 노드를 보게 함
+            nodes = current;
+            return;
+        }
+        Node[] extended = Arrays.copyOf(current, Math.max(id + 1, current.length * 2));
+        extended[id] = node;
+        nodes = extended;
+    }
+
+    private Node node(int id) {
+        return nodes[id];
+    }
+
+    private long graphBytes(int count) {
+        long bytes = 0;
+        for (int id = 0; id < count; id++) {
+            Node node = node(id);
+            bytes += 2L * Integer.BYTES;
+            for (int level = 0; level <= node.level(); level++) {
+                bytes += (1L + node.links.get(level).length) * Integer.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    public static final class Result {
+
+        static final Comparator<Result> BY_SIMILARITY_DESC = (a, b) -> Float.compare(b.similarity, a.similarity);
+
+        private final int id;
+        private final float similarity;
+
+        Result(int id, float similarity) {
+            this.id = id;
+            this.similarity = similarity;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public float getSimilarity() {
+            return similarity;
+        }
+    }
+
+    private static final class Node {
+        private final AtomicReferenceArray<int[]> links;
+        private volatile boolean deleted;
+
+        private Node(int level) {
+            this.links = new AtomicReferenceArray<>(level + 1);
+            for (int i = 0; i <= level; i++) {
+                links.set(i, NO_LINKS);
+            }
+        }
+
+        private int level() {
+            return links.length() - 1;
+        }
+    }
+
+    private static final class EntryPoint {
+        private final int node;
+        private final int level;
+
+        private EntryPoint(int node, int level) {
+            this.node = node;
+            this.level = level;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.springmcp.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 최상위 JSON 배열의 원소를 하나씩 읽는 Iterator.
+ *
+ * 배열 전체를 목록으로 만들지 않으므로 메모리에는 지금 읽은 원소만 남는다. 배열이 아니거나 형식이 깨졌거나
+ * maxItems 를 넘으면 {@link MalformedArrayException} 을 던지고, 그 앞까지 읽은 원소는 그대로 유효하다.
+ */
+public class JsonArrayReader<T> implements Iterator<T>, Closeable {
+
+    private final JsonParser parser;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private final int maxItems;
+    private boolean started;
+    private boolean positioned;
+    private int itemsRead;
+
+    public JsonArrayReader(InputStream input, ObjectMapper objectMapper, Class<T> type, int maxItems) throws IOException {
+        this.parser = objectMapper.createParser(input);
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.maxItems = maxItems;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            if (!started) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new MalformedArrayException("Expected a JSON array");
+                }
+                started = true;
+            }
+            if (!positioned) {
+                parser.nextToken();
+                positioned = true;
+            }
+        } catch (IOException e) {
+            throw new MalformedArrayException("Malformed JSON after " + itemsRead + " items: " + e.getMessage());
+        }
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            throw new MalformedArrayException("JSON array is not closed after " + itemsRead + " items");
+        }
+        if (token == JsonToken.END_ARRAY) {
+            return false;
+        }
+        if (itemsRead >= maxItems) {
+            throw new MalformedArrayException("Array cannot contain more than " + maxItems + " items");
+        }
+        return true;
+    }
+
+    /**
+     * 다음 원소. JSON null 원소는 null
+     */
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        positioned = false;
+        try {
+            T item = objectMapper.readValue(parser, type);
+            itemsRead++;
+            return item;
+        } catch (IOException e) {
+            throw new MalformedArrayException("Malformed item at index " + itemsRead + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 지금까지 읽은 원소 수 (다음 원소의 index)
+     */
+    public int getItemsRead() {
+        return itemsRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    public static class MalformedArrayException extends RuntimeException {
+        public MalformedArrayException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.springmcp.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 메모리 맵 파일에 임베딩 벡터를 고정 길이 레코드로 덧붙여 저장하는 디스크 캐시.
+ *
+ * 레코드는 [키 상위 8바이트][키 하위 8바이트][CRC32 4바이트][float × dimensions] 로, 파일을 세그먼트 단위로
+ * 매핑해 힙 밖에 두고 절대 위치로만 읽으므로 읽기에는 락이 없다. 벡터와 CRC 를 먼저 쓰고 키를 마지막에 쓰며,
+ * 시작할 때 파일을 훑어 색인을 다시 만들고 키가 비었거나 CRC 가 맞지 않는 레코드에서 멈춘다.
+ * 최대 크기에 도달하면 더 이상 저장하지 않는다.
+ */
+public class MappedEmbeddingStore implements Closeable {
+
+    private static final int MAGIC = 0x454D4231; // "EMB1"
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 8 + 8 + 4;
+    private static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final int dimensions;
+    private final int recordBytes;
+    private final int recordsPerSegment;
+    private final long maxRecords;
+    private final ConcurrentHashMap<EmbeddingKey, Long> index = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private long nextRecord;
+
+    public MappedEmbeddingStore(Path file, int dimensions, long maxBytes) throws IOException {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("Dimensions must be positive");
+        }
+        this.dimensions = dimensions;
+        this.recordBytes = RECORD_HEADER_BYTES + dimensions * Float.BYTES;
+        this.recordsPerSegment = (int) Math.max(1, SEGMENT_BYTES / recordBytes);
+        this.maxRecords = Math.max(0, (maxBytes - HEADER_BYTES) / recordBytes);
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (!hasValidHeader()) {
+            // 캐시 파일이므로 형식이 다르면 비우고 새로 시작
+            channel.truncate(0);
+            writeHeader();
+        }
+        load();
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public float[] get(EmbeddingKey key) {
+        Long record = index.get(key);
+        if (record == null) {
+            return null;
+        }
+        MappedByteBuffer segment = segments[(int) (record / recordsPerSegment)];
+        int offset = (int) (record % recordsPerSegment) * recordBytes + RECORD_HEADER_BYTES;
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = segment.getFloat(offset + i * Float.BYTES);
+        }
+        return vector;
+    }
+
+    /**
+     * 벡터를 저장. 이미 있거나 파일이 가득 찼으면 false
+     */
+    public boolean put(EmbeddingKey key, float[] vector) throws IOException {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        if (index.containsKey(key)) {
+            return false;
+        }
+        writeLock.lock();
+        try {
+            if (index.containsKey(key) || nextRecord >= maxRecords) {
+                return false;
+            }
+            long record = nextRecord;
+            MappedByteBuffer segment = segment((int) (record / recordsPerSegment));
+            int offset = (int) (record % recordsPerSegment) * recordBytes;
+            CRC32 crc = new CRC32();
+            for (int i = 0; i < dimensions; i++) {
+                segment.putFloat(offset + RECORD_HEADER_BYTES + i * Float.BYTES, vector[i]);
+            }
+            crc.update(segment.slice(offset + RECORD_HEADER_BYTES, dimensions * Float.BYTES));
+            segment.putInt(offset + 16, (int) crc.getValue());
+            segment.putLong(offset + 8, key.getLow());
+            segment.putLong(offset, key.getHigh());
+            nextRecord++;
+            index.put(key, record);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            channel.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void load() throws IOException {
+        long existingRecords = Math.min(maxRecords, (channel.size() - HEADER_BYTES) / recordBytes);
+        for (long record = 0; record < existingRecords; record++) {
+            MappedByteBuffer segment = segment((int) (record / recordsPerSegment));
+            int offset = (int) (record % recordsPerSegment) * recordBytes;
+            long high = segment.getLong(offset);
+            long low = segment.getLong(offset + 8);
+            if (high == 0 && low == 0) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(segment.slice(offset + RECORD_HEADER_BYTES, dimensions * Float.BYTES));
+            if (segment.getInt(offset + 16) != (int) crc.getValue()) {
+                // 쓰는 도중 중단된 레코드. 이 위치부터 다시 덮어씀
+                segment.putLong(offset, 0L);
+                break;
+            }
+            index.put(new EmbeddingKey(high, low), record);
+            nextRecord = record + 1;
+        }
+    }
+
+    /**
+     * 세그먼트를 필요할 때 매핑 (READ_WRITE 매핑은 파일을 필요한 만큼 늘림)
+     */
+    private MappedByteBuffer segment(int number) throws IOException {
+        MappedByteBuffer[] current = segments;
+        if (number < current.length) {
+            return current[number];
+        }
+        MappedByteBuffer[] extended = Arrays.copyOf(current, number + 1);
+        for (int i = current.length; i <= number; i++) {
+            long firstRecord = (long) i * recordsPerSegment;
+            long records = Math.min(recordsPerSegment, maxRecords - firstRecord);
+            extended[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + firstRecord * recordBytes, records * recordBytes);
+        }
+        segments = extended;
+        return extended[number];
+    }
+
+    private boolean hasValidHeader() throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        header.flip();
+        return header.getInt() == MAGIC && header.getInt() == dimensions;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(dimensions).putLong(0L).flip();
+        channel.write(header, 0);
+    }
+}
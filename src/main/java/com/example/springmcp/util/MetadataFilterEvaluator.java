@@ -0,0 +1,108 @@
+package com.example.springmcp.util;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * SearchRequest 의 필터 식(Filter.Expression)을 문서 메타데이터에 직접 적용하는 평가기.
+ *
+ * 벡터 저장소마다 필터 식을 자기 질의 언어로 바꾸는 대신 메모리의 메타데이터 맵에서 바로 판정한다.
+ * 숫자는 타입과 관계없이 값으로 비교하고, 메타데이터에 없는 키는 NE / NIN 에서만 참이다.
+ */
+public final class MetadataFilterEvaluator {
+
+    private MetadataFilterEvaluator() {
+    }
+
+    public static boolean matches(Filter.Expression expression, Map<String, Object> metadata) {
+        if (expression == null) {
+            return true;
+        }
+        return switch (expression.type()) {
+            case AND -> matches(operand(expression.left()), metadata) && matches(operand(expression.right()), metadata);
+            case OR -> matches(operand(expression.left()), metadata) || matches(operand(expression.right()), metadata);
+            case NOT -> !matches(operand(expression.left()), metadata);
+            case EQ -> equal(actual(expression, metadata), expected(expression));
+            case NE -> !equal(actual(expression, metadata), expected(expression));
+            case GT -> compare(expression, metadata) > 0;
+            case GTE -> compare(expression, metadata) >= 0;
+            case LT -> compare(expression, metadata) < 0;
+            case LTE -> compare(expression, metadata) <= 0;
+            case IN -> contains(expected(expression), actual(expression, metadata));
+            case NIN -> !contains(expected(expression), actual(expression, metadata));
+        };
+    }
+
+    private static Filter.Expression operand(Filter.Operand operand) {
+        if (operand instanceof Filter.Group group) {
+            return group.content();
+        }
+        if (operand instanceof Filter.Expression expression) {
+            return expression;
+        }
+        throw new IllegalArgumentException("Expected a filter expression but got " + operand);
+    }
+
+    private static Object actual(Filter.Expression expression, Map<String, Object> metadata) {
+        if (!(expression.left() instanceof Filter.Key key)) {
+            throw new IllegalArgumentException("Expected a metadata key on the left of " + expression.type());
+        }
+        // 필터 문법에서 공백 등이 들어간 키는 따옴표로 감싸므로 벗겨서 찾음
+        String name = key.key();
+        if (name.length() > 1 && (name.startsWith("\"") || name.startsWith("'"))) {
+            name = name.substring(1, name.length() - 1);
+        }
+        return metadata.get(name);
+    }
+
+    private static Object expected(Filter.Expression expression) {
+        if (!(expression.right() instanceof Filter.Value value)) {
+            throw new IllegalArgumentException("Expected a value on the right of " + expression.type());
+        }
+        return value.value();
+    }
+
+    private static boolean equal(Object actual, Object expected) {
+        if (actual instanceof Number a && expected instanceof Number b) {
+            return Double.compare(a.doubleValue(), b.doubleValue()) == 0;
+        }
+        if (actual != null && expected != null && actual.getClass() != expected.getClass()) {
+            return actual.toString().equals(expected.toString());
+        }
+        return Objects.equals(actual, expected);
+    }
+
+    /**
+     * 메타데이터 값과 기준값을 비교. 값이 없으면 어떤 범위 조건도 만족하지 않도록 NaN 을 반환
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static double compare(Filter.Expression expression, Map<String, Object> metadata) {
+        Object actual = actual(expression, metadata);
+        Object expected = expected(expression);
+        if (actual == null || expected == null) {
+            return Double.NaN;
+        }
+        if (actual instanceof Number a && expected instanceof Number b) {
+            return Double.compare(a.doubleValue(), b.doubleValue());
+        }
+        if (actual instanceof Comparable comparable && actual.getClass() == expected.getClass()) {
+            return comparable.compareTo(expected);
+        }
+        return actual.toString().compareTo(expected.toString());
+    }
+
+    private static boolean contains(Object expected, Object actual) {
+        if (expected instanceof Collection<?> values) {
+            for (Object value : values) {
+                if (equal(actual, value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return equal(actual, expected);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.springmcp.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 고정 크기의 락 없는 다중 생산자 / 단일 소비자 링 버퍼 (Vyukov bounded queue).
+ *
+ * 생산자는 tail 에 대한 CAS 한 번으로 슬롯을 차지하고, 슬롯별 시퀀스 번호로 소비자에게 게시한다.
+ * 버퍼가 가득 차면 기다리지 않고 false 를 반환하므로 호출 스레드가 막히지 않는다.
+ * {@link #drain} 은 반드시 한 스레드에서만 호출해야 한다.
+ */
+public class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.setPlain(i, i);
+        }
+    }
+
+    /**
+     * 원소 추가. 버퍼가 가득 차 있으면 false
+     */
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer.setPlain(index, element);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // 소비자가 아직 한 바퀴 전의 원소를 꺼내지 않음
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 게시된 원소를 최대 limit 개까지 꺼내 consumer 에 전달하고, 꺼낸 개수를 반환
+     */
+    public int drain(Consumer<? super E> consumer, int limit) {
+        long current = head;
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (current & mask);
+            if (sequences.getAcquire(index) != current + 1) {
+                break;
+            }
+            E element = buffer.getPlain(index);
+            buffer.setPlain(index, null);
+            sequences.setRelease(index, current + mask + 1);
+            head = ++current;
+            drained++;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    /**
+     * 대기 중인 원소 수 (근사치)
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(tail.get() - head, mask + 1));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.springmcp.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 원소 수가 늘어나면 단계(stage)를 추가하는 Scalable Bloom Filter (Almeida et al.).
+ *
+ * 각 단계는 이전 단계의 두 배 용량과 절반의 오탐률을 가지므로 전체 오탐률은 설정값 이하로 유지된다.
+ * 비트 설정은 CAS 로 처리되어 조회와 추가가 락 없이 동시에 수행될 수 있다.
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double falsePositiveRate;
+    private final ReentrantLock growLock = new ReentrantLock();
+    private volatile Stage[] stages;
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid bloom filter parameters");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.stages = new Stage[]{new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    /**
+     * false 이면 확실히 없는 키, true 이면 있을 수도 있는 키
+     */
+    public boolean mightContain(CharSequence key) {
+        long hash = hash(key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(CharSequence key) {
+        long hash = hash(key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        if (last.isFull()) {
+            last = grow(current);
+        }
+        last.put(h1, h2);
+    }
+
+    /**
+     * put 호출 수 (같은 키를 다시 넣어도 셈)
+     */
+    public long approximateElementCount() {
+        long count = 0;
+        for (Stage stage : stages) {
+            count += stage.count.get();
+        }
+        return count;
+    }
+
+    /**
+     * 비트 배열 전체 크기 (바이트)
+     */
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Stage stage : stages) {
+            bytes += (long) stage.bits.length() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    public int stageCount() {
+        return stages.length;
+    }
+
+    private Stage grow(Stage[] observed) {
+        growLock.lock();
+        try {
+            Stage[] current = stages;
+            Stage last = current[current.length - 1];
+            if (current != observed && !last.isFull()) {
+                return last;
+            }
+            double stageRate = falsePositiveRate * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, current.length);
+            Stage next = new Stage(last.capacity * GROWTH_FACTOR, stageRate);
+            Stage[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = next;
+            stages = grown;
+            return next;
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    private static long hash(CharSequence key) {
+        // FNV-1a 64
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static final class Stage {
+        private final long capacity;
+        private final long numBits;
+        private final int numHashes;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+
+        private Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) / 64));
+            this.bits = new AtomicLongArray(words);
+            this.numBits = (long) words * 64;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+        }
+
+        private boolean isFull() {
+            return count.get() >= capacity;
+        }
+
+        private boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < numHashes; i++) {
+                long index = Math.floorMod(combined, numBits);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        private void put(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < numHashes; i++) {
+                long index = Math.floorMod(combined, numBits);
+                long mask = 1L << index;
+                int word = (int) (index >>> 6);
+                long value = bits.get(word);
+                while ((value & mask) == 0 && !bits.compareAndSet(word, value, value | mask)) {
+                    value = bits.get(word);
+                }
+                combined += h2;
+            }
+            // 비트가 모두 이미 켜져 있던 키(오탐)도 세어야 채움 정도가 실제보다 낮게 잡히지 않음
+            count.incrementAndGet();
+        }
+    }
+}
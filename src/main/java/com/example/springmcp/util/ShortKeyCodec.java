@@ -0,0 +1,192 @@
+package com.example.springmcp.util;
+
+import java.util.Arrays;
+
+/**
+ * 시퀀스 번호와 단축 키 사이의 가역(bijective) 변환.
+ *
+ * 키 공간은 "첫 글자는 문자, 나머지는 영숫자"인 고정 길이 문자열 전체이며,
+ * 시퀀스 번호는 Feistel 네트워크 + cycle walking 으로 키 공간 안에서 섞인 뒤 인코딩된다.
+ * 서로 다른 번호는 항상 서로 다른 키가 되므로 생성된 키에 대해 존재 여부를 조회할 필요가 없다.
+ */
+public class ShortKeyCodec {
+
+    private static final int ROUNDS = 4;
+
+    private final char[] alphabet;
+    private final char[] letters;
+    private final int[] alphabetIndex = new int[128];
+    private final int[] letterIndex = new int[128];
+    private final int keyLength;
+    private final long tailSpace;
+    private final long keySpace;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public ShortKeyCodec(String alphanumeric, int keyLength, String secret) {
+        if (keyLength < 2 || keyLength > 10) {
+            throw new IllegalArgumentException("Key length must be between 2 and 10: " + keyLength);
+        }
+        this.alphabet = alphanumeric.toCharArray();
+        this.letters = alphanumeric.chars()
+                .filter(Character::isLetter)
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString()
+                .toCharArray();
+        if (letters.length == 0) {
+            throw new IllegalArgumentException("Alphabet must contain at least one letter");
+        }
+        this.keyLength = keyLength;
+
+        Arrays.fill(alphabetIndex, -1);
+        Arrays.fill(letterIndex, -1);
+        for (int i = 0; i < alphabet.length; i++) {
+            if (alphabet[i] >= 128 || alphabetIndex[alphabet[i]] != -1) {
+                throw new IllegalArgumentException("Alphabet must consist of distinct ASCII characters");
+            }
+            alphabetIndex[alphabet[i]] = i;
+        }
+        for (int i = 0; i < letters.length; i++) {
+            letterIndex[letters[i]] = i;
+        }
+
+        long tail = 1;
+        for (int i = 1; i < keyLength; i++) {
+            tail = Math.multiplyExact(tail, alphabet.length);
+        }
+        this.tailSpace = tail;
+        this.keySpace = Math.multiplyExact(tail, letters.length);
+
+        // Feistel 은 짝수 비트 폭에서 동작하므로 키 공간을 덮는 가장 작은 짝수 비트 폭을 사용
+        int bits = 64 - Long.numberOfLeadingZeros(keySpace - 1);
+        if ((bits & 1) == 1) {
+            bits++;
+        }
+        this.halfBits = bits / 2;
+        this.halfMask = (1L << halfBits) - 1;
+
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < secret.length(); i++) {
+            seed = mix(seed ^ secret.charAt(i));
+        }
+        for (int i = 0; i < ROUNDS; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            roundKeys[i] = seed;
+        }
+    }
+
+    /**
+     * 키 공간의 크기 (발급 가능한 키의 총 개수)
+     */
+    public long keySpace() {
+        return keySpace;
+    }
+
+    /**
+     * 시퀀스 번호를 단축 키로 변환
+     */
+    public String encode(long sequence) {
+        if (sequence < 0 || sequence >= keySpace) {
+            throw new IllegalStateException("Short key space exhausted at sequence " + sequence);
+        }
+        long value = permute(sequence);
+
+        char[] key = new char[keyLength];
+        key[0] = letters[(int) (value / tailSpace)];
+        long rest = value % tailSpace;
+        for (int i = keyLength - 1; i > 0; i--) {
+            key[i] = alphabet[(int) (rest % alphabet.length)];
+            rest /= alphabet.length;
+        }
+        return new String(key);
+    }
+
+    /**
+     * 단축 키를 원래의 시퀀스 번호로 되돌림. 이 코덱으로 만들 수 없는 키이면 -1
+     */
+    public long decode(String key) {
+        if (!isWellFormed(key)) {
+            return -1;
+        }
+        long value = letterIndex[key.charAt(0)];
+        for (int i = 1; i < keyLength; i++) {
+            value = value * alphabet.length + alphabetIndex[key.charAt(i)];
+        }
+        return unpermute(value);
+    }
+
+    /**
+     * 정규식 없이 키 형식(길이, 첫 글자, 문자 집합)을 검사
+     */
+    public boolean isWellFormed(CharSequence key) {
+        return key != null && isWellFormed(key, 0);
+    }
+
+    /**
+     * text 의 start 위치부터 끝까지가 키 형식인지 검사 (부분 문자열을 만들지 않음)
+     */
+    public boolean isWellFormed(CharSequence text, int start) {
+        if (text.length() - start != keyLength) {
+            return false;
+        }
+        char first = text.charAt(start);
+        if (first >= 128 || letterIndex[first] == -1) {
+            return false;
+        }
+        for (int i = start + 1; i < start + keyLength; i++) {
+            char c = text.charAt(i);
+            if (c >= 128 || alphabetIndex[c] == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long permute(long value) {
+        // cycle walking: 결과가 키 공간 밖이면 다시 섞어서 키 공간 안으로 들어올 때까지 반복
+        do {
+            value = encrypt(value);
+        } while (value >= keySpace);
+        return value;
+    }
+
+    private long unpermute(long value) {
+        do {
+            value = decrypt(value);
+        } while (value >= keySpace);
+        return value;
+    }
+
+    private long encrypt(long value) {
+        long left = (value >>> halfBits) & halfMask;
+        long right = value & halfMask;
+        for (int i = 0; i < ROUNDS; i++) {
+            long next = left ^ round(right, i);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long decrypt(long value) {
+        long left = (value >>> halfBits) & halfMask;
+        long right = value & halfMask;
+        for (int i = ROUNDS - 1; i >= 0; i--) {
+            long previous = right ^ round(left, i);
+            right = left;
+            left = previous;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long round(long half, int round) {
+        return mix(half ^ roundKeys[round]) & halfMask;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
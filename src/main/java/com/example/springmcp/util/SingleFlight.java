@@ -0,0 +1,105 @@
+package com.example.springmcp.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 호출을 하나로 합치는 single-flight.
+ *
+ * 처음 들어온 호출(leader)만 실제로 실행하고, 그 사이 같은 키로 들어온 호출(follower)은 leader 의 결과나 예외를
+ * 함께 받는다. 결과는 캐시하지 않으므로 leader 가 끝난 뒤 들어온 호출은 다시 실행된다.
+ * follower 는 CompletableFuture 를 기다리므로 가상 스레드를 캐리어에 고정하지 않는다.
+ * leader 가 멈춰도 follower 가 끝없이 기다리지 않도록 follower 는 followerTimeout 까지만 기다린다.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration followerTimeout;
+
+    public SingleFlight(Duration followerTimeout) {
+        this.followerTimeout = followerTimeout;
+    }
+
+    /**
+     * @return 결과와 함께 이 호출이 다른 호출의 결과를 공유했는지 여부
+     */
+    public Result<V> execute(K key, Supplier<V> call) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            onFollowerWaiting(key);
+            return new Result<>(await(key, existing), true);
+        }
+        try {
+            V value = call.get();
+            leader.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * follower 가 진행 중인 호출을 기다리기 직전에 호출됨 (이후 그 호출의 결과를 받는 것이 확정된 시점)
+     */
+    protected void onFollowerWaiting(K key) {
+    }
+
+    private V await(K key, CompletableFuture<V> future) {
+        try {
+            return future.get(followerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new FollowerTimeoutException(key, followerTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the in-flight call of " + key, e);
+        }
+    }
+
+    /**
+     * follower 가 followerTimeout 안에 leader 의 결과를 받지 못함. leader 는 계속 실행된다
+     */
+    public static class FollowerTimeoutException extends RuntimeException {
+        public FollowerTimeoutException(Object key, Duration timeout) {
+            super("In-flight call of " + key + " did not finish within " + timeout);
+        }
+    }
+
+    public static final class Result<V> {
+        private final V value;
+        private final boolean shared;
+
+        private Result(V value, boolean shared) {
+            this.value = value;
+            this.shared = shared;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public boolean isShared() {
+            return shared;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.springmcp.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * 텍스트의 글자 / 단어 / 문장 수와 내용 해시(UTF-8 SHA-256)를 한 번 훑어서 계산.
+ *
+ * 정규식 분할이나 getBytes 없이 문자를 하나씩 읽으며 세고, UTF-8 로 인코딩한 바이트는 작은 버퍼에 모아 다이제스트에 넣는다.
+ * 단어는 공백으로 나뉜 비어 있지 않은 구간, 문장은 마침표 / 물음표 / 느낌표(와 닫는 따옴표, 괄호) 뒤에 공백이나 끝이 오는 곳
+ * (CJK 마침표는 바로) 까지이며, 끝에 종결 부호가 없는 마지막 문장도 센다.
+ * 수집할 때 계산해 청크 메타데이터에 넣어 두고, 검색 시에는 메타데이터에서 읽는다 ({@link #fromMetadata}).
+ */
+public final class TextStatistics {
+
+    public static final String CONTENT_LENGTH = "content_length";
+    public static final String WORD_COUNT = "word_count";
+    public static final String SENTENCE_COUNT = "sentence_count";
+    public static final String CONTENT_HASH = "content_hash";
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private final int chars;
+    private final int words;
+    private final int sentences;
+    private final String contentHash;
+
+    private TextStatistics(int chars, int words, int sentences, String contentHash) {
+        this.chars = chars;
+        this.words = words;
+        this.sentences = sentences;
+        this.contentHash = contentHash;
+    }
+
+    public static TextStatistics of(String text) {
+        MessageDigest digest = sha256();
+        // 문자 하나가 최대 4바이트이므로 여유를 두고 비움
+        byte[] buffer = new byte[BUFFER_SIZE + 4];
+        int buffered = 0;
+
+        int length = text.length();
+        int words = 0;
+        int sentences = 0;
+        boolean inWord = false;
+        boolean inSentence = false;
+        boolean terminated = false;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+
+            // 통계
+            if (Character.isWhitespace(c)) {
+                if (terminated && inSentence) {
+                    sentences++;
+                    inSentence = false;
+                }
+                inWord = false;
+                terminated = false;
+            } else {
+                if (!inWord) {
+                    words++;
+                    inWord = true;
+                }
+                if (c == '.' || c == '!' || c == '?') {
+                    terminated = inSentence;
+                } else if (c == '。' || c == '！' || c == '？') {
+                    if (inSentence) {
+                        sentences++;
+                        inSentence = false;
+                    }
+                    terminated = false;
+                } else if (!isClosing(c)) {
+                    // "3.14" 처럼 종결 부호 뒤에 문자가 이어지면 문장 끝이 아님
+                    inSentence = true;
+                    terminated = false;
+                }
+            }
+
+            // UTF-8 인코딩 (짝이 없는 서로게이트는 String.getBytes 처럼 '?')
+            if (c < 0x80) {
+                buffer[buffered++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[buffered++] = (byte) (0xC0 | (c >> 6));
+                buffer[buffered++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer[buffered++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[buffered++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[buffered++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[buffered++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[buffered++] = (byte) '?';
+            } else {
+                buffer[buffered++] = (byte) (0xE0 | (c >> 12));
+                buffer[buffered++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[buffered++] = (byte) (0x80 | (c & 0x3F));
+            }
+            if (buffered >= BUFFER_SIZE) {
+                digest.update(buffer, 0, buffered);
+                buffered = 0;
+            }
+        }
+        digest.update(buffer, 0, buffered);
+        if (inSentence) {
+            sentences++;
+        }
+        return new TextStatistics(length, words, sentences, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * 수집 시 저장한 통계를 읽고, 없으면 (이전에 수집한 청크) 다시 계산
+     */
+    public static TextStatistics fromMetadata(Map<String, Object> metadata, String text) {
+        if (metadata.get(CONTENT_LENGTH) instanceof Number chars
+                && metadata.get(WORD_COUNT) instanceof Number words
+                && metadata.get(SENTENCE_COUNT) instanceof Number sentences
+                && metadata.get(CONTENT_HASH) instanceof String contentHash) {
+            return new TextStatistics(chars.intValue(), words.intValue(), sentences.intValue(), contentHash);
+        }
+        return of(text);
+    }
+
+    public void putInto(Map<String, Object> metadata) {
+        metadata.put(CONTENT_LENGTH, chars);
+        metadata.put(WORD_COUNT, words);
+        metadata.put(SENTENCE_COUNT, sentences);
+        metadata.put(CONTENT_HASH, contentHash);
+    }
+
+    /**
+     * UTF-16 코드 단위 수 (String.length)
+     */
+    public int getChars() {
+        return chars;
+    }
+
+    public int getWords() {
+        return words;
+    }
+
+    public int getSentences() {
+        return sentences;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    private static boolean isClosing(char c) {
+        return c == '"' || c == '\'' || c == ')' || c == ']' || c == '”' || c == '’' || c == '」' || c == '』';
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
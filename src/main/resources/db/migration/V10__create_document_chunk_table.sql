@@ -0,0 +1,10 @@
+CREATE TABLE document_chunk (
+    document_id VARCHAR(255) NOT NULL,
+    content_hash CHAR(64) NOT NULL,
+    chunk_id VARCHAR(36) NOT NULL,
+    generation VARCHAR(36) NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (document_id, content_hash)
+);
+
+CREATE INDEX idx_document_chunk_chunk_id ON document_chunk (chunk_id);
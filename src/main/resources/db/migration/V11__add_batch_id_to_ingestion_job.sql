@@ -0,0 +1,3 @@
+ALTER TABLE ingestion_job ADD COLUMN batch_id VARCHAR(36);
+
+CREATE INDEX idx_ingestion_job_batch ON ingestion_job (batch_id);
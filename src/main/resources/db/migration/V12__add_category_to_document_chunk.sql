@@ -0,0 +1,3 @@
+ALTER TABLE document_chunk ADD COLUMN category VARCHAR(255);
+
+CREATE INDEX idx_document_chunk_category ON document_chunk (category);
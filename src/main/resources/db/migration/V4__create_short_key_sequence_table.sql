@@ -0,0 +1,6 @@
+CREATE TABLE short_key_sequence (
+    name VARCHAR(64) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+INSERT INTO short_key_sequence (name, next_value) VALUES ('url_entry', 0);
@@ -0,0 +1 @@
+CREATE INDEX idx_created_at ON url_entry (created_at);
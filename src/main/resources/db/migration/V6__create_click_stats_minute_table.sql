@@ -0,0 +1,10 @@
+CREATE TABLE click_stats_minute (
+    short_key VARCHAR(64) NOT NULL,
+    bucket_start DATETIME(6) NOT NULL,
+    dimension VARCHAR(16) NOT NULL,
+    dimension_value VARCHAR(255) NOT NULL,
+    clicks BIGINT NOT NULL,
+    PRIMARY KEY (short_key, bucket_start, dimension, dimension_value)
+);
+
+CREATE INDEX idx_click_stats_minute_bucket ON click_stats_minute (bucket_start);
@@ -0,0 +1,26 @@
+CREATE TABLE click_stats_hour (
+    short_key VARCHAR(64) NOT NULL,
+    bucket_start DATETIME(6) NOT NULL,
+    dimension VARCHAR(16) NOT NULL,
+    dimension_value VARCHAR(255) NOT NULL,
+    clicks BIGINT NOT NULL,
+    PRIMARY KEY (short_key, bucket_start, dimension, dimension_value)
+);
+
+CREATE INDEX idx_click_stats_hour_bucket ON click_stats_hour (bucket_start);
+
+CREATE TABLE click_stats_day (
+    short_key VARCHAR(64) NOT NULL,
+    bucket_start DATETIME(6) NOT NULL,
+    dimension VARCHAR(16) NOT NULL,
+    dimension_value VARCHAR(255) NOT NULL,
+    clicks BIGINT NOT NULL,
+    PRIMARY KEY (short_key, bucket_start, dimension, dimension_value)
+);
+
+CREATE INDEX idx_click_stats_day_bucket ON click_stats_day (bucket_start);
+
+CREATE TABLE click_stats_rollup (
+    name VARCHAR(32) PRIMARY KEY,
+    rolled_up_to DATETIME(6) NOT NULL
+);
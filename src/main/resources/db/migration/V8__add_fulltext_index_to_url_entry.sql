@@ -0,0 +1,2 @@
+-- RAG 의 URL 키워드 검색용. ngram 파서라 도메인 / 경로 조각과 한국어도 부분 문자열로 찾을 수 있음
+CREATE FULLTEXT INDEX idx_url_entry_fulltext ON url_entry (short_url, long_url) WITH PARSER ngram;
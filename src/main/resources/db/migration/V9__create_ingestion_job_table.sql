@@ -0,0 +1,18 @@
+CREATE TABLE ingestion_job (
+    id VARCHAR(36) PRIMARY KEY,
+    filename VARCHAR(255),
+    content_type VARCHAR(255),
+    file_size BIGINT NOT NULL,
+    parser VARCHAR(16) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    spool_path VARCHAR(1024),
+    metadata TEXT,
+    pages_parsed INT NOT NULL DEFAULT 0,
+    chunks_embedded INT NOT NULL DEFAULT 0,
+    attempts INT NOT NULL DEFAULT 0,
+    error VARCHAR(1000),
+    created_at DATETIME(6),
+    updated_at DATETIME(6)
+);
+
+CREATE INDEX idx_ingestion_job_status_updated ON ingestion_job (status, updated_at);
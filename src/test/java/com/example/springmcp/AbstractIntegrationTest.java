@@ -3,16 +3,12 @@ package com.example.springmcp;
 
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
-import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.containers.RabbitMQContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
-import org.testcontainers.utility.DockerImageName;
 import org.springframework.test.annotation.DirtiesContext;
 
-import org.testcontainers.containers.wait.strategy.Wait;
-
 @Testcontainers
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 public abstract class AbstractIntegrationTest {
@@ -27,12 +23,6 @@ public abstract class AbstractIntegrationTest {
     static RabbitMQContainer rabbitmq = new RabbitMQContainer("rabbitmq:3-management")
             .withQueue("test-queue");
 
-    @Container
-    static GenericContainer<?> chromadb = new GenericContainer<>(DockerImageName.parse("ghcr.io/chroma-core/chroma:0.4.18"))
-            .withExposedPorts(8000)
-            .withCommand("uvicorn chromadb.app:app --host 0.0.0.0 --port 8000")
-            .waitingFor(Wait.forLogMessage(".*Uvicorn running on http://0.0.0.0:8000.*", 1));
-
     @DynamicPropertySource
     static void registerProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.datasource.url", mysql::getJdbcUrl);
@@ -43,6 +33,7 @@ public abstract class AbstractIntegrationTest {
         registry.add("spring.rabbitmq.host", rabbitmq::getHost);
         registry.add("spring.rabbitmq.port", rabbitmq::getAmqpPort);
 
-        registry.add("spring.ai.vectorstore.chroma.url", () -> "http://" + chromadb.getHost() + ":" + chromadb.getMappedPort(8000));
+        // 벡터 저장소는 local-vector 프로파일의 HNSW 저장소를 사용하고 스냅샷은 남기지 않음
+        registry.add("app.vector-store.local.snapshot.enabled", () -> "false");
     }
 }
@@ -6,7 +6,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 
 @SpringBootTest
-@ActiveProfiles("test")
+@ActiveProfiles({"test", "local-vector"})
 @ContextConfiguration(classes = SpringMcpApplication.class)
 class SpringMcpApplicationTests extends AbstractIntegrationTest {
 
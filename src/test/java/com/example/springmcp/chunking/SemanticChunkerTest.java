@@ -0,0 +1,89 @@
+package com.example.springmcp.chunking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SemanticChunkerTest {
+
+    private static final String TEXT = "Cats are small pets. Cats like to sleep. Cats chase mice. "
+            + "Stocks fell sharply today. Stocks rebounded later. Stocks closed flat.";
+
+    private final List<List<String>> requests = new ArrayList<>();
+
+    /**
+     * 고양이 문장과 주식 문장을 서로 직교하는 벡터로 임베딩
+     */
+    private List<List<Double>> embed(List<String> texts) {
+        requests.add(texts);
+        return texts.stream()
+                .map(text -> text.contains("Cats") ? List.of(1.0, 0.0) : List.of(0.0, 1.0))
+                .toList();
+    }
+
+    @Test
+    void split_breaksWhereTopicChanges() {
+        SemanticChunker chunker = new SemanticChunker(this::embed, false, 1, 100, 90, 10);
+
+        List<Document> chunks = chunker.split(List.of(new Document(TEXT, Map.of("filename", "mixed.txt"))));
+
+        assertEquals(List.of("Cats are small pets. Cats like to sleep. Cats chase mice.",
+                        "Stocks fell sharply today. Stocks rebounded later. Stocks closed flat."),
+                chunks.stream().map(Document::getContent).toList());
+        assertEquals("mixed.txt", chunks.get(0).getMetadata().get("filename"));
+    }
+
+    @Test
+    void split_embedsSentencesOfAllDocumentsInOneRequest() {
+        SemanticChunker chunker = new SemanticChunker(this::embed, false, 1, 100, 90, 10);
+
+        chunker.split(List.of(new Document(TEXT), new Document("Cats purr. Cats nap.")));
+
+        assertEquals(1, requests.size());
+        assertEquals(8, requests.get(0).size());
+    }
+
+    @Test
+    void split_keepsChunksTogetherUntilMinTokens() {
+        SemanticChunker chunker = new SemanticChunker(this::embed, false, 100, 200, 90, 10);
+
+        List<Document> chunks = chunker.split(List.of(new Document(TEXT)));
+
+        assertEquals(1, chunks.size());
+    }
+
+    @Test
+    void split_attachesPooledSentenceEmbedding() {
+        SemanticChunker chunker = new SemanticChunker(this::embed, true, 1, 100, 90, 10);
+
+        List<Document> chunks = chunker.split(List.of(new Document(TEXT)));
+
+        assertEquals(List.of(1.0, 0.0), chunks.get(0).getEmbedding());
+        assertEquals(List.of(0.0, 1.0), chunks.get(1).getEmbedding());
+    }
+
+    @Test
+    void split_splitsOversizedSentenceWithinMaxTokens() {
+        SemanticChunker chunker = new SemanticChunker(this::embed, false, 1, 12, 90, 10);
+        String longSentence = "Stocks " + "word ".repeat(60).strip() + ".";
+
+        List<Document> chunks = chunker.split(List.of(new Document("Cats nap. " + longSentence)));
+
+        assertTrue(chunks.size() > 2);
+        for (Document chunk : chunks) {
+            assertTrue(Chunks.countTokens(chunk.getContent()) <= 12, chunk.getContent());
+        }
+    }
+
+    @Test
+    void split_failsWhenEmbedderDropsSentences() {
+        SemanticChunker chunker = new SemanticChunker(texts -> List.of(), false, 1, 100, 90, 10);
+
+        assertThrows(IllegalStateException.class, () -> chunker.split(List.of(new Document(TEXT))));
+    }
+}
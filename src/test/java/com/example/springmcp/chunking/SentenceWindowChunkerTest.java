@@ -0,0 +1,60 @@
+package com.example.springmcp.chunking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SentenceWindowChunkerTest {
+
+    @Test
+    void splitText_packsWholeSentencesAndOverlapsLastSentence() {
+        SentenceWindowChunker chunker = new SentenceWindowChunker(20, 1, 10);
+
+        List<String> chunks = chunker.splitText("The cat sat on the mat. The dog slept by the door. "
+                + "The bird sang in the tree. The fish swam in the bowl.");
+
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(chunk.endsWith("."), chunk);
+            assertTrue(Chunks.countTokens(chunk) <= 20, chunk);
+        }
+        // 다음 청크는 앞 청크의 마지막 문장부터 시작
+        for (int i = 1; i < chunks.size(); i++) {
+            List<String> previous = Chunks.sentences(chunks.get(i - 1));
+            assertTrue(chunks.get(i).startsWith(previous.get(previous.size() - 1).strip()), chunks.get(i));
+        }
+        assertTrue(chunks.get(chunks.size() - 1).endsWith("The fish swam in the bowl."));
+    }
+
+    @Test
+    void splitText_splitsOversizedSentenceWithinMaxTokens() {
+        SentenceWindowChunker chunker = new SentenceWindowChunker(12, 1, 10);
+        String longSentence = "word ".repeat(60).strip() + ".";
+
+        List<String> chunks = chunker.splitText("Short intro. " + longSentence + " Short outro.");
+
+        assertEquals("Short intro.", chunks.get(0));
+        assertEquals("Short outro.", chunks.get(chunks.size() - 1));
+        assertTrue(chunks.size() > 3);
+        for (String chunk : chunks) {
+            assertTrue(Chunks.countTokens(chunk) <= 12, chunk);
+        }
+        // 긴 문장 앞뒤로 겹친 문장만으로 된 청크가 생기지 않음
+        assertEquals(1, chunks.stream().filter("Short intro."::equals).count());
+    }
+
+    @Test
+    void split_copiesSourceMetadataToEveryChunk() {
+        SentenceWindowChunker chunker = new SentenceWindowChunker(6, 0, 10);
+
+        List<Document> chunks = chunker.split(List.of(new Document("First sentence here. Second sentence here.",
+                Map.of("filename", "notes.txt"))));
+
+        assertEquals(2, chunks.size());
+        assertTrue(chunks.stream().allMatch(chunk -> "notes.txt".equals(chunk.getMetadata().get("filename"))));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.springmcp.controller;
+
+import com.example.springmcp.service.MetricsService;
+import com.example.springmcp.service.RequestCoalescer;
+import com.example.springmcp.service.SemanticAnswerCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChatControllerStreamTest {
+
+    private ChatClient chatClient;
+    private MetricsService metricsService;
+    private ChatController controller;
+
+    @BeforeEach
+    void setUp() {
+        chatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        ChatClient.Builder builder = mock(ChatClient.Builder.class);
+        when(builder.defaultOptions(any())).thenReturn(builder);
+        when(builder.build()).thenReturn(chatClient);
+        metricsService = mock(MetricsService.class);
+        controller = new ChatController(builder, metricsService, mock(SemanticAnswerCache.class), mock(RequestCoalescer.class));
+    }
+
+    @Test
+    void streamChat_sendsTokenEventsThenDone() {
+        givenModelStream(Flux.just("Hel", "lo"));
+
+        StepVerifier.create(controller.streamChat("hi"))
+                .assertNext(event -> assertEvent(event, "token", "Hel"))
+                .assertNext(event -> assertEvent(event, "token", "lo"))
+                .assertNext(event -> assertEvent(event, "done", "[DONE]"))
+                .verifyComplete();
+
+        verify(metricsService).recordAiTimeToFirstToken(anyLong());
+        verify(metricsService).recordAiChatTime(any());
+        verify(metricsService, never()).recordAiError(anyString());
+    }
+
+    @Test
+    void streamChat_endsWithErrorEventWhenModelFailsMidStream() {
+        givenModelStream(Flux.just("Hel").concatWith(Flux.error(new IllegalStateException("upstream reset"))));
+
+        StepVerifier.create(controller.streamChat("hi"))
+                .assertNext(event -> assertEvent(event, "token", "Hel"))
+                .assertNext(event -> {
+                    assertEquals("error", event.event());
+                    assertTrue(event.data().contains("upstream reset"), event.data());
+                })
+                .verifyComplete();
+
+        verify(metricsService).recordAiError("chat_stream_error");
+    }
+
+    @Test
+    void streamChat_cancelsUpstreamWhenClientDisconnects() {
+        TestPublisher<String> upstream = TestPublisher.create();
+        givenModelStream(upstream.flux());
+
+        StepVerifier.create(controller.streamChat("hi"))
+                .then(() -> upstream.next("Hel"))
+                .assertNext(event -> assertEvent(event, "token", "Hel"))
+                .thenCancel()
+                .verify();
+
+        upstream.assertCancelled();
+        verify(metricsService).recordAiChatStreamCancelled();
+        verify(metricsService).recordAiChatTime(any());
+    }
+
+    @Test
+    void streamChat_requestsTokensOnlyAsTheClientConsumesThem() {
+        TestPublisher<String> upstream = TestPublisher.create();
+        givenModelStream(upstream.flux());
+
+        StepVerifier.create(controller.streamChat("hi"), 1)
+                .then(() -> upstream.assertMaxRequested(1).next("Hel"))
+                .assertNext(event -> assertEvent(event, "token", "Hel"))
+                .thenCancel()
+                .verify();
+    }
+
+    private void givenModelStream(Flux<String> tokens) {
+        when(chatClient.prompt().user(anyString()).stream().content()).thenReturn(tokens);
+    }
+
+    private static void assertEvent(ServerSentEvent<String> event, String name, String data) {
+        assertEquals(name, event.event());
+        assertEquals(data, event.data());
+    }
+}
@@ -13,16 +13,22 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
-@ActiveProfiles("test")
+@ActiveProfiles({"test", "local-vector"})
 @ContextConfiguration(classes = SpringMcpApplication.class)
 public class UrlShortenerControllerIntegrationTest extends AbstractIntegrationTest {
 
@@ -102,6 +108,27 @@ public class UrlShortenerControllerIntegrationTest extends AbstractIntegrationTe
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    public void publicRedirectShouldNotRequireAuthentication() throws Exception {
+        String longUrl = "https://www.public-redirect.com";
+        UrlShortenerRequest request = new UrlShortenerRequest();
+        request.setLongUrl(longUrl);
+
+        String responseContent = mockMvc.perform(post("/api/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .with(jwt()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String shortKey = objectMapper.readTree(responseContent).get("shortKey").asText();
+
+        mockMvc.perform(get("/" + shortKey))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", longUrl));
+        mockMvc.perform(get("/Zzzzz9"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void redirectToNonExistentUrlShouldReturnNotFound() throws Exception {
         mockMvc.perform(get("/api/shorten/nonexistent").with(jwt()))
@@ -153,4 +180,35 @@ public class UrlShortenerControllerIntegrationTest extends AbstractIntegrationTe
                 .andExpect(jsonPath("$.shortUrl").exists())
                 .andExpect(jsonPath("$.createdAt").exists());
     }
+
+    @Test
+    public void shortenUrlsInBatchShouldStreamPerItemResults() throws Exception {
+        UrlShortenerRequest generated = new UrlShortenerRequest();
+        generated.setLongUrl("https://www.batch-one.com");
+        UrlShortenerRequest invalid = new UrlShortenerRequest();
+        invalid.setLongUrl("invalid-url");
+        UrlShortenerRequest custom = new UrlShortenerRequest();
+        custom.setLongUrl("https://www.batch-two.com");
+        custom.setCustomKey("batchK");
+
+        MvcResult mvcResult = mockMvc.perform(post("/api/shorten/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(generated, invalid, custom)))
+                        .with(jwt()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().trim().split("\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(objectMapper.readTree(lines[0]).get("success").asBoolean());
+        assertFalse(objectMapper.readTree(lines[1]).get("success").asBoolean());
+        assertEquals("batchK", objectMapper.readTree(lines[2]).get("shortKey").asText());
+
+        mockMvc.perform(get("/api/shorten/batchK").with(jwt()))
+                .andExpect(status().isFound())
+                .andExpect(redirectedUrl("https://www.batch-two.com"));
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.springmcp.repository;
+
+import com.example.springmcp.AbstractIntegrationTest;
+import com.example.springmcp.SpringMcpApplication;
+import com.example.springmcp.model.UrlEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles({"test", "local-vector"})
+@ContextConfiguration(classes = SpringMcpApplication.class)
+class UrlEntryRepositoryIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private UrlEntryRepository urlEntryRepository;
+
+    @Test
+    void searchByKeywords_returnsMostRelevantEntriesUpToLimit() {
+        urlEntryRepository.saveAll(List.of(
+                new UrlEntry("ftSpring1", "https://docs.spring.io/spring-ai/reference"),
+                new UrlEntry("ftSpring2", "https://spring.io/blog/spring-ai-release"),
+                new UrlEntry("ftKotlin1", "https://kotlinlang.org/docs/multiplatform.html")));
+
+        List<UrlEntry> results = urlEntryRepository.searchByKeywords("spring-ai", 1);
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).getLongUrl().contains("spring-ai"));
+
+        List<UrlEntry> kotlin = urlEntryRepository.searchByKeywords("multiplatform", 10);
+        assertEquals("ftKotlin1", kotlin.get(0).getShortUrl());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.springmcp.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Bm25IndexTest {
+
+    @Test
+    void tokenize_splitsEnglishWordsAndKoreanBigrams() {
+        assertEquals(List.of("spring", "ai", "검색", "색을", "지원"),
+                TextTokenizer.tokenize("The Spring AI 검색을 지원"));
+        assertEquals(List.of("example", "com", "docs", "guide"),
+                TextTokenizer.tokenize("https://www.example.com/docs/guide"));
+    }
+
+    @Test
+    void search_ranksRarerAndMoreFrequentTermsHigher() {
+        Bm25Index<String> index = new Bm25Index<>();
+        index.put("1", "spring boot spring data", "boot");
+        index.put("2", "spring ai vector store", "ai");
+        index.put("3", "kotlin multiplatform admin", "kotlin");
+
+        List<Bm25Index.Hit<String>> hits = index.search("spring ai", 10);
+
+        assertEquals(List.of("2", "1"), hits.stream().map(Bm25Index.Hit::getId).toList());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+        assertEquals("ai", hits.get(0).getValue());
+    }
+
+    @Test
+    void search_matchesKoreanWordsWithParticles() {
+        Bm25Index<String> index = new Bm25Index<>();
+        index.put("ko", "벡터 데이터베이스에서 문서를 검색합니다", "ko");
+        index.put("en", "documents are searched in the vector database", "en");
+
+        assertEquals("ko", index.search("문서 검색", 10).get(0).getId());
+    }
+
+    @Test
+    void put_replacesAndRemoveDeletesPostings() {
+        Bm25Index<String> index = new Bm25Index<>();
+        index.put("1", "redis cache", "v1");
+        index.put("1", "caffeine cache", "v2");
+
+        assertTrue(index.search("redis", 10).isEmpty());
+        assertEquals("v2", index.search("caffeine", 10).get(0).getValue());
+        assertEquals(1, index.size());
+        assertTrue(index.contains("1"));
+        assertEquals(Set.of("1"), index.ids());
+
+        assertTrue(index.remove("1"));
+        assertFalse(index.remove("1"));
+        assertTrue(index.search("cache", 10).isEmpty());
+        assertEquals(0, index.size());
+        assertFalse(index.contains("1"));
+    }
+
+    @Test
+    void search_limitsResults() {
+        Bm25Index<Integer> index = new Bm25Index<>();
+        for (int i = 0; i < 100; i++) {
+            index.put(String.valueOf(i), "common term " + i, i);
+        }
+
+        assertEquals(5, index.search("common", 5).size());
+        assertTrue(index.search("", 5).isEmpty());
+    }
+}
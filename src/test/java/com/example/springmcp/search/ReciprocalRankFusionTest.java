@@ -0,0 +1,36 @@
+package com.example.springmcp.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReciprocalRankFusionTest {
+
+    @Test
+    void fuse_prefersItemsRankedWellInSeveralLists() {
+        List<String> vector = List.of("a", "b", "c");
+        List<String> keyword = List.of("c", "d", "b");
+
+        List<ReciprocalRankFusion.Fused<String>> fused =
+                ReciprocalRankFusion.fuse(List.of(vector, keyword), Function.identity());
+
+        assertEquals(List.of("c", "b", "a", "d"), fused.stream().map(ReciprocalRankFusion.Fused::getItem).toList());
+        assertEquals(1.0 / 63 + 1.0 / 61, fused.get(0).getScore(), 1e-12);
+    }
+
+    @Test
+    void fuse_keepsFirstSeenItemForSameKey() {
+        List<String> first = List.of("A:first");
+        List<String> second = List.of("A:second", "B:second");
+
+        List<ReciprocalRankFusion.Fused<String>> fused =
+                ReciprocalRankFusion.fuse(List.of(first, second), item -> item.substring(0, 1), 1);
+
+        assertEquals("A:first", fused.get(0).getItem());
+        assertEquals(1.0, fused.get(0).getScore(), 1e-12);
+        assertEquals(2, fused.size());
+    }
+}
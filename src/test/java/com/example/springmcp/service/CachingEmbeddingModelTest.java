@@ -0,0 +1,98 @@
+package com.example.springmcp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.openai.OpenAiEmbeddingModel;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CachingEmbeddingModelTest {
+
+    @TempDir
+    Path directory;
+
+    private OpenAiEmbeddingModel delegate;
+    private CachingEmbeddingModel embeddingModel;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(OpenAiEmbeddingModel.class);
+        // 입력 텍스트 길이로 벡터를 만들어 돌려줌
+        when(delegate.call(any(EmbeddingRequest.class))).thenAnswer(invocation -> {
+            List<String> inputs = invocation.<EmbeddingRequest>getArgument(0).getInstructions();
+            List<Embedding> embeddings = new ArrayList<>();
+            for (int i = 0; i < inputs.size(); i++) {
+                embeddings.add(new Embedding(List.of((double) inputs.get(i).length(), 1.0), i));
+            }
+            return new EmbeddingResponse(embeddings);
+        });
+        embeddingModel = newModel();
+    }
+
+    @AfterEach
+    void tearDown() {
+        embeddingModel.close();
+    }
+
+    @Test
+    void call_embedsOnlyUncachedAndDistinctTexts() {
+        embeddingModel.call(new EmbeddingRequest(List.of("hello world", "bye"), EmbeddingOptions.EMPTY));
+
+        EmbeddingResponse response = embeddingModel.call(new EmbeddingRequest(
+                List.of("  hello   world ", "new text", "new text", "bye"), EmbeddingOptions.EMPTY));
+
+        ArgumentCaptor<EmbeddingRequest> requests = ArgumentCaptor.forClass(EmbeddingRequest.class);
+        verify(delegate, times(2)).call(requests.capture());
+        assertEquals(List.of("hello world", "bye"), requests.getAllValues().get(0).getInstructions());
+        assertEquals(List.of("new text"), requests.getAllValues().get(1).getInstructions());
+        assertEquals(4, response.getResults().size());
+        assertEquals(List.of(11.0, 1.0), response.getResults().get(0).getOutput());
+        assertEquals(List.of(8.0, 1.0), response.getResults().get(2).getOutput());
+        assertEquals(3, response.getResults().get(3).getIndex());
+    }
+
+    @Test
+    void embed_servesFromDiskAfterRestart() {
+        embeddingModel.embed("cached on disk");
+        embeddingModel.close();
+
+        embeddingModel = newModel();
+        assertEquals(List.of(14.0, 1.0), embeddingModel.embed("cached on disk"));
+        verify(delegate, times(1)).call(any(EmbeddingRequest.class));
+    }
+
+    @Test
+    void withPrecomputed_servesVectorsOnlyInsideTheScopeWithoutCachingThem() {
+        List<List<Double>> inside = new ArrayList<>();
+        embeddingModel.withPrecomputed(Map.of("pooled  chunk", List.of(0.5, 0.25)),
+                () -> inside.addAll(embeddingModel.embed(List.of("pooled chunk"))));
+
+        assertEquals(List.of(List.of(0.5, 0.25)), inside);
+        verify(delegate, never()).call(any(EmbeddingRequest.class));
+        // 범위를 벗어나면 근사 벡터가 아니라 모델의 임베딩을 받고, 재시작 후에도 마찬가지
+        assertEquals(List.of(12.0, 1.0), embeddingModel.embed("pooled chunk"));
+        embeddingModel.close();
+        embeddingModel = newModel();
+        assertEquals(List.of(12.0, 1.0), embeddingModel.embed("pooled chunk"));
+    }
+
+    private CachingEmbeddingModel newModel() {
+        return new CachingEmbeddingModel(delegate, new SimpleMeterRegistry(), "test-model", 16,
+                true, directory.toString(), 16);
+    }
+}
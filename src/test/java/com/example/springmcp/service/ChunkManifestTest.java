@@ -0,0 +1,218 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.repository.DocumentChunkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkManifestTest {
+
+    private InMemoryDocumentChunkRepository repository;
+    private ChunkManifest manifest;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryDocumentChunkRepository();
+        manifest = new ChunkManifest(repository);
+    }
+
+    @Test
+    void select_returnsOnlyChangedChunksOnReingestion() {
+        ingest("manual.pdf", "first", "page one", "page two", "page three");
+
+        ChunkManifest.Session session = manifest.open("manual.pdf", "second");
+        List<Document> changed = session.select(chunks("page one", "page two (revised)", "page three"));
+        session.recordStored(changed);
+
+        assertEquals(List.of("page two (revised)"), changed.stream().map(Document::getContent).toList());
+        assertEquals(2, session.getUnchanged());
+        assertEquals(List.of(chunkId("manual.pdf", "page two")), session.staleChunkIds());
+
+        session.forgetStale();
+        assertEquals(3, manifest.findChunkIds("manual.pdf").size());
+    }
+
+    @Test
+    void select_handsSkippedChunksToCallerWithStoredIds() {
+        ingest("manual.pdf", "first", "page one", "page two");
+
+        ChunkManifest.Session session = manifest.open("manual.pdf", "second");
+        List<Document> unchanged = new ArrayList<>();
+        List<Document> changed = session.select(chunks("page one", "page three"), unchanged::addAll);
+
+        assertEquals(List.of("page three"), changed.stream().map(Document::getContent).toList());
+        assertEquals(List.of(chunkId("manual.pdf", "page one")), unchanged.stream().map(Document::getId).toList());
+        assertEquals("manual.pdf", unchanged.get(0).getMetadata().get(ChunkManifest.DOCUMENT_ID));
+    }
+
+    @Test
+    void select_usesDeterministicIdsAndMetadata() {
+        ChunkManifest.Session session = manifest.open("manual.pdf", "first");
+
+        List<Document> changed = session.select(chunks("page one", "page one", "page two"));
+
+        // 문서 안에서 내용이 같은 청크는 하나만 저장
+        assertEquals(2, changed.size());
+        Document first = changed.get(0);
+        assertEquals(chunkId("manual.pdf", "page one"), first.getId());
+        assertEquals("manual.pdf", first.getMetadata().get(ChunkManifest.DOCUMENT_ID));
+        assertEquals(ChunkManifest.contentHash("page one"), first.getMetadata().get(ChunkManifest.CONTENT_HASH));
+    }
+
+    @Test
+    void select_keepsBookkeepingMetadataOutOfEmbeddedText() {
+        ChunkManifest.Session session = manifest.open("manual.pdf", "first");
+
+        Document chunk = session.select(chunks("page one")).get(0);
+
+        String embedded = chunk.getFormattedContent(MetadataMode.EMBED);
+        assertTrue(embedded.contains("manual.pdf"), embedded);
+        assertFalse(embedded.contains(ChunkManifest.contentHash("page one")), embedded);
+        for (String key : ChunkManifest.UNEMBEDDED_KEYS) {
+            assertFalse(embedded.contains(key), embedded);
+            assertTrue(chunk.getMetadata().containsKey(key), key);
+        }
+    }
+
+    @Test
+    void select_skipsChunksStoredByFailedAttemptOfSameGeneration() {
+        ChunkManifest.Session failed = manifest.open("manual.pdf", "job-1");
+        List<Document> changed = failed.select(chunks("page one", "page two"));
+        failed.recordStored(changed.subList(0, 1));
+
+        ChunkManifest.Session retry = manifest.open("manual.pdf", "job-1");
+        List<Document> remaining = retry.select(chunks("page one", "page two"));
+
+        assertEquals(List.of("page two"), remaining.stream().map(Document::getContent).toList());
+        retry.recordStored(remaining);
+        assertTrue(retry.staleChunkIds().isEmpty());
+    }
+
+    @Test
+    void findChunkIds_isScopedToDocument() {
+        ingest("a.pdf", "first", "shared text");
+        ingest("b.pdf", "first", "shared text");
+
+        assertNotEquals(manifest.findChunkIds("a.pdf"), manifest.findChunkIds("b.pdf"));
+
+        manifest.forgetDocument("a.pdf");
+        assertTrue(manifest.findChunkIds("a.pdf").isEmpty());
+        assertEquals(1, manifest.findChunkIds("b.pdf").size());
+    }
+
+    @Test
+    void countByCategory_countsChunksByCategoryTheyWereStoredWith() {
+        ChunkManifest.Session session = manifest.open("manual.pdf", "first");
+        List<Document> manual = chunks("page one", "page two");
+        manual.forEach(chunk -> chunk.getMetadata().put(ChunkManifest.CATEGORY, "manual"));
+        session.recordStored(session.select(manual));
+        ingest("notes.txt", "first", "release notes");
+
+        // 내용이 같으면 카테고리만 바꿔 다시 수집해도 저장된 청크의 카테고리로 센다
+        ChunkManifest.Session reingest = manifest.open("manual.pdf", "second");
+        List<Document> changed = reingest.select(chunks("page one", "page two"));
+
+        assertTrue(changed.isEmpty());
+        assertEquals(Map.of("manual", 2L, ChunkManifest.UNCATEGORIZED, 1L), manifest.countByCategory());
+        assertEquals(Map.of("manual", 1L), manifest.countByCategory(List.of(chunkId("manual.pdf", "page one"))));
+    }
+
+    private void ingest(String documentId, String generation, String... contents) {
+        ChunkManifest.Session session = manifest.open(documentId, generation);
+        session.recordStored(session.select(chunks(contents)));
+        session.forgetStale();
+    }
+
+    private static String chunkId(String documentId, String content) {
+        return ChunkManifest.chunkId(documentId, ChunkManifest.contentHash(content));
+    }
+
+    private static List<Document> chunks(String... contents) {
+        List<Document> chunks = new ArrayList<>();
+        for (String content : contents) {
+            chunks.add(new Document(content, new HashMap<>(Map.of("filename", "manual.pdf"))));
+        }
+        return chunks;
+    }
+
+    /**
+     * document_chunk 테이블 대신 메모리에 보관하는 저장소
+     */
+    private static class InMemoryDocumentChunkRepository extends DocumentChunkRepository {
+
+        private final Map<String, Map<String, String[]>> rows = new HashMap<>();
+
+        InMemoryDocumentChunkRepository() {
+            super(null);
+        }
+
+        @Override
+        public Map<String, String> findChunkIds(String documentId) {
+            return rows.getOrDefault(documentId, Map.of()).entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue()[0]));
+        }
+
+        @Override
+        public void upsert(String documentId, String generation, String category, Map<String, String> chunkIds) {
+            Map<String, String[]> document = rows.computeIfAbsent(documentId, id -> new HashMap<>());
+            chunkIds.forEach((hash, chunkId) -> {
+                String[] previous = document.get(hash);
+                String rowCategory = category != null || previous == null ? category : previous[2];
+                document.put(hash, new String[]{chunkId, generation, rowCategory});
+            });
+        }
+
+        @Override
+        public Map<String, Long> countByCategory() {
+            Map<String, Long> counts = new HashMap<>();
+            rows.values().forEach(document -> document.values().forEach(row -> counts.merge(row[2], 1L, Long::sum)));
+            return counts;
+        }
+
+        @Override
+        public Map<String, Long> countByCategory(Collection<String> chunkIds) {
+            Map<String, Long> counts = new HashMap<>();
+            rows.values().forEach(document -> document.values().stream()
+                    .filter(row -> chunkIds.contains(row[0]))
+                    .forEach(row -> counts.merge(row[2], 1L, Long::sum)));
+            return counts;
+        }
+
+        @Override
+        public List<String> findStaleChunkIds(String documentId, String generation) {
+            return rows.getOrDefault(documentId, Map.of()).values().stream()
+                    .filter(row -> !row[1].equals(generation))
+                    .map(row -> row[0])
+                    .toList();
+        }
+
+        @Override
+        public int deleteStale(String documentId, String generation) {
+            Map<String, String[]> document = rows.getOrDefault(documentId, new HashMap<>());
+            int before = document.size();
+            document.values().removeIf(row -> !row[1].equals(generation));
+            return before - document.size();
+        }
+
+        @Override
+        public int deleteByDocumentId(String documentId) {
+            Map<String, String[]> removed = rows.remove(documentId);
+            return removed != null ? removed.size() : 0;
+        }
+
+        @Override
+        public void deleteByChunkIds(Collection<String> chunkIds) {
+            rows.values().forEach(document -> document.values().removeIf(row -> chunkIds.contains(row[0])));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.chunking.SemanticChunker;
+import com.example.springmcp.chunking.SentenceWindowChunker;
+import com.example.springmcp.chunking.TokenChunker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChunkingServiceTest {
+
+    private ChunkingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = newService("token", List.of("text/markdown=sentence-window", "application/*=semantic"));
+    }
+
+    @Test
+    void select_prefersUploadStrategyThenContentTypeThenDefault() {
+        assertEquals(SemanticChunker.NAME, service.select(Map.of(
+                ChunkingService.STRATEGY, "Semantic", "content_type", "text/markdown")).getName());
+        assertEquals(SentenceWindowChunker.NAME, service.select(Map.of("content_type", "text/markdown; charset=UTF-8")).getName());
+        assertEquals(SemanticChunker.NAME, service.select(Map.of("content_type", "application/pdf")).getName());
+        assertEquals(TokenChunker.NAME, service.select(Map.of("content_type", "text/plain")).getName());
+        assertEquals(TokenChunker.NAME, service.select(Map.of()).getName());
+    }
+
+    @Test
+    void select_rejectsUnknownStrategy() {
+        assertFalse(service.isSupported("paragraph"));
+        assertThrows(IllegalArgumentException.class, () -> service.select(Map.of(ChunkingService.STRATEGY, "paragraph")));
+    }
+
+    @Test
+    void constructor_rejectsMisconfiguredStrategies() {
+        assertThrows(IllegalArgumentException.class, () -> newService("paragraph", List.of()));
+        assertThrows(IllegalArgumentException.class, () -> newService("token", List.of("text/markdown")));
+    }
+
+    private static ChunkingService newService(String defaultStrategy, List<String> contentTypes) {
+        return new ChunkingService(mock(EmbeddingBatcher.class), defaultStrategy, contentTypes,
+                800, 350, 512, 1, 128, 800, 90);
+    }
+}
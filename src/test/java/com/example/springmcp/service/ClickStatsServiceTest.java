@@ -0,0 +1,73 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.dto.ClickStatsDelta;
+import com.example.springmcp.dto.UrlStatsResponse;
+import com.example.springmcp.exception.UrlNotFoundException;
+import com.example.springmcp.model.ClickStatsGranularity;
+import com.example.springmcp.model.UrlEntry;
+import com.example.springmcp.repository.ClickStatsRepository;
+import com.example.springmcp.repository.UrlEntryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClickStatsServiceTest {
+
+    @Mock
+    private ClickStatsRepository clickStatsRepository;
+
+    @Mock
+    private UrlEntryRepository urlEntryRepository;
+
+    @InjectMocks
+    private ClickStatsService clickStatsService;
+
+    @Test
+    void getStats_addsUnfoldedMinutesToHourAndDayBuckets() {
+        LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime minuteWatermark = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(2);
+        String total = ClickEventPipeline.DIMENSION_TOTAL;
+
+        when(urlEntryRepository.findByShortUrl("abc123")).thenReturn(new UrlEntry("abc123", "https://www.example.com"));
+        when(clickStatsRepository.findWatermarks("")).thenReturn(Map.of(
+                ClickStatsRepository.MINUTE_WATERMARK, minuteWatermark,
+                ClickStatsRepository.HOUR_WATERMARK, currentHour));
+        when(clickStatsRepository.findRows(any(), anyString(), anyString(), any())).thenReturn(List.of());
+        // 이미 시간 테이블로 접힌 현재 시간대의 클릭 5, 아직 분 테이블에만 있는 클릭 3
+        when(clickStatsRepository.findRows(eq(ClickStatsGranularity.HOUR), eq("abc123"), eq(total), any()))
+                .thenAnswer(invocation -> List.of(new ClickStatsDelta("abc123", currentHour, total, "", 5)));
+        when(clickStatsRepository.findRows(eq(ClickStatsGranularity.MINUTE), eq("abc123"), eq(total), any()))
+                .thenAnswer(invocation -> List.of(new ClickStatsDelta("abc123", currentHour, total, "", 3)));
+
+        UrlStatsResponse stats = clickStatsService.getStats("abc123", 60, 24, 7, 10);
+
+        assertEquals(60, stats.getMinutes().size());
+        assertEquals(24, stats.getHours().size());
+        assertEquals(7, stats.getDays().size());
+        UrlStatsResponse.Bucket lastHour = stats.getHours().get(23);
+        assertEquals(currentHour, lastHour.getStart());
+        assertEquals(8, lastHour.getClicks());
+        assertEquals(8, stats.getTotalClicks());
+        verify(clickStatsRepository, atLeastOnce()).findRows(ClickStatsGranularity.MINUTE, "abc123", total, minuteWatermark);
+    }
+
+    @Test
+    void getStats_unknownKey_throwsUrlNotFoundException() {
+        when(urlEntryRepository.findByShortUrl("nonexistent")).thenReturn(null);
+
+        assertThrows(UrlNotFoundException.class, () -> clickStatsService.getStats("nonexistent", 60, 24, 30, 10));
+        verifyNoInteractions(clickStatsRepository);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.config.RabbitConfig;
+import com.example.springmcp.model.IngestionJob;
+import com.example.springmcp.repository.IngestionJobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DocumentIngestionServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private IngestionJobRepository jobRepository;
+    private RabbitTemplate rabbitTemplate;
+    private DocumentIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(IngestionJobRepository.class);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        when(jobRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jobRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        service = new DocumentIngestionService(jobRepository, rabbitTemplate, new ObjectMapper(), directory.toString(),
+                Duration.ofDays(7), 3, DataSize.ofKilobytes(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submitBatch_spoolsEveryDocumentAndQueuesOnlyTheBatch() throws IOException {
+        MockMultipartFile archive = new MockMultipartFile("files", "manuals.zip", "application/zip",
+                zip(Map.of("install.pdf", "%PDF install", "faq.txt", "questions")));
+        MockMultipartFile notes = new MockMultipartFile("files", "notes.txt", "text/plain",
+                "release notes".getBytes(StandardCharsets.UTF_8));
+
+        IngestionJob batch = service.submitBatch(List.of(archive, notes), Map.of("category", "manual"));
+
+        assertEquals(IngestionJob.Parser.BATCH, batch.getParser());
+        ArgumentCaptor<List<IngestionJob>> saved = ArgumentCaptor.forClass(List.class);
+        verify(jobRepository).saveAll(saved.capture());
+        List<IngestionJob> files = saved.getValue();
+        assertEquals(3, files.size());
+        assertTrue(files.stream().allMatch(file -> batch.getId().equals(file.getBatchId())));
+        assertTrue(files.stream().allMatch(file -> Files.exists(Path.of(file.getSpoolPath()))));
+        IngestionJob pdf = files.stream().filter(file -> file.getFilename().equals("manuals.zip/install.pdf")).findFirst().orElseThrow();
+        assertEquals(IngestionJob.Parser.PDF, pdf.getParser());
+        assertTrue(pdf.getMetadata().contains("\"document_id\":\"" + batch.getId() + "/manuals.zip/install.pdf\""));
+        assertTrue(pdf.getMetadata().contains("\"category\":\"manual\""));
+        verify(rabbitTemplate).convertAndSend(RabbitConfig.DOCUMENT_INGESTION_EXCHANGE_NAME,
+                RabbitConfig.DOCUMENT_INGESTION_ROUTING_KEY, batch.getId());
+    }
+
+    @Test
+    void submitBatch_rejectsTooManyDocumentsAndRemovesSpoolFiles() throws IOException {
+        MockMultipartFile archive = new MockMultipartFile("files", "many.zip", "application/zip",
+                zip(Map.of("a.txt", "a", "b.txt", "b", "c.txt", "c", "d.txt", "d")));
+
+        assertThrows(IllegalArgumentException.class, () -> service.submitBatch(List.of(archive), Map.of()));
+        try (var spooled = Files.list(directory)) {
+            assertEquals(0, spooled.count());
+        }
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void submitBatch_stopsExtractingWhenSizeLimitIsExceeded() throws IOException {
+        MockMultipartFile archive = new MockMultipartFile("files", "bomb.zip", "application/zip",
+                zip(Map.of("big.txt", "0".repeat(4096))));
+
+        assertThrows(IllegalArgumentException.class, () -> service.submitBatch(List.of(archive), Map.of()));
+        try (var spooled = Files.list(directory)) {
+            assertEquals(0, spooled.count());
+        }
+    }
+
+    @Test
+    void submitBatch_rejectsDuplicatePathsAndRemovesSpoolFiles() throws IOException {
+        MockMultipartFile first = new MockMultipartFile("files", "README.md", "text/markdown", "a".getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile second = new MockMultipartFile("files", "README.md", "text/markdown", "b".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> service.submitBatch(List.of(first, second), Map.of()));
+        try (var spooled = Files.list(directory)) {
+            assertEquals(0, spooled.count());
+        }
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void submit_usesJobIdAsDocumentIdUnlessGiven() throws IOException {
+        MockMultipartFile first = new MockMultipartFile("file", "report.pdf", "application/pdf", "%PDF a".getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile second = new MockMultipartFile("file", "report.pdf", "application/pdf", "%PDF b".getBytes(StandardCharsets.UTF_8));
+        Map<String, Object> firstMetadata = new HashMap<>();
+        Map<String, Object> secondMetadata = new HashMap<>();
+
+        IngestionJob firstJob = service.submit(first, IngestionJob.Parser.PDF, firstMetadata);
+        IngestionJob secondJob = service.submit(second, IngestionJob.Parser.PDF, secondMetadata);
+
+        // 이름이 같은 두 업로드는 서로 다른 문서
+        assertEquals(firstJob.getId(), firstMetadata.get(ChunkManifest.DOCUMENT_ID));
+        assertEquals(secondJob.getId(), secondMetadata.get(ChunkManifest.DOCUMENT_ID));
+        assertTrue(firstJob.getMetadata().contains("\"document_id\":\"" + firstJob.getId() + "\""));
+    }
+
+    @Test
+    void submit_keepsGivenDocumentId() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "report.pdf", "application/pdf", "%PDF".getBytes(StandardCharsets.UTF_8));
+        Map<String, Object> metadata = new HashMap<>(Map.of(ChunkManifest.DOCUMENT_ID, "annual-report"));
+
+        IngestionJob job = service.submit(file, IngestionJob.Parser.PDF, metadata);
+
+        assertTrue(job.getMetadata().contains("\"document_id\":\"annual-report\""));
+    }
+
+    private static byte[] zip(Map<String, String> files) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                zip.putNextEntry(new ZipEntry(file.getKey()));
+                zip.write(file.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.model.IngestionJob;
+import com.example.springmcp.model.IngestionJobStatus;
+import com.example.springmcp.repository.IngestionJobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DocumentIngestionWorkerTest {
+
+    @TempDir
+    Path directory;
+
+    private IngestionJobRepository jobRepository;
+    private DocumentProcessingService documentProcessingService;
+    private DocumentIngestionWorker worker;
+    private Path spool;
+    private IngestionJob job;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jobRepository = mock(IngestionJobRepository.class);
+        documentProcessingService = mock(DocumentProcessingService.class);
+        worker = new DocumentIngestionWorker(jobRepository, documentProcessingService, new ObjectMapper(),
+                new SimpleMeterRegistry(), 3, 2);
+
+        spool = Files.writeString(directory.resolve("job-1.upload"), "%PDF");
+        job = new IngestionJob("job-1", "manual.pdf", "application/pdf", 4, IngestionJob.Parser.PDF,
+                spool.toString(), "{\"category\":\"manual\"}");
+        when(jobRepository.findById("job-1")).thenReturn(Optional.of(job));
+        when(jobRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void process_reportsProgressAndCompletesJob() {
+        doAnswer(invocation -> {
+            Resource resource = invocation.getArgument(0);
+            assertEquals("manual.pdf", resource.getFilename());
+            DocumentProcessingService.Progress progress = invocation.getArgument(2);
+            progress.pagesParsed(12);
+            progress.chunksEmbedded(40);
+            return null;
+        }).when(documentProcessingService).processPdfDocument(any(), eq(Map.of("category", "manual")), any());
+
+        worker.process("job-1");
+
+        assertEquals(IngestionJobStatus.COMPLETED, job.getStatus());
+        assertEquals(12, job.getPagesParsed());
+        assertEquals(40, job.getChunksEmbedded());
+        assertEquals(1, job.getAttempts());
+        assertNull(job.getSpoolPath());
+        assertFalse(Files.exists(spool));
+    }
+
+    @Test
+    void process_rethrowsForRetryUntilAttemptsAreUsedUp() {
+        doThrow(new RuntimeException("429 Too Many Requests"))
+                .when(documentProcessingService).processPdfDocument(any(), any(), any());
+
+        assertThrows(RuntimeException.class, () -> worker.process("job-1"));
+        assertEquals(IngestionJobStatus.QUEUED, job.getStatus());
+        assertThrows(RuntimeException.class, () -> worker.process("job-1"));
+
+        // 마지막 시도가 실패하면 재큐잉 없이 거절해 DLQ 로 보냄
+        assertThrows(AmqpRejectAndDontRequeueException.class, () -> worker.process("job-1"));
+        assertEquals(IngestionJobStatus.FAILED, job.getStatus());
+        assertEquals(3, job.getAttempts());
+        assertTrue(Files.exists(spool));
+    }
+
+    @Test
+    void process_passesProgressOfPreviousAttemptForResuming() {
+        // 이전 시도에서 32페이지(청크 120개)까지 저장하고 실패한 작업
+        job.setAttempts(1);
+        job.setPagesParsed(32);
+        job.setChunksEmbedded(120);
+        doAnswer(invocation -> {
+            DocumentProcessingService.Progress progress = invocation.getArgument(2);
+            assertEquals(32, progress.completedPages());
+            assertEquals(120, progress.completedChunks());
+            // 같은 작업의 재시도는 같은 세대라 이전 시도에서 저장한 청크를 건너뜀
+            assertEquals("job-1", progress.generation());
+            progress.pagesParsed(40);
+            progress.chunksEmbedded(150);
+            return null;
+        }).when(documentProcessingService).processPdfDocument(any(), any(), any());
+
+        worker.process("job-1");
+
+        assertEquals(IngestionJobStatus.COMPLETED, job.getStatus());
+        assertEquals(40, job.getPagesParsed());
+        assertEquals(2, job.getAttempts());
+    }
+
+    @Test
+    void process_rejectsJobThatKeptCrashingTheWorker() {
+        // 처리 중 노드가 죽어 시도 횟수만 쌓인 채 다시 전달된 작업
+        job.setStatus(IngestionJobStatus.PROCESSING);
+        job.setAttempts(3);
+
+        assertThrows(AmqpRejectAndDontRequeueException.class, () -> worker.process("job-1"));
+        assertEquals(IngestionJobStatus.FAILED, job.getStatus());
+        verifyNoInteractions(documentProcessingService);
+    }
+
+    @Test
+    void process_ignoresRedeliveredFinishedJob() {
+        job.setStatus(IngestionJobStatus.COMPLETED);
+
+        worker.process("job-1");
+
+        verifyNoInteractions(documentProcessingService);
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void process_parsesBatchDocumentsAndRetriesOnlyFailedOnes() throws IOException {
+        IngestionJob batch = new IngestionJob("batch-1", "2 files", null, 8, IngestionJob.Parser.BATCH, null, "{}");
+        job.setBatchId("batch-1");
+        Path otherSpool = Files.writeString(directory.resolve("job-2.upload"), "text");
+        IngestionJob other = new IngestionJob("job-2", "notes.txt", "text/plain", 4, IngestionJob.Parser.TIKA,
+                otherSpool.toString(), "{}");
+        other.setBatchId("batch-1");
+        when(jobRepository.findById("batch-1")).thenReturn(Optional.of(batch));
+        when(jobRepository.findByBatchIdOrderByCreatedAtAsc("batch-1")).thenReturn(List.of(job, other));
+        doThrow(new RuntimeException("429 Too Many Requests"))
+                .doAnswer(invocation -> {
+                    DocumentProcessingService.Progress progress = invocation.getArgument(2);
+                    progress.chunksEmbedded(5);
+                    return null;
+                })
+                .when(documentProcessingService).processDocument(any(), any(), any());
+
+        // 한 문서가 실패하면 묶음 메시지를 다시 받아 실패한 문서만 처리
+        assertThrows(RuntimeException.class, () -> worker.process("batch-1"));
+        assertEquals(IngestionJobStatus.COMPLETED, job.getStatus());
+        assertEquals(IngestionJobStatus.QUEUED, other.getStatus());
+        assertEquals(IngestionJobStatus.QUEUED, batch.getStatus());
+
+        worker.process("batch-1");
+
+        assertEquals(IngestionJobStatus.COMPLETED, other.getStatus());
+        assertEquals(IngestionJobStatus.COMPLETED, batch.getStatus());
+        assertEquals(5, batch.getChunksEmbedded());
+        verify(documentProcessingService, times(1)).processPdfDocument(any(), any(), any());
+        verify(documentProcessingService, times(2)).processDocument(any(), any(), any());
+    }
+}
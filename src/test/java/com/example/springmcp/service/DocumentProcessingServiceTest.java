@@ -0,0 +1,92 @@
+package com.example.springmcp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DocumentProcessingServiceTest {
+
+    private ChunkingService chunkingService;
+    private ChunkManifest.Session session;
+    private SemanticAnswerCache answerCache;
+    private KeywordSearchService keywordSearchService;
+    private DocumentProcessingService service;
+    private float[] question;
+
+    @BeforeEach
+    void setUp() {
+        EmbeddingModel embeddingModel = mock(EmbeddingModel.class);
+        when(embeddingModel.embed("What does the guide say?")).thenReturn(List.of(1.0, 0.0));
+        answerCache = new SemanticAnswerCache(embeddingModel, new SimpleMeterRegistry(), true, 0.95, Duration.ofMinutes(10), 100);
+        question = answerCache.embedQuestion("What does the guide say?");
+
+        chunkingService = mock(ChunkingService.class);
+        ChunkManifest chunkManifest = mock(ChunkManifest.class);
+        session = mock(ChunkManifest.Session.class);
+        when(chunkManifest.open(eq("guide"), anyString())).thenReturn(session);
+        when(session.getDocumentId()).thenReturn("guide");
+        when(session.select(anyList(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        EmbeddingBatcher embeddingBatcher = mock(EmbeddingBatcher.class);
+        doAnswer(invocation -> {
+            Consumer<List<Document>> writer = invocation.getArgument(1);
+            writer.accept(invocation.getArgument(0));
+            return null;
+        }).when(embeddingBatcher).embedAndStore(anyList(), any(), any());
+
+        keywordSearchService = mock(KeywordSearchService.class);
+        service = new DocumentProcessingService(mock(VectorStore.class), keywordSearchService, answerCache,
+                embeddingBatcher, chunkManifest, mock(VectorStoreStatistics.class), chunkingService, true, 16);
+    }
+
+    @Test
+    void reingestingChangedDocument_missesAnswersBuiltOnItsOldChunks() {
+        List<Document> retrieved = List.of(chunk("old-chunk", "guide", "old text"));
+        List<Document> otherDocument = List.of(chunk("faq-chunk", "faq", "faq text"));
+        answerCache.put("rag", question, retrieved, Map.of("response", "old answer"));
+        answerCache.put("rag", question, otherDocument, Map.of("response", "faq answer"));
+        when(chunkingService.split(anyList(), anyMap())).thenReturn(List.of(chunk("new-chunk", "guide", "new text")));
+        when(session.staleChunkIds()).thenReturn(List.of("old-chunk"));
+
+        service.processTextDocument("new text", new HashMap<>(Map.of(ChunkManifest.DOCUMENT_ID, "guide")));
+
+        assertTrue(answerCache.find("rag", question, retrieved).isEmpty());
+        assertTrue(answerCache.find("rag", question, otherDocument).isPresent());
+    }
+
+    @Test
+    void reingestingUnchangedDocument_keepsAnswersAndIndexesSkippedChunks() {
+        List<Document> retrieved = List.of(chunk("old-chunk", "guide", "old text"));
+        answerCache.put("rag", question, retrieved, Map.of("response", "answer"));
+        when(chunkingService.split(anyList(), anyMap())).thenReturn(retrieved);
+        when(session.select(anyList(), any())).thenAnswer(invocation -> {
+            Consumer<List<Document>> unchanged = invocation.getArgument(1);
+            unchanged.accept(invocation.getArgument(0));
+            return List.of();
+        });
+        when(session.staleChunkIds()).thenReturn(List.of());
+
+        service.processTextDocument("old text", new HashMap<>(Map.of(ChunkManifest.DOCUMENT_ID, "guide")));
+
+        assertTrue(answerCache.find("rag", question, retrieved).isPresent());
+        // 임베딩을 건너뛴 청크도 이 노드의 키워드 색인에는 들어감
+        verify(keywordSearchService).indexDocuments(retrieved);
+    }
+
+    private static Document chunk(String id, String documentId, String content) {
+        return new Document(id, content, new HashMap<>(Map.of(ChunkManifest.DOCUMENT_ID, documentId)));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.springmcp.service;
+
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmbeddingBatcherTest {
+
+    private EmbeddingModel embeddingModel;
+    private RateLimiterRegistry rateLimiters;
+    private EmbeddingBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        embeddingModel = mock(EmbeddingModel.class);
+        rateLimiters = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(1_000_000)
+                .limitRefreshPeriod(Duration.ofMinutes(1))
+                .timeoutDuration(Duration.ZERO)
+                .build());
+        batcher = new EmbeddingBatcher(embeddingModel, rateLimiters, new SimpleMeterRegistry(), true,
+                100, 4, 2, 3, Duration.ofMillis(1), Duration.ofMillis(5));
+    }
+
+    @Test
+    void partition_keepsBatchesWithinTokenAndSizeBudget() {
+        List<Document> chunks = chunks(10, 30);
+
+        List<EmbeddingBatcher.Batch> batches = batcher.partition(chunks);
+
+        assertTrue(batches.size() > 1);
+        assertTrue(batches.stream().allMatch(batch -> batch.getTokens() <= 100 && batch.getDocuments().size() <= 4));
+        assertEquals(chunks, batches.stream().flatMap(batch -> batch.getDocuments().stream()).toList());
+    }
+
+    @Test
+    void embedAndStore_retriesFailedBatchInsteadOfFailingDocument() {
+        AtomicInteger calls = new AtomicInteger();
+        when(embeddingModel.embed(anyList())).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new RuntimeException("429 Too Many Requests");
+            }
+            return List.of();
+        });
+        List<Document> stored = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> progress = Collections.synchronizedList(new ArrayList<>());
+
+        batcher.embedAndStore(chunks(10, 30), stored::addAll, progress::add);
+
+        assertEquals(10, stored.size());
+        assertEquals(10, progress.get(progress.size() - 1));
+        // 진행률은 증가하는 순서로만 보고됨
+        assertEquals(progress.stream().sorted().toList(), progress);
+    }
+
+    @Test
+    void embedAndStore_reportsStoredChunksWhenBatchKeepsFailing() {
+        List<Document> chunks = chunks(8, 30);
+        String poison = chunks.get(7).getContent();
+        when(embeddingModel.embed(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            if (texts.stream().anyMatch(text -> text.contains(poison))) {
+                throw new RuntimeException("400 Bad Request");
+            }
+            return List.of();
+        });
+        List<Document> stored = Collections.synchronizedList(new ArrayList<>());
+
+        EmbeddingBatcher.BatchFailedException failure = assertThrows(EmbeddingBatcher.BatchFailedException.class,
+                () -> batcher.embedAndStore(chunks, stored::addAll, count -> { }));
+
+        assertEquals(stored.stream().map(Document::getId).sorted().toList(),
+                failure.getStoredIds().stream().sorted().toList());
+        assertFalse(failure.getStoredIds().contains(chunks.get(7).getId()));
+        verify(embeddingModel, atLeast(3)).embed(argThat((List<String> texts) -> texts.stream().anyMatch(text -> text.contains(poison))));
+    }
+
+    @Test
+    void embed_returnsEmbeddingsInInputOrderAcrossBatches() {
+        when(embeddingModel.embed(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                .map(text -> List.of((double) text.length()))
+                .toList());
+        List<String> texts = IntStream.range(0, 10).mapToObj("sentence "::repeat).toList();
+
+        List<List<Double>> embeddings = batcher.embed(texts);
+
+        assertEquals(texts.stream().map(text -> List.of((double) text.length())).toList(), embeddings);
+        verify(embeddingModel, times(3)).embed(anyList());
+    }
+
+    @Test
+    void embedAndStore_storesAttachedEmbeddingsWithoutCachingThem() {
+        CachingEmbeddingModel embeddingCache = mock(CachingEmbeddingModel.class);
+        List<Map<String, List<Double>>> scopes = new ArrayList<>();
+        doAnswer(invocation -> {
+            scopes.add(invocation.getArgument(0));
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(embeddingCache).withPrecomputed(anyMap(), any());
+        EmbeddingBatcher reusing = new EmbeddingBatcher(embeddingCache, rateLimiters, new SimpleMeterRegistry(), true,
+                100, 4, 2, 3, Duration.ofMillis(1), Duration.ofMillis(5));
+        Document pooled = new Document("semantic chunk", Map.of());
+        pooled.setEmbedding(List.of(0.6, 0.8));
+        Document plain = new Document("token chunk", Map.of());
+        List<Document> stored = new ArrayList<>();
+
+        reusing.embedAndStore(List.of(pooled, plain), stored::addAll, count -> { });
+
+        assertTrue(reusing.canReuseEmbeddings());
+        assertFalse(batcher.canReuseEmbeddings());
+        // 달린 벡터는 그 배치를 저장하는 동안에만 쓰임
+        assertEquals(List.of(Map.of(pooled.getFormattedContent(MetadataMode.EMBED), List.of(0.6, 0.8))), scopes);
+        assertEquals(List.of(pooled, plain), stored);
+        verify(embeddingCache).embed(List.of(plain.getFormattedContent(MetadataMode.EMBED)));
+    }
+
+    private static List<Document> chunks(int count, int words) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Document("chunk " + i + " " + "word ".repeat(words), Map.of()))
+                .toList();
+    }
+}
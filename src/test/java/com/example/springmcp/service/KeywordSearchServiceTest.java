@@ -0,0 +1,132 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.model.UrlEntry;
+import com.example.springmcp.repository.UrlEntryRepository;
+import com.example.springmcp.repository.UrlEntrySearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class KeywordSearchServiceTest {
+
+    private UrlEntryRepository urlEntryRepository;
+    private UrlEntrySearchIndex urlEntrySearchIndex;
+    private StoredChunkReader storedChunkReader;
+    private KeywordSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        urlEntryRepository = mock(UrlEntryRepository.class);
+        urlEntrySearchIndex = mock(UrlEntrySearchIndex.class);
+        storedChunkReader = mock(StoredChunkReader.class);
+        service = new KeywordSearchService(urlEntryRepository, urlEntrySearchIndex, storedChunkReader,
+                new SimpleMeterRegistry(), 20, true);
+    }
+
+    @Test
+    void searchUrls_usesSubstringSearchUntilIndexIsReady() {
+        when(urlEntryRepository.searchBySubstring("%example%", 5)).thenReturn(List.of(entry("abc", "https://example.com")));
+
+        List<Document> results = service.searchUrls("example", 5);
+
+        assertEquals(List.of("url:abc"), results.stream().map(Document::getId).toList());
+        verify(urlEntryRepository, never()).searchByKeywords(anyString(), anyInt());
+    }
+
+    @Test
+    void searchUrls_usesFulltextSearchWhenIndexExists() {
+        when(urlEntrySearchIndex.exists()).thenReturn(true);
+        when(urlEntryRepository.searchByKeywords("example", 20)).thenReturn(List.of(entry("abc", "https://example.com")));
+
+        service.prepareUrlSearchIndex();
+        List<Document> results = service.searchUrls("example", 50);
+
+        assertEquals(1, results.size());
+        verify(urlEntryRepository, never()).searchBySubstring(anyString(), anyInt());
+    }
+
+    @Test
+    void searchUrls_fallsBackToSubstringSearchWhenFulltextFails() {
+        when(urlEntrySearchIndex.exists()).thenReturn(true);
+        when(urlEntryRepository.searchByKeywords(anyString(), anyInt()))
+                .thenThrow(new InvalidDataAccessResourceUsageException("Can't find FULLTEXT index"));
+        when(urlEntryRepository.searchBySubstring("%example%", 5)).thenReturn(List.of(entry("abc", "https://example.com")));
+
+        service.prepareUrlSearchIndex();
+
+        assertEquals(1, service.searchUrls("example", 5).size());
+        assertFalse(service.isFulltextAvailable());
+        assertEquals(1, service.searchUrls("example", 5).size());
+        verify(urlEntryRepository, times(1)).searchByKeywords(anyString(), anyInt());
+    }
+
+    @Test
+    void createUrlSearchIndex_switchesToFulltextSearch() {
+        service.createUrlSearchIndex();
+
+        verify(urlEntrySearchIndex).create();
+        assertTrue(service.isFulltextAvailable());
+    }
+
+    @Test
+    void createUrlSearchIndex_keepsSubstringSearchWhenCreationFails() {
+        doThrow(new InvalidDataAccessResourceUsageException("denied")).when(urlEntrySearchIndex).create();
+
+        service.createUrlSearchIndex();
+
+        assertFalse(service.isFulltextAvailable());
+    }
+
+    @Test
+    void refreshChunkIndex_addsStoredChunksAndDropsRemovedOnes() {
+        service.indexDocuments(List.of(new Document("deleted-elsewhere", "obsolete warranty terms", Map.of())));
+        stored(List.of(new Document("chunk-1", "warranty covers two years", Map.of()),
+                new Document("chunk-2", "shipping takes three days", Map.of())));
+
+        service.refreshChunkIndex();
+
+        assertEquals(List.of("chunk-1"), service.searchDocuments("warranty", 5).stream().map(Document::getId).toList());
+        assertEquals(List.of("chunk-2"), service.searchDocuments("shipping", 5).stream().map(Document::getId).toList());
+    }
+
+    @Test
+    void refreshChunkIndex_keepsIndexWhenStoreCannotBeListed() {
+        service.indexDocuments(List.of(new Document("chunk-1", "warranty covers two years", Map.of())));
+        when(storedChunkReader.forEachPage(any())).thenReturn(false);
+
+        service.refreshChunkIndex();
+
+        assertEquals(1, service.searchDocuments("warranty", 5).size());
+    }
+
+    @Test
+    void likePattern_escapesWildcards() {
+        assertEquals("%50\\%\\_off\\\\%", KeywordSearchService.likePattern("50%_off\\"));
+    }
+
+    private void stored(List<Document> chunks) {
+        when(storedChunkReader.forEachPage(any())).thenAnswer(invocation -> {
+            invocation.<Consumer<List<Document>>>getArgument(0).accept(chunks);
+            return true;
+        });
+    }
+
+    private static UrlEntry entry(String shortUrl, String longUrl) {
+        UrlEntry entry = new UrlEntry();
+        entry.setShortUrl(shortUrl);
+        entry.setLongUrl(longUrl);
+        entry.setCreatedAt(LocalDateTime.now());
+        return entry;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.springmcp.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.reader.ExtractedTextFormatter;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfPageWindowReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_returnsOnlyPagesInWindow() throws IOException {
+        Path file = writePdf(10, -1);
+
+        try (PdfPageWindowReader reader = PdfPageWindowReader.open(new FileSystemResource(file), ExtractedTextFormatter.defaults())) {
+            assertEquals(10, reader.getPageCount());
+
+            List<Document> pages = reader.read(4, 6);
+
+            assertEquals(List.of(4, 5, 6), pages.stream()
+                    .map(page -> page.getMetadata().get(PdfPageWindowReader.METADATA_PAGE_NUMBER))
+                    .toList());
+            assertTrue(pages.get(0).getContent().contains("Page 4 text"));
+            assertFalse(pages.get(0).getContent().contains("Page 5 text"));
+            assertEquals("manual.pdf", pages.get(0).getMetadata().get(PdfPageWindowReader.METADATA_FILE_NAME));
+        }
+    }
+
+    @Test
+    void read_skipsBlankPagesAndAcceptsInMemoryResources() throws IOException {
+        byte[] bytes = Files.readAllBytes(writePdf(3, 2));
+        ByteArrayResource resource = new ByteArrayResource(bytes) {
+            @Override
+            public String getFilename() {
+                return "upload.pdf";
+            }
+        };
+
+        try (PdfPageWindowReader reader = PdfPageWindowReader.open(resource, ExtractedTextFormatter.defaults())) {
+            List<Document> pages = reader.read(1, reader.getPageCount());
+
+            assertEquals(List.of(1, 3), pages.stream()
+                    .map(page -> page.getMetadata().get(PdfPageWindowReader.METADATA_PAGE_NUMBER))
+                    .toList());
+        }
+    }
+
+    private Path writePdf(int pageCount, int blankPage) throws IOException {
+        Path file = directory.resolve("manual.pdf");
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int number = 1; number <= pageCount; number++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                if (number == blankPage) {
+                    continue;
+                }
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("Page " + number + " text");
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+}
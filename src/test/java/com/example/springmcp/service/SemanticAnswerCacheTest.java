@@ -0,0 +1,83 @@
+package com.example.springmcp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SemanticAnswerCacheTest {
+
+    private EmbeddingModel embeddingModel;
+    private SemanticAnswerCache cache;
+
+    @BeforeEach
+    void setUp() {
+        embeddingModel = mock(EmbeddingModel.class);
+        when(embeddingModel.embed("What is Spring AI?")).thenReturn(List.of(1.0, 0.0, 0.0));
+        when(embeddingModel.embed("what is spring ai")).thenReturn(List.of(0.99, 0.05, 0.0));
+        when(embeddingModel.embed("How do I deploy?")).thenReturn(List.of(0.0, 1.0, 0.0));
+        cache = new SemanticAnswerCache(embeddingModel, new SimpleMeterRegistry(), true, 0.95, Duration.ofMinutes(10), 100);
+    }
+
+    @Test
+    void find_returnsAnswerForNearIdenticalQuestion() {
+        cache.put("chat", cache.embedQuestion("What is Spring AI?"), List.of(), Map.of("response", "A framework"));
+
+        assertEquals("A framework",
+                cache.find("chat", cache.embedQuestion("what is spring ai"), List.of()).orElseThrow().get("response"));
+        assertTrue(cache.find("chat", cache.embedQuestion("How do I deploy?"), List.of()).isEmpty());
+        // 종류가 다르면 공유하지 않음
+        assertTrue(cache.find("rag", cache.embedQuestion("what is spring ai"), List.of()).isEmpty());
+    }
+
+    @Test
+    void find_requiresSameRetrievedDocuments() {
+        float[] question = cache.embedQuestion("What is Spring AI?");
+        cache.put("rag", question, List.of(chunk("chunk-1", "guide"), chunk("chunk-2", "guide")), Map.of("response", "A framework"));
+
+        assertTrue(cache.find("rag", question, List.of(chunk("chunk-2", "guide"), chunk("chunk-1", "guide"))).isPresent());
+        assertTrue(cache.find("rag", question, List.of(chunk("chunk-1", "guide"), chunk("chunk-3", "guide"))).isEmpty());
+    }
+
+    @Test
+    void invalidateSources_dropsAnswersBasedOnAnyChunkOfTheDocument() {
+        float[] question = cache.embedQuestion("What is Spring AI?");
+        List<Document> retrieved = List.of(chunk("chunk-1", "guide"), chunk("chunk-2", "faq"));
+        cache.put("rag", question, retrieved, Map.of("response", "old"));
+
+        // 다시 수집한 문서의 청크는 ID 가 달라도 같은 원본 문서로 무효화됨
+        cache.invalidateSources(SemanticAnswerCache.sourceIds(List.of(chunk("chunk-9", "faq"))));
+
+        assertTrue(cache.find("rag", question, retrieved).isEmpty());
+    }
+
+    @Test
+    void sourceIds_fallsBackToChunkIdWithoutDocumentId() {
+        Document urlMapping = new Document("url:abc", "URL Mapping", Map.of("type", "url_mapping"));
+
+        assertEquals(Set.of("guide", "url:abc"), SemanticAnswerCache.sourceIds(List.of(chunk("chunk-1", "guide"), urlMapping)));
+    }
+
+    @Test
+    void embedQuestion_returnsNullWhenDisabled() {
+        SemanticAnswerCache disabled =
+                new SemanticAnswerCache(embeddingModel, new SimpleMeterRegistry(), false, 0.95, Duration.ofMinutes(10), 100);
+
+        assertNull(disabled.embedQuestion("What is Spring AI?"));
+        assertTrue(disabled.find("chat", null, List.of()).isEmpty());
+        verifyNoInteractions(embeddingModel);
+    }
+
+    private static Document chunk(String id, String documentId) {
+        return new Document(id, "content of " + id, Map.of(ChunkManifest.DOCUMENT_ID, documentId));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.springmcp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SemanticSearchServiceTest {
+
+    private static final Duration DEADLINE = Duration.ofMillis(200);
+
+    private final VectorStore vectorStore = mock(VectorStore.class);
+    private SemanticSearchService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void searchConcurrently_returnsPartialResultsAndInterruptsSlowSearch() throws InterruptedException {
+        service = service(4);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(invocation -> {
+            SearchRequest request = invocation.getArgument(0);
+            if (request.getQuery().equals("slow")) {
+                blockUntilInterrupted(interrupted);
+            }
+            return List.of(new Document(request.getQuery(), Map.of()));
+        });
+        Queue<List<Document>> rankings = new ConcurrentLinkedQueue<>();
+        Map<String, Double> queryScores = new ConcurrentHashMap<>();
+
+        long start = System.nanoTime();
+        service.searchConcurrently("fast", queries("fast", "slow"), new SemanticSearchService.SearchConfiguration(),
+                rankings, queryScores);
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(Set.of("fast"), queryScores.keySet());
+        assertEquals(1, rankings.size());
+        assertTrue(elapsed < TimeUnit.SECONDS.toNanos(2), "search must return at the deadline");
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "the slow search must be interrupted after the deadline");
+    }
+
+    @Test
+    void searchConcurrently_doesNotWaitForPermitsPastDeadline() {
+        service = service(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(invocation -> {
+            blockUntilInterrupted(interrupted);
+            return List.of();
+        });
+
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> service.searchConcurrently("a", queries("a", "b", "c"),
+                new SemanticSearchService.SearchConfiguration(), new ConcurrentLinkedQueue<>(), new ConcurrentHashMap<>()));
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(elapsed < TimeUnit.SECONDS.toNanos(2), "waiting for a permit must be bounded by the deadline");
+    }
+
+    @Test
+    void searchConcurrently_releasesPermitsOfInterruptedSearches() throws InterruptedException {
+        service = service(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(invocation -> {
+            blockUntilInterrupted(interrupted);
+            return List.of();
+        });
+        assertThrows(IllegalStateException.class, () -> service.searchConcurrently("a", queries("a"),
+                new SemanticSearchService.SearchConfiguration(), new ConcurrentLinkedQueue<>(), new ConcurrentHashMap<>()));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+        reset(vectorStore);
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of(new Document("b", Map.of())));
+        Map<String, Double> queryScores = new ConcurrentHashMap<>();
+        service.searchConcurrently("b", queries("b"), new SemanticSearchService.SearchConfiguration(),
+                new ConcurrentLinkedQueue<>(), queryScores);
+
+        assertEquals(Set.of("b"), queryScores.keySet());
+    }
+
+    private SemanticSearchService service(int maxConcurrentSearches) {
+        ChatClient.Builder builder = mock(ChatClient.Builder.class);
+        when(builder.defaultOptions(any())).thenReturn(builder);
+        when(builder.build()).thenReturn(mock(ChatClient.class));
+        return new SemanticSearchService(vectorStore, mock(EmbeddingModel.class), mock(KeywordSearchService.class),
+                mock(RequestCoalescer.class), builder, DEADLINE, maxConcurrentSearches);
+    }
+
+    private static Set<String> queries(String... queries) {
+        return new LinkedHashSet<>(List.of(queries));
+    }
+
+    private static void blockUntilInterrupted(CountDownLatch interrupted) throws InterruptedException {
+        try {
+            new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+            throw e;
+        }
+    }
+}
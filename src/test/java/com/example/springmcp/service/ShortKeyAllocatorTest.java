@@ -0,0 +1,52 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.model.ShortKeySequence;
+import com.example.springmcp.repository.ShortKeySequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ShortKeyAllocatorTest {
+
+    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private ShortKeySequenceRepository sequenceRepository;
+    private ShortKeyAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        sequenceRepository = mock(ShortKeySequenceRepository.class);
+        allocator = new ShortKeyAllocator(sequenceRepository, mock(PlatformTransactionManager.class),
+                ALPHANUMERIC, 6, "test-secret", 100);
+    }
+
+    @Test
+    void nextSequence_reservesBlocksFromSequenceRow() {
+        ShortKeySequence sequence = new ShortKeySequence(ShortKeyAllocator.SEQUENCE_NAME, 500);
+        when(sequenceRepository.findForUpdate(ShortKeyAllocator.SEQUENCE_NAME)).thenReturn(Optional.of(sequence));
+
+        assertEquals(500, allocator.nextSequence());
+        assertEquals(501, allocator.nextSequence());
+        assertEquals(600, sequence.getNextValue());
+    }
+
+    @Test
+    void nextSequence_retriesWhenAnotherNodeCreatedTheRowFirst() {
+        ShortKeySequence created = new ShortKeySequence(ShortKeyAllocator.SEQUENCE_NAME, 100);
+        when(sequenceRepository.findForUpdate(ShortKeyAllocator.SEQUENCE_NAME))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(created));
+        when(sequenceRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("Duplicate entry 'url_entry'"));
+
+        assertEquals(100, allocator.nextSequence());
+        assertEquals(200, created.getNextValue());
+        verify(sequenceRepository, times(1)).saveAndFlush(any());
+    }
+}
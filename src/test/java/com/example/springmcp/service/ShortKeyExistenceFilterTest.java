@@ -0,0 +1,74 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.repository.UrlEntryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ShortKeyExistenceFilterTest {
+
+    private UrlEntryRepository urlEntryRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private ShortKeyExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        urlEntryRepository = mock(UrlEntryRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ShortKeyExistenceFilter(urlEntryRepository, meterRegistry, 100, 0.01,
+                Duration.ofSeconds(30), 1000, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void mightExist_letsEveryKeyThroughUntilLoaded() {
+        assertTrue(filter.mightExist("unknown"));
+        verifyNoInteractions(urlEntryRepository);
+    }
+
+    @Test
+    void load_warmsFilterFromRepository() {
+        List<String> stored = IntStream.range(0, 1000).mapToObj(i -> "key" + i).toList();
+        when(urlEntryRepository.streamAllShortUrls()).thenReturn(stored.stream());
+
+        filter.load();
+
+        assertTrue(stored.stream().allMatch(filter::mightExist));
+        long rejected = IntStream.range(0, 10_000).mapToObj(i -> "missing" + i).filter(key -> !filter.mightExist(key)).count();
+        assertTrue(rejected >= 9_800, "rejected " + rejected);
+        assertEquals(1000.0, meterRegistry.get("url_key_filter_elements").gauge().value());
+    }
+
+    @Test
+    void syncRecentKeys_addsKeysFromOtherNodesOnlyOnce() {
+        when(urlEntryRepository.streamAllShortUrls()).thenReturn(List.of("local").stream());
+        filter.load();
+        when(urlEntryRepository.findShortUrlsCreatedSince(any())).thenReturn(List.of("remote"));
+
+        // 동기화 구간이 겹쳐 같은 키가 여러 번 돌아와도 원소 수는 한 번만 늘어남
+        filter.syncRecentKeys();
+        filter.syncRecentKeys();
+
+        assertTrue(filter.mightExist("remote"));
+        assertEquals(2.0, meterRegistry.get("url_key_filter_elements").gauge().value());
+    }
+
+    @Test
+    void recordMiss_rejectsKeyUntilRegistered() {
+        when(urlEntryRepository.streamAllShortUrls()).thenReturn(List.of("key").stream());
+        filter.load();
+
+        filter.recordMiss("key");
+        assertFalse(filter.mightExist("key"));
+
+        filter.register("key");
+        assertTrue(filter.mightExist("key"));
+    }
+}
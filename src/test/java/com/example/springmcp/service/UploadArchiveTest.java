@@ -0,0 +1,78 @@
+package com.example.springmcp.service;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadArchiveTest {
+
+    private static final Map<String, String> FILES = Map.of(
+            "manuals/install.pdf", "%PDF install",
+            "notes.txt", "release notes");
+
+    @Test
+    void forEachEntry_readsZipEntriesAndSkipsHiddenFilesAndNestedArchives() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("manuals/"));
+            for (Map.Entry<String, String> file : FILES.entrySet()) {
+                putZipEntry(zip, file.getKey(), file.getValue());
+            }
+            putZipEntry(zip, "__MACOSX/._notes.txt", "resource fork");
+            putZipEntry(zip, "nested.zip", "PK");
+        }
+
+        assertEquals(FILES, read("documents.zip", bytes.toByteArray()));
+    }
+
+    @Test
+    void forEachEntry_readsGzippedTarEntries() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GZIPOutputStream(bytes))) {
+            for (Map.Entry<String, String> file : FILES.entrySet()) {
+                byte[] content = file.getValue().getBytes(StandardCharsets.UTF_8);
+                TarArchiveEntry entry = new TarArchiveEntry(file.getKey());
+                entry.setSize(content.length);
+                tar.putArchiveEntry(entry);
+                tar.write(content);
+                tar.closeArchiveEntry();
+            }
+        }
+
+        assertEquals(FILES, read("documents.tar.gz", bytes.toByteArray()));
+    }
+
+    @Test
+    void isArchive_recognizesZipAndTarNames() {
+        assertTrue(UploadArchive.isArchive("Documents.ZIP"));
+        assertTrue(UploadArchive.isArchive("documents.tgz"));
+        assertTrue(UploadArchive.isArchive("documents.tar"));
+        assertFalse(UploadArchive.isArchive("manual.pdf"));
+        assertFalse(UploadArchive.isArchive(null));
+    }
+
+    private static Map<String, String> read(String filename, byte[] archive) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        UploadArchive.forEachEntry(filename, new ByteArrayInputStream(archive),
+                (name, content) -> entries.put(name, new String(content.readAllBytes(), StandardCharsets.UTF_8)));
+        return entries;
+    }
+
+    private static void putZipEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
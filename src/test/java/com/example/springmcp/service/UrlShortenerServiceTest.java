@@ -4,13 +4,12 @@ import com.example.springmcp.exception.DuplicateKeyException;
 import com.example.springmcp.exception.UrlNotFoundException;
 import com.example.springmcp.model.UrlEntry;
 import com.example.springmcp.repository.UrlEntryRepository;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,30 +20,46 @@ class UrlShortenerServiceTest {
     @Mock
     private UrlEntryRepository urlEntryRepository;
 
+    @Mock
+    private ShortKeyAllocator shortKeyAllocator;
+
+    @Mock
+    private RedirectCache redirectCache;
+
     @InjectMocks
     private UrlShortenerService urlShortenerService;
 
-    @BeforeEach
-    void setUp() {
-        // Set @Value fields using ReflectionTestUtils
-        ReflectionTestUtils.setField(urlShortenerService, "keyLength", 6);
-        ReflectionTestUtils.setField(urlShortenerService, "alphanumeric", "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789");
-    }
-
     @Test
     void shortenUrl_generatesUniqueKeyAndSaves() {
         String longUrl = "https://www.example.com";
         UrlEntry expectedUrlEntry = new UrlEntry("short1", longUrl);
 
-        when(urlEntryRepository.findByShortUrl(anyString())).thenReturn(null); // Ensure key is unique
+        when(shortKeyAllocator.nextKey()).thenReturn("qh6ALU");
         when(urlEntryRepository.save(any(UrlEntry.class))).thenReturn(expectedUrlEntry);
 
         UrlEntry result = urlShortenerService.shortenUrl(longUrl);
 
         assertNotNull(result);
         assertEquals(longUrl, result.getLongUrl());
-        assertNotNull(result.getShortUrl());
+        assertEquals("qh6ALU", result.getShortUrl());
         verify(urlEntryRepository, times(1)).save(any(UrlEntry.class));
+        verify(urlEntryRepository, never()).findByShortUrl(anyString());
+        verify(redirectCache).put("qh6ALU", longUrl);
+    }
+
+    @Test
+    void shortenUrl_generatedKeyCollidingWithCustomKey_retriesWithNextKey() {
+        String longUrl = "https://www.example.com";
+
+        when(shortKeyAllocator.nextKey()).thenReturn("qh6ALU", "KxvoS5");
+        when(urlEntryRepository.save(any(UrlEntry.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate short_url"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        UrlEntry result = urlShortenerService.shortenUrl(longUrl);
+
+        assertEquals("KxvoS5", result.getShortUrl());
+        verify(urlEntryRepository, times(2)).save(any(UrlEntry.class));
     }
 
     @Test
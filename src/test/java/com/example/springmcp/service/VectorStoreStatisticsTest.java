@@ -0,0 +1,95 @@
+package com.example.springmcp.service;
+
+import com.example.springmcp.repository.HnswVectorStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VectorStoreStatisticsTest {
+
+    private HnswVectorStore vectorStore;
+    private ChunkManifest chunkManifest;
+    private SimpleMeterRegistry meterRegistry;
+    private VectorStoreStatistics statistics;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        vectorStore = mock(HnswVectorStore.class);
+        chunkManifest = mock(ChunkManifest.class);
+        meterRegistry = new SimpleMeterRegistry();
+        statistics = new VectorStoreStatistics(vectorStore, mock(ObjectProvider.class), chunkManifest, meterRegistry,
+                "SpringAiCollection", 4, 100);
+    }
+
+    @Test
+    void recordAddedAndRemoved_updateGaugesWithoutQueryingTheStore() {
+        statistics.recordAdded(List.of(chunk("manual"), chunk("manual"), chunk(null)));
+        statistics.recordRemoved(1, Map.of("manual", 1L));
+
+        assertEquals(2, statistics.getDocumentCount());
+        assertEquals(Map.of("manual", 1L, ChunkManifest.UNCATEGORIZED, 1L), statistics.getCategoryCounts());
+        assertEquals(2 * 4 * Float.BYTES, statistics.getVectorBytes());
+        assertEquals(2.0, meterRegistry.get("vector_store_documents").tag("collection", "local").gauge().value());
+        assertEquals(1.0, meterRegistry.get("vector_store_category_documents").tag("category", "manual").gauge().value());
+        verifyNoInteractions(vectorStore, chunkManifest);
+    }
+
+    @Test
+    void reconcile_replacesDriftedCountsWithStoreAndManifestCounts() {
+        statistics.recordAdded(List.of(chunk("manual"), chunk("faq")));
+        when(vectorStore.size()).thenReturn(5);
+        when(vectorStore.getDimensions()).thenReturn(8);
+        when(vectorStore.indexSizeInBytes()).thenReturn(4096L);
+        when(chunkManifest.countByCategory()).thenReturn(Map.of("manual", 3L));
+
+        statistics.reconcile();
+
+        // 목록에 없는 청크는 untracked 로 세고, 다른 노드에서 지워진 faq 는 빠짐
+        assertEquals(5, statistics.getDocumentCount());
+        assertEquals(Map.of("manual", 3L, VectorStoreStatistics.UNTRACKED, 2L), statistics.getCategoryCounts());
+        assertEquals(5 * 8 * Float.BYTES, statistics.getVectorBytes());
+        assertEquals(4096, statistics.getIndexBytes());
+        assertNotNull(statistics.getReconciledAt());
+    }
+
+    @Test
+    void recordRemoved_takesChunksMissingFromManifestOutOfUntracked() {
+        when(vectorStore.size()).thenReturn(3);
+        when(chunkManifest.countByCategory()).thenReturn(Map.of("manual", 1L));
+        statistics.reconcile();
+
+        statistics.recordRemoved(2, Map.of("manual", 1L));
+
+        assertEquals(1, statistics.getDocumentCount());
+        assertEquals(Map.of(VectorStoreStatistics.UNTRACKED, 1L), statistics.getCategoryCounts());
+    }
+
+    @Test
+    void reconcile_keepsPreviousValuesWhenStoreCannotBeCounted() {
+        statistics.recordAdded(List.of(chunk("manual")));
+        when(chunkManifest.countByCategory()).thenThrow(new IllegalStateException("database unavailable"));
+
+        statistics.reconcile();
+
+        assertEquals(1, statistics.getDocumentCount());
+        assertNull(statistics.getReconciledAt());
+    }
+
+    private static Document chunk(String category) {
+        Map<String, Object> metadata = new HashMap<>();
+        if (category != null) {
+            metadata.put(ChunkManifest.CATEGORY, category);
+        }
+        return new Document("chunk text", metadata);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.springmcp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void start_recordsVirtualThreadBlockedInsideSynchronized() throws Exception {
+        // Java 21 에서는 synchronized 안에서 블로킹하면 캐리어 스레드에 고정됨
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // JFR 스트림은 약 1초마다 이벤트를 내보냄
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pinnedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertTrue(pinnedCount() >= 1);
+        assertTrue(meterRegistry.get("jvm_virtual_thread_pinned_duration").timer()
+                .totalTime(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    private double pinnedCount() {
+        return meterRegistry.get("jvm_virtual_thread_pinned_total").counter().count();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.springmcp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void tryAcquire_rejectsBeyondLimitUntilReleased() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 100, TimeUnit.MILLISECONDS, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInflight());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void release_growsLimitAdditivelyWhenBusyAndFast() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 5, 100, TimeUnit.MILLISECONDS, 0.5);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        limiter.release(FAST, false);
+        assertEquals(5, limiter.getLimit());
+        // 최대 한도를 넘지 않음
+        limiter.release(FAST, false);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void release_doesNotGrowLimitWhileMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 100, TimeUnit.MILLISECONDS, 0.5);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void release_backsOffMultiplicativelyOnSlowOrFailedRequests() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 3, 100, 100, TimeUnit.MILLISECONDS, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertEquals(8, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(4, limiter.getLimit());
+
+        // 최소 한도 아래로 내려가지 않음
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    void constructor_rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(0, 0, 10, 100, TimeUnit.MILLISECONDS, 0.5));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(20, 1, 10, 100, TimeUnit.MILLISECONDS, 0.5));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(5, 1, 10, 100, TimeUnit.MILLISECONDS, 1.0));
+    }
+}
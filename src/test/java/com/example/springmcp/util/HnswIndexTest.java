@@ -0,0 +1,151 @@
+package com.example.springmcp.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 16;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void search_findsExactNearestNeighbourForMostQueries() {
+        Random random = new Random(1);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100);
+        for (int i = 0; i < 2000; i++) {
+            index.add(randomVector(random));
+        }
+
+        int found = 0;
+        for (int q = 0; q < 100; q++) {
+            float[] query = randomVector(random);
+            if (index.search(query, 1, 64, id -> true).get(0).getId() == bruteForceNearest(index, query)) {
+                found++;
+            }
+        }
+        assertTrue(found >= 95, "recall@1 was " + found + "%");
+    }
+
+    @Test
+    void search_returnsResultsInDescendingSimilarity() {
+        HnswIndex index = new HnswIndex(2, 4, 16);
+        index.add(new float[]{1, 0});
+        index.add(new float[]{0, 1});
+        index.add(new float[]{1, 1});
+
+        List<HnswIndex.Result> results = index.search(new float[]{1, 0.1f}, 3, 10, id -> true);
+
+        assertEquals(List.of(0, 2, 1), results.stream().map(HnswIndex.Result::getId).toList());
+        assertEquals(1.0f, index.search(new float[]{2, 0}, 1, 10, id -> true).get(0).getSimilarity(), 1e-6);
+    }
+
+    @Test
+    void search_skipsDeletedAndRejectedNodes() {
+        Random random = new Random(2);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        float[][] vectors = new float[500][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random);
+            index.add(vectors[i]);
+        }
+
+        index.markDeleted(42);
+        assertNotEquals(42, index.search(vectors[42], 1, 32, id -> true).get(0).getId());
+
+        List<HnswIndex.Result> even = index.search(vectors[7], 10, 32, id -> id % 2 == 0);
+        assertEquals(10, even.size());
+        assertTrue(even.stream().allMatch(result -> result.getId() % 2 == 0));
+    }
+
+    @Test
+    void snapshot_restoresSameGraphAndVectors() throws IOException {
+        Random random = new Random(3);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        for (int i = 0; i < 1500; i++) {
+            index.add(randomVector(random));
+        }
+        index.markDeleted(10);
+        Path file = directory.resolve("index.hnsw");
+        index.snapshot(file);
+
+        HnswIndex restored = HnswIndex.restore(file);
+
+        assertEquals(index.size(), restored.size());
+        assertEquals(Files.size(file), index.sizeInBytes());
+        assertTrue(restored.isDeleted(10));
+        assertArrayEquals(index.vector(1234), restored.vector(1234));
+        float[] query = randomVector(random);
+        assertEquals(index.search(query, 5, 32, id -> true).stream().map(HnswIndex.Result::getId).toList(),
+                restored.search(query, 5, 32, id -> true).stream().map(HnswIndex.Result::getId).toList());
+    }
+
+    @Test
+    void add_isSafeWhileSearching() throws Exception {
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        index.add(randomVector(new Random(4)));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                Random random = new Random(5);
+                for (int i = 0; i < 3000; i++) {
+                    index.add(randomVector(random));
+                }
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int reader = 0; reader < 3; reader++) {
+                long seed = reader;
+                readers.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    while (!writer.isDone()) {
+                        assertFalse(index.search(randomVector(random), 5, 32, id -> true).isEmpty());
+                    }
+                    return null;
+                }));
+            }
+            writer.get(30, TimeUnit.SECONDS);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(3001, index.size());
+    }
+
+    private static int bruteForceNearest(HnswIndex index, float[] query) {
+        float[] normalized = HnswIndex.normalize(query);
+        int best = -1;
+        float bestSimilarity = Float.NEGATIVE_INFINITY;
+        for (int id = 0; id < index.size(); id++) {
+            float similarity = index.similarity(normalized, id);
+            if (similarity > bestSimilarity) {
+                best = id;
+                bestSimilarity = similarity;
+            }
+        }
+        return best;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
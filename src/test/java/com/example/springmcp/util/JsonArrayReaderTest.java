@@ -0,0 +1,63 @@
+package com.example.springmcp.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonArrayReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void next_readsElementsInOrderIncludingNulls() throws IOException {
+        try (JsonArrayReader<Map> reader = reader("[{\"a\":1}, null, {\"a\":3}]", 10)) {
+            List<Map> items = new ArrayList<>();
+            reader.forEachRemaining(items::add);
+
+            assertEquals(Arrays.asList(Map.of("a", 1), null, Map.of("a", 3)), items);
+            assertEquals(3, reader.getItemsRead());
+        }
+    }
+
+    @Test
+    void hasNext_rejectsNonArrayBody() throws IOException {
+        try (JsonArrayReader<Map> reader = reader("{\"a\":1}", 10)) {
+            assertThrows(JsonArrayReader.MalformedArrayException.class, reader::hasNext);
+        }
+    }
+
+    @Test
+    void hasNext_stopsAtMaxItemsAfterReturningEarlierItems() throws IOException {
+        try (JsonArrayReader<Map> reader = reader("[{\"a\":1}, {\"a\":2}, {\"a\":3}]", 2)) {
+            assertEquals(Map.of("a", 1), reader.next());
+            assertEquals(Map.of("a", 2), reader.next());
+
+            assertThrows(JsonArrayReader.MalformedArrayException.class, reader::hasNext);
+            assertEquals(2, reader.getItemsRead());
+        }
+    }
+
+    @Test
+    void hasNext_reportsTruncatedArray() throws IOException {
+        try (JsonArrayReader<Map> reader = reader("[{\"a\":1}, {\"a\":", 10)) {
+            assertEquals(Map.of("a", 1), reader.next());
+
+            assertThrows(JsonArrayReader.MalformedArrayException.class, reader::next);
+            assertEquals(1, reader.getItemsRead());
+        }
+    }
+
+    private JsonArrayReader<Map> reader(String json, int maxItems) throws IOException {
+        return new JsonArrayReader<>(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                objectMapper, Map.class, maxItems);
+    }
+}
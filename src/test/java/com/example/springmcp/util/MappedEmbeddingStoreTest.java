@@ -0,0 +1,58 @@
+package com.example.springmcp.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedEmbeddingStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void put_persistsVectorsAcrossReopen() throws IOException {
+        Path file = directory.resolve("embeddings.bin");
+        try (MappedEmbeddingStore store = new MappedEmbeddingStore(file, 3, 1 << 20)) {
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(store.put(EmbeddingKey.of("model", "text " + i), new float[]{i, i + 0.5f, -i}));
+            }
+            assertFalse(store.put(EmbeddingKey.of("model", "text 1"), new float[]{0, 0, 0}));
+        }
+
+        try (MappedEmbeddingStore store = new MappedEmbeddingStore(file, 3, 1 << 20)) {
+            assertEquals(1000, store.size());
+            assertArrayEquals(new float[]{777, 777.5f, -777}, store.get(EmbeddingKey.of("model", "text 777")));
+            assertNull(store.get(EmbeddingKey.of("other-model", "text 777")));
+            assertTrue(store.put(EmbeddingKey.of("model", "text 1000"), new float[]{1, 2, 3}));
+            assertEquals(1001, store.size());
+        }
+    }
+
+    @Test
+    void put_stopsAtMaximumSize() throws IOException {
+        // 헤더 16바이트 + 레코드(20 + 2 * 4 바이트) 2개
+        try (MappedEmbeddingStore store = new MappedEmbeddingStore(directory.resolve("small.bin"), 2, 16 + 28 * 2)) {
+            assertTrue(store.put(EmbeddingKey.of("model", "a"), new float[]{1, 2}));
+            assertTrue(store.put(EmbeddingKey.of("model", "b"), new float[]{3, 4}));
+            assertFalse(store.put(EmbeddingKey.of("model", "c"), new float[]{5, 6}));
+            assertArrayEquals(new float[]{3, 4}, store.get(EmbeddingKey.of("model", "b")));
+        }
+    }
+
+    @Test
+    void constructor_resetsFileWithDifferentDimensions() throws IOException {
+        Path file = directory.resolve("embeddings.bin");
+        try (MappedEmbeddingStore store = new MappedEmbeddingStore(file, 2, 1 << 20)) {
+            store.put(EmbeddingKey.of("model", "a"), new float[]{1, 2});
+        }
+
+        try (MappedEmbeddingStore store = new MappedEmbeddingStore(file, 4, 1 << 20)) {
+            assertEquals(0, store.size());
+            assertThrows(IllegalArgumentException.class, () -> store.put(EmbeddingKey.of("model", "a"), new float[]{1, 2}));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.springmcp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscRingBufferTest {
+
+    @Test
+    void offer_returnsFalseWhenFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, buffer.drain(drained::add, 10));
+        assertEquals(List.of(0, 1, 2, 3), drained);
+        assertTrue(buffer.offer(5));
+    }
+
+    @Test
+    void drain_deliversEveryElementOnceInPerProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<Long> buffer = new MpscRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p << 32;
+            executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        long[] last = new long[producers];
+        Arrays.fill(last, -1);
+        long[] received = {0};
+        while (done.getCount() > 0 || buffer.size() > 0) {
+            buffer.drain(value -> {
+                int producer = (int) (value >>> 32);
+                long sequence = value & 0xFFFFFFFFL;
+                assertEquals(last[producer] + 1, sequence);
+                last[producer] = sequence;
+                received[0]++;
+            }, 256);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals((long) producers * perProducer, received[0]);
+    }
+
+    @Test
+    void constructor_rejectsNonPowerOfTwoCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<>(1000));
+    }
+}
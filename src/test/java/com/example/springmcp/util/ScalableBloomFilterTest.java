@@ -0,0 +1,57 @@
+package com.example.springmcp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalableBloomFilterTest {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void mightContain_hasNoFalseNegativesAfterGrowth() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, FALSE_POSITIVE_RATE);
+
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("key-" + i);
+        }
+
+        assertTrue(filter.stageCount() > 1);
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("key-" + i), "key-" + i);
+        }
+    }
+
+    @Test
+    void mightContain_keepsObservedFalsePositiveRateNearTarget() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1000, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("key-" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("missing-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed <= FALSE_POSITIVE_RATE * 1.5, "observed false positive rate " + observed);
+    }
+
+    @Test
+    void put_countsEveryInsertIncludingKeysWhoseBitsWereAlreadySet() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(10, FALSE_POSITIVE_RATE);
+
+        for (int i = 0; i < 10; i++) {
+            filter.put("same-key");
+        }
+        assertEquals(10, filter.approximateElementCount());
+
+        // 가득 찬 단계에는 더 넣지 않고 다음 단계를 만듦
+        filter.put("same-key");
+        assertEquals(2, filter.stageCount());
+    }
+}
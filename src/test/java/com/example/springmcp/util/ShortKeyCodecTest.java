@@ -0,0 +1,59 @@
+package com.example.springmcp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortKeyCodecTest {
+
+    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private final ShortKeyCodec codec = new ShortKeyCodec(ALPHANUMERIC, 6, "test-secret");
+
+    @Test
+    void encode_producesDistinctLetterFirstKeysThatDecodeBack() {
+        Set<String> keys = new HashSet<>();
+        for (long sequence = 0; sequence < 100_000; sequence++) {
+            String key = codec.encode(sequence);
+
+            assertEquals(6, key.length());
+            assertTrue(Character.isLetter(key.charAt(0)));
+            assertTrue(key.matches("^[a-zA-Z][a-zA-Z0-9]{5}$"));
+            assertTrue(keys.add(key), "duplicate key for sequence " + sequence);
+            assertEquals(sequence, codec.decode(key));
+        }
+    }
+
+    @Test
+    void encode_isNotSequential() {
+        assertNotEquals(codec.encode(1).substring(0, 5), codec.encode(2).substring(0, 5));
+    }
+
+    @Test
+    void encode_differentSecretsProduceDifferentKeys() {
+        ShortKeyCodec other = new ShortKeyCodec(ALPHANUMERIC, 6, "other-secret");
+        assertNotEquals(codec.encode(42), other.encode(42));
+    }
+
+    @Test
+    void encode_lastSequenceInKeySpaceStillFits() {
+        long last = codec.keySpace() - 1;
+        assertEquals(last, codec.decode(codec.encode(last)));
+        assertThrows(IllegalStateException.class, () -> codec.encode(codec.keySpace()));
+    }
+
+    @Test
+    void isWellFormed_rejectsInvalidKeys() {
+        assertTrue(codec.isWellFormed("abc123"));
+        assertFalse(codec.isWellFormed("1abc23"));
+        assertFalse(codec.isWellFormed("abc12"));
+        assertFalse(codec.isWellFormed("abc12-"));
+        assertFalse(codec.isWellFormed(null));
+        assertTrue(codec.isWellFormed("/abc123", 1));
+        assertFalse(codec.isWellFormed("/abc1234", 1));
+        assertEquals(-1, codec.decode("abc"));
+    }
+}
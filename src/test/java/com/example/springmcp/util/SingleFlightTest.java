@@ -0,0 +1,134 @@
+package com.example.springmcp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    void execute_sharesOneCallAmongConcurrentCallers() throws Exception {
+        CountDownLatch followersWaiting = new CountDownLatch(7);
+        SingleFlight<String, Integer> flight = flight(followersWaiting);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<SingleFlight.Result<Integer>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> flight.execute("same", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return 42;
+                })));
+            }
+            // leader 를 제외한 7개 호출이 모두 leader 의 결과를 기다리는 상태가 된 뒤에 leader 를 끝냄
+            assertTrue(followersWaiting.await(5, TimeUnit.SECONDS));
+            release.countDown();
+
+            int shared = 0;
+            for (Future<SingleFlight.Result<Integer>> result : results) {
+                assertEquals(Integer.valueOf(42), result.get(5, TimeUnit.SECONDS).getValue());
+                shared += result.get().isShared() ? 1 : 0;
+            }
+            assertEquals(1, calls.get());
+            assertEquals(7, shared);
+            assertEquals(0, flight.inFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_propagatesLeaderFailureToFollowers() throws Exception {
+        CountDownLatch followerWaiting = new CountDownLatch(1);
+        SingleFlight<String, Integer> flight = flight(followerWaiting);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> leader = executor.submit(() -> flight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("boom");
+            }));
+            started.await();
+            Future<?> follower = executor.submit(() -> flight.execute("key", () -> 1));
+            assertTrue(followerWaiting.await(5, TimeUnit.SECONDS));
+            release.countDown();
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+            assertInstanceOf(IllegalStateException.class, followerError.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_stopsWaitingForLeaderAfterFollowerTimeout() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<SingleFlight.Result<Integer>> leader = executor.submit(() -> flight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return 1;
+            }));
+            started.await();
+
+            assertThrows(SingleFlight.FollowerTimeoutException.class, () -> flight.execute("key", () -> 2));
+
+            // leader 는 follower 의 시간 초과와 관계없이 끝까지 실행됨
+            release.countDown();
+            assertEquals(Integer.valueOf(1), leader.get(5, TimeUnit.SECONDS).getValue());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_runsAgainOnceTheCallHasFinished() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(TIMEOUT);
+        AtomicInteger calls = new AtomicInteger();
+
+        flight.execute("key", calls::incrementAndGet);
+        SingleFlight.Result<Integer> second = flight.execute("key", calls::incrementAndGet);
+
+        assertEquals(Integer.valueOf(2), second.getValue());
+        assertFalse(second.isShared());
+    }
+
+    private static SingleFlight<String, Integer> flight(CountDownLatch followersWaiting) {
+        return new SingleFlight<>(TIMEOUT) {
+            @Override
+            protected void onFollowerWaiting(String key) {
+                followersWaiting.countDown();
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.springmcp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextStatisticsTest {
+
+    @Test
+    void of_countsWordsAndSentencesInOnePass() {
+        TextStatistics statistics = TextStatistics.of("  Spring AI splits documents. Is pi 3.14?\n\"It is!\" 마지막 문장");
+
+        assertEquals(11, statistics.getWords());
+        assertEquals(4, statistics.getSentences());
+        assertEquals(57, statistics.getChars());
+    }
+
+    @Test
+    void of_countsCjkFullStopsWithoutTrailingSpace() {
+        assertEquals(2, TextStatistics.of("東京です。大阪です。").getSentences());
+        assertEquals(0, TextStatistics.of(" \n\t").getWords());
+        assertEquals(0, TextStatistics.of("").getSentences());
+    }
+
+    @Test
+    void of_hashMatchesSha256OfUtf8Bytes() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            // 버퍼 경계를 넘는 ASCII, 2 / 3 / 4바이트 문자와 짝 없는 서로게이트
+            text.append("page ").append(i).append(" é 한글 😀 ");
+        }
+        text.append('\uD800');
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        String expected = HexFormat.of().formatHex(digest.digest(text.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(expected, TextStatistics.of(text.toString()).getContentHash());
+    }
+
+    @Test
+    void fromMetadata_readsStoredStatisticsAndFallsBackToComputing() {
+        Map<String, Object> metadata = new HashMap<>();
+        TextStatistics.of("One. Two three.").putInto(metadata);
+        metadata.put(TextStatistics.WORD_COUNT, 99);
+
+        assertEquals(99, TextStatistics.fromMetadata(metadata, "One. Two three.").getWords());
+        assertEquals(3, TextStatistics.fromMetadata(Map.of(), "One. Two three.").getWords());
+    }
+}
@@ -38,6 +38,14 @@ class UrlShortenerApi(private val baseUrl: String) {
         return client.get("$BASE_URL/urls").body()
     }
 
+    suspend fun getStats(shortKey: String, minutes: Int = 60, hours: Int = 24, days: Int = 30): UrlStatsResponse {
+        return client.get("$BASE_URL/$shortKey/stats") {
+            parameter("minutes", minutes)
+            parameter("hours", hours)
+            parameter("days", days)
+        }.body()
+    }
+
     suspend fun deleteUrl(shortKey: String) {
         client.delete("$BASE_URL/$shortKey").body<Unit>()
     }
@@ -55,4 +63,29 @@ data class UrlShortenerResponse(
     val longUrl: String,
     val shortUrl: String,
     val createdAt: String // Assuming ISO 8601 string for simplicity
-)
\ No newline at end of file
+)
+
+@Serializable
+data class UrlStatsResponse(
+    val shortKey: String,
+    val longUrl: String,
+    val createdAt: String,
+    val totalClicks: Long,
+    val minutes: List<ClickBucket>,
+    val hours: List<ClickBucket>,
+    val days: List<ClickBucket>,
+    val topReferrers: List<DimensionCount>,
+    val topUserAgents: List<DimensionCount>
+)
+
+@Serializable
+data class ClickBucket(
+    val start: String,
+    val clicks: Long
+)
+
+@Serializable
+data class DimensionCount(
+    val value: String,
+    val clicks: Long
+)